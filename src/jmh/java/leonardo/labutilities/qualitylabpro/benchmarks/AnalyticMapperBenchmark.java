@@ -0,0 +1,56 @@
+package leonardo.labutilities.qualitylabpro.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+import leonardo.labutilities.qualitylabpro.domains.shared.mappers.AnalyticMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticMapperBenchmark {
+
+	@Param({"10", "1000", "100000", "1000000"})
+	private int size;
+
+	private List<AnalyticsDTO> analytics;
+	private List<Analytic> entities;
+
+	@Setup
+	public void setUp() {
+		analytics = BenchmarkData.analytics(size);
+		entities = BenchmarkData.entities(size);
+	}
+
+	@Benchmark
+	public void toNewEntity(Blackhole blackhole) {
+		for (AnalyticsDTO analytic : analytics) {
+			blackhole.consume(AnalyticMapper.toNewEntity(analytic));
+		}
+	}
+
+	@Benchmark
+	public void toRecord(Blackhole blackhole) {
+		for (Analytic entity : entities) {
+			blackhole.consume(AnalyticMapper.toRecord(entity));
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package leonardo.labutilities.qualitylabpro.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+import leonardo.labutilities.qualitylabpro.domains.shared.mappers.AnalyticMapper;
+import leonardo.labutilities.qualitylabpro.domains.users.models.User;
+
+/**
+ * Deterministic QC data for the benchmarks. The seed is fixed so results stay
+ * comparable between commits.
+ */
+final class BenchmarkData {
+
+	private static final long SEED = 20250101L;
+	private static final String[] NAMES = {"ALB2", "GLI", "CREA", "UREA", "TGO", "TGP", "CHOL", "TRIG",
+			"HDL", "CA", "FE", "MG", "PHOS", "AMY", "LDH", "CK", "GGT", "ALP", "BIL-T", "PROT"};
+	private static final String[] LEVELS = {"PCCC1", "PCCC2"};
+	private static final LocalDateTime FIRST_RUN = LocalDateTime.of(2025, 1, 1, 7, 0);
+
+	private BenchmarkData() {}
+
+	static List<AnalyticsDTO> analytics(int size) {
+		SplittableRandom random = new SplittableRandom(SEED);
+		List<AnalyticsDTO> analytics = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			String name = NAMES[i % NAMES.length];
+			double mean = 50.0 + (i % NAMES.length) * 10.0;
+			double sd = mean * 0.03;
+			// Mostly in control, with a tail past 2 and 3 SD so every rule branch is hit
+			double value = mean + sd * 3.5 * (random.nextDouble() * 2.0 - 1.0);
+			analytics.add(new AnalyticsDTO((long) i, FIRST_RUN.plusMinutes(i), "LOT-" + (i % 4),
+					"REAGENT-1", name, LEVELS[(i / NAMES.length) % LEVELS.length], value, mean, sd,
+					"mg/dL", null, null, null, null));
+		}
+		return analytics;
+	}
+
+	static double[] values(int size) {
+		SplittableRandom random = new SplittableRandom(SEED);
+		double[] values = new double[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = 3.4 + 0.1 * (random.nextDouble() * 2.0 - 1.0);
+		}
+		return values;
+	}
+
+	static List<Analytic> entities(int size) {
+		User owner = new User("owner", "password", "owner@labgraph.com");
+		List<Analytic> entities = new ArrayList<>(size);
+		for (AnalyticsDTO analytic : analytics(size)) {
+			Analytic entity = AnalyticMapper.toNewEntity(analytic);
+			entity.setOwnerUserId(owner);
+			entities.add(entity);
+		}
+		return entities;
+	}
+
+	static String[] dates(int size) {
+		String[] patterns = {"2025-01-%02d %02d:%02d:00", "2025-01-%02dT%02d:%02d:00",
+				"%02d/01/2025 %02d:%02d:00", "2025-01-%02d", "%02d/01/2025"};
+		String[] dates = new String[size];
+		for (int i = 0; i < size; i++) {
+			int day = i % 28 + 1;
+			int hour = i % 24;
+			int minute = i % 60;
+			dates[i] = String.format(patterns[i % patterns.length], day, hour, minute);
+		}
+		return dates;
+	}
+}
@@ -0,0 +1,89 @@
+package leonardo.labutilities.qualitylabpro.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticTimeSeriesStore;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.RulesProviderComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.ControlSeries;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+
+/**
+ * Measures the rule evaluation in {@link RulesProviderComponent}. The
+ * repository is replaced by an in-memory stub so only the Java side is timed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesProviderBenchmark {
+
+	@Param({"10", "1000", "100000", "1000000"})
+	private int size;
+
+	private List<AnalyticsDTO> analytics;
+	private RulesProviderComponent rulesProvider;
+
+	@Setup
+	public void setUp() {
+		analytics = BenchmarkData.analytics(size);
+
+		Map<String, List<AnalyticsDTO>> lastTenByKey = BenchmarkData.analytics(Math.max(size, 1000))
+				.stream().collect(Collectors.groupingBy(analytic -> analytic.name() + "-" + analytic.level(),
+						Collectors.collectingAndThen(Collectors.toList(),
+								records -> records.subList(0, Math.min(10, records.size())))));
+
+		AnalyticsRepository repository = inMemoryRepository(lastTenByKey);
+		// Never warmed, so every window still comes from the repository stub
+		AnalyticTimeSeriesStore coldStore = new AnalyticTimeSeriesStore(repository,
+				(PlatformTransactionManager) Proxy.newProxyInstance(
+						PlatformTransactionManager.class.getClassLoader(),
+						new Class<?>[] {PlatformTransactionManager.class}, (proxy, method, args) -> null),
+				new SimpleMeterRegistry());
+		rulesProvider = new RulesProviderComponent(repository, coldStore);
+	}
+
+	@Benchmark
+	public String validateRules() {
+		return rulesProvider.validateRules(analytics);
+	}
+
+	private static AnalyticsRepository inMemoryRepository(Map<String, List<AnalyticsDTO>> lastTenByKey) {
+		return (AnalyticsRepository) Proxy.newProxyInstance(AnalyticsRepository.class.getClassLoader(),
+				new Class<?>[] {AnalyticsRepository.class}, (proxy, method, args) -> {
+					if (!method.getName().equals("findSeriesEndingAt")) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					List<ControlSeries> series = new ArrayList<>();
+					for (Object key : ((Map<?, ?>) args[0]).keySet()) {
+						ControlSeries.Key seriesKey = (ControlSeries.Key) key;
+						List<AnalyticsDTO> lastTen = lastTenByKey.get(seriesKey.name() + "-" + seriesKey.level());
+						AnalyticsDTO latest = lastTen.getFirst();
+						series.add(new ControlSeries(latest.name(), latest.level(), latest.mean(), latest.sd(),
+								lastTen.stream().mapToDouble(AnalyticsDTO::value).toArray()));
+					}
+					return series;
+				});
+	}
+}
@@ -0,0 +1,57 @@
+package leonardo.labutilities.qualitylabpro.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.ErrorStatisticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.StatisticsCalculatorUtility;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsCalculatorBenchmark {
+
+	@Param({"10", "1000", "100000", "1000000"})
+	private int size;
+
+	private double[] values;
+	private List<AnalyticsDTO> analytics;
+
+	@Setup
+	public void setUp() {
+		values = BenchmarkData.values(size);
+		analytics = BenchmarkData.analytics(size);
+	}
+
+	@Benchmark
+	public MeanAndStdDeviationDTO computeStatistics() {
+		return StatisticsCalculatorUtility.computeStatistics(values);
+	}
+
+	@Benchmark
+	public MeanAndStdDeviationDTO calculateMeanAndStandardDeviation() {
+		return StatisticsCalculatorUtility.calculateMeanAndStandardDeviation(analytics);
+	}
+
+	@Benchmark
+	public ErrorStatisticsDTO calculateErrorStatistics() {
+		return StatisticsCalculatorUtility.calculateErrorStatistics(analytics, "ALB2", "PCCC1", 3.4);
+	}
+}
@@ -0,0 +1,46 @@
+package leonardo.labutilities.qualitylabpro.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import leonardo.labutilities.qualitylabpro.domains.shared.components.StringToLocalDateTimeConverter;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringToLocalDateTimeConverterBenchmark {
+
+	@Param({"10", "1000", "100000", "1000000"})
+	private int size;
+
+	private String[] dates;
+	private final StringToLocalDateTimeConverter converter = new StringToLocalDateTimeConverter();
+
+	@Setup
+	public void setUp() {
+		// Mixes every accepted format, so the formatter fallback chain is exercised
+		dates = BenchmarkData.dates(size);
+	}
+
+	@Benchmark
+	public void convert(Blackhole blackhole) {
+		for (String date : dates) {
+			blackhole.consume(converter.convert(date));
+		}
+	}
+}
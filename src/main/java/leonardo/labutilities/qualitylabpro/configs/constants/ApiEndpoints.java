@@ -15,8 +15,10 @@ public final class ApiEndpoints {
 	private static final String SIGN_IN_PATH = "/users/sign-in";
 	private static final String SIGN_UP_PATH = "/users/sign-up";
 
+	// Only health and the Prometheus scrape, which is served on the management port
 	public static final String[] PUBLIC_PATHS =
-			{"/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**", "/actuator/**"};
+			{"/v3/api-docs/**", "/swagger-ui.html", "/swagger-ui/**", "/actuator/health/**",
+			"/actuator/prometheus", "/livez", "/readyz"};
 
 	public static final String[] PUBLIC_POST_PATHS =
 			{ApiEndpoints.SIGN_IN_PATH, ApiEndpoints.USERS_PATH, ApiEndpoints.PASSWORD_PATH};
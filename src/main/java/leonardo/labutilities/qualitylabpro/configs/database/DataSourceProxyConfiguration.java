@@ -0,0 +1,43 @@
+package leonardo.labutilities.qualitylabpro.configs.database;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the data sources in a datasource-proxy that feeds
+ * {@link SqlStatistics}, so every request can report how many statements it
+ * ran and how many rows they changed. Only the executions are intercepted:
+ * result sets are not proxied, so reading rows costs nothing extra, and the
+ * rows read are counted by the repository rows interceptor instead. Disable
+ * with sql.statistics.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.statistics.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfiguration {
+
+	@Bean
+	static BeanPostProcessor sqlStatisticsDataSourcePostProcessor() {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+					return proxy(beanName, dataSource);
+				}
+				return bean;
+			}
+		};
+	}
+
+	static DataSource proxy(String name, DataSource dataSource) {
+		return ProxyDataSourceBuilder.create(name, dataSource)
+				.listener(new SqlStatisticsListener())
+				.build();
+	}
+}
@@ -0,0 +1,68 @@
+package leonardo.labutilities.qualitylabpro.configs.database;
+
+import java.util.Optional;
+
+/**
+ * SQL statements, rows and database time of the unit of work running on the
+ * current thread, usually one HTTP request. Statements issued from other
+ * threads, such as the parallel statistics tasks, are not attributed to it.
+ */
+public final class SqlStatistics {
+
+	private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+	private int statements;
+	private long rows;
+	private long elapsedMillis;
+
+	private SqlStatistics() {}
+
+	/** Starts counting on the current thread, replacing any previous count. */
+	public static SqlStatistics start() {
+		SqlStatistics statistics = new SqlStatistics();
+		CURRENT.set(statistics);
+		return statistics;
+	}
+
+	public static Optional<SqlStatistics> current() {
+		return Optional.ofNullable(CURRENT.get());
+	}
+
+	public static void stop() {
+		CURRENT.remove();
+	}
+
+	static void recordStatement(long elapsedMillis, long affectedRows) {
+		SqlStatistics statistics = CURRENT.get();
+		if (statistics != null) {
+			statistics.statements++;
+			statistics.elapsedMillis += elapsedMillis;
+			statistics.rows += affectedRows;
+		}
+	}
+
+	/** Adds rows returned to the caller, such as the result of a repository method. */
+	public static void recordRowsRead(long rows) {
+		SqlStatistics statistics = CURRENT.get();
+		if (statistics != null) {
+			statistics.rows += rows;
+		}
+	}
+
+	public int statements() {
+		return statements;
+	}
+
+	/** Rows returned by repository methods plus rows reported by updates. */
+	public long rows() {
+		return rows;
+	}
+
+	public long elapsedMillis() {
+		return elapsedMillis;
+	}
+
+	public String toServerTiming() {
+		return "db;desc=\"" + statements + " statements, " + rows + " rows\";dur=" + elapsedMillis;
+	}
+}
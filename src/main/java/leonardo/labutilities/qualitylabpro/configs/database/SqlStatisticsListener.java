@@ -0,0 +1,44 @@
+package leonardo.labutilities.qualitylabpro.configs.database;
+
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+// Feeds SqlStatistics: one statement per execution, a batch included, and the
+// rows reported by updates
+class SqlStatisticsListener implements QueryExecutionListener {
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		// Only completed executions are counted
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		SqlStatistics.recordStatement(execInfo.getElapsedTime(), affectedRows(execInfo.getResult()));
+	}
+
+	static long affectedRows(Object result) {
+		return switch (result) {
+			case Integer count -> Math.max(0, count);
+			case Long count -> Math.max(0, count);
+			case int[] counts -> {
+				long total = 0;
+				for (int count : counts) {
+					total += Math.max(0, count);
+				}
+				yield total;
+			}
+			case long[] counts -> {
+				long total = 0;
+				for (long count : counts) {
+					total += Math.max(0, count);
+				}
+				yield total;
+			}
+			case null, default -> 0;
+		};
+	}
+}
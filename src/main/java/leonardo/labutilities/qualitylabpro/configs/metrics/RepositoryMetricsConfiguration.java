@@ -0,0 +1,68 @@
+package leonardo.labutilities.qualitylabpro.configs.metrics;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import leonardo.labutilities.qualitylabpro.configs.database.SqlStatistics;
+
+/**
+ * Records how many rows each repository method returns, as
+ * analytics.repository.rows tagged by repository interface and method, so the
+ * series are bounded by the code, and adds them to the {@link SqlStatistics}
+ * of the request. Latency is already published by Spring Boot as
+ * spring.data.repository.invocations; streams are not counted because they
+ * are consumed after the call returns.
+ */
+@Configuration
+public class RepositoryMetricsConfiguration {
+
+	@Bean
+	static BeanPostProcessor repositoryRowsMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessBeforeInitialization(Object bean, String beanName) {
+				if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+					factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+							(proxyFactory, information) -> proxyFactory.addAdvice(rowsInterceptor(registry,
+									information.getRepositoryInterface().getSimpleName()))));
+				}
+				return bean;
+			}
+		};
+	}
+
+	static MethodInterceptor rowsInterceptor(ObjectProvider<MeterRegistry> registry, String repository) {
+		return invocation -> {
+			Object result = invocation.proceed();
+			int rows = rowsOf(result);
+			if (rows >= 0) {
+				SqlStatistics.recordRowsRead(rows);
+				registry.ifAvailable(meters -> DistributionSummary.builder("analytics.repository.rows")
+						.baseUnit("rows")
+						.tags("repository", repository, "method", invocation.getMethod().getName())
+						.register(meters)
+						.record(rows));
+			}
+			return result;
+		};
+	}
+
+	static int rowsOf(Object result) {
+		return switch (result) {
+			case Collection<?> collection -> collection.size();
+			case Slice<?> slice -> slice.getNumberOfElements();
+			case Optional<?> optional -> optional.isPresent() ? 1 : 0;
+			case null, default -> -1;
+		};
+	}
+}
@@ -0,0 +1,70 @@
+package leonardo.labutilities.qualitylabpro.configs.rest;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import leonardo.labutilities.qualitylabpro.configs.database.SqlStatistics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts the SQL statements, rows and database time of each request and logs
+ * them, at WARN once a request runs more statements than the threshold, which
+ * is how an N+1 usually shows up. Outside production the totals are also sent
+ * as a Server-Timing header, written just before the response is committed.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+	public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+	@Value("${sql.statistics.server-timing:true}")
+	private boolean serverTiming = true;
+
+	@Value("${sql.statistics.warn-statements:50}")
+	private int warnStatements = 50;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+			FilterChain filterChain) throws ServletException, IOException {
+		SqlStatistics statistics = SqlStatistics.start();
+		HttpServletResponse timedResponse = serverTiming ? new OnCommittedResponseWrapper(response) {
+			@Override
+			protected void onResponseCommitted() {
+				response.setHeader(SERVER_TIMING_HEADER, statistics.toServerTiming());
+			}
+		} : response;
+		try {
+			filterChain.doFilter(request, timedResponse);
+		} finally {
+			SqlStatistics.stop();
+			if (serverTiming && !response.isCommitted()) {
+				response.setHeader(SERVER_TIMING_HEADER, statistics.toServerTiming());
+			}
+			log(request, statistics);
+		}
+	}
+
+	private void log(HttpServletRequest request, SqlStatistics statistics) {
+		if (statistics.statements() > warnStatements) {
+			log.warn("{} {} ran {} SQL statements ({} rows, {} ms), more than {}", request.getMethod(),
+					request.getRequestURI(), statistics.statements(), statistics.rows(),
+					statistics.elapsedMillis(), warnStatements);
+		} else if (log.isDebugEnabled()) {
+			log.debug("{} {} ran {} SQL statements ({} rows, {} ms)", request.getMethod(),
+					request.getRequestURI(), statistics.statements(), statistics.rows(),
+					statistics.elapsedMillis());
+		}
+	}
+}
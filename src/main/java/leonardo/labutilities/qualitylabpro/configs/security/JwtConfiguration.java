@@ -0,0 +1,27 @@
+package leonardo.labutilities.qualitylabpro.configs.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+
+/**
+ * Builds the signing algorithm and the token verifier once. Both are
+ * immutable and thread-safe, so every request reuses them.
+ */
+@Configuration
+public class JwtConfiguration {
+
+    @Bean
+    Algorithm jwtAlgorithm(@Value("${api.security.token.secret}") String secret) {
+        return Algorithm.HMAC256(secret);
+    }
+
+    @Bean
+    JWTVerifier jwtVerifier(Algorithm jwtAlgorithm, @Value("${api.security.issuer}") String issuer) {
+        return JWT.require(jwtAlgorithm).withIssuer(issuer).build();
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import leonardo.labutilities.qualitylabpro.domains.shared.authentication.components.TokenPrincipalCache;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.services.TokenService;
 import leonardo.labutilities.qualitylabpro.domains.users.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -23,6 +24,7 @@ public class SecurityFilter extends OncePerRequestFilter {
 
     private final TokenService tokenService;
     private final UserRepository userRepository;
+    private final TokenPrincipalCache tokenPrincipalCache;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
@@ -30,9 +32,16 @@ public class SecurityFilter extends OncePerRequestFilter {
         try {
             var tokenJWT = this.getToken(request);
             if (tokenJWT != null) {
-                var subject = this.tokenService.getSubject(tokenJWT);
-                var users = this.userRepository.getReferenceOneByUsername(subject)
-                        .orElseThrow(() -> new RuntimeException("User not found or invalid: " + subject));
+                var users = this.tokenPrincipalCache.get(tokenJWT).orElse(null);
+                if (users == null) {
+                    var decodedJWT = this.tokenService.verify(tokenJWT);
+                    var subject = decodedJWT.getSubject();
+                    users = this.userRepository.getReferenceOneByUsername(subject)
+                            .orElseThrow(() -> new RuntimeException("User not found or invalid: " + subject));
+                    if (users.isAccountNonLocked() && users.isEnabled()) {
+                        this.tokenPrincipalCache.put(tokenJWT, users, decodedJWT.getExpiresAtAsInstant());
+                    }
+                }
 
                 if (!users.isAccountNonLocked() || !users.isEnabled()) {
                     response.setStatus(HttpServletResponse.SC_FORBIDDEN);
@@ -0,0 +1,131 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.constants.AnalyticCacheNames;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds the keys of the statistics caches and evicts exactly the entries a
+ * write can change: same test, same level (or any level for grouped entries)
+ * and a range that contains the written day.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnalyticCacheComponent {
+
+        private final CacheManager cacheManager;
+        private final MeterRegistry meterRegistry;
+
+        /**
+         * Cache key of a statistics read. The sector needs no slot of its own: it is
+         * implied by the test names, and the cached results do not depend on it.
+         * A null level means the entry covers every level of its tests.
+         */
+        public record Key(Set<String> names, String level, LocalDateTime startDate, LocalDateTime endDate,
+                        Object variant) {
+
+                boolean isAffectedBy(Touch touch) {
+                        return names.contains(touch.name())
+                                        && (level == null || touch.level() == null || level.equals(touch.level()))
+                                        && (touch.day() == null || !touch.day().isBefore(startDate.toLocalDate())
+                                                        && !touch.day().isAfter(endDate.toLocalDate()));
+                }
+        }
+
+        /** A written (test, level, day); a null level or day affects all of them. */
+        public record Touch(String name, String level, LocalDate day) {
+
+                public static Touch of(Analytic analytic) {
+                        return new Touch(analytic.getTestName(), analytic.getControlLevel(),
+                                        analytic.getMeasurementDate().toLocalDate());
+                }
+        }
+
+        public Key key(String name, String level, LocalDateTime startDate, LocalDateTime endDate) {
+                return new Key(Set.of(name), level, startDate, endDate, null);
+        }
+
+        public Key key(String name, LocalDateTime startDate, LocalDateTime endDate, Object variant) {
+                return new Key(Set.of(name), null, startDate, endDate, variant);
+        }
+
+        public Key key(Collection<String> names, String level, LocalDateTime startDate,
+                        LocalDateTime endDate) {
+                return new Key(Set.copyOf(names), level, startDate, endDate, null);
+        }
+
+        public void evict(Collection<Analytic> analytics) {
+                evictTouches(analytics.stream().map(Touch::of).collect(Collectors.toSet()));
+        }
+
+        public void evict(String name, String level, LocalDate day) {
+                evictTouches(Set.of(new Touch(name, level, day)));
+        }
+
+        // Evicting before commit would let a concurrent read cache the old rows again
+        public void evictTouches(Set<Touch> touches) {
+                if (touches.isEmpty()) {
+                        return;
+                }
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                                @Override
+                                public void afterCommit() {
+                                        evictNow(touches);
+                                }
+                        });
+                } else {
+                        evictNow(touches);
+                }
+        }
+
+        private void evictNow(Set<Touch> touches) {
+                for (String cacheName : AnalyticCacheNames.ALL) {
+                        Cache cache = cacheManager.getCache(cacheName);
+                        if (cache == null) {
+                                continue;
+                        }
+                        Map<?, ?> entries = entriesOf(cache);
+                        if (entries == null) {
+                                cache.clear();
+                                continue;
+                        }
+                        int before = entries.size();
+                        entries.keySet().removeIf(key -> key instanceof Key cacheKey
+                                        && touches.stream().anyMatch(cacheKey::isAffectedBy));
+                        int evicted = before - entries.size();
+                        if (evicted > 0) {
+                                meterRegistry.counter("analytics.cache.invalidations", "cache", cacheName)
+                                                .increment(evicted);
+                                log.debug("Evicted {} entries from {} for {}", evicted, cacheName, touches);
+                        }
+                }
+        }
+
+        private static Map<?, ?> entriesOf(Cache cache) {
+                Object nativeCache = cache.getNativeCache();
+                if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeineCache) {
+                        return caffeineCache.asMap();
+                }
+                if (nativeCache instanceof Map<?, ?> map) {
+                        return map;
+                }
+                return null;
+        }
+}
@@ -0,0 +1,65 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticImportService;
+import leonardo.labutilities.qualitylabpro.domains.users.enums.ExportFormat;
+
+/**
+ * CSV with a header row, in the layout the CSV import reads, so an export can
+ * be loaded back as it is.
+ */
+@Component
+public class AnalyticCsvExporter implements AnalyticExporter {
+
+        private static final ObjectWriter CSV_WRITER;
+
+        static {
+                CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+                COLUMNS.forEach(schema::addColumn);
+                CSV_WRITER = CsvMapper.builder()
+                                .findAndAddModules()
+                                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                                .build()
+                                .writerFor(AnalyticsDTO.class)
+                                .with(schema.build());
+        }
+
+        @Override
+        public ExportFormat format() {
+                return ExportFormat.CSV;
+        }
+
+        @Override
+        public MediaType mediaType() {
+                return MediaType.parseMediaType(AnalyticImportService.TEXT_CSV_VALUE);
+        }
+
+        @Override
+        public String extension() {
+                return "csv";
+        }
+
+        @Override
+        public void write(Stream<AnalyticsDTO> runs, OutputStream output) throws IOException {
+                try (SequenceWriter writer = CSV_WRITER.writeValues(output)) {
+                        for (Iterator<AnalyticsDTO> iterator = runs.iterator(); iterator.hasNext();) {
+                                writer.write(iterator.next());
+                        }
+                }
+                output.flush();
+        }
+}
@@ -0,0 +1,172 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.WestgardViolationDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes newly persisted runs and Westgard violations to Server-Sent Events
+ * subscribers, so bench screens no longer poll the listings. Each subscriber
+ * only receives the tests of its sector, has a bounded buffer that drops its
+ * oldest pending events when the client falls behind, and is served by its
+ * own virtual thread. The last events are kept for clients reconnecting with
+ * Last-Event-ID.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnalyticEventStreamComponent {
+
+        public static final String ANALYTIC_EVENT = "analytic";
+        public static final String VIOLATION_EVENT = "violation";
+
+        static final int REPLAY_CAPACITY = 1000;
+        static final int SUBSCRIBER_BUFFER = 256;
+        private static final Duration EMITTER_TIMEOUT = Duration.ofMinutes(30);
+        private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+        private static final ThreadFactory SUBSCRIBER_THREADS =
+                        Thread.ofVirtual().name("analytics-sse-", 0).factory();
+
+        private final MeterRegistry meterRegistry;
+
+        // Seeded with the start time so ids keep increasing across restarts
+        private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+        private final Deque<StreamEvent> replay = new ArrayDeque<>(REPLAY_CAPACITY);
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+        record StreamEvent(long id, String name, String testName, Object data) {}
+
+        final class Subscriber {
+                private final Set<String> names;
+                private final SseEmitter emitter;
+                private final BlockingQueue<StreamEvent> pending = new ArrayBlockingQueue<>(SUBSCRIBER_BUFFER);
+                private volatile boolean open = true;
+
+                private Subscriber(Collection<String> names, SseEmitter emitter) {
+                        this.names = Set.copyOf(names);
+                        this.emitter = emitter;
+                }
+
+                private void offer(StreamEvent event) {
+                        if (!names.contains(event.testName())) {
+                                return;
+                        }
+                        while (!pending.offer(event)) {
+                                if (pending.poll() != null) {
+                                        meterRegistry.counter("analytics.stream.dropped").increment();
+                                }
+                        }
+                }
+
+                private void run() {
+                        try {
+                                while (open) {
+                                        StreamEvent event = pending.poll(HEARTBEAT_INTERVAL.toMillis(),
+                                                        TimeUnit.MILLISECONDS);
+                                        if (event == null) {
+                                                emitter.send(SseEmitter.event().comment("heartbeat"));
+                                        } else {
+                                                emitter.send(SseEmitter.event().id(Long.toString(event.id()))
+                                                                .name(event.name()).data(event.data()));
+                                        }
+                                }
+                        } catch (IOException | IllegalStateException exception) {
+                                log.debug("Event stream subscriber disconnected: {}", exception.getMessage());
+                        } catch (InterruptedException exception) {
+                                Thread.currentThread().interrupt();
+                        } finally {
+                                close();
+                        }
+                }
+
+                private void close() {
+                        open = false;
+                        subscribers.remove(this);
+                }
+        }
+
+        public SseEmitter subscribe(Collection<String> names, Long lastEventId) {
+                SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT.toMillis());
+                register(names, lastEventId, emitter);
+                return emitter;
+        }
+
+        Subscriber register(Collection<String> names, Long lastEventId, SseEmitter emitter) {
+                Subscriber subscriber = new Subscriber(names, emitter);
+                emitter.onCompletion(subscriber::close);
+                emitter.onTimeout(subscriber::close);
+                emitter.onError(error -> subscriber.close());
+
+                // Replay and registration under the same lock as publish, so no event is
+                // missed or delivered twice between the two
+                synchronized (replay) {
+                        if (lastEventId != null) {
+                                replay.stream().filter(event -> event.id() > lastEventId)
+                                                .forEach(subscriber::offer);
+                        }
+                        subscribers.add(subscriber);
+                }
+                SUBSCRIBER_THREADS.newThread(subscriber::run).start();
+                return subscriber;
+        }
+
+        public void publishAnalytics(List<AnalyticsDTO> analytics) {
+                afterCommit(() -> analytics
+                                .forEach(analytic -> publish(ANALYTIC_EVENT, analytic.name(), analytic)));
+        }
+
+        public void publishViolations(List<WestgardViolationDTO> violations) {
+                afterCommit(() -> violations
+                                .forEach(violation -> publish(VIOLATION_EVENT, violation.name(), violation)));
+        }
+
+        int subscriberCount() {
+                return subscribers.size();
+        }
+
+        private void publish(String name, String testName, Object data) {
+                synchronized (replay) {
+                        StreamEvent event = new StreamEvent(sequence.incrementAndGet(), name, testName, data);
+                        if (replay.size() == REPLAY_CAPACITY) {
+                                replay.removeFirst();
+                        }
+                        replay.addLast(event);
+                        subscribers.forEach(subscriber -> subscriber.offer(event));
+                }
+        }
+
+        // Subscribers must never see runs that end up rolled back
+        private static void afterCommit(Runnable action) {
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                                @Override
+                                public void afterCommit() {
+                                        action.run();
+                                }
+                        });
+                } else {
+                        action.run();
+                }
+        }
+}
@@ -0,0 +1,31 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.users.enums.ExportFormat;
+
+/**
+ * Writes a stream of runs in one export format. Implementations write each
+ * run as it is read and keep at most a bounded window of rows in memory; they
+ * flush but never close the output, which belongs to the caller.
+ */
+public interface AnalyticExporter {
+
+        /** Column names, the same as the fields of the JSON payload the import accepts. */
+        List<String> COLUMNS = List.of("id", "date", "level_lot", "test_lot", "name", "level", "value", "mean",
+                        "sd", "unit_value", "rules", "description", "validator_user", "owner_user");
+
+        ExportFormat format();
+
+        MediaType mediaType();
+
+        String extension();
+
+        void write(Stream<AnalyticsDTO> runs, OutputStream output) throws IOException;
+}
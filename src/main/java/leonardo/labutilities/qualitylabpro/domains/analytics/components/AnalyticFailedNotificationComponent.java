@@ -1,36 +1,255 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.components;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.WestgardViolationDTO;
 import leonardo.labutilities.qualitylabpro.domains.shared.email.EmailService;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Evaluates the Westgard rules on failed runs as soon as they are committed
+ * and publishes the violations right away, then coalesces the email alerts
+ * into one digest per sector and window. Callers only enqueue into a bounded
+ * queue; a single virtual thread groups the alerts, flushes a sector when its
+ * window elapses or it reaches the size limit, and sends the digest with
+ * retries and exponential backoff.
+ */
 @Slf4j
 @Component
 public class AnalyticFailedNotificationComponent {
+
     private final EmailService emailService;
     private final RulesProviderComponent controlRulesValidators;
+    private final AnalyticEventStreamComponent analyticEventStreamComponent;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notifications.queue.capacity:1000}")
+    private int queueCapacity = 1000;
+
+    @Value("${notifications.digest.window:60s}")
+    private Duration digestWindow = Duration.ofSeconds(60);
+
+    @Value("${notifications.digest.max-records:200}")
+    private int digestMaxRecords = 200;
+
+    @Value("${notifications.retry.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${notifications.retry.backoff:2s}")
+    private Duration retryBackoff = Duration.ofSeconds(2);
+
+    private BlockingQueue<Alert> queue;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    // Only touched by the dispatcher thread
+    private final Map<String, Digest> pending = new LinkedHashMap<>();
+
+    // Failed runs of one sector with the violations found when they were committed
+    private record Alert(String sector, List<AnalyticsDTO> records, List<WestgardViolationDTO> violations) {}
+
+    private static final class Digest {
+        private final long openedAt = System.nanoTime();
+        private final long deadline;
+        private final List<AnalyticsDTO> records = new ArrayList<>();
+        // The same rule can be reported by several alerts of a pair
+        private final Set<WestgardViolationDTO> violations = new LinkedHashSet<>();
+
+        private Digest(long deadline) {
+            this.deadline = deadline;
+        }
+    }
 
     public AnalyticFailedNotificationComponent(EmailService emailService,
-            RulesProviderComponent controlRulesValidators) {
+            RulesProviderComponent controlRulesValidators,
+            AnalyticEventStreamComponent analyticEventStreamComponent, MeterRegistry meterRegistry) {
         this.emailService = emailService;
         this.controlRulesValidators = controlRulesValidators;
+        this.analyticEventStreamComponent = analyticEventStreamComponent;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        this.queue = new ArrayBlockingQueue<>(this.queueCapacity);
+        this.meterRegistry.gaugeCollectionSize("notifications.queue.depth", List.of(), this.queue);
+        this.running = true;
+        this.dispatcher = Thread.ofVirtual().name("analytics-notifications").start(this::dispatchLoop);
+    }
 
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        this.running = false;
+        this.dispatcher.interrupt();
+        this.dispatcher.join(Duration.ofSeconds(10));
     }
 
-    @Async
     public void processFailedRecordsNotification(List<AnalyticsDTO> failedRecords) {
-        if (!failedRecords.isEmpty()) {
-            try {
-                final String content = this.controlRulesValidators.validateRules(failedRecords);
+        if (failedRecords.isEmpty()) {
+            return;
+        }
+        // Runs that end up rolled back must not be alerted. Evaluating after
+        // completion rather than in afterCommit lets the time-series store append
+        // the runs first and the violations be published without a transaction.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        enqueue(failedRecords);
+                    }
+                }
+            });
+        } else {
+            this.enqueue(failedRecords);
+        }
+    }
 
-                this.emailService.sendFailedAnalyticsNotification(failedRecords, content);
+    private void enqueue(List<AnalyticsDTO> failedRecords) {
+        Map<String, List<AnalyticsDTO>> bySector = new LinkedHashMap<>();
+        for (AnalyticsDTO failedRecord : failedRecords) {
+            bySector.computeIfAbsent(AnalyticMetricsComponent.sectorOf(failedRecord.name()),
+                    key -> new ArrayList<>()).add(failedRecord);
+        }
+        bySector.forEach((sector, records) -> {
+            try {
+                Alert alert = new Alert(sector, records, this.evaluate(sector, records));
+                if (!this.queue.offer(alert)) {
+                    this.meterRegistry.counter("notifications.dropped").increment(records.size());
+                    log.warn("Notification queue full, dropping {} failed runs of {}", records.size(), sector);
+                }
             } catch (Exception e) {
-                log.error("Error sending identifier notification: {}", e);
+                // The runs are already committed, so the caller must not see this
+                this.meterRegistry.counter("notifications.failed", "sector", sector).increment();
+                log.error("Error evaluating rules for {}: {}", sector, e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Rules are evaluated here rather than when the digest is sent, so the
+     * violations reach the event stream immediately and describe the series as
+     * it was when the runs were saved.
+     */
+    private List<WestgardViolationDTO> evaluate(String sector, List<AnalyticsDTO> records) throws Exception {
+        final List<WestgardViolationDTO> violations = this.meterRegistry
+                .timer("analytics.rules.evaluation", "sector", sector)
+                .recordCallable(() -> this.controlRulesValidators.evaluate(records));
+        violations.forEach(violation -> this.meterRegistry
+                .counter("analytics.westgard.violations", "rule", violation.rule(), "sector", sector)
+                .increment());
+        this.analyticEventStreamComponent.publishViolations(violations);
+        return violations;
+    }
+
+    private void dispatchLoop() {
+        while (this.running) {
+            try {
+                Alert alert = this.queue.poll(this.nanosUntilNextDeadline(), TimeUnit.NANOSECONDS);
+                if (alert != null) {
+                    this.add(alert);
+                    List<Alert> burst = new ArrayList<>();
+                    this.queue.drainTo(burst);
+                    burst.forEach(this::add);
+                }
+                this.flushDue(System.nanoTime());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Send what was already collected before shutting down
+        List<Alert> remaining = new ArrayList<>();
+        this.queue.drainTo(remaining);
+        remaining.forEach(this::add);
+        this.flushAll();
+    }
+
+    private void add(Alert alert) {
+        Digest digest = this.pending.computeIfAbsent(alert.sector(),
+                key -> new Digest(System.nanoTime() + this.digestWindow.toNanos()));
+        digest.records.addAll(alert.records());
+        digest.violations.addAll(alert.violations());
+        if (digest.records.size() >= this.digestMaxRecords) {
+            this.pending.remove(alert.sector());
+            this.send(alert.sector(), digest);
+        }
+    }
+
+    private long nanosUntilNextDeadline() {
+        long now = System.nanoTime();
+        return this.pending.values().stream().mapToLong(digest -> digest.deadline - now).min()
+                .orElse(this.digestWindow.toNanos());
+    }
+
+    private void flushDue(long now) {
+        var iterator = this.pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            if (entry.getValue().deadline - now <= 0) {
+                iterator.remove();
+                this.send(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void flushAll() {
+        Map<String, Digest> due = new LinkedHashMap<>(this.pending);
+        this.pending.clear();
+        due.forEach(this::send);
+    }
+
+    private void send(String sector, Digest digest) {
+        // Age of the oldest run of the digest when it leaves the queue
+        this.meterRegistry.timer("notifications.queue.latency", "sector", sector)
+                .record(System.nanoTime() - digest.openedAt, TimeUnit.NANOSECONDS);
+        try {
+            final String content = this.controlRulesValidators.toHtml(List.copyOf(digest.violations));
+            this.sendWithRetry(sector, digest.records, content);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            this.meterRegistry.counter("notifications.failed", "sector", sector).increment();
+            log.error("Error sending identifier notification for {}: {}", sector, e.getMessage(), e);
+        }
+    }
+
+    private void sendWithRetry(String sector, List<AnalyticsDTO> failedRecords, String content)
+            throws InterruptedException {
+        Timer latency = this.meterRegistry.timer("notifications.send.latency", "sector", sector);
+        long backoff = this.retryBackoff.toMillis();
+        for (int attempt = 1;; attempt++) {
+            try {
+                latency.record(() -> this.emailService.sendFailedAnalyticsNotification(sector,
+                        failedRecords, content));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= this.maxAttempts) {
+                    throw e;
+                }
+                log.warn("Notification for {} failed (attempt {}/{}), retrying in {} ms", sector,
+                        attempt, this.maxAttempts, backoff, e);
+                Thread.sleep(backoff);
+                backoff *= 2;
             }
         }
     }
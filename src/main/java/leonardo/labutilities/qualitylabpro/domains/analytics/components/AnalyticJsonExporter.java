@@ -0,0 +1,52 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.users.enums.ExportFormat;
+import lombok.RequiredArgsConstructor;
+
+/** JSON array of runs, written element by element. */
+@Component
+@RequiredArgsConstructor
+public class AnalyticJsonExporter implements AnalyticExporter {
+
+        private final ObjectMapper objectMapper;
+
+        @Override
+        public ExportFormat format() {
+                return ExportFormat.JSON;
+        }
+
+        @Override
+        public MediaType mediaType() {
+                return MediaType.APPLICATION_JSON;
+        }
+
+        @Override
+        public String extension() {
+                return "json";
+        }
+
+        @Override
+        public void write(Stream<AnalyticsDTO> runs, OutputStream output) throws IOException {
+                try (SequenceWriter writer = objectMapper.writerFor(AnalyticsDTO.class)
+                                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                                .writeValuesAsArray(output)) {
+                        for (Iterator<AnalyticsDTO> iterator = runs.iterator(); iterator.hasNext();) {
+                                writer.write(iterator.next());
+                        }
+                }
+                output.flush();
+        }
+}
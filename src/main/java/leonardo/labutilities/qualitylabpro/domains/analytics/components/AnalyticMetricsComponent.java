@@ -0,0 +1,92 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import leonardo.labutilities.qualitylabpro.domains.analytics.constants.AvailableAnalyticsNames;
+import leonardo.labutilities.qualitylabpro.domains.analytics.constants.ThresholdAnalyticsRules;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.AnalyticIngestionMode;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.WorkSectorEnum;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+
+/**
+ * Meters of the ingestion and statistics paths. Every tag comes from a closed
+ * set (ingestion modes, outcomes, the threshold rules, sectors and operation
+ * names fixed in code), never from request input, so the number of series
+ * stays bounded however many tests and lots are recorded.
+ */
+@Component
+public class AnalyticMetricsComponent {
+
+        public static final String OTHER_SECTOR = "Other";
+
+        private final MeterRegistry meterRegistry;
+
+        public AnalyticMetricsComponent(MeterRegistry meterRegistry) {
+                this.meterRegistry = meterRegistry;
+        }
+
+        public Timer.Sample startIngestion() {
+                return Timer.start(meterRegistry);
+        }
+
+        /** Records a committed batch: its size, latency, duplicates and rule violations. */
+        public void recordIngestion(Timer.Sample sample, AnalyticIngestionMode mode, int received,
+                        List<Analytic> persisted) {
+                sample.stop(ingestionLatency(mode, "inserted"));
+                batchSize(mode).record(received);
+                duplicates(mode).increment(Math.max(0, received - persisted.size()));
+                for (Analytic analytic : persisted) {
+                        String rule = analytic.getControlRules();
+                        if (ThresholdAnalyticsRules.RULES.contains(rule)) {
+                                meterRegistry.counter("analytics.rules.violations", "rule", rule, "sector",
+                                                sectorOf(analytic.getTestName())).increment();
+                        }
+                }
+        }
+
+        /** Records a batch rejected because every run in it was already stored. */
+        public void recordDuplicateBatch(Timer.Sample sample, AnalyticIngestionMode mode, int received) {
+                sample.stop(ingestionLatency(mode, "duplicate"));
+                batchSize(mode).record(received);
+                duplicates(mode).increment(received);
+        }
+
+        public <T> T timeStatistics(String operation, Supplier<T> calculation) {
+                return Timer.builder("analytics.statistics.latency")
+                                .tag("operation", operation)
+                                .publishPercentileHistogram()
+                                .register(meterRegistry)
+                                .record(calculation);
+        }
+
+        public static String sectorOf(String name) {
+                return AvailableAnalyticsNames.sectorOf(name).map(WorkSectorEnum::getSector).orElse(OTHER_SECTOR);
+        }
+
+        private Timer ingestionLatency(AnalyticIngestionMode mode, String outcome) {
+                return Timer.builder("analytics.ingestion.latency")
+                                .description("Time to persist one ingestion batch")
+                                .tags("mode", mode.name(), "outcome", outcome)
+                                .publishPercentileHistogram()
+                                .register(meterRegistry);
+        }
+
+        private DistributionSummary batchSize(AnalyticIngestionMode mode) {
+                return DistributionSummary.builder("analytics.ingestion.batch.size")
+                                .baseUnit("runs")
+                                .tag("mode", mode.name())
+                                .publishPercentileHistogram()
+                                .register(meterRegistry);
+        }
+
+        private Counter duplicates(AnalyticIngestionMode mode) {
+                return meterRegistry.counter("analytics.ingestion.duplicates", "mode", mode.name());
+        }
+}
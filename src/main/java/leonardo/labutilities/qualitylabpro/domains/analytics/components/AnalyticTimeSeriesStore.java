@@ -0,0 +1,415 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.ControlSeries;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.AnalyticSeriesColumns;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the runs of the last {@code analytics.timeseries.horizon} in memory as
+ * one {@link AnalyticSeriesColumns} per (test, level) pair. It is loaded once
+ * the application is ready, new runs are appended after their transaction
+ * commits and any other write marks the affected series stale, so the next read
+ * of that series reloads it. Reads return empty when the store cannot answer
+ * them (not loaded yet, range older than the horizon, custom sort), and the
+ * caller then runs its SQL query as before.
+ */
+@Slf4j
+@Component
+public class AnalyticTimeSeriesStore {
+
+        private final AnalyticsRepository analyticsRepository;
+        private final TransactionTemplate readOnlyTransaction;
+        private final MeterRegistry meterRegistry;
+        private final Map<ControlSeries.Key, Series> series = new ConcurrentHashMap<>();
+        private final Set<String> pendingInvalidations = ConcurrentHashMap.newKeySet();
+
+        @Value("${analytics.timeseries.enabled:true}")
+        private boolean enabled = true;
+
+        @Value("${analytics.timeseries.horizon:90d}")
+        private Duration horizon = Duration.ofDays(90);
+
+        // Start of the data held in memory; null while the store is not in use
+        private volatile LocalDateTime horizonStart;
+        private volatile boolean ready;
+
+        public AnalyticTimeSeriesStore(AnalyticsRepository analyticsRepository,
+                        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+                this.analyticsRepository = analyticsRepository;
+                this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+                this.readOnlyTransaction.setReadOnly(true);
+                this.meterRegistry = meterRegistry;
+                Gauge.builder("analytics.timeseries.series", series, Map::size).register(meterRegistry);
+                Gauge.builder("analytics.timeseries.runs", this, AnalyticTimeSeriesStore::runCount)
+                                .register(meterRegistry);
+        }
+
+        /**
+         * A (test, level) series. {@code columns} is replaced as a whole under the
+         * lock and read without it; null means stale.
+         */
+        private static final class Series {
+                private final ReentrantLock lock = new ReentrantLock();
+                private volatile AnalyticSeriesColumns columns;
+
+                private Series(AnalyticSeriesColumns columns) {
+                        this.columns = columns;
+                }
+        }
+
+        @EventListener(ApplicationReadyEvent.class)
+        public void warmUpInBackground() {
+                if (enabled) {
+                        Thread.ofVirtual().name("analytics-timeseries-warm-up").start(this::warmUp);
+                }
+        }
+
+        /**
+         * Loads every run of the horizon with one streamed query, writing each row
+         * straight into the columns of its series so no run is kept as a DTO.
+         * Runs appended and series invalidated while it runs are kept, so no
+         * write is lost.
+         */
+        public void warmUp() {
+                LocalDateTime start = LocalDateTime.now().minus(horizon).truncatedTo(ChronoUnit.SECONDS);
+                horizonStart = start;
+                try {
+                        Map<ControlSeries.Key, AnalyticSeriesColumns.Loader> loaders = new HashMap<>();
+                        readOnlyTransaction.executeWithoutResult(status -> {
+                                try (Stream<AnalyticsDTO> runs = analyticsRepository.streamByDateGreaterThanEqual(start)) {
+                                        runs.forEach(run -> loaders.computeIfAbsent(ControlSeries.Key.of(run),
+                                                        key -> AnalyticSeriesColumns.loader(key.name(), key.level())).add(run));
+                                }
+                        });
+
+                        loaders.forEach((key, loader) -> {
+                                AnalyticSeriesColumns loaded = loader.build();
+                                Series current = series.putIfAbsent(key, new Series(loaded));
+                                if (current != null) {
+                                        current.lock.lock();
+                                        try {
+                                                // Stale series stay stale and are reloaded on their next read
+                                                if (current.columns != null) {
+                                                        current.columns = current.columns
+                                                                        .append(loaded.rows(0, loaded.size()));
+                                                }
+                                        } finally {
+                                                current.lock.unlock();
+                                        }
+                                }
+                        });
+                        pendingInvalidations.forEach(name -> markStale(keysOf(name)));
+                        pendingInvalidations.clear();
+                        ready = true;
+                        log.info("Loaded {} runs of {} series since {} into the time-series store", runCount(),
+                                        series.size(), start);
+                } catch (RuntimeException e) {
+                        horizonStart = null;
+                        series.clear();
+                        pendingInvalidations.clear();
+                        log.warn("Time-series store warm-up failed, reads keep using the database", e);
+                }
+        }
+
+        /** Drops the runs that left the horizon. */
+        @Scheduled(fixedDelayString = "${analytics.timeseries.trim-interval:PT1H}",
+                        initialDelayString = "${analytics.timeseries.trim-interval:PT1H}")
+        public void trim() {
+                if (!ready) {
+                        return;
+                }
+                LocalDateTime start = LocalDateTime.now().minus(horizon).truncatedTo(ChronoUnit.SECONDS);
+                // Moved first, so no read relies on runs that are about to be dropped
+                horizonStart = start;
+                series.forEach((key, current) -> {
+                        current.lock.lock();
+                        try {
+                                if (current.columns != null) {
+                                        current.columns = current.columns.trimBefore(start);
+                                }
+                        } finally {
+                                current.lock.unlock();
+                        }
+                });
+        }
+
+        /** Same rows as {@link AnalyticsRepository#findByNameAndLevelAndDateBetween}. */
+        public Optional<List<AnalyticsDTO>> findByNameAndLevelAndDateBetween(String name, String level,
+                        LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
+                if (!covers(startDate) || pageable.getSort().isSorted()) {
+                        return miss();
+                }
+                AnalyticSeriesColumns columns = columns(new ControlSeries.Key(name, level));
+                if (columns == null) {
+                        return hit(List.of());
+                }
+                return hit(page(columns.rows(columns.fromIndex(startDate), columns.toIndex(endDate)), pageable));
+        }
+
+        /**
+         * Same rows as {@link AnalyticsRepository#findByNameAndDateBetweenGroupByLevel},
+         * every level of the test in date order.
+         */
+        public Optional<List<AnalyticsDTO>> findByNameAndDateBetween(String name, LocalDateTime startDate,
+                        LocalDateTime endDate, Pageable pageable) {
+                if (!covers(startDate) || pageable.getSort().isSorted()) {
+                        return miss();
+                }
+                List<AnalyticsDTO> rows = new ArrayList<>();
+                for (ControlSeries.Key key : List.copyOf(series.keySet())) {
+                        AnalyticSeriesColumns columns = key.name().equals(name) ? columns(key) : null;
+                        if (columns != null) {
+                                rows.addAll(columns.rows(columns.fromIndex(startDate), columns.toIndex(endDate)));
+                        }
+                }
+                rows.sort(Comparator.comparing(AnalyticsDTO::date).thenComparing(AnalyticsDTO::id));
+                return hit(page(rows, pageable));
+        }
+
+        /** Same values as {@link AnalyticsRepository#findValuesByNameAndLevelAndDateBetween}. */
+        public Optional<double[]> findValuesByNameAndLevelAndDateBetween(String name, String level,
+                        LocalDateTime startDate, LocalDateTime endDate) {
+                if (!covers(startDate)) {
+                        return miss();
+                }
+                AnalyticSeriesColumns columns = columns(new ControlSeries.Key(name, level));
+                if (columns == null) {
+                        return hit(new double[0]);
+                }
+                return hit(columns.values(columns.fromIndex(startDate), columns.toIndex(endDate)));
+        }
+
+        /**
+         * Same charts as {@link AnalyticsRepository#findChartSeries}: the series of
+         * the given level, or of every level of the test ordered by level, without
+         * the levels that have no run in the range.
+         */
+        public Optional<List<AnalyticsChartDTO>> findChartSeries(String name, String level,
+                        LocalDateTime startDate, LocalDateTime endDate) {
+                if (!covers(startDate)) {
+                        return miss();
+                }
+                List<ControlSeries.Key> keys = level != null ? List.of(new ControlSeries.Key(name, level))
+                                : keysOf(name).stream().sorted(Comparator.comparing(ControlSeries.Key::level)).toList();
+                List<AnalyticsChartDTO> charts = new ArrayList<>();
+                for (ControlSeries.Key key : keys) {
+                        AnalyticSeriesColumns columns = columns(key);
+                        if (columns != null) {
+                                int from = columns.fromIndex(startDate);
+                                int to = columns.toIndex(endDate);
+                                if (from < to) {
+                                        charts.add(columns.chart(from, to));
+                                }
+                        }
+                }
+                return hit(charts);
+        }
+
+        /**
+         * The rule windows the store holds in full, each ending at the run measured
+         * at its anchor date. Pairs whose anchor run is not in memory yet, or with
+         * fewer than {@code window} runs up to it, may have those runs in the
+         * database, so they are left out and the caller queries them.
+         */
+        public Map<ControlSeries.Key, ControlSeries> findSeriesEndingAt(
+                        Map<ControlSeries.Key, LocalDateTime> anchors, int window) {
+                Map<ControlSeries.Key, ControlSeries> result = new LinkedHashMap<>();
+                if (!ready || window <= 0) {
+                        return result;
+                }
+                anchors.forEach((key, anchor) -> {
+                        AnalyticSeriesColumns columns = columns(key);
+                        if (columns == null) {
+                                return;
+                        }
+                        int end = columns.toIndex(anchor);
+                        if (end < window || columns.date(end - 1).isBefore(anchor)) {
+                                return;
+                        }
+                        int newest = end - 1;
+                        double[] values = new double[window];
+                        for (int i = 0; i < window; i++) {
+                                values[i] = columns.value(newest - i);
+                        }
+                        result.put(key, new ControlSeries(key.name(), key.level(), columns.mean(newest),
+                                        columns.sd(newest), values));
+                });
+                meterRegistry.counter("analytics.timeseries.reads", "result", "hit").increment(result.size());
+                meterRegistry.counter("analytics.timeseries.reads", "result", "miss")
+                                .increment(anchors.size() - result.size());
+                return result;
+        }
+
+        /** Adds newly inserted runs once their transaction commits. */
+        public void append(List<AnalyticsDTO> runs) {
+                if (horizonStart == null || runs.isEmpty()) {
+                        return;
+                }
+                afterCommit(() -> {
+                        LocalDateTime start = horizonStart;
+                        Map<ControlSeries.Key, List<AnalyticsDTO>> byKey = new LinkedHashMap<>();
+                        for (AnalyticsDTO run : runs) {
+                                if (start != null && !run.date().isBefore(start)) {
+                                        byKey.computeIfAbsent(ControlSeries.Key.of(run), key -> new ArrayList<>()).add(run);
+                                }
+                        }
+                        byKey.forEach((key, added) -> {
+                                Series current = series.computeIfAbsent(key,
+                                                k -> new Series(AnalyticSeriesColumns.of(k.name(), k.level(), List.of())));
+                                current.lock.lock();
+                                try {
+                                        // A stale series is reloaded on its next read, which picks these up
+                                        if (current.columns != null) {
+                                                current.columns = current.columns.append(added);
+                                        }
+                                } finally {
+                                        current.lock.unlock();
+                                }
+                        });
+                });
+        }
+
+        /**
+         * Marks a series stale once the transaction that changed its runs
+         * commits. A null level marks every level of the test.
+         */
+        public void invalidate(String name, String level) {
+                if (horizonStart == null) {
+                        return;
+                }
+                afterCommit(() -> {
+                        if (level != null) {
+                                markStale(List.of(new ControlSeries.Key(name, level)));
+                                return;
+                        }
+                        // Series the warm-up has not installed yet are marked once it has
+                        if (!ready) {
+                                pendingInvalidations.add(name);
+                        }
+                        markStale(keysOf(name));
+                });
+        }
+
+        boolean isReady() {
+                return ready;
+        }
+
+        private List<ControlSeries.Key> keysOf(String name) {
+                return series.keySet().stream().filter(key -> key.name().equals(name)).toList();
+        }
+
+        private void markStale(Collection<ControlSeries.Key> keys) {
+                for (ControlSeries.Key key : keys) {
+                        Series current = series.computeIfAbsent(key, k -> new Series(null));
+                        current.lock.lock();
+                        try {
+                                current.columns = null;
+                        } finally {
+                                current.lock.unlock();
+                        }
+                }
+        }
+
+        private boolean covers(LocalDateTime startDate) {
+                LocalDateTime start = horizonStart;
+                return ready && start != null && !startDate.isBefore(start);
+        }
+
+        // Null when the pair has no runs in the horizon
+        private AnalyticSeriesColumns columns(ControlSeries.Key key) {
+                Series current = series.get(key);
+                if (current == null) {
+                        return null;
+                }
+                AnalyticSeriesColumns columns = current.columns;
+                return columns != null ? columns : reload(key, current);
+        }
+
+        private AnalyticSeriesColumns reload(ControlSeries.Key key, Series current) {
+                current.lock.lock();
+                try {
+                        if (current.columns == null) {
+                                LocalDateTime start = horizonStart;
+                                current.columns = AnalyticSeriesColumns.of(key.name(), key.level(), analyticsRepository
+                                                .findByNameAndLevelAndDateGreaterThanEqual(key.name(), key.level(), start));
+                                meterRegistry.counter("analytics.timeseries.reloads").increment();
+                        }
+                        return current.columns;
+                } finally {
+                        current.lock.unlock();
+                }
+        }
+
+        private long runCount() {
+                long runs = 0;
+                for (Series current : series.values()) {
+                        AnalyticSeriesColumns columns = current.columns;
+                        runs += columns != null ? columns.size() : 0;
+                }
+                return runs;
+        }
+
+        private <T> Optional<T> hit(T result) {
+                meterRegistry.counter("analytics.timeseries.reads", "result", "hit").increment();
+                return Optional.of(result);
+        }
+
+        private <T> Optional<T> miss() {
+                meterRegistry.counter("analytics.timeseries.reads", "result", "miss").increment();
+                return Optional.empty();
+        }
+
+        private static List<AnalyticsDTO> page(List<AnalyticsDTO> rows, Pageable pageable) {
+                if (pageable.isUnpaged()) {
+                        return rows;
+                }
+                int from = (int) Math.min(pageable.getOffset(), rows.size());
+                int to = Math.min(from + pageable.getPageSize(), rows.size());
+                return rows.subList(from, to);
+        }
+
+        private static void afterCommit(Runnable action) {
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                                @Override
+                                public void afterCommit() {
+                                        action.run();
+                                }
+                        });
+                } else {
+                        action.run();
+                }
+        }
+}
@@ -0,0 +1,113 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.users.enums.ExportFormat;
+
+/**
+ * XLSX written with SXSSF: only the last {@value #ROW_WINDOW} rows stay in
+ * memory, older ones are flushed to a compressed temporary file until the
+ * workbook is written out. Runs past the row limit of a sheet continue on a
+ * new one.
+ */
+@Component
+public class AnalyticXlsxExporter implements AnalyticExporter {
+
+        static final int ROW_WINDOW = 200;
+        private static final int ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+
+        @Override
+        public ExportFormat format() {
+                return ExportFormat.EXCEL;
+        }
+
+        @Override
+        public MediaType mediaType() {
+                return MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        }
+
+        @Override
+        public String extension() {
+                return "xlsx";
+        }
+
+        @Override
+        public void write(Stream<AnalyticsDTO> runs, OutputStream output) throws IOException {
+                // Closing the workbook also deletes its temporary sheet files
+                try (SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW)) {
+                        workbook.setCompressTempFiles(true);
+                        CellStyle dateStyle = workbook.createCellStyle();
+                        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat()
+                                        .getFormat("yyyy-mm-dd hh:mm:ss"));
+
+                        Sheet sheet = null;
+                        int rowNumber = ROWS_PER_SHEET;
+                        for (Iterator<AnalyticsDTO> iterator = runs.iterator(); iterator.hasNext();) {
+                                if (rowNumber == ROWS_PER_SHEET) {
+                                        sheet = newSheet(workbook);
+                                        rowNumber = 0;
+                                }
+                                writeRow(sheet.createRow(++rowNumber), iterator.next(), dateStyle);
+                        }
+                        if (sheet == null) {
+                                newSheet(workbook);
+                        }
+                        workbook.write(output);
+                        output.flush();
+                }
+        }
+
+        private static Sheet newSheet(SXSSFWorkbook workbook) {
+                Sheet sheet = workbook.createSheet("analytics-" + (workbook.getNumberOfSheets() + 1));
+                Row header = sheet.createRow(0);
+                for (int column = 0; column < COLUMNS.size(); column++) {
+                        header.createCell(column).setCellValue(COLUMNS.get(column));
+                }
+                return sheet;
+        }
+
+        private static void writeRow(Row row, AnalyticsDTO run, CellStyle dateStyle) {
+                int column = 0;
+                setNumber(row.createCell(column++), run.id() == null ? null : run.id().doubleValue());
+                Cell date = row.createCell(column++);
+                date.setCellValue(run.date());
+                date.setCellStyle(dateStyle);
+                setText(row.createCell(column++), run.level_lot());
+                setText(row.createCell(column++), run.test_lot());
+                setText(row.createCell(column++), run.name());
+                setText(row.createCell(column++), run.level());
+                setNumber(row.createCell(column++), run.value());
+                setNumber(row.createCell(column++), run.mean());
+                setNumber(row.createCell(column++), run.sd());
+                setText(row.createCell(column++), run.unit_value());
+                setText(row.createCell(column++), run.rules());
+                setText(row.createCell(column++), run.description());
+                setText(row.createCell(column++), run.validator_user());
+                setText(row.createCell(column), run.owner_user());
+        }
+
+        private static void setNumber(Cell cell, Double value) {
+                if (value != null) {
+                        cell.setCellValue(value);
+                }
+        }
+
+        private static void setText(Cell cell, String value) {
+                if (value != null) {
+                        cell.setCellValue(value);
+                }
+        }
+}
@@ -2,146 +2,97 @@ package leonardo.labutilities.qualitylabpro.domains.analytics.components;
 
 import static leonardo.labutilities.qualitylabpro.domains.shared.email.constants.EmailTemplate.ERROR_MESSAGE_TEMPLATE;
 
-import java.util.HashSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import org.springframework.stereotype.Component;
 
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.ControlSeries;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.WestgardViolationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.WestgardRule;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.WestgardRulesEvaluator;
 import leonardo.labutilities.qualitylabpro.domains.shared.blacklist.AnalyticsBlackList;
 
 @Component
 public final class RulesProviderComponent {
 
-	private static final int RULE_3S_MULTIPLIER = 3;
-	private static final int RULE_4_1S_CONSECUTIVE = 4;
-	private static final int RULE_10X_CONSECUTIVE = 10;
-
 	private final AnalyticsRepository analyticsRepository;
+	private final AnalyticTimeSeriesStore analyticTimeSeriesStore;
 
-	public RulesProviderComponent(AnalyticsRepository analyticsRepository) {
+	public RulesProviderComponent(AnalyticsRepository analyticsRepository,
+			AnalyticTimeSeriesStore analyticTimeSeriesStore) {
 		this.analyticsRepository = analyticsRepository;
+		this.analyticTimeSeriesStore = analyticTimeSeriesStore;
 	}
 
-	private boolean oneThreeSigmaRule(final List<Double> values, final double mean, final double stdDev) {
-		for (double value : values) {
-			if (value > mean + RULE_3S_MULTIPLIER * stdDev || value < mean - RULE_3S_MULTIPLIER * stdDev) {
-				return true;
+	/**
+	 * Takes the rule window of every (test, level) pair present in the given runs
+	 * from the time-series store, fetches the pairs it cannot serve in a single
+	 * query and evaluates all rules on them. Each window ends at the newest given
+	 * run of its pair, so the result does not depend on runs saved after them.
+	 * Each violated rule is reported once per pair, in the order the pairs first
+	 * appear.
+	 */
+	public List<WestgardViolationDTO> evaluate(final List<AnalyticsDTO> analytics) {
+		if (analytics == null || analytics.isEmpty()) {
+			return List.of();
+		}
+		Map<ControlSeries.Key, LocalDateTime> anchors = new LinkedHashMap<>();
+		for (AnalyticsDTO analytic : analytics) {
+			if (!AnalyticsBlackList.BLACK_LIST.contains(analytic.name())) {
+				anchors.merge(ControlSeries.Key.of(analytic), analytic.date(),
+						(current, date) -> date.isAfter(current) ? date : current);
 			}
 		}
-		return false;
-	}
-
-	private static boolean fourOneSigmaRule(final List<Double> values, final double mean, final double stdDev) {
-		if (values.size() < RULE_4_1S_CONSECUTIVE) {
-			return false;
+		if (anchors.isEmpty()) {
+			return List.of();
 		}
-		int countAbove = 0;
-		int countBelow = 0;
-		for (int i = 0; i <= 4; i++) {
-			if (values.get(i) > mean + stdDev) {
-				countAbove++;
-				countBelow = 0;
-			} else if (values.get(i) < mean - stdDev) {
-				countBelow++;
-				countAbove = 0;
-			} else {
-				countAbove = 0;
-				countBelow = 0;
-			}
-			if (countAbove >= RULE_4_1S_CONSECUTIVE || countBelow >= RULE_4_1S_CONSECUTIVE) {
-				return true;
+
+		Map<ControlSeries.Key, ControlSeries> seriesByKey =
+				new HashMap<>(this.analyticTimeSeriesStore.findSeriesEndingAt(anchors, WestgardRule.WINDOW));
+		Map<ControlSeries.Key, LocalDateTime> missing = new LinkedHashMap<>(anchors);
+		missing.keySet().removeAll(seriesByKey.keySet());
+		if (!missing.isEmpty()) {
+			for (ControlSeries series : this.analyticsRepository.findSeriesEndingAt(missing,
+					WestgardRule.WINDOW)) {
+				seriesByKey.put(series.key(), series);
 			}
 		}
-		return false;
-	}
 
-	private static boolean tenConsecutiveRule(List<Double> values, final double mean, final double stdDev) {
-		if (values.size() < RULE_10X_CONSECUTIVE) {
-			return false;
-		}
-		int countAbove = 0;
-		int countBelow = 0;
-		for (double value : values) {
-			if (value > mean + stdDev) {
-				countAbove++;
-				countBelow = 0;
-			} else if (value < mean - stdDev) {
-				countBelow++;
-				countAbove = 0;
-			} else {
-				countAbove = 0;
-				countBelow = 0;
+		List<WestgardViolationDTO> violations = new ArrayList<>();
+		for (ControlSeries.Key key : anchors.keySet()) {
+			ControlSeries series = seriesByKey.get(key);
+			if (series == null) {
+				continue;
 			}
-			if (countAbove >= RULE_10X_CONSECUTIVE || countBelow >= RULE_10X_CONSECUTIVE) {
-				return true;
+			for (WestgardRule rule : WestgardRulesEvaluator.evaluate(series.values(), series.mean(),
+					series.sd())) {
+				violations.add(WestgardViolationDTO.of(rule, series.name(), series.level()));
 			}
 		}
-		return false;
+		return violations;
 	}
 
-	public final String validateRules(final List<AnalyticsDTO> analytics) {
+	public String validateRules(final List<AnalyticsDTO> analytics) {
 		if (analytics == null || analytics.isEmpty()) {
 			return "<div style='font-family: Arial, sans-serif;'>No analytics data provided for validation.</div>";
 		}
+		return this.toHtml(this.evaluate(analytics));
+	}
+
+	public String toHtml(final List<WestgardViolationDTO> violations) {
 		StringBuilder errors = new StringBuilder();
 		errors.append("<div style='font-family: Arial, sans-serif;'>");
-
-		// Track already reported violations
-		Set<String> reportedViolations = new HashSet<>();
-
-		for (AnalyticsDTO analytic : analytics) {
-			// Create unique key for test/level combination
-			String violationKey = analytic.name() + "-" + analytic.level();
-
-			// Skip if we already reported this violation
-			if (reportedViolations.contains(violationKey)) {
-				continue;
-			}
-
-			final List<AnalyticsDTO> analyticsRecords = this.analyticsRepository
-					.findLast10ByTestNameAndControlLevel(analytic.name(), analytic.level()).stream()
-					.filter(analyticsRecord -> !AnalyticsBlackList.BLACK_LIST.contains(analyticsRecord.name()))
-					.toList();
-
-			final Double mean = analyticsRecords.getFirst().mean();
-			final Double stdDev = analyticsRecords.getFirst().sd();
-			final List<Double> values = analyticsRecords.stream().map(AnalyticsDTO::value).toList();
-
-			final List<AnalyticsDTO> lastAnalyticsRecords = this.analyticsRepository
-					.findLastByTestNameAndControlLevel(analytic.name(), analytic.level()).stream()
-					.filter(analyticsEntry -> !AnalyticsBlackList.BLACK_LIST.contains(analyticsEntry.name())).toList();
-
-			final Double lastMean = lastAnalyticsRecords.getFirst().mean();
-			final Double lastStdDev = lastAnalyticsRecords.getFirst().sd();
-			final List<Double> lastValues = lastAnalyticsRecords.stream().map(AnalyticsDTO::value).toList();
-
-			if (this.oneThreeSigmaRule(lastValues, lastMean, lastStdDev)) {
-				errors.append(String.format(ERROR_MESSAGE_TEMPLATE, "1-3s", analytic.name(), analytic.level(),
-						"One observation exceeds mean ±3 SD",
-						"Random Error. Reject run and investigate for potential systematic errors."));
-				reportedViolations.add(violationKey);
-			}
-
-			if (RulesProviderComponent.fourOneSigmaRule(values, mean, stdDev)) {
-				errors.append(String.format(ERROR_MESSAGE_TEMPLATE, "4-1s", analytic.name(), analytic.level(),
-						"Four consecutive measurements exceed ±1 SD on same side of mean",
-						"Systematic Error. Check for calibration drift, reagent lot changes, or environmental conditions."));
-				reportedViolations.add(violationKey);
-			}
-
-			if (RulesProviderComponent.tenConsecutiveRule(values, mean, stdDev)) {
-				errors.append(String.format(ERROR_MESSAGE_TEMPLATE, "10x", analytic.name(), analytic.level(),
-						"Ten consecutive measurements on same side of mean, exceeding ±1 SD",
-						"Systematic Error. Review calibration, reagent stability, and instrument maintenance. Recalibrate if necessary. "
-								+ "If problem persists, consider retesting patient samples."));
-
-				reportedViolations.add(violationKey);
-			}
+		for (WestgardViolationDTO violation : violations) {
+			errors.append(String.format(ERROR_MESSAGE_TEMPLATE, violation.rule(), violation.name(),
+					violation.level(), violation.issue(), violation.action()));
 		}
-
 		errors.append("</div>");
 		return errors.toString();
 	}
@@ -0,0 +1,15 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.constants;
+
+import java.util.List;
+
+public final class AnalyticCacheNames {
+        private AnalyticCacheNames() {}
+
+        public static final String MEAN_AND_STANDARD_DEVIATION = "analytics-mean-sd";
+        public static final String GROUPED_MEAN_AND_STANDARD_DEVIATION = "analytics-grouped-mean-sd";
+        public static final String ERROR_STATISTICS = "analytics-error-statistics";
+        public static final String GROUPED_RESULTS = "analytics-grouped-results";
+
+        public static final List<String> ALL = List.of(MEAN_AND_STANDARD_DEVIATION,
+                        GROUPED_MEAN_AND_STANDARD_DEVIATION, ERROR_STATISTICS, GROUPED_RESULTS);
+}
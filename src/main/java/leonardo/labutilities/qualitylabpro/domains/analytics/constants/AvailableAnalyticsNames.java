@@ -1,10 +1,16 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.constants;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.WorkSectorEnum;
 
 public final class AvailableAnalyticsNames {
     public static final List<String> ALL_ANALYTICS;
+    private static final Map<String, WorkSectorEnum> SECTOR_BY_NAME;
 
     static {
         List<String> allAnalytics = new ArrayList<>();
@@ -12,6 +18,20 @@ public final class AvailableAnalyticsNames {
         allAnalytics.addAll(AvailableCoagulationAnalytics.DEFAULT_COAG_ANALYTICS);
         allAnalytics.addAll(AvailableBiochemistryAnalytics.DEFAULT_BIO_ANALYTICS);
         ALL_ANALYTICS = List.copyOf(allAnalytics);
+
+        Map<String, WorkSectorEnum> sectorByName = new HashMap<>();
+        AvailableHematologyAnalytics.DEFAULT_HEMATO_ANALYTICS
+                .forEach(name -> sectorByName.putIfAbsent(name, WorkSectorEnum.HEMATOLOGY));
+        AvailableCoagulationAnalytics.DEFAULT_COAG_ANALYTICS
+                .forEach(name -> sectorByName.putIfAbsent(name, WorkSectorEnum.COAGULATION));
+        AvailableBiochemistryAnalytics.DEFAULT_BIO_ANALYTICS
+                .forEach(name -> sectorByName.putIfAbsent(name, WorkSectorEnum.BIOCHEMISTRY));
+        SECTOR_BY_NAME = Map.copyOf(sectorByName);
+    }
+
+    /** Sector whose default test list contains the given name, if any. */
+    public static Optional<WorkSectorEnum> sectorOf(String name) {
+        return Optional.ofNullable(name).map(SECTOR_BY_NAME::get);
     }
 
     private AvailableAnalyticsNames() {
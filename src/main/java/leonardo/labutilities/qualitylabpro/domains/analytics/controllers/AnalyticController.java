@@ -1,5 +1,6 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.controllers;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -10,7 +11,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
@@ -20,24 +24,39 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticExporter;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.requests.AnalyticsDateRangeParamsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.requests.AnalyticsLevelDateRangeParamsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.requests.AnalyticsListValidationByUserDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.requests.AnalyticsNameAndLevelDateRangeParamsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.requests.ComparativeErrorStatisticsParamsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.requests.RecalibrateAnalyticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.requests.UpdateAnalyticsMeanDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsImportSummaryDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsRecalibrationSummaryDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsValidationSummaryDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsWithCalcDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.ComparativeErrorStatisticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.ErrorStatisticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedMeanAndStdByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedResultsByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticExportService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticHelperService;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticImportService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticStatisticsService;
+import leonardo.labutilities.qualitylabpro.domains.users.enums.ExportFormat;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -45,10 +64,15 @@ import lombok.extern.slf4j.Slf4j;
 class AnalyticController extends AnalyticHelperController {
 
 	private final List<String> names;
+	private final AnalyticImportService analyticImportService;
+	private final AnalyticExportService analyticExportService;
 
 	protected AnalyticController(AnalyticHelperService analyticHelperService,
-			AnalyticStatisticsService analyticsStatisticsService, List<String> names) {
+			AnalyticStatisticsService analyticsStatisticsService, AnalyticImportService analyticImportService,
+			AnalyticExportService analyticExportService, List<String> names) {
 		super(analyticHelperService, analyticsStatisticsService);
+		this.analyticImportService = analyticImportService;
+		this.analyticExportService = analyticExportService;
 		this.names = names;
 	}
 
@@ -75,6 +99,31 @@ class AnalyticController extends AnalyticHelperController {
 		return ResponseEntity.status(HttpStatus.OK).body(respose);
 	}
 
+	// Set-based variants for supervisors: counts instead of the validated records
+	@PatchMapping("/validate/bulk")
+	@Transactional
+	public ResponseEntity<AnalyticsValidationSummaryDTO> patchValidateAnalyticsInBulk(
+			@RequestBody AnalyticsListValidationByUserDTO analyticsListValidationByUserDTO,
+			@RequestParam(defaultValue = "false") boolean includeIds) {
+		var response = analyticHelperService
+				.validateAnalyticsByIds(analyticsListValidationByUserDTO.ids(), includeIds);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
+	@PatchMapping("/validate/date-range")
+	@Transactional
+	public ResponseEntity<AnalyticsValidationSummaryDTO> patchValidateAnalyticsDateBetween(
+			@Valid @ParameterObject AnalyticsDateRangeParamsDTO params,
+			@RequestParam(required = false) String level,
+			@RequestParam(defaultValue = "false") boolean includeIds) {
+		var response = analyticHelperService.validateAnalyticsMatching(names,
+				level == null ? null : analyticHelperService.convertLevel(level), params.startDate(),
+				params.endDate(), includeIds);
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
+
 	@PatchMapping("/{id}/description")
 	@Transactional
 	public ResponseEntity<AnalyticsDTO> patchDescriptionAnalyticByUser(@PathVariable Long id,
@@ -93,6 +142,17 @@ class AnalyticController extends AnalyticHelperController {
 		return ResponseEntity.status(HttpStatus.CREATED).body(response);
 	}
 
+	// Not transactional on purpose: each batch commits on its own
+	@PostMapping(value = "/import", consumes = {AnalyticImportService.APPLICATION_NDJSON_VALUE,
+			AnalyticImportService.TEXT_CSV_VALUE, MediaType.APPLICATION_JSON_VALUE})
+	public ResponseEntity<AnalyticsImportSummaryDTO> importAnalytics(HttpServletRequest request,
+			@RequestParam(required = false) @Min(1) @Max(5000) Integer batchSize) throws IOException {
+		var response = analyticImportService.importRecords(request.getInputStream(),
+				MediaType.parseMediaType(request.getContentType()), batchSize, analyticHelperService);
+
+		return ResponseEntity.status(HttpStatus.CREATED).body(response);
+	}
+
 	@GetMapping
 	public ResponseEntity<CollectionModel<EntityModel<AnalyticsDTO>>> getAllAnalytics(
 			@ParameterObject Pageable pageable) {
@@ -132,6 +192,60 @@ class AnalyticController extends AnalyticHelperController {
 		return ResponseEntity.status(HttpStatus.OK).body(result);
 	}
 
+	// Keyset variants of the two listings above: no COUNT(*) and no offset scan,
+	// each test seeks at most one page of index entries however deep the page is
+	@GetMapping("/date-range/cursor")
+	public ResponseEntity<CollectionModel<EntityModel<AnalyticsDTO>>> getAnalyticsDateBetweenByCursor(
+			@ParameterObject AnalyticsDateRangeParamsDTO params,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "2500") @Min(1) @Max(5000) int size) {
+		var result = analyticHelperService.findAnalyticsByNameInAndDateBetweenAfterCursor(names,
+				params.startDate(), params.endDate(), cursor, size);
+
+		return toCursorPageWithLinks(result);
+	}
+
+	@GetMapping("/date-range/unvalid/cursor")
+	public ResponseEntity<CollectionModel<EntityModel<AnalyticsDTO>>> getUnvalidAnalyticsDateBetweenByCursor(
+			@ParameterObject AnalyticsDateRangeParamsDTO params,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "1500") @Min(1) @Max(5000) int size) {
+		var result = analyticHelperService.findUnvalidAnalyticsByNameInAndDateBetweenAfterCursor(names,
+				params.startDate(), params.endDate(), cursor, size);
+
+		return toCursorPageWithLinks(result);
+	}
+
+	// Pushes the sector's new runs and rule violations; reconnecting clients resume
+	// from the Last-Event-ID header sent by EventSource
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamNewAnalytics(
+			@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+		return analyticHelperService.subscribeToNewAnalytics(names, lastEventId);
+	}
+
+	// Written synchronously on the request's virtual thread, so long exports are
+	// not cut off by the async request timeout
+	@GetMapping("/export")
+	public void exportAnalytics(@Valid @ParameterObject AnalyticsDateRangeParamsDTO params,
+			@RequestParam(required = false) String level,
+			@RequestParam(defaultValue = "CSV") ExportFormat format,
+			@RequestParam(defaultValue = "false") boolean gzip,
+			HttpServletResponse response) throws IOException {
+		AnalyticExporter exporter = analyticExportService.exporterFor(format);
+		String filename = String.format("analytics-%s-%s.%s%s", params.startDate().toLocalDate(),
+				params.endDate().toLocalDate(), exporter.extension(), gzip ? ".gz" : "");
+
+		try (var reservation = analyticExportService.reserve()) {
+			response.setContentType(gzip ? "application/gzip" : exporter.mediaType().toString());
+			response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+					ContentDisposition.attachment().filename(filename).build().toString());
+			analyticExportService.export(reservation, names,
+					level == null ? null : analyticHelperService.convertLevel(level), params.startDate(),
+					params.endDate(), exporter, gzip, response.getOutputStream());
+		}
+	}
+
 	@GetMapping("/level-date-range")
 	public ResponseEntity<Page<AnalyticsDTO>> getAllAnalyticsByLevelDateRange(
 			@ParameterObject AnalyticsLevelDateRangeParamsDTO params,
@@ -169,14 +283,17 @@ class AnalyticController extends AnalyticHelperController {
 		return ResponseEntity.status(HttpStatus.OK).body(result);
 	}
 
+	// maxPoints reads the whole range and downsamples it with LTTB, keeping every
+	// run that broke a rule; the pageable is ignored then
 	@GetMapping("/name-and-level-date-range")
 	public ResponseEntity<AnalyticsWithCalcDTO> getAllAnalyticsByNameAndLevelDateRange(
 			@ParameterObject AnalyticsNameAndLevelDateRangeParamsDTO params,
-			@PageableDefault(size = 100) @ParameterObject Pageable pageable) {
+			@PageableDefault(size = 100) @ParameterObject Pageable pageable,
+			@RequestParam(required = false) @Min(3) @Max(10000) Integer maxPoints) {
 
 		var result = analyticHelperService.findAnalyticsByNameLevelDate(params.name(),
 				analyticHelperService.convertLevel(params.level()), params.startDate(),
-				params.endDate(), pageable);
+				params.endDate(), pageable, maxPoints);
 
 		return ResponseEntity.status(HttpStatus.OK).body(result);
 	}
@@ -193,6 +310,32 @@ class AnalyticController extends AnalyticHelperController {
 		return ResponseEntity.status(HttpStatus.OK).body(result);
 	}
 
+	// Column-oriented variants of the two chart reads above: one object per
+	// level with parallel arrays, built without a DTO per run
+	@GetMapping("/name-and-level-date-range/chart")
+	public ResponseEntity<AnalyticsChartDTO> getChartByNameAndLevelDateRange(
+			@ParameterObject AnalyticsNameAndLevelDateRangeParamsDTO params,
+			@RequestParam(required = false) @Min(3) @Max(10000) Integer maxPoints) {
+
+		var result = analyticHelperService.findAnalyticsChartByNameLevelDate(params.name(),
+				analyticHelperService.convertLevel(params.level()), params.startDate(), params.endDate(),
+				maxPoints);
+
+		return ResponseEntity.status(HttpStatus.OK).body(result);
+	}
+
+	@GetMapping("/grouped-by-level/chart")
+	public ResponseEntity<List<AnalyticsChartDTO>> getChartsGroupedByLevel(@RequestParam String name,
+			@RequestParam("startDate") LocalDateTime startDate,
+			@RequestParam("endDate") LocalDateTime endDate,
+			@RequestParam(required = false) @Min(3) @Max(10000) Integer maxPoints) {
+
+		var result = analyticHelperService.findAnalyticsChartsGroupedByLevel(name, startDate, endDate,
+				maxPoints);
+
+		return ResponseEntity.status(HttpStatus.OK).body(result);
+	}
+
 	@GetMapping("/grouped-by-level/mean-deviation")
 	public ResponseEntity<List<GroupedMeanAndStdByLevelDTO>> getMeanAndDeviationGrouped(
 			@RequestParam String name, @RequestParam("startDate") LocalDateTime startDate,
@@ -232,6 +375,16 @@ class AnalyticController extends AnalyticHelperController {
 		return ResponseEntity.status(HttpStatus.OK).body(response);
 	}
 
+	@PostMapping("/daily-summary/rebuild")
+	public ResponseEntity<Void> rebuildDailySummary(
+			@RequestParam("startDate") LocalDateTime startDate,
+			@RequestParam("endDate") LocalDateTime endDate) {
+
+		analyticsStatisticsService.rebuildDailySummary(names, startDate.toLocalDate(), endDate.toLocalDate());
+
+		return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+	}
+
 	@PatchMapping()
 	public ResponseEntity<Void> updateAnalyticsMean(
 			@Valid @RequestBody UpdateAnalyticsMeanDTO updateAnalyticsMeanDTO) {
@@ -243,4 +396,16 @@ class AnalyticController extends AnalyticHelperController {
 
 		return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
 	}
+
+	@PatchMapping("/recalibrate")
+	public ResponseEntity<AnalyticsRecalibrationSummaryDTO> recalibrateAnalytics(
+			@Valid @RequestBody RecalibrateAnalyticsDTO recalibrateAnalyticsDTO) {
+
+		var response = analyticHelperService.recalibrateAnalytics(recalibrateAnalyticsDTO.name(),
+				analyticHelperService.convertLevel(recalibrateAnalyticsDTO.level()),
+				recalibrateAnalyticsDTO.levelLot(), recalibrateAnalyticsDTO.mean(), recalibrateAnalyticsDTO.sd(),
+				recalibrateAnalyticsDTO.startDate(), recalibrateAnalyticsDTO.endDate());
+
+		return ResponseEntity.status(HttpStatus.OK).body(response);
+	}
 }
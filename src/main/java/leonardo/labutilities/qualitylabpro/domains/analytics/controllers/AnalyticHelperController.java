@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsCursorPageDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.helpers.AnalyticsHelperUtility;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticHelperService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticStatisticsService;
@@ -67,4 +68,12 @@ public class AnalyticHelperController {
 
 		return ResponseEntity.ok(result);
 	}
+
+	protected ResponseEntity<CollectionModel<EntityModel<AnalyticsDTO>>> toCursorPageWithLinks(
+			AnalyticsCursorPageDTO page) {
+		List<EntityModel<AnalyticsDTO>> entityModels = page.content().stream()
+				.map(analyticsRecord -> AnalyticsHelperUtility.createEntityModel(analyticsRecord, this)).toList();
+
+		return ResponseEntity.ok(AnalyticsHelperUtility.addPaginationLinks(CollectionModel.of(entityModels), page));
+	}
 }
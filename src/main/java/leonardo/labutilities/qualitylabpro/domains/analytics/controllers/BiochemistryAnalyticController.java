@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import leonardo.labutilities.qualitylabpro.domains.analytics.constants.AvailableBiochemistryAnalytics;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticExportService;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticImportService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticStatisticsService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.BiochemistryAnalyticService;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +24,9 @@ public class BiochemistryAnalyticController extends AnalyticController {
 	private static final List<String> names = AvailableBiochemistryAnalytics.DEFAULT_BIO_ANALYTICS;
 
 	public BiochemistryAnalyticController(BiochemistryAnalyticService biochemistryAnalyticsService,
-			AnalyticStatisticsService analyticsStatisticsService) {
-		super(biochemistryAnalyticsService, analyticsStatisticsService, names);
+			AnalyticStatisticsService analyticsStatisticsService, AnalyticImportService analyticImportService,
+			AnalyticExportService analyticExportService) {
+		super(biochemistryAnalyticsService, analyticsStatisticsService, analyticImportService, analyticExportService,
+				names);
 	}
 }
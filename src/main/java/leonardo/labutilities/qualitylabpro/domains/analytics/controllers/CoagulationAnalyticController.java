@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import leonardo.labutilities.qualitylabpro.domains.analytics.constants.AvailableCoagulationAnalytics;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticExportService;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticImportService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticStatisticsService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.CoagulationAnalyticService;
 
@@ -20,7 +22,9 @@ public class CoagulationAnalyticController extends AnalyticController {
 	private static final List<String> names = AvailableCoagulationAnalytics.DEFAULT_COAG_ANALYTICS;
 
 	public CoagulationAnalyticController(CoagulationAnalyticService coagulationAnalyticsService,
-			AnalyticStatisticsService analyticsStatisticsService) {
-		super(coagulationAnalyticsService, analyticsStatisticsService, names);
+			AnalyticStatisticsService analyticsStatisticsService, AnalyticImportService analyticImportService,
+			AnalyticExportService analyticExportService) {
+		super(coagulationAnalyticsService, analyticsStatisticsService, analyticImportService, analyticExportService,
+				names);
 	}
 }
@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.RestController;
 
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import leonardo.labutilities.qualitylabpro.domains.analytics.constants.AvailableHematologyAnalytics;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticExportService;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticImportService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticStatisticsService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.HematologyAnalyticService;
 
@@ -20,8 +22,10 @@ public class HematologyAnalyticController extends AnalyticController {
 	private static final List<String> names = AvailableHematologyAnalytics.DEFAULT_HEMATO_ANALYTICS;
 
 	public HematologyAnalyticController(HematologyAnalyticService hematologyAnalyticsService,
-			AnalyticStatisticsService analyticsStatisticsService) {
-		super(hematologyAnalyticsService, analyticsStatisticsService, names);
+			AnalyticStatisticsService analyticsStatisticsService, AnalyticImportService analyticImportService,
+			AnalyticExportService analyticExportService) {
+		super(hematologyAnalyticsService, analyticsStatisticsService, analyticImportService, analyticExportService,
+				names);
 	}
 
 }
@@ -0,0 +1,9 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common;
+
+import java.time.LocalDate;
+
+/**
+ * One day of runs of a test and control level, the unit the daily summary is
+ * recomputed in.
+ */
+public record AnalyticDayKey(String name, String level, LocalDate day) {}
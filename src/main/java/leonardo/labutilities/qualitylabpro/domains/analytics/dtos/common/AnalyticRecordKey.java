@@ -0,0 +1,13 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common;
+
+import java.time.LocalDateTime;
+
+/**
+ * Natural key of a QC run, backed by the uk_analytics_run unique index.
+ */
+public record AnalyticRecordKey(String name, String level, LocalDateTime date) {
+
+	public static AnalyticRecordKey of(AnalyticsDTO analyticsDTO) {
+		return new AnalyticRecordKey(analyticsDTO.name(), analyticsDTO.level(), analyticsDTO.date());
+	}
+}
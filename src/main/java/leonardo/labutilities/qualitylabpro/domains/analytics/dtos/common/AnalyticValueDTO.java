@@ -0,0 +1,6 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common;
+
+/**
+ * Measured value of a run together with the target it was evaluated against.
+ */
+public record AnalyticValueDTO(String name, double value, double targetMean) {}
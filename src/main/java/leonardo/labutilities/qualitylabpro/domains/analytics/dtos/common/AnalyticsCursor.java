@@ -0,0 +1,47 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import leonardo.labutilities.qualitylabpro.domains.shared.exception.CustomGlobalErrorHandling;
+
+/**
+ * Position of the last row of a keyset page, ordered by (measurementDate DESC,
+ * id DESC). Clients only ever see it as an opaque URL-safe token.
+ */
+public record AnalyticsCursor(LocalDateTime date, long id) {
+
+	private static final String SEPARATOR = "|";
+
+	// Seeks from the end of the range; every id is below Long.MAX_VALUE
+	public static AnalyticsCursor first(LocalDateTime endDate) {
+		return new AnalyticsCursor(endDate, Long.MAX_VALUE);
+	}
+
+	public static AnalyticsCursor after(AnalyticsDTO lastRecord) {
+		return new AnalyticsCursor(lastRecord.date(), lastRecord.id());
+	}
+
+	public static AnalyticsCursor of(String token, LocalDateTime endDate) {
+		return token == null || token.isBlank() ? first(endDate) : decode(token);
+	}
+
+	public static AnalyticsCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = raw.lastIndexOf(SEPARATOR);
+			return new AnalyticsCursor(LocalDateTime.parse(raw.substring(0, separator)),
+					Long.parseLong(raw.substring(separator + 1)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+			throw new CustomGlobalErrorHandling.InvalidCursorException(
+					"Continuation token is malformed: " + token, e);
+		}
+	}
+
+	public String encode() {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((date + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,20 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common;
+
+/**
+ * The most recent runs of one (test, level) pair, newest first, with the
+ * target mean and SD of the newest run. Used as the input of the Westgard
+ * rule evaluation.
+ */
+public record ControlSeries(String name, String level, double mean, double sd, double[] values) {
+
+	public record Key(String name, String level) {
+
+		public static Key of(AnalyticsDTO analyticsDTO) {
+			return new Key(analyticsDTO.name(), analyticsDTO.level());
+		}
+	}
+
+	public Key key() {
+		return new Key(name, level);
+	}
+}
@@ -0,0 +1,42 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.requests;
+
+import java.time.LocalDateTime;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+@Schema(description = "Data Transfer Object for recalibrating the target of a control lot")
+public record RecalibrateAnalyticsDTO(
+		@Schema(description = "Name of the analytic test", example = "Glucose",
+				requiredMode = Schema.RequiredMode.REQUIRED) @NotBlank String name,
+
+		@Schema(description = "Control level identifier", example = "1",
+				requiredMode = Schema.RequiredMode.REQUIRED) @NotBlank String level,
+
+		@Schema(description = "Control level lot number", example = "LOT123",
+				requiredMode = Schema.RequiredMode.REQUIRED) @NotBlank String levelLot,
+
+		@Schema(description = "New target mean", example = "118.3",
+				requiredMode = Schema.RequiredMode.REQUIRED) @NotNull Double mean,
+
+		@Schema(description = "New standard deviation, each run keeps its own when omitted",
+				example = "2.4") @Positive Double sd,
+
+		@Schema(description = "First measurement date to recalibrate, the whole lot when omitted",
+				example = "2024-01-01T00:00:00") LocalDateTime startDate,
+
+		@Schema(description = "Last measurement date to recalibrate, the whole lot when omitted",
+				example = "2024-01-31T23:59:59") LocalDateTime endDate) {
+
+	@Schema(hidden = true)
+	@AssertTrue(message = "startDate and endDate must be given together, startDate first")
+	public boolean isDateRangeValid() {
+		if (startDate == null || endDate == null) {
+			return startDate == null && endDate == null;
+		}
+		return !startDate.isAfter(endDate);
+	}
+}
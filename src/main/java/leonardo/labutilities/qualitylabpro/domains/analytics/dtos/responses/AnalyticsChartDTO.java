@@ -0,0 +1,109 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.ControlRange;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.DownsamplingUtility;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.WestgardRulesEvaluator;
+
+/**
+ * Levey-Jennings series of one (test, level) pair in column form: the text
+ * shared by every run is sent once and the runs are parallel arrays, so a
+ * point costs a few numbers instead of a full {@code AnalyticsDTO}.
+ */
+@Schema(description = "Runs of one test and control level as parallel arrays, in date order")
+public record AnalyticsChartDTO(
+		@Schema(description = "Name of the analytic test", example = "ALB2",
+				requiredMode = Schema.RequiredMode.REQUIRED) String name,
+
+		@Schema(description = "Control level identifier", example = "PCCC1",
+				requiredMode = Schema.RequiredMode.REQUIRED) String level,
+
+		@Schema(description = "Unit of measurement", example = "g/dL") String unit,
+
+		@Schema(description = "Mean and standard deviation of every run in the range",
+				requiredMode = Schema.RequiredMode.REQUIRED) MeanAndStdDeviationDTO calcMeanAndStdDTO,
+
+		@Schema(description = "Target bands, each one applying from its index until the next",
+				requiredMode = Schema.RequiredMode.REQUIRED) List<Target> targets,
+
+		@Schema(description = "Run ids", requiredMode = Schema.RequiredMode.REQUIRED) long[] ids,
+
+		@Schema(description = "Measurement dates as epoch milliseconds of the laboratory wall-clock time, read as UTC",
+				requiredMode = Schema.RequiredMode.REQUIRED) long[] timestamps,
+
+		@Schema(description = "Measured values", requiredMode = Schema.RequiredMode.REQUIRED) double[] values,
+
+		@Schema(description = "Signed SD band of the persisted rule, 0 when no rule is broken",
+				example = "[0, 1, -2]", requiredMode = Schema.RequiredMode.REQUIRED) int[] rules,
+
+		@Schema(description = "Whether each run has been validated",
+				requiredMode = Schema.RequiredMode.REQUIRED) boolean[] validated) {
+
+	@Schema(description = "Target mean and SD in effect from a point index onwards")
+	public record Target(
+			@Schema(description = "Index of the first run using this target", example = "0") int fromIndex,
+			@Schema(description = "Target mean", example = "3.35") double mean,
+			@Schema(description = "Target standard deviation", example = "0.2") double sd) {}
+
+	public int size() {
+		return ids.length;
+	}
+
+	/**
+	 * Copy reduced to about {@code maxPoints} runs by LTTB, keeping every run
+	 * outside ±2 SD and every run of a Westgard multirule violation evaluated
+	 * over the series. The statistics still describe the whole range.
+	 */
+	public AnalyticsChartDTO downsample(int maxPoints) {
+		if (size() <= maxPoints) {
+			return this;
+		}
+		double[] means = new double[size()];
+		double[] sds = new double[size()];
+		for (int band = 0; band < targets.size(); band++) {
+			int to = band + 1 < targets.size() ? targets.get(band + 1).fromIndex() : size();
+			Arrays.fill(means, targets.get(band).fromIndex(), to, targets.get(band).mean());
+			Arrays.fill(sds, targets.get(band).fromIndex(), to, targets.get(band).sd());
+		}
+		boolean[] mustKeep = WestgardRulesEvaluator.violatingRuns(values, means, sds);
+		for (int index = 0; index < mustKeep.length; index++) {
+			mustKeep[index] |= Math.abs(rules[index]) >= ControlRange.PLUS_2S.getDeviations();
+		}
+		return select(DownsamplingUtility.largestTriangleThreeBuckets(timestamps, values, mustKeep,
+				maxPoints));
+	}
+
+	private AnalyticsChartDTO select(int[] indices) {
+		long[] selectedIds = new long[indices.length];
+		long[] selectedTimestamps = new long[indices.length];
+		double[] selectedValues = new double[indices.length];
+		int[] selectedRules = new int[indices.length];
+		boolean[] selectedValidated = new boolean[indices.length];
+		List<Target> selectedTargets = new ArrayList<>();
+		int band = 0;
+
+		for (int position = 0; position < indices.length; position++) {
+			int index = indices[position];
+			while (band + 1 < targets.size() && targets.get(band + 1).fromIndex() <= index) {
+				band++;
+			}
+			// Bands without a selected run are dropped, the others start at their first one
+			Target target = targets.get(band);
+			if (selectedTargets.isEmpty() || selectedTargets.getLast().mean() != target.mean()
+					|| selectedTargets.getLast().sd() != target.sd()) {
+				selectedTargets.add(new Target(position, target.mean(), target.sd()));
+			}
+			selectedIds[position] = ids[index];
+			selectedTimestamps[position] = timestamps[index];
+			selectedValues[position] = values[index];
+			selectedRules[position] = rules[index];
+			selectedValidated[position] = validated[index];
+		}
+		return new AnalyticsChartDTO(name, level, unit, calcMeanAndStdDTO, List.copyOf(selectedTargets),
+				selectedIds, selectedTimestamps, selectedValues, selectedRules, selectedValidated);
+	}
+}
@@ -0,0 +1,30 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsCursor;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+
+@Schema(description = "One keyset page of analytics and the token to request the next one")
+public record AnalyticsCursorPageDTO(
+		@Schema(description = "Records of this page, newest first") List<AnalyticsDTO> content,
+		@Schema(description = "Requested page size", example = "2500") int size,
+		@Schema(description = "Continuation token for the next page, null on the last page",
+				example = "MjAyNS0wMS0wMVQwODowMHw0Mg") String nextCursor) {
+
+	// The repository is asked for one extra row so the last page is detected
+	// without a COUNT query
+	public static AnalyticsCursorPageDTO of(List<AnalyticsDTO> rows, int size) {
+		if (rows.size() <= size) {
+			return new AnalyticsCursorPageDTO(rows, size, null);
+		}
+		List<AnalyticsDTO> content = rows.subList(0, size);
+		return new AnalyticsCursorPageDTO(content, size,
+				AnalyticsCursor.after(content.get(size - 1)).encode());
+	}
+
+	public boolean hasNext() {
+		return nextCursor != null;
+	}
+}
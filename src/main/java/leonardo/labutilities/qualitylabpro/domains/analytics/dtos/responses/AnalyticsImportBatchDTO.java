@@ -0,0 +1,16 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of one committed batch of a streaming import")
+public record AnalyticsImportBatchDTO(
+		@Schema(description = "Batch number, starting at 1", example = "1") int batch,
+
+		@Schema(description = "Records read for this batch", example = "500") int received,
+
+		@Schema(description = "Records inserted", example = "480") int inserted,
+
+		@Schema(description = "Valid records skipped because the run already exists",
+				example = "18") int duplicates,
+
+		@Schema(description = "Records rejected by validation", example = "2") int rejected) {}
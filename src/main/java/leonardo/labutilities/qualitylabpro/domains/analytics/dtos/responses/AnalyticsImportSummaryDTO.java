@@ -0,0 +1,28 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Totals and per-batch outcome of a streaming import")
+public record AnalyticsImportSummaryDTO(
+		@Schema(description = "Records read", example = "1000") int received,
+
+		@Schema(description = "Records inserted", example = "960") int inserted,
+
+		@Schema(description = "Valid records skipped because the run already exists",
+				example = "36") int duplicates,
+
+		@Schema(description = "Records rejected by validation", example = "4") int rejected,
+
+		@Schema(description = "Outcome of each committed batch") List<AnalyticsImportBatchDTO> batches) {
+
+	public static AnalyticsImportSummaryDTO of(List<AnalyticsImportBatchDTO> batches) {
+		return new AnalyticsImportSummaryDTO(
+				batches.stream().mapToInt(AnalyticsImportBatchDTO::received).sum(),
+				batches.stream().mapToInt(AnalyticsImportBatchDTO::inserted).sum(),
+				batches.stream().mapToInt(AnalyticsImportBatchDTO::duplicates).sum(),
+				batches.stream().mapToInt(AnalyticsImportBatchDTO::rejected).sum(),
+				List.copyOf(batches));
+	}
+}
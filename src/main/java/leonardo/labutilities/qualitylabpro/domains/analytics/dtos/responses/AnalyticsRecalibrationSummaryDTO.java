@@ -0,0 +1,10 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of a control lot recalibration")
+public record AnalyticsRecalibrationSummaryDTO(
+		@Schema(description = "Runs whose target was recalibrated", example = "640") int recalibrated,
+
+		@Schema(description = "Runs whose rule classification changed with the new target",
+				example = "37") int reclassified) {}
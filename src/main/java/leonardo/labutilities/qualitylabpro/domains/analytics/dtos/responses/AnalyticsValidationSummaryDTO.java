@@ -0,0 +1,24 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses;
+
+import java.util.Collection;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of a bulk validation")
+public record AnalyticsValidationSummaryDTO(
+		@Schema(description = "Runs the request asked to validate", example = "1200") int requested,
+
+		@Schema(description = "Runs validated by this request", example = "1180") int validated,
+
+		@Schema(description = "Runs skipped because they were already validated or do not exist",
+				example = "20") int skipped,
+
+		@Schema(description = "Ids of the validated runs, only when includeIds is set") List<Long> ids) {
+
+	public static AnalyticsValidationSummaryDTO of(int requested, Collection<Long> validatedIds,
+			boolean includeIds) {
+		return new AnalyticsValidationSummaryDTO(requested, validatedIds.size(),
+				requested - validatedIds.size(), includeIds ? List.copyOf(validatedIds) : List.of());
+	}
+}
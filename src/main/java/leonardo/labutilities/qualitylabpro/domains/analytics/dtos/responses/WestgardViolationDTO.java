@@ -0,0 +1,21 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.WestgardRule;
+
+@Schema(description = "Westgard rule violated by the latest runs of a test and level")
+public record WestgardViolationDTO(
+		@Schema(description = "Violated rule", example = "2-2s") String rule,
+
+		@Schema(description = "Test name", example = "GLU") String name,
+
+		@Schema(description = "Control level", example = "PCCC1") String level,
+
+		@Schema(description = "Description of the violation") String issue,
+
+		@Schema(description = "Recommended corrective action") String action) {
+
+	public static WestgardViolationDTO of(WestgardRule rule, String name, String level) {
+		return new WestgardViolationDTO(rule.getCode(), name, level, rule.getIssue(), rule.getAction());
+	}
+}
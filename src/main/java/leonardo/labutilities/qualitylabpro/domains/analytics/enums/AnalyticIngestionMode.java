@@ -0,0 +1,12 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.enums;
+
+/**
+ * How new QC runs are deduplicated on ingestion
+ * ({@code analytics.ingestion.mode}).
+ */
+public enum AnalyticIngestionMode {
+    /** Look up the existing keys of the batch first, then insert the rest through JPA. */
+    CHECK_EXISTING,
+    /** Let the unique index skip duplicates in the INSERT itself, without a lookup. */
+    INSERT_IGNORE
+}
@@ -0,0 +1,15 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.enums;
+
+/**
+ * How multi-analyte error statistics are computed
+ * ({@code analytics.statistics.mode}).
+ */
+public enum AnalyticStatisticsMode {
+    /** One summary query and one raw scan for all analytes, on the calling thread. */
+    BATCHED,
+    /**
+     * One task per analyte on virtual threads, at most
+     * {@code analytics.statistics.parallelism} at a time across all requests.
+     */
+    PARALLEL
+}
@@ -0,0 +1,54 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.enums;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.constants.ThresholdAnalyticsRules;
+import leonardo.labutilities.qualitylabpro.domains.analytics.constants.ValidationAnalyticsDescriptions;
+import lombok.Getter;
+
+/**
+ * Standard deviation band a run falls in relative to its target, with the
+ * rule and description persisted for it.
+ */
+@Getter
+public enum ControlRange {
+    WITHIN_RANGE(0, "No rule broken", "Approved according to current Westgard configured rules"),
+    PLUS_1S(1, 0),
+    PLUS_2S(2, 1),
+    PLUS_3S(3, 2),
+    MINUS_1S(-1, 3),
+    MINUS_2S(-2, 4),
+    MINUS_3S(-3, 5);
+
+    private static final Map<String, ControlRange> BY_RULE = Arrays.stream(values())
+            .collect(Collectors.toUnmodifiableMap(ControlRange::getRule, Function.identity()));
+
+    /** Signed number of SDs from the target at which the band starts. */
+    private final int deviations;
+    private final String rule;
+    private final String description;
+
+    ControlRange(int deviations, String rule, String description) {
+        this.deviations = deviations;
+        this.rule = rule;
+        this.description = description;
+    }
+
+    ControlRange(int deviations, int index) {
+        this(deviations, ThresholdAnalyticsRules.RULES.get(index),
+                ValidationAnalyticsDescriptions.DESCRIPTIONS.get(index));
+    }
+
+    /** Same rules as {@code AnalyticRulesValidation.isRuleBroken}: ±2s and ±3s. */
+    public boolean isRuleBroken() {
+        return Math.abs(deviations) >= 2;
+    }
+
+    /** Band of a persisted rule; unknown or missing rules count as within range. */
+    public static ControlRange ofRule(String rule) {
+        return rule == null ? WITHIN_RANGE : BY_RULE.getOrDefault(rule, WITHIN_RANGE);
+    }
+}
@@ -0,0 +1,31 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Westgard multirules evaluated on every new run, with the issue and action
+ * reported to the laboratory when they are violated.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum WestgardRule {
+    ONE_THREE_S("1-3s", "One observation exceeds mean ±3 SD",
+            "Random Error. Reject run and investigate for potential systematic errors."),
+    TWO_TWO_S("2-2s", "Two consecutive measurements exceed the same ±2 SD limit",
+            "Systematic Error. Reject run and check calibration and reagent lots."),
+    R_FOUR_S("R-4s", "Two consecutive measurements differ by more than 4 SD across the mean",
+            "Random Error. Reject run and check sample handling, pipetting and instrument stability."),
+    FOUR_ONE_S("4-1s", "Four consecutive measurements exceed ±1 SD on same side of mean",
+            "Systematic Error. Check for calibration drift, reagent lot changes, or environmental conditions."),
+    TEN_X("10x", "Ten consecutive measurements on same side of mean, exceeding ±1 SD",
+            "Systematic Error. Review calibration, reagent stability, and instrument maintenance. Recalibrate if necessary. "
+                    + "If problem persists, consider retesting patient samples.");
+
+    /** Number of runs, newest first, needed to evaluate every rule. */
+    public static final int WINDOW = 10;
+
+    private final String code;
+    private final String issue;
+    private final String action;
+}
@@ -11,6 +11,7 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 import leonardo.labutilities.qualitylabpro.domains.analytics.controllers.AnalyticHelperController;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsCursorPageDTO;
 
 public class AnalyticsHelperUtility {
 
@@ -29,9 +30,7 @@ public class AnalyticsHelperUtility {
 			CollectionModel<EntityModel<AnalyticsDTO>> collectionModel, Page<AnalyticsDTO> page,
 			Pageable pageable) {
 
-		UriComponentsBuilder uriBuilder =
-				ServletUriComponentsBuilder.fromCurrentRequest().replacePath("/backend-api"
-						+ ServletUriComponentsBuilder.fromCurrentRequest().build().getPath());
+		UriComponentsBuilder uriBuilder = currentRequestUri();
 
 		collectionModel.add(Link.of(uriBuilder.replaceQueryParam("page", 0)
 				.replaceQueryParam("size", pageable.getPageSize()).toUriString()
@@ -64,4 +63,32 @@ public class AnalyticsHelperUtility {
 
 		return collectionModel;
 	}
+
+	// Keyset pages have no total and no page numbers, only a way forward
+	public static CollectionModel<EntityModel<AnalyticsDTO>> addPaginationLinks(
+			CollectionModel<EntityModel<AnalyticsDTO>> collectionModel, AnalyticsCursorPageDTO page) {
+
+		UriComponentsBuilder uriBuilder = currentRequestUri();
+
+		collectionModel.add(Link.of(uriBuilder.cloneBuilder().replaceQueryParam("cursor")
+				.replaceQueryParam("size", page.size()).toUriString()
+				.replace("%2520", "%20")).withRel("first"));
+
+		if (page.hasNext()) {
+			collectionModel.add(Link.of(uriBuilder.cloneBuilder()
+					.replaceQueryParam("cursor", page.nextCursor())
+					.replaceQueryParam("size", page.size()).toUriString()
+					.replace("%2520", "%20")).withRel("next"));
+		}
+
+		collectionModel.add(Link.of(uriBuilder.replaceQueryParam("size", page.size()).toUriString()
+				.replace("%2520", "%20")).withRel("current-page"));
+
+		return collectionModel;
+	}
+
+	private static UriComponentsBuilder currentRequestUri() {
+		return ServletUriComponentsBuilder.fromCurrentRequest().replacePath("/backend-api"
+				+ ServletUriComponentsBuilder.fromCurrentRequest().build().getPath());
+	}
 }
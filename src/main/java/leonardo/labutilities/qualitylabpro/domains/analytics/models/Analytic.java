@@ -3,7 +3,6 @@ package leonardo.labutilities.qualitylabpro.domains.analytics.models;
 import java.time.LocalDateTime;
 
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.beans.BeanUtils;
 import org.springframework.hateoas.RepresentationModel;
 
@@ -15,6 +14,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.shared.mappers.AnalyticMapper;
 import leonardo.labutilities.qualitylabpro.domains.users.models.User;
@@ -28,8 +28,12 @@ import lombok.Setter;
 @Entity(name = "analytics")
 public class Analytic extends RepresentationModel<Analytic> {
 
+	// Ids are handed out in blocks (pooled optimizer); must match INCREMENT BY of analytics_seq
+	public static final int ID_ALLOCATION_SIZE = 50;
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "analytics_seq")
+	@SequenceGenerator(name = "analytics_seq", sequenceName = "analytics_seq", allocationSize = ID_ALLOCATION_SIZE)
 	@EqualsAndHashCode.Include
 	private Long id;
 
@@ -82,8 +86,9 @@ public class Analytic extends RepresentationModel<Analytic> {
 	@Column(name = "created_at", updatable = false, nullable = false)
 	private LocalDateTime createdAt;
 
-	@UpdateTimestamp
-	@Column(name = "updated_at")
+	// Left to the column's ON UPDATE CURRENT_TIMESTAMP, so every write path
+	// stamps it with the database clock the qc_daily_summary roll-up reads
+	@Column(name = "updated_at", insertable = false, updatable = false)
 	private LocalDateTime updatedAt;
 
 	public Analytic() {}
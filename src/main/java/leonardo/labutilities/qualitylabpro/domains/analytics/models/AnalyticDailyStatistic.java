@@ -0,0 +1,66 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Running aggregate of the measurements of one test, control level and control
+ * lot on a single day. Buckets are merged to answer range statistics without
+ * reading the raw analytics rows.
+ */
+@Getter
+@Setter
+@Entity(name = "analytics_daily_statistics")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_analytics_daily_statistics_bucket",
+        columnNames = {"test_name", "control_level", "control_level_lot", "bucket_date"}))
+public class AnalyticDailyStatistic {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "test_name", nullable = false, length = 25)
+    private String testName;
+
+    @Column(name = "control_level", nullable = false, length = 25)
+    private String controlLevel;
+
+    @Column(name = "control_level_lot", nullable = false, length = 25)
+    private String controlLevelLot;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(name = "value_sum", nullable = false)
+    private double valueSum;
+
+    @Column(name = "sum_squared_deviations", nullable = false)
+    private double sumSquaredDeviations;
+
+    @Column(name = "min_value", nullable = false)
+    private double minValue;
+
+    @Column(name = "max_value", nullable = false)
+    private double maxValue;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public AnalyticDailyStatistic() {}
+}
@@ -2,8 +2,12 @@ package leonardo.labutilities.qualitylabpro.domains.analytics.models;
 
 import java.time.LocalDate;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -12,6 +16,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import leonardo.labutilities.qualitylabpro.domains.users.models.User;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -21,10 +26,13 @@ import lombok.Setter;
 @Setter
 @EqualsAndHashCode
 @Entity(name = "control_lots")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "control-lots")
 public class ControlLot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "control_lots_seq")
+    @SequenceGenerator(name = "control_lots_seq", sequenceName = "control_lots_seq", allocationSize = 50)
     private Integer id;
 
     @ManyToOne(fetch = FetchType.EAGER)
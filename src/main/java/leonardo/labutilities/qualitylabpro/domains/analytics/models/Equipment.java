@@ -1,7 +1,10 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.models;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.beans.BeanUtils;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -9,6 +12,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.requests.EquipmentDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.enums.WorkSectorEnum;
 import leonardo.labutilities.qualitylabpro.domains.shared.mappers.EquipmentMapper;
@@ -17,16 +21,20 @@ import lombok.Getter;
 import lombok.Setter;
 
 /**
- * Entity representing laboratory equipment.
+ * Entity representing laboratory equipment. Kept in the second-level cache,
+ * as equipments are read on most requests and rarely change.
  */
 @Getter
 @Setter
 @EqualsAndHashCode
 @Entity(name = "equipments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "equipments")
 public class Equipment {
 
         @Id
-        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "equipments_seq")
+        @SequenceGenerator(name = "equipments_seq", sequenceName = "equipments_seq", allocationSize = 50)
         private Integer id;
 
         @Column(name = "commercial_name", nullable = false, length = 100)
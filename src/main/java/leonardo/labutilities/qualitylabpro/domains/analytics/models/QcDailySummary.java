@@ -0,0 +1,93 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Daily roll-up of the runs of one test, control level, control lot and
+ * equipment. Rows are written only by the background roll-up job, which
+ * recomputes every day touched since its high-water mark.
+ */
+@Getter
+@Setter
+@Entity(name = "qc_daily_summary")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_qc_daily_summary",
+        columnNames = {"test_name", "control_level", "summary_date", "control_level_lot",
+                "equipment_id"}))
+public class QcDailySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "test_name", nullable = false, length = 25)
+    private String testName;
+
+    @Column(name = "control_level", nullable = false, length = 25)
+    private String controlLevel;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @Column(name = "control_level_lot", nullable = false, length = 25)
+    private String controlLevelLot;
+
+    // 0 when the runs were not linked to an equipment
+    @Column(name = "equipment_id", nullable = false)
+    private int equipmentId;
+
+    @Column(name = "sample_count", nullable = false)
+    private long sampleCount;
+
+    @Column(name = "value_sum", nullable = false)
+    private double valueSum;
+
+    @Column(name = "value_sum_squares", nullable = false)
+    private double valueSumSquares;
+
+    @Column(name = "min_value", nullable = false)
+    private double minValue;
+
+    @Column(name = "max_value", nullable = false)
+    private double maxValue;
+
+    // The target is set per control lot, so it is constant within a row
+    @Column(name = "target_mean", nullable = false)
+    private double targetMean;
+
+    @Column(name = "rule_violation_count", nullable = false)
+    private long ruleViolationCount;
+
+    @Column(name = "validated_count", nullable = false)
+    private long validatedCount;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public QcDailySummary() {}
+
+    /**
+     * Sum of squared deviations from the row's own mean, in the form
+     * {@link leonardo.labutilities.qualitylabpro.domains.analytics.utils.RunningStatistics}
+     * merges.
+     */
+    public double sumSquaredDeviations() {
+        if (sampleCount == 0) {
+            return 0.0;
+        }
+        return Math.max(0.0, valueSumSquares - valueSum * valueSum / sampleCount);
+    }
+}
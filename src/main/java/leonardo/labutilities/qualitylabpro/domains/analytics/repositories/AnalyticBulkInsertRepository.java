@@ -0,0 +1,17 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.util.List;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+
+public interface AnalyticBulkInsertRepository {
+
+	/**
+	 * Inserts the given runs so that rows whose (test, level, date) key already
+	 * exists are skipped by the unique index. Any other error, such as a
+	 * truncated value or a missing foreign key, still fails the insert.
+	 *
+	 * @return the ids of the rows that were actually inserted
+	 */
+	List<Long> insertIgnoringDuplicates(List<Analytic> analytics);
+}
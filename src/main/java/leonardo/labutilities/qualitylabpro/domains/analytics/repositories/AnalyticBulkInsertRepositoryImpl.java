@@ -0,0 +1,147 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManager;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC fragment of {@link AnalyticsRepository}. Each chunk is sent as a single
+ * multi-row INSERT with ids reserved up front from analytics_seq, using the
+ * same block convention as Hibernate's pooled optimizer, so the rows that
+ * survived the unique index are exactly the reserved ids found afterwards.
+ * Duplicates are skipped with a no-op ON DUPLICATE KEY UPDATE rather than
+ * INSERT IGNORE, which would also turn conversion and constraint errors into
+ * warnings and store or drop those rows silently.
+ */
+@RequiredArgsConstructor
+class AnalyticBulkInsertRepositoryImpl implements AnalyticBulkInsertRepository {
+
+	private static final int CHUNK_SIZE = 500;
+	private static final String INSERT_COLUMNS = """
+			INSERT INTO analytics (
+			    id, owner_user_id, equipment_id, measurement_date, control_level_lot, reagent_lot,
+			    test_name, control_level, measurement_value, target_mean, standard_deviation,
+			    measurement_unit, control_rules, description, created_at, updated_at)
+			VALUES
+			""";
+	// Stamped by the database, whose clock the qc_daily_summary roll-up reads updated_at with
+	private static final String ROW_PLACEHOLDERS =
+			"(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+	// Only uk_analytics_run can collide: the ids are freshly reserved
+	private static final String SKIP_DUPLICATES = " ON DUPLICATE KEY UPDATE id = id";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManager entityManager;
+
+	@Override
+	public List<Long> insertIgnoringDuplicates(List<Analytic> analytics) {
+		if (analytics.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<Long> insertedIds = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+			List<Long> ids = new ArrayList<>(analytics.size());
+
+			for (int from = 0; from < analytics.size(); from += CHUNK_SIZE) {
+				List<Analytic> chunk = analytics.subList(from, Math.min(from + CHUNK_SIZE, analytics.size()));
+				ids.addAll(insertChunk(connection, chunk));
+			}
+			return ids;
+		});
+		if (!insertedIds.isEmpty()) {
+			QuerySpaces.invalidate(entityManager, QuerySpaces.ANALYTICS);
+		}
+		return insertedIds;
+	}
+
+	private static List<Long> insertChunk(Connection connection, List<Analytic> chunk)
+			throws SQLException {
+		List<Long> reservedIds = reserveIds(connection, chunk.size());
+
+		try (PreparedStatement insert = connection.prepareStatement(buildInsert(chunk.size()))) {
+			bindValues(insert, chunk, reservedIds);
+			if (insert.executeUpdate() == 0) {
+				return Collections.emptyList();
+			}
+		}
+
+		Set<Long> reserved = new HashSet<>(reservedIds);
+		List<Long> insertedIds = new ArrayList<>(chunk.size());
+		try (PreparedStatement select =
+				connection.prepareStatement("SELECT id FROM analytics WHERE id BETWEEN ? AND ?")) {
+			select.setLong(1, Collections.min(reservedIds));
+			select.setLong(2, Collections.max(reservedIds));
+			try (ResultSet rows = select.executeQuery()) {
+				while (rows.next()) {
+					long id = rows.getLong(1);
+					if (reserved.contains(id)) {
+						insertedIds.add(id);
+					}
+				}
+			}
+		}
+		return insertedIds;
+	}
+
+	// Every NEXTVAL value V covers the block V - ID_ALLOCATION_SIZE + 1 .. V
+	private static List<Long> reserveIds(Connection connection, int count) throws SQLException {
+		List<Long> ids = new ArrayList<>(count);
+		try (Statement statement = connection.createStatement()) {
+			while (ids.size() < count) {
+				try (ResultSet next = statement.executeQuery("SELECT NEXTVAL(analytics_seq)")) {
+					next.next();
+					long blockEnd = next.getLong(1);
+					for (long id = blockEnd - Analytic.ID_ALLOCATION_SIZE + 1; id <= blockEnd
+							&& ids.size() < count; id++) {
+						ids.add(id);
+					}
+				}
+			}
+		}
+		return ids;
+	}
+
+	private static String buildInsert(int rows) {
+		StringBuilder sql = new StringBuilder(INSERT_COLUMNS);
+		for (int i = 0; i < rows; i++) {
+			sql.append(i == 0 ? "" : ", ").append(ROW_PLACEHOLDERS);
+		}
+		return sql.append(SKIP_DUPLICATES).toString();
+	}
+
+	private static void bindValues(PreparedStatement insert, List<Analytic> chunk, List<Long> ids)
+			throws SQLException {
+		int index = 1;
+		for (int row = 0; row < chunk.size(); row++) {
+			Analytic analytic = chunk.get(row);
+			insert.setLong(index++, ids.get(row));
+			insert.setObject(index++, analytic.getOwnerUserId() != null ? analytic.getOwnerUserId().getId() : null);
+			insert.setObject(index++, analytic.getEquipment() != null ? analytic.getEquipment().getId() : null);
+			insert.setTimestamp(index++, Timestamp.valueOf(analytic.getMeasurementDate()));
+			insert.setString(index++, analytic.getControlLevelLot());
+			insert.setString(index++, analytic.getReagentLot());
+			insert.setString(index++, analytic.getTestName());
+			insert.setString(index++, analytic.getControlLevel());
+			insert.setDouble(index++, analytic.getMeasurementValue());
+			insert.setDouble(index++, analytic.getTargetMean());
+			insert.setDouble(index++, analytic.getStandardDeviation());
+			insert.setString(index++, analytic.getMeasurementUnit());
+			insert.setString(index++, analytic.getControlRules());
+			insert.setString(index++, analytic.getDescription());
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
+
+public interface AnalyticChartRepository {
+
+	/**
+	 * Chart series of every level of the test in the range, or of the given
+	 * level only, ordered by level. Levels without runs are left out of the
+	 * result.
+	 */
+	List<AnalyticsChartDTO> findChartSeries(String name, String level, LocalDateTime startDate,
+			LocalDateTime endDate);
+}
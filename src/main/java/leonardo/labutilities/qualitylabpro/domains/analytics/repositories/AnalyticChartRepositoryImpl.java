@@ -0,0 +1,106 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.ControlRange;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.StatisticsCalculatorUtility;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC fragment of {@link AnalyticsRepository}. Reads only the columns a chart
+ * draws, without the user joins, and writes each row straight into the
+ * primitive arrays of its series, so no entity or DTO is built per run.
+ */
+@RequiredArgsConstructor
+class AnalyticChartRepositoryImpl implements AnalyticChartRepository {
+
+	private static final int INITIAL_CAPACITY = 256;
+	private static final String CHART_QUERY = """
+			SELECT control_level, id, measurement_date, measurement_value, target_mean, standard_deviation,
+			    control_rules, validator_user_id IS NOT NULL, measurement_unit
+			FROM analytics
+			WHERE test_name = ? AND (? IS NULL OR control_level = ?)
+			AND measurement_date BETWEEN ? AND ?
+			ORDER BY control_level, measurement_date, id
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private static final class SeriesBuilder {
+		private final String name;
+		private final String level;
+		private final String unit;
+		private final List<AnalyticsChartDTO.Target> targets = new ArrayList<>();
+		private long[] ids = new long[INITIAL_CAPACITY];
+		private long[] timestamps = new long[INITIAL_CAPACITY];
+		private double[] values = new double[INITIAL_CAPACITY];
+		private int[] rules = new int[INITIAL_CAPACITY];
+		private boolean[] validated = new boolean[INITIAL_CAPACITY];
+		private int size;
+
+		private SeriesBuilder(String name, String level, String unit) {
+			this.name = name;
+			this.level = level;
+			this.unit = unit;
+		}
+
+		private void add(long id, LocalDateTime date, double value, double mean, double sd, String rule,
+				boolean isValidated) {
+			if (size == ids.length) {
+				int capacity = size * 2;
+				ids = Arrays.copyOf(ids, capacity);
+				timestamps = Arrays.copyOf(timestamps, capacity);
+				values = Arrays.copyOf(values, capacity);
+				rules = Arrays.copyOf(rules, capacity);
+				validated = Arrays.copyOf(validated, capacity);
+			}
+			// A new band only when the target changes, usually at a lot change
+			AnalyticsChartDTO.Target last = targets.isEmpty() ? null : targets.getLast();
+			if (last == null || last.mean() != mean || last.sd() != sd) {
+				targets.add(new AnalyticsChartDTO.Target(size, mean, sd));
+			}
+			ids[size] = id;
+			timestamps[size] = date.toInstant(ZoneOffset.UTC).toEpochMilli();
+			values[size] = value;
+			rules[size] = ControlRange.ofRule(rule).getDeviations();
+			validated[size] = isValidated;
+			size++;
+		}
+
+		private AnalyticsChartDTO build() {
+			double[] chartValues = Arrays.copyOf(values, size);
+			return new AnalyticsChartDTO(name, level, unit,
+					StatisticsCalculatorUtility.computeStatistics(chartValues), List.copyOf(targets),
+					Arrays.copyOf(ids, size), Arrays.copyOf(timestamps, size), chartValues,
+					Arrays.copyOf(rules, size), Arrays.copyOf(validated, size));
+		}
+	}
+
+	@Override
+	public List<AnalyticsChartDTO> findChartSeries(String name, String level, LocalDateTime startDate,
+			LocalDateTime endDate) {
+		List<SeriesBuilder> series = new ArrayList<>();
+		jdbcTemplate.query(CHART_QUERY, (RowCallbackHandler) row -> {
+			String rowLevel = row.getString(1);
+			SeriesBuilder current = series.isEmpty() ? null : series.getLast();
+			// Rows arrive grouped by level, so a new level starts a new series
+			if (current == null || !current.level.equals(rowLevel)) {
+				current = new SeriesBuilder(name, rowLevel, row.getString(9));
+				series.add(current);
+			}
+			current.add(row.getLong(2), row.getTimestamp(3).toLocalDateTime(), row.getDouble(4),
+					row.getDouble(5), row.getDouble(6), row.getString(7), row.getBoolean(8));
+		}, name, level, level, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate));
+
+		return series.stream().map(SeriesBuilder::build).toList();
+	}
+}
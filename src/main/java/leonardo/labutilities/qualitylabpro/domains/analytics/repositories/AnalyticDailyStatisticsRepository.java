@@ -0,0 +1,82 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.AnalyticDailyStatistic;
+
+@Repository
+public interface AnalyticDailyStatisticsRepository extends JpaRepository<AnalyticDailyStatistic, Long> {
+
+	@Query("""
+			SELECT s FROM analytics_daily_statistics s
+			WHERE s.testName = :name AND s.controlLevel = :level
+			AND s.bucketDate BETWEEN :startDay AND :endDay
+			""")
+	List<AnalyticDailyStatistic> findByNameAndLevelAndBucketDateBetween(@Param("name") String name,
+			@Param("level") String level, @Param("startDay") LocalDate startDay,
+			@Param("endDay") LocalDate endDay);
+
+	// Merges a partial aggregate into its bucket. MariaDB applies the assignments
+	// left to right, so the M2 merge must read sample_count and value_sum before
+	// they are incremented. Like every native write here it names the table it
+	// touches, or Hibernate would clear the whole second-level cache.
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "analytics_daily_statistics"))
+	@Query(nativeQuery = true, value = """
+			INSERT INTO analytics_daily_statistics (
+			    test_name, control_level, control_level_lot, bucket_date,
+			    sample_count, value_sum, sum_squared_deviations, min_value, max_value)
+			VALUES (:name, :level, :levelLot, :day, :count, :sum, :m2, :min, :max)
+			ON DUPLICATE KEY UPDATE
+			    sum_squared_deviations = sum_squared_deviations + VALUES(sum_squared_deviations)
+			        + POW(VALUES(value_sum) / VALUES(sample_count) - value_sum / sample_count, 2)
+			        * sample_count * VALUES(sample_count) / (sample_count + VALUES(sample_count)),
+			    value_sum = value_sum + VALUES(value_sum),
+			    sample_count = sample_count + VALUES(sample_count),
+			    min_value = LEAST(min_value, VALUES(min_value)),
+			    max_value = GREATEST(max_value, VALUES(max_value))
+			""")
+	void mergeBucket(@Param("name") String name, @Param("level") String level,
+			@Param("levelLot") String levelLot, @Param("day") LocalDate day,
+			@Param("count") long count, @Param("sum") double sum, @Param("m2") double m2,
+			@Param("min") double min, @Param("max") double max);
+
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "analytics_daily_statistics"))
+	@Query(nativeQuery = true, value = """
+			DELETE FROM analytics_daily_statistics
+			WHERE test_name = :name AND control_level = :level AND bucket_date = :day
+			""")
+	void deleteBuckets(@Param("name") String name, @Param("level") String level,
+			@Param("day") LocalDate day);
+
+	@Transactional
+	@Modifying
+	@QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "analytics_daily_statistics"))
+	@Query(nativeQuery = true, value = """
+			INSERT INTO analytics_daily_statistics (
+			    test_name, control_level, control_level_lot, bucket_date,
+			    sample_count, value_sum, sum_squared_deviations, min_value, max_value)
+			SELECT test_name, control_level, COALESCE(control_level_lot, ''), DATE(measurement_date),
+			    COUNT(*), SUM(measurement_value), VAR_POP(measurement_value) * COUNT(*),
+			    MIN(measurement_value), MAX(measurement_value)
+			FROM analytics
+			WHERE test_name = :name AND control_level = :level
+			AND measurement_date >= :day AND measurement_date < :day + INTERVAL 1 DAY
+			GROUP BY test_name, control_level, COALESCE(control_level_lot, ''), DATE(measurement_date)
+			""")
+	void rebuildBuckets(@Param("name") String name, @Param("level") String level,
+			@Param("day") LocalDate day);
+}
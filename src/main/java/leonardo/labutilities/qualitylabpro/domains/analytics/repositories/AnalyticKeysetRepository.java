@@ -0,0 +1,16 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AnalyticKeysetRepository {
+
+	/**
+	 * Ids of at most {@code limit} runs of the given tests measured between both
+	 * dates and strictly before ({@code cursorDate}, {@code cursorId}), ordered
+	 * by measurement date then id, both descending. Only runs nobody validated
+	 * are considered when {@code unvalidatedOnly} is set.
+	 */
+	List<Long> findIdsBeforeCursor(List<String> names, LocalDateTime startDate, LocalDateTime endDate,
+			LocalDateTime cursorDate, long cursorId, boolean unvalidatedOnly, int limit);
+}
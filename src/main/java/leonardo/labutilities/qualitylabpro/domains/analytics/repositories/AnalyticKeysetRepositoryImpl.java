@@ -0,0 +1,63 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC fragment of {@link AnalyticsRepository}. An {@code IN} list cannot be
+ * read in (measurement_date, id) order from one index range, so each test
+ * seeks on its own {@code ORDER BY ... LIMIT n} branch of the
+ * analytics_test_date_id_idx index and the branches are merged in one UNION
+ * ALL. A page then reads at most n index entries per test, however deep it
+ * is, and only the ids are selected; the rows of the page are projected
+ * afterwards by id.
+ */
+@RequiredArgsConstructor
+class AnalyticKeysetRepositoryImpl implements AnalyticKeysetRepository {
+
+	// measurement_date <= ? bounds the index range, the OR only breaks ties on the cursor date
+	private static final String SEEK_BRANCH = """
+			(SELECT id, measurement_date
+			FROM analytics
+			WHERE test_name = ? AND measurement_date BETWEEN ? AND ?
+			AND measurement_date <= ? AND (measurement_date < ? OR id < ?)%s
+			ORDER BY measurement_date DESC, id DESC
+			LIMIT ?)
+			""";
+
+	// Read through the index in order too, but needs the row for the validator
+	private static final String UNVALIDATED_FILTER = " AND validator_user_id IS NULL";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public List<Long> findIdsBeforeCursor(List<String> names, LocalDateTime startDate, LocalDateTime endDate,
+			LocalDateTime cursorDate, long cursorId, boolean unvalidatedOnly, int limit) {
+		if (names.isEmpty() || limit <= 0) {
+			return Collections.emptyList();
+		}
+		String branch = SEEK_BRANCH.formatted(unvalidatedOnly ? UNVALIDATED_FILTER : "");
+		StringBuilder sql = new StringBuilder();
+		Object[] args = new Object[names.size() * 7 + 1];
+		int index = 0;
+		for (String name : names) {
+			sql.append(index == 0 ? "" : "UNION ALL\n").append(branch);
+			args[index++] = name;
+			args[index++] = startDate;
+			args[index++] = endDate;
+			args[index++] = cursorDate;
+			args[index++] = cursorDate;
+			args[index++] = cursorId;
+			args[index++] = limit;
+		}
+		sql.append("ORDER BY measurement_date DESC, id DESC\nLIMIT ?");
+		args[index] = limit;
+
+		return jdbcTemplate.query(sql.toString(), (row, rowNumber) -> row.getLong(1), args);
+	}
+}
@@ -0,0 +1,17 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.time.LocalDateTime;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsRecalibrationSummaryDTO;
+
+public interface AnalyticRecalibrationRepository {
+
+	/**
+	 * Sets the target mean of every run of a control lot, and its standard
+	 * deviation unless {@code sd} is null, and re-derives the rule and the
+	 * description of each run from the new target. Restricted to runs measured
+	 * between both dates when they are given. Must run inside a transaction.
+	 */
+	AnalyticsRecalibrationSummaryDTO recalibrate(String name, String level, String levelLot, double mean,
+			Double sd, LocalDateTime startDate, LocalDateTime endDate);
+}
@@ -0,0 +1,91 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManager;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsRecalibrationSummaryDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.ControlRange;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC fragment of {@link AnalyticsRepository}. The classification of
+ * {@code SpecsValidatorUtility} is written as a CASE expression, so a lot is
+ * recalibrated by one locking count and one UPDATE whatever its size, instead
+ * of loading, validating and saving every run.
+ */
+@RequiredArgsConstructor
+class AnalyticRecalibrationRepositoryImpl implements AnalyticRecalibrationRepository {
+
+	// Widest band first, the negative side before the positive one
+	private static final List<ControlRange> BANDS = List.of(ControlRange.MINUS_3S, ControlRange.PLUS_3S,
+			ControlRange.MINUS_2S, ControlRange.PLUS_2S, ControlRange.MINUS_1S, ControlRange.PLUS_1S);
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManager entityManager;
+
+	@Override
+	public AnalyticsRecalibrationSummaryDTO recalibrate(String name, String level, String levelLot,
+			double mean, Double sd, LocalDateTime startDate, LocalDateTime endDate) {
+		// Without a new deviation each run keeps its own, so the limits are per row
+		String deviation = sd == null ? "standard_deviation" : "?";
+		List<Object> limits = new ArrayList<>();
+		String rules = classification(ControlRange::getRule, deviation, mean, sd, limits);
+		String descriptions = classification(ControlRange::getDescription, deviation, mean, sd,
+				new ArrayList<>());
+
+		List<Object> filter = new ArrayList<>(List.of(name, level, levelLot));
+		String where = "WHERE test_name = ? AND control_level = ? AND control_level_lot = ?";
+		if (startDate != null && endDate != null) {
+			where += " AND measurement_date BETWEEN ? AND ?";
+			filter.add(Timestamp.valueOf(startDate));
+			filter.add(Timestamp.valueOf(endDate));
+		}
+
+		List<Object> countArgs = new ArrayList<>(limits);
+		countArgs.addAll(filter);
+		int[] counts = jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(control_rules <> " + rules
+				+ "), 0) FROM analytics " + where + " FOR UPDATE",
+				(row, rowNum) -> new int[] {row.getInt(1), row.getInt(2)}, countArgs.toArray());
+
+		List<Object> updateArgs = new ArrayList<>();
+		updateArgs.add(mean);
+		String set = "target_mean = ?";
+		if (sd != null) {
+			set += ", standard_deviation = ?";
+			updateArgs.add(sd);
+		}
+		updateArgs.addAll(limits);
+		updateArgs.addAll(limits);
+		updateArgs.addAll(filter);
+		jdbcTemplate.update("UPDATE analytics SET " + set + ", control_rules = " + rules + ", description = "
+				+ descriptions + " " + where, updateArgs.toArray());
+		QuerySpaces.invalidate(entityManager, QuerySpaces.ANALYTICS);
+
+		return new AnalyticsRecalibrationSummaryDTO(counts[0], counts[1]);
+	}
+
+	/**
+	 * Mirrors {@code SpecsValidatorUtility.classify}, with the limits computed
+	 * by the same expressions, so both classify a value on a limit alike.
+	 */
+	private static String classification(Function<ControlRange, String> label, String deviation,
+			double mean, Double sd, List<Object> args) {
+		StringBuilder sql = new StringBuilder("(CASE");
+		for (ControlRange band : BANDS) {
+			sql.append(" WHEN measurement_value ").append(band.getDeviations() < 0 ? "<= ? - " : ">= ? + ")
+					.append(Math.abs(band.getDeviations()))
+					.append(" * ").append(deviation).append(" THEN '").append(label.apply(band)).append('\'');
+			args.add(mean);
+			if (sd != null) {
+				args.add(sd);
+			}
+		}
+		return sql.append(" ELSE '").append(label.apply(ControlRange.WITHIN_RANGE)).append("' END)").toString();
+	}
+}
@@ -0,0 +1,18 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.ControlSeries;
+
+public interface AnalyticSeriesRepository {
+
+	/**
+	 * Fetches, in one round trip, the last {@code window} runs of every given
+	 * (test, level) pair measured at or before its anchor date, so runs saved
+	 * afterwards do not shift the window. Pairs without runs are left out of the
+	 * result.
+	 */
+	List<ControlSeries> findSeriesEndingAt(Map<ControlSeries.Key, LocalDateTime> anchors, int window);
+}
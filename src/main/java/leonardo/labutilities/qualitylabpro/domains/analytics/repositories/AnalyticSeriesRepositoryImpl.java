@@ -0,0 +1,99 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.ControlSeries;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC fragment of {@link AnalyticsRepository}. Each pair becomes a
+ * {@code ORDER BY measurement_date DESC LIMIT n} branch served by the
+ * uk_analytics_run index, and the branches of a chunk are sent together as one
+ * UNION ALL, so the cost no longer grows with one round trip per pair.
+ */
+@RequiredArgsConstructor
+class AnalyticSeriesRepositoryImpl implements AnalyticSeriesRepository {
+
+	private static final int CHUNK_SIZE = 100;
+	private static final String SERIES_BRANCH = """
+			(SELECT test_name, control_level, measurement_value, target_mean, standard_deviation,
+			    measurement_date
+			FROM analytics
+			WHERE test_name = ? AND control_level = ? AND measurement_date <= ?
+			ORDER BY measurement_date DESC
+			LIMIT ?)
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private static final class SeriesBuilder {
+		private final double mean;
+		private final double sd;
+		private final List<Double> values = new ArrayList<>();
+
+		private SeriesBuilder(double mean, double sd) {
+			this.mean = mean;
+			this.sd = sd;
+		}
+
+		private ControlSeries build(ControlSeries.Key key) {
+			return new ControlSeries(key.name(), key.level(), mean, sd,
+					values.stream().mapToDouble(Double::doubleValue).toArray());
+		}
+	}
+
+	@Override
+	public List<ControlSeries> findSeriesEndingAt(Map<ControlSeries.Key, LocalDateTime> anchors, int window) {
+		if (anchors.isEmpty() || window <= 0) {
+			return Collections.emptyList();
+		}
+		List<ControlSeries.Key> distinctKeys = List.copyOf(anchors.keySet());
+		Map<ControlSeries.Key, SeriesBuilder> series = new LinkedHashMap<>();
+
+		for (int from = 0; from < distinctKeys.size(); from += CHUNK_SIZE) {
+			List<ControlSeries.Key> chunk =
+					distinctKeys.subList(from, Math.min(from + CHUNK_SIZE, distinctKeys.size()));
+			jdbcTemplate.query(buildQuery(chunk.size()), (RowCallbackHandler) row -> {
+				ControlSeries.Key key = new ControlSeries.Key(row.getString(1), row.getString(2));
+				double value = row.getDouble(3);
+				double mean = row.getDouble(4);
+				double sd = row.getDouble(5);
+				// rows arrive newest first, so the first row of a pair carries its current target
+				series.computeIfAbsent(key, k -> new SeriesBuilder(mean, sd)).values.add(value);
+			}, bindValues(chunk, anchors, window));
+		}
+
+		List<ControlSeries> result = new ArrayList<>(series.size());
+		series.forEach((key, builder) -> result.add(builder.build(key)));
+		return result;
+	}
+
+	private static String buildQuery(int branches) {
+		StringBuilder sql = new StringBuilder();
+		for (int i = 0; i < branches; i++) {
+			sql.append(i == 0 ? "" : "UNION ALL\n").append(SERIES_BRANCH);
+		}
+		return sql.append("ORDER BY test_name, control_level, measurement_date DESC").toString();
+	}
+
+	private static Object[] bindValues(List<ControlSeries.Key> chunk,
+			Map<ControlSeries.Key, LocalDateTime> anchors, int window) {
+		Object[] args = new Object[chunk.size() * 4];
+		int index = 0;
+		for (ControlSeries.Key key : chunk) {
+			args[index++] = key.name();
+			args[index++] = key.level();
+			args[index++] = anchors.get(key);
+			args[index++] = window;
+		}
+		return args;
+	}
+}
@@ -0,0 +1,25 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticRecordKey;
+
+public interface AnalyticValidationRepository {
+
+	/**
+	 * Sets the validator of the runs among {@code ids} that are not validated
+	 * yet. Returns the validated runs by id; ids that do not exist or were
+	 * already validated are left out. Must run inside a transaction.
+	 */
+	Map<Long, AnalyticRecordKey> validateByIdIn(Collection<Long> ids, Long validatorId);
+
+	/**
+	 * Sets the validator of every unvalidated run of the given tests measured
+	 * between both dates, restricted to one level unless {@code level} is null.
+	 * Must run inside a transaction.
+	 */
+	Map<Long, AnalyticRecordKey> validateMatching(Collection<String> names, String level,
+			LocalDateTime startDate, LocalDateTime endDate, Long validatorId);
+}
@@ -0,0 +1,108 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import jakarta.persistence.EntityManager;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticRecordKey;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC fragment of {@link AnalyticsRepository}. The unvalidated runs are
+ * selected with FOR UPDATE, so the reported runs are exactly the ones the
+ * following {@code UPDATE ... WHERE id IN (...)} changes, and both statements
+ * are sent per chunk of ids instead of one SELECT and one UPDATE per run.
+ */
+@RequiredArgsConstructor
+class AnalyticValidationRepositoryImpl implements AnalyticValidationRepository {
+
+	private static final int CHUNK_SIZE = 1000;
+	private static final String SELECT_UNVALIDATED = """
+			SELECT id, test_name, control_level, measurement_date
+			FROM analytics
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManager entityManager;
+
+	@Override
+	public Map<Long, AnalyticRecordKey> validateByIdIn(Collection<Long> ids, Long validatorId) {
+		List<Long> distinctIds = ids.stream().distinct().toList();
+		Map<Long, AnalyticRecordKey> validated = new LinkedHashMap<>();
+		for (int from = 0; from < distinctIds.size(); from += CHUNK_SIZE) {
+			List<Long> chunk = distinctIds.subList(from, Math.min(from + CHUNK_SIZE, distinctIds.size()));
+			Map<Long, AnalyticRecordKey> locked = new LinkedHashMap<>();
+			jdbcTemplate.query(SELECT_UNVALIDATED + "WHERE id IN (" + placeholders(chunk.size())
+					+ ") AND validator_user_id IS NULL ORDER BY id FOR UPDATE", collectInto(locked),
+					chunk.toArray());
+			update(List.copyOf(locked.keySet()), validatorId);
+			validated.putAll(locked);
+		}
+		invalidateIfAny(validated);
+		return validated;
+	}
+
+	@Override
+	public Map<Long, AnalyticRecordKey> validateMatching(Collection<String> names, String level,
+			LocalDateTime startDate, LocalDateTime endDate, Long validatorId) {
+		if (names.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		List<Object> args = new ArrayList<>(names);
+		String sql = SELECT_UNVALIDATED + "WHERE test_name IN (" + placeholders(names.size()) + ")\n";
+		if (level != null) {
+			sql += "AND control_level = ?\n";
+			args.add(level);
+		}
+		sql += "AND measurement_date BETWEEN ? AND ? AND validator_user_id IS NULL ORDER BY id FOR UPDATE";
+		args.add(Timestamp.valueOf(startDate));
+		args.add(Timestamp.valueOf(endDate));
+
+		Map<Long, AnalyticRecordKey> validated = new LinkedHashMap<>();
+		jdbcTemplate.query(sql, collectInto(validated), args.toArray());
+
+		List<Long> ids = List.copyOf(validated.keySet());
+		for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+			update(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())), validatorId);
+		}
+		invalidateIfAny(validated);
+		return validated;
+	}
+
+	private void invalidateIfAny(Map<Long, AnalyticRecordKey> validated) {
+		if (!validated.isEmpty()) {
+			QuerySpaces.invalidate(entityManager, QuerySpaces.ANALYTICS);
+		}
+	}
+
+	private void update(List<Long> ids, Long validatorId) {
+		if (ids.isEmpty()) {
+			return;
+		}
+		Object[] args = new Object[ids.size() + 1];
+		args[0] = validatorId;
+		for (int i = 0; i < ids.size(); i++) {
+			args[i + 1] = ids.get(i);
+		}
+		jdbcTemplate.update("UPDATE analytics SET validator_user_id = ? WHERE id IN ("
+				+ placeholders(ids.size()) + ") AND validator_user_id IS NULL", args);
+	}
+
+	private static RowCallbackHandler collectInto(Map<Long, AnalyticRecordKey> runs) {
+		return row -> runs.put(row.getLong(1), new AnalyticRecordKey(row.getString(2), row.getString(3),
+				row.getTimestamp(4).toLocalDateTime()));
+	}
+
+	private static String placeholders(int count) {
+		return String.join(", ", Collections.nCopies(count, "?"));
+	}
+}
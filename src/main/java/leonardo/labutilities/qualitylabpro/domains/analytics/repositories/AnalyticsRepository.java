@@ -1,7 +1,9 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,11 +16,30 @@ import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticRecordKey;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticValueDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
 
 @Repository
-public interface AnalyticsRepository extends JpaRepository<Analytic, Long> {
+public interface AnalyticsRepository extends JpaRepository<Analytic, Long>, AnalyticBulkInsertRepository,
+		AnalyticChartRepository, AnalyticKeysetRepository, AnalyticSeriesRepository,
+		AnalyticValidationRepository, AnalyticRecalibrationRepository {
+
+	// Projection shared by the plain read queries: selects the columns of
+	// AnalyticsDTO, usernames included, in one joined query and without
+	// loading managed entities, so mapping never triggers per-row user lookups.
+	// Missing users get the same placeholders as AnalyticMapper
+	String ANALYTICS_DTO_PROJECTION = """
+			SELECT new leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO(
+			    ga.id, ga.measurementDate, ga.controlLevelLot, ga.reagentLot, ga.testName,
+			    ga.controlLevel, ga.measurementValue, ga.targetMean, ga.standardDeviation,
+			    ga.measurementUnit, ga.controlRules, ga.description,
+			    COALESCE(validator.username, 'Not validated'), COALESCE(owner.username, '-'))
+			FROM analytics ga
+			LEFT JOIN ga.validatorUserId validator
+			LEFT JOIN ga.ownerUserId owner
+			""";
 
 	// Existence Checks
 	boolean existsByTestName(String name);
@@ -26,26 +47,32 @@ public interface AnalyticsRepository extends JpaRepository<Analytic, Long> {
 	boolean existsByMeasurementDateAndControlLevelAndTestName(LocalDateTime date,
 			String level, String name);
 
-	// Fetch Analytics by Name
-	@Query("SELECT ga FROM analytics ga WHERE ga.testName = :testName")
-	List<AnalyticsDTO> findByName(@Param("testName") String testName, Pageable pageable);
-
-	// Fetch Latest Analytics
-	@Query(value = """
-			SELECT ga FROM analytics ga
-			WHERE ga.testName = :name AND ga.controlLevel = :level
-			ORDER BY ga.measurementDate DESC LIMIT 10
+	// Candidate keys of a whole batch; the caller intersects them with its exact keys
+	@Query("""
+			SELECT new leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticRecordKey(
+			    ga.testName, ga.controlLevel, ga.measurementDate)
+			FROM analytics ga
+			WHERE ga.testName IN (:names) AND ga.controlLevel IN (:levels)
+			AND ga.measurementDate IN (:dates)
 			""")
-	List<AnalyticsDTO> findLast10ByTestNameAndControlLevel(@Param("name") String name,
-			@Param("level") String level);
+	List<AnalyticRecordKey> findExistingRecordKeys(@Param("names") Collection<String> names,
+			@Param("levels") Collection<String> levels,
+			@Param("dates") Collection<LocalDateTime> dates);
 
-	@Query(value = """
+	@Query("""
 			SELECT ga FROM analytics ga
-			WHERE ga.testName = :name AND ga.controlLevel = :level
-			ORDER BY ga.measurementDate DESC LIMIT 1
+			LEFT JOIN FETCH ga.ownerUserId
+			LEFT JOIN FETCH ga.validatorUserId
+			WHERE ga.id IN (:ids)
 			""")
-	List<AnalyticsDTO> findLastByTestNameAndControlLevel(@Param("name") String name,
-			@Param("level") String level);
+	List<Analytic> findWithUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+	@Query(ANALYTICS_DTO_PROJECTION + "WHERE ga.id IN :ids ORDER BY ga.id")
+	List<AnalyticsDTO> findProjectedByIdIn(@Param("ids") Collection<Long> ids);
+
+	// Fetch Analytics by Name
+	@Query(ANALYTICS_DTO_PROJECTION + "WHERE ga.testName = :testName")
+	List<AnalyticsDTO> findByName(@Param("testName") String testName, Pageable pageable);
 
 	// Update Operations
 	@Transactional
@@ -60,8 +87,7 @@ public interface AnalyticsRepository extends JpaRepository<Analytic, Long> {
 			@Param("levelLot") String levelLot, @Param("mean") double mean);
 
 	// Fetch Analytics by Name and Level
-	@Query(value = """
-			SELECT ga FROM analytics ga
+	@Query(value = ANALYTICS_DTO_PROJECTION + """
 			WHERE ga.testName = :name AND ga.controlLevel = :level
 			""")
 	List<AnalyticsDTO> findByNameAndLevel(@Param("name") String name,
@@ -78,13 +104,10 @@ public interface AnalyticsRepository extends JpaRepository<Analytic, Long> {
 			@Param("level") String level, @Param("levelLot") String levelLot);
 
 	@QueryHints({
-			@QueryHint(name = "org.hibernate.readOnly", value = "true"),
 			@QueryHint(name = "org.hibernate.fetchSize", value = "100"),
 			@QueryHint(name = "org.hibernate.cacheable", value = "true")
 	})
-
-	@Query("""
-			SELECT ga FROM analytics ga
+	@Query(ANALYTICS_DTO_PROJECTION + """
 			WHERE ga.testName = :name
 			AND ga.controlLevel = :level AND ga.measurementDate
 			BETWEEN :startDate AND :endDate ORDER BY ga.measurementDate ASC
@@ -94,11 +117,70 @@ public interface AnalyticsRepository extends JpaRepository<Analytic, Long> {
 			@Param("startDate") LocalDateTime startDate,
 			@Param("endDate") LocalDateTime endDate, Pageable pageable);
 
-	// Fetch Analytics by Multiple Names and Date
+	// Source of the in-memory recent series: every run from the start of the horizon
 	@QueryHints({
 			@QueryHint(name = "org.hibernate.readOnly", value = "true"),
-			@QueryHint(name = "org.hibernate.fetchSize", value = "100"),
-			@QueryHint(name = "org.hibernate.cacheable", value = "true")
+			@QueryHint(name = "org.hibernate.fetchSize", value = "1000")
+	})
+	@Query(ANALYTICS_DTO_PROJECTION + """
+			WHERE ga.measurementDate >= :startDate
+			""")
+	Stream<AnalyticsDTO> streamByDateGreaterThanEqual(@Param("startDate") LocalDateTime startDate);
+
+	@Query(ANALYTICS_DTO_PROJECTION + """
+			WHERE ga.testName = :name AND ga.controlLevel = :level
+			AND ga.measurementDate >= :startDate
+			""")
+	List<AnalyticsDTO> findByNameAndLevelAndDateGreaterThanEqual(@Param("name") String name,
+			@Param("level") String level, @Param("startDate") LocalDateTime startDate);
+
+	@Query("""
+			SELECT ga.measurementValue FROM analytics ga
+			WHERE ga.testName = :name AND ga.controlLevel = :level
+			AND ga.measurementDate BETWEEN :startDate AND :endDate
+			""")
+	List<Double> findValuesByNameAndLevelAndDateBetween(@Param("name") String name,
+			@Param("level") String level,
+			@Param("startDate") LocalDateTime startDate,
+			@Param("endDate") LocalDateTime endDate);
+
+	// Streamed in date order; callers must consume it inside a transaction and close it
+	@QueryHints({
+			@QueryHint(name = "org.hibernate.readOnly", value = "true"),
+			@QueryHint(name = "org.hibernate.fetchSize", value = "500")
+	})
+	@Query("""
+			SELECT new leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticValueDTO(
+			    ga.testName, ga.measurementValue, ga.targetMean)
+			FROM analytics ga
+			WHERE ga.testName IN (:names) AND ga.controlLevel = :level
+			AND ga.measurementDate BETWEEN :startDate AND :endDate
+			ORDER BY ga.measurementDate ASC
+			""")
+	Stream<AnalyticValueDTO> streamValuesByNameInAndLevelAndDateBetween(
+			@Param("names") Collection<String> names, @Param("level") String level,
+			@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+	// Source of the exports: forward-only, in date order, one level or all of them
+	@QueryHints({
+			@QueryHint(name = "org.hibernate.readOnly", value = "true"),
+			@QueryHint(name = "org.hibernate.fetchSize", value = "1000")
+	})
+	@Query(ANALYTICS_DTO_PROJECTION + """
+			WHERE ga.testName IN (:names)
+			AND (:level IS NULL OR ga.controlLevel = :level)
+			AND ga.measurementDate BETWEEN :startDate AND :endDate
+			ORDER BY ga.measurementDate ASC, ga.id ASC
+			""")
+	Stream<AnalyticsDTO> streamByNameInAndLevelAndDateBetween(@Param("names") Collection<String> names,
+			@Param("level") String level, @Param("startDate") LocalDateTime startDate,
+			@Param("endDate") LocalDateTime endDate);
+
+	// Fetch Analytics by Multiple Names and Date. Not query-cached: a hit would
+	// only hold ids and load every run again, as analytics are not in the L2 cache
+	@QueryHints({
+			@QueryHint(name = "org.hibernate.readOnly", value = "true"),
+			@QueryHint(name = "org.hibernate.fetchSize", value = "100")
 	})
 	@Query(value = """
 			SELECT ga FROM analytics ga
@@ -148,6 +230,10 @@ public interface AnalyticsRepository extends JpaRepository<Analytic, Long> {
 			@Param("startDate") LocalDateTime startDate,
 			@Param("endDate") LocalDateTime endDate, Pageable pageable);
 
+	// Rows of a keyset page, whose ids come from findIdsBeforeCursor
+	@Query(ANALYTICS_DTO_PROJECTION + "WHERE ga.id IN :ids ORDER BY ga.measurementDate DESC, ga.id DESC")
+	List<AnalyticsDTO> findProjectedByIdInOrderByDateDesc(@Param("ids") Collection<Long> ids);
+
 	@Query(value = """
 			SELECT ga FROM analytics ga
 			LEFT JOIN FETCH ga.ownerUserId
@@ -182,11 +268,12 @@ public interface AnalyticsRepository extends JpaRepository<Analytic, Long> {
 			@Param("endDate") LocalDateTime endDate);
 
 	// Grouped Analytics
-	@Query("""
-			SELECT ga FROM analytics ga WHERE ga.testName = :name
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "100"))
+	@Query(ANALYTICS_DTO_PROJECTION + """
+			WHERE ga.testName = :name
 			AND ga.measurementDate BETWEEN :startDate AND :endDate
 			""")
-	List<Analytic> findByNameAndDateBetweenGroupByLevel(@Param("name") String name,
+	List<AnalyticsDTO> findByNameAndDateBetweenGroupByLevel(@Param("name") String name,
 			@Param("startDate") LocalDateTime startDate,
 			@Param("endDate") LocalDateTime endDate, Pageable pageable);
 }
@@ -1,9 +1,16 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import jakarta.persistence.QueryHint;
 import leonardo.labutilities.qualitylabpro.domains.analytics.models.ControlLot;
 
 public interface ControlLotRepository extends JpaRepository<ControlLot, Integer> {
 
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<ControlLot> findAll();
 }
@@ -1,20 +1,32 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import leonardo.labutilities.qualitylabpro.domains.analytics.enums.WorkSectorEnum;
 import leonardo.labutilities.qualitylabpro.domains.analytics.models.Equipment;
 
+// Lookups are query-cached; the equipments themselves come from the L2 cache
 @Repository
 public interface EquipmentRepository extends JpaRepository<Equipment, Integer> {
+    @Override
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Equipment> findAll();
+
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Equipment> findByWorkSector(WorkSectorEnum workSector);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Equipment> findBySerialNumber(String serialNumber);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Equipment> findByCommercialName(String commercialName);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     boolean existsByCommercialName(String commercialName);
 }
@@ -0,0 +1,27 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.QcDailySummary;
+
+@Repository
+public interface QcDailySummaryRepository
+		extends JpaRepository<QcDailySummary, Long>, QcDailySummaryRollupRepository {
+
+	@Query("""
+			SELECT s FROM qc_daily_summary s
+			WHERE s.testName IN (:names) AND s.controlLevel = :level
+			AND s.summaryDate BETWEEN :startDay AND :endDay
+			ORDER BY s.summaryDate ASC
+			""")
+	List<QcDailySummary> findByNameInAndLevelAndSummaryDateBetween(
+			@Param("names") Collection<String> names, @Param("level") String level,
+			@Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+}
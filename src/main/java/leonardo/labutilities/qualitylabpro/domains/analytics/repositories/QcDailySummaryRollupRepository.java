@@ -0,0 +1,46 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticDayKey;
+
+public interface QcDailySummaryRollupRepository {
+
+	/**
+	 * Reads the roll-up high-water mark and locks its row until the surrounding
+	 * transaction ends, so concurrent instances roll up one after the other.
+	 */
+	Optional<LocalDateTime> lockHighWaterMark();
+
+	void saveHighWaterMark(LocalDateTime highWaterMark);
+
+	/**
+	 * The database clock. Every write of analytics.updated_at takes it from
+	 * the database too (column default, ON UPDATE, or CURRENT_TIMESTAMP in the
+	 * bulk insert), so the high-water mark is never compared against another
+	 * clock.
+	 */
+	LocalDateTime currentDatabaseTime();
+
+	/**
+	 * Days with at least one run whose updated_at falls in (from, to].
+	 */
+	List<AnalyticDayKey> findTouchedDays(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Recomputes every summary row of the days returned by
+	 * {@link #findTouchedDays(LocalDateTime, LocalDateTime)} for the same window.
+	 * Returns the number of rows written.
+	 */
+	int rollUp(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Recomputes the summary rows of the given tests between both days,
+	 * inclusive. Returns the number of rows written.
+	 */
+	int rebuild(Collection<String> names, LocalDate startDay, LocalDate endDay);
+}
@@ -0,0 +1,123 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticDayKey;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC fragment of {@link QcDailySummaryRepository}. Both the incremental
+ * roll-up and the rebuild delete the affected days and insert them again from
+ * one grouped scan of analytics, so runs that moved to another lot or
+ * equipment never leave a stale row behind.
+ */
+@RequiredArgsConstructor
+class QcDailySummaryRollupRepositoryImpl implements QcDailySummaryRollupRepository {
+
+	private static final String JOB_NAME = "qc_daily_summary";
+
+	private static final String INSERT_SUMMARY = """
+			INSERT INTO qc_daily_summary (
+			    test_name, control_level, summary_date, control_level_lot, equipment_id,
+			    sample_count, value_sum, value_sum_squares, min_value, max_value, target_mean,
+			    rule_violation_count, validated_count)
+			SELECT a.test_name, a.control_level, DATE(a.measurement_date),
+			    COALESCE(a.control_level_lot, ''), COALESCE(a.equipment_id, 0),
+			    COUNT(*), SUM(a.measurement_value), SUM(a.measurement_value * a.measurement_value),
+			    MIN(a.measurement_value), MAX(a.measurement_value), MIN(a.target_mean),
+			    SUM(a.control_rules IN ('+2s', '+3s', '-2s', '-3s')),
+			    SUM(a.validator_user_id IS NOT NULL)
+			FROM analytics a
+			""";
+	private static final String GROUP_SUMMARY = """
+			GROUP BY a.test_name, a.control_level, DATE(a.measurement_date),
+			    COALESCE(a.control_level_lot, ''), COALESCE(a.equipment_id, 0)
+			""";
+	private static final String TOUCHED_DAYS = """
+			SELECT DISTINCT test_name, control_level, DATE(measurement_date) AS summary_date
+			FROM analytics
+			WHERE updated_at > ? AND updated_at <= ? AND control_level IS NOT NULL
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public Optional<LocalDateTime> lockHighWaterMark() {
+		return jdbcTemplate.query("""
+				SELECT high_water_mark FROM qc_summary_watermark
+				WHERE job_name = ? FOR UPDATE
+				""", (row, rowNum) -> row.getTimestamp(1).toLocalDateTime(), JOB_NAME).stream()
+				.findFirst();
+	}
+
+	@Override
+	public void saveHighWaterMark(LocalDateTime highWaterMark) {
+		jdbcTemplate.update("""
+				INSERT INTO qc_summary_watermark (job_name, high_water_mark) VALUES (?, ?)
+				ON DUPLICATE KEY UPDATE high_water_mark = VALUES(high_water_mark)
+				""", JOB_NAME, Timestamp.valueOf(highWaterMark));
+	}
+
+	@Override
+	public LocalDateTime currentDatabaseTime() {
+		return jdbcTemplate.queryForObject("SELECT NOW()", Timestamp.class).toLocalDateTime();
+	}
+
+	@Override
+	public List<AnalyticDayKey> findTouchedDays(LocalDateTime from, LocalDateTime to) {
+		return jdbcTemplate.query(TOUCHED_DAYS,
+				(row, rowNum) -> new AnalyticDayKey(row.getString(1), row.getString(2),
+						row.getDate(3).toLocalDate()),
+				Timestamp.valueOf(from), Timestamp.valueOf(to));
+	}
+
+	@Override
+	public int rollUp(LocalDateTime from, LocalDateTime to) {
+		Timestamp fromTimestamp = Timestamp.valueOf(from);
+		Timestamp toTimestamp = Timestamp.valueOf(to);
+
+		jdbcTemplate.update("DELETE s FROM qc_daily_summary s JOIN (" + TOUCHED_DAYS + """
+				) touched ON s.test_name = touched.test_name
+				    AND s.control_level = touched.control_level
+				    AND s.summary_date = touched.summary_date
+				""", fromTimestamp, toTimestamp);
+
+		return jdbcTemplate.update(INSERT_SUMMARY + "JOIN (" + TOUCHED_DAYS + """
+				) touched ON a.test_name = touched.test_name
+				    AND a.control_level = touched.control_level
+				    AND a.measurement_date >= touched.summary_date
+				    AND a.measurement_date < touched.summary_date + INTERVAL 1 DAY
+				""" + GROUP_SUMMARY, fromTimestamp, toTimestamp);
+	}
+
+	@Override
+	public int rebuild(Collection<String> names, LocalDate startDay, LocalDate endDay) {
+		if (names.isEmpty()) {
+			return 0;
+		}
+		String placeholders = String.join(", ", Collections.nCopies(names.size(), "?"));
+
+		List<Object> deleteArgs = new ArrayList<>(names);
+		deleteArgs.add(startDay);
+		deleteArgs.add(endDay);
+		jdbcTemplate.update("DELETE FROM qc_daily_summary WHERE test_name IN (" + placeholders
+				+ ") AND summary_date BETWEEN ? AND ?", deleteArgs.toArray());
+
+		List<Object> insertArgs = new ArrayList<>(names);
+		insertArgs.add(startDay.atStartOfDay());
+		insertArgs.add(endDay.plusDays(1).atStartOfDay());
+		return jdbcTemplate.update(INSERT_SUMMARY + "WHERE a.test_name IN (" + placeholders + """
+				) AND a.control_level IS NOT NULL
+				AND a.measurement_date >= ? AND a.measurement_date < ?
+				""" + GROUP_SUMMARY, insertArgs.toArray());
+	}
+}
@@ -0,0 +1,39 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Tells Hibernate that a JDBC fragment wrote a table behind its back, so
+ * cached queries reading that table stop being served. Within a transaction
+ * the table is invalidated as for Hibernate's own native updates, now and
+ * again on completion; otherwise the autocommitted write is already visible
+ * and a single invalidation is enough.
+ */
+final class QuerySpaces {
+
+	static final String ANALYTICS = "analytics";
+
+	private QuerySpaces() {}
+
+	static void invalidate(EntityManager entityManager, String table) {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			BulkOperationCleanupAction.schedule(entityManager.unwrap(SharedSessionContractImplementor.class),
+					Set.of(table));
+			return;
+		}
+		SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+				.unwrap(SessionFactoryImplementor.class);
+		try (Session session = sessionFactory.openSession()) {
+			sessionFactory.getCache().getTimestampsCache().invalidate(new String[] {table},
+					(SharedSessionContractImplementor) session);
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.stereotype.Service;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticTimeSeriesStore;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.AnalyticDailyStatistic;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticDailyStatisticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.RunningStatistics;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Maintains the per (test, level, lot, day) statistics buckets and answers
+ * mean and standard deviation queries by merging them, so the cost of a range
+ * query depends on the number of days rather than the number of runs.
+ */
+@Service
+@RequiredArgsConstructor
+public class AnalyticDailyStatisticsService {
+
+        // measurement_date is stored with second precision
+        private static final LocalTime LAST_SECOND_OF_DAY = LocalTime.of(23, 59, 59);
+
+        private final AnalyticDailyStatisticsRepository dailyStatisticsRepository;
+        private final AnalyticsRepository analyticsRepository;
+        private final AnalyticTimeSeriesStore analyticTimeSeriesStore;
+
+        private record BucketKey(String name, String level, String levelLot, LocalDate day) {}
+
+        public void registerNewRecords(List<Analytic> persistedRecords) {
+                Map<BucketKey, RunningStatistics> buckets = new LinkedHashMap<>();
+                for (Analytic analytic : persistedRecords) {
+                        BucketKey key = new BucketKey(analytic.getTestName(), analytic.getControlLevel(),
+                                        Objects.requireNonNullElse(analytic.getControlLevelLot(), ""),
+                                        analytic.getMeasurementDate().toLocalDate());
+                        buckets.computeIfAbsent(key, k -> new RunningStatistics())
+                                        .add(analytic.getMeasurementValue());
+                }
+
+                buckets.forEach((key, stats) -> dailyStatisticsRepository.mergeBucket(key.name(),
+                                key.level(), key.levelLot(), key.day(), stats.count(), stats.sum(),
+                                stats.sumSquaredDeviations(), stats.min(), stats.max()));
+        }
+
+        public void refreshBuckets(String name, String level, LocalDate day) {
+                dailyStatisticsRepository.deleteBuckets(name, level, day);
+                dailyStatisticsRepository.rebuildBuckets(name, level, day);
+        }
+
+        public RunningStatistics aggregate(String name, String level, LocalDateTime startDate,
+                        LocalDateTime endDate) {
+                RunningStatistics statistics = new RunningStatistics();
+
+                LocalDate firstFullDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                                ? startDate.toLocalDate()
+                                : startDate.toLocalDate().plusDays(1);
+                LocalDate lastFullDay = endDate.toLocalTime().isBefore(LAST_SECOND_OF_DAY)
+                                ? endDate.toLocalDate().minusDays(1)
+                                : endDate.toLocalDate();
+
+                if (firstFullDay.isAfter(lastFullDay)) {
+                        addRawValues(statistics, name, level, startDate, endDate);
+                        return statistics;
+                }
+
+                for (AnalyticDailyStatistic bucket : dailyStatisticsRepository
+                                .findByNameAndLevelAndBucketDateBetween(name, level, firstFullDay, lastFullDay)) {
+                        statistics.merge(bucket.getSampleCount(), bucket.getValueSum(),
+                                        bucket.getSumSquaredDeviations(), bucket.getMinValue(), bucket.getMaxValue());
+                }
+
+                LocalDateTime fullDaysStart = firstFullDay.atStartOfDay();
+                if (startDate.isBefore(fullDaysStart)) {
+                        addRawValues(statistics, name, level, startDate, fullDaysStart.minusSeconds(1));
+                }
+
+                LocalDateTime fullDaysEnd = lastFullDay.plusDays(1).atStartOfDay();
+                if (!endDate.isBefore(fullDaysEnd)) {
+                        addRawValues(statistics, name, level, fullDaysEnd, endDate);
+                }
+
+                return statistics;
+        }
+
+        public MeanAndStdDeviationDTO calculateMeanAndStandardDeviation(String name, String level,
+                        LocalDateTime startDate, LocalDateTime endDate) {
+                return aggregate(name, level, startDate, endDate).toMeanAndStdDeviation();
+        }
+
+        private void addRawValues(RunningStatistics statistics, String name, String level,
+                        LocalDateTime startDate, LocalDateTime endDate) {
+                analyticTimeSeriesStore.findValuesByNameAndLevelAndDateBetween(name, level, startDate, endDate)
+                                .ifPresentOrElse(values -> Arrays.stream(values).forEach(statistics::add),
+                                                () -> analyticsRepository.findValuesByNameAndLevelAndDateBetween(name,
+                                                                level, startDate, endDate).forEach(statistics::add));
+        }
+}
@@ -0,0 +1,132 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticExporter;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.shared.exception.CustomGlobalErrorHandling;
+import leonardo.labutilities.qualitylabpro.domains.users.enums.ExportFormat;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams a range of runs from a forward-only cursor straight into one of the
+ * {@link AnalyticExporter}s, optionally gzipped. Rows are written as they are
+ * fetched, so memory stays flat however many runs the range holds; the
+ * connection is held until the last row is written, so however slow the
+ * client, the download keeps one pooled connection busy. The number of exports
+ * running at once is therefore capped below the pool size, and an export over
+ * the cap is refused instead of queued.
+ */
+@Slf4j
+@Service
+public class AnalyticExportService {
+
+	private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+	private final AnalyticsRepository analyticsRepository;
+	private final Map<ExportFormat, AnalyticExporter> exporters = new EnumMap<>(ExportFormat.class);
+	private final TransactionTemplate readOnlyTransaction;
+	private final Semaphore exportPermits;
+
+	public AnalyticExportService(AnalyticsRepository analyticsRepository, List<AnalyticExporter> exporters,
+			PlatformTransactionManager transactionManager,
+			@Value("${analytics.export.max-concurrent:2}") int maxConcurrentExports) {
+		this.analyticsRepository = analyticsRepository;
+		this.exportPermits = new Semaphore(Math.max(1, maxConcurrentExports));
+		exporters.forEach(exporter -> this.exporters.put(exporter.format(), exporter));
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+	}
+
+	public AnalyticExporter exporterFor(ExportFormat format) {
+		AnalyticExporter exporter = exporters.get(format);
+		if (exporter == null) {
+			throw new CustomGlobalErrorHandling.UnsupportedExportFormatException(
+					"Analytics cannot be exported as " + format + "; supported formats are "
+							+ exporters.keySet());
+		}
+		return exporter;
+	}
+
+	/**
+	 * Takes one of the export slots, to be held until the export is written.
+	 * Reserved before the response headers are set, so a refused export can
+	 * still be answered with an error body.
+	 */
+	public Reservation reserve() {
+		if (!exportPermits.tryAcquire()) {
+			throw new CustomGlobalErrorHandling.ExportCapacityExceededException(
+					"The maximum number of concurrent exports is already running");
+		}
+		return exportPermits::release;
+	}
+
+	/**
+	 * Writes the runs of the given tests measured between both dates, of one
+	 * level unless {@code level} is null, in date order. Returns the number of
+	 * runs written.
+	 */
+	public long export(Reservation reservation, Collection<String> names, String level,
+			LocalDateTime startDate, LocalDateTime endDate, AnalyticExporter exporter, boolean gzip,
+			OutputStream output) throws IOException {
+		Objects.requireNonNull(reservation, "An export must be reserved first");
+		AtomicLong written = new AtomicLong();
+		try {
+			readOnlyTransaction.executeWithoutResult(status -> {
+				try (Stream<AnalyticsDTO> runs = analyticsRepository
+						.streamByNameInAndLevelAndDateBetween(names, level, startDate, endDate)
+						.peek(run -> written.incrementAndGet())) {
+					write(exporter, runs, gzip, output);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			log.warn("Export of {} runs as {} interrupted: {}", written.get(), exporter.format(),
+					e.getCause().getMessage());
+			throw e.getCause();
+		}
+		log.info("Exported {} runs of {} tests as {}{}", written.get(), names.size(), exporter.format(),
+				gzip ? " (gzip)" : "");
+		return written.get();
+	}
+
+	private static void write(AnalyticExporter exporter, Stream<AnalyticsDTO> runs, boolean gzip,
+			OutputStream output) throws IOException {
+		if (!gzip) {
+			exporter.write(runs, output);
+			return;
+		}
+		try (GZIPOutputStream compressed = new GZIPOutputStream(StreamUtils.nonClosing(output),
+				GZIP_BUFFER_SIZE)) {
+			exporter.write(runs, compressed);
+		}
+		output.flush();
+	}
+
+	/** Export slot taken by {@link #reserve()}; closing it frees the slot. */
+	@FunctionalInterface
+	public interface Reservation extends AutoCloseable {
+		@Override
+		void close();
+	}
+}
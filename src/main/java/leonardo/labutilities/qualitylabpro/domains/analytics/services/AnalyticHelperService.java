@@ -1,29 +1,52 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.services;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.util.Assert;
 
+import io.micrometer.core.instrument.Timer;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticCacheComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticEventStreamComponent;
 import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticFailedNotificationComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticMetricsComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticTimeSeriesStore;
+import leonardo.labutilities.qualitylabpro.domains.analytics.constants.AnalyticCacheNames;
 import leonardo.labutilities.qualitylabpro.domains.analytics.constants.AnalyticErrorMessages;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticRecordKey;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsCursor;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.ControlSeries;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsCursorPageDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsRecalibrationSummaryDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsValidationSummaryDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsWithCalcDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedMeanAndStdByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedResultsByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedValuesByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.AnalyticIngestionMode;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.ControlRange;
 import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
 import leonardo.labutilities.qualitylabpro.domains.analytics.utils.AnalyticRulesValidation;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.DownsamplingUtility;
 import leonardo.labutilities.qualitylabpro.domains.analytics.utils.StatisticsCalculatorUtility;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.WestgardRulesEvaluator;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.utils.AuthenticatedUserProvider;
 import leonardo.labutilities.qualitylabpro.domains.shared.exception.CustomGlobalErrorHandling;
 import leonardo.labutilities.qualitylabpro.domains.shared.mappers.AnalyticMapper;
@@ -44,6 +67,15 @@ public class AnalyticHelperService implements IAnalyticHelperService {
         private final AnalyticsRepository analyticsRepository;
         private final IAnalyticValidationService analyticsValidationService;
         private final AnalyticFailedNotificationComponent analyticFailedNotificationComponent;
+        private final AnalyticDailyStatisticsService dailyStatisticsService;
+        private final AnalyticCacheComponent analyticCacheComponent;
+        private final AnalyticEventStreamComponent analyticEventStreamComponent;
+        private final QcDailySummaryService qcDailySummaryService;
+        private final AnalyticTimeSeriesStore analyticTimeSeriesStore;
+        private final AnalyticMetricsComponent analyticMetricsComponent;
+
+        @Value("${analytics.ingestion.mode:CHECK_EXISTING}")
+        private AnalyticIngestionMode ingestionMode = AnalyticIngestionMode.CHECK_EXISTING;
 
         @Override
         public AnalyticsDTO findOneById(Long id) {
@@ -55,17 +87,63 @@ public class AnalyticHelperService implements IAnalyticHelperService {
 
         @Override
         public void deleteAnalyticsById(Long id) {
-                if (!analyticsRepository.existsById(id)) {
-                        throw new CustomGlobalErrorHandling.ResourceNotFoundException(
-                                        AnalyticErrorMessages.ANALYTICS_NOT_FOUND_BY_ID);
-                }
-                analyticsRepository.deleteById(id);
+                Analytic analytic = analyticsRepository.findById(id)
+                                .orElseThrow(() -> new CustomGlobalErrorHandling.ResourceNotFoundException(
+                                                AnalyticErrorMessages.ANALYTICS_NOT_FOUND_BY_ID));
+                analyticsRepository.delete(analytic);
+                analyticsRepository.flush();
+                dailyStatisticsService.refreshBuckets(analytic.getTestName(), analytic.getControlLevel(),
+                                analytic.getMeasurementDate().toLocalDate());
+                // Deleted runs leave no updated_at for the roll-up to find
+                qcDailySummaryService.rebuild(List.of(analytic.getTestName()),
+                                analytic.getMeasurementDate().toLocalDate(),
+                                analytic.getMeasurementDate().toLocalDate());
+                analyticCacheComponent.evict(List.of(analytic));
+                analyticTimeSeriesStore.invalidate(analytic.getTestName(), analytic.getControlLevel());
         }
 
         @Override
         public List<AnalyticsDTO> saveNewAnalyticsRecords(List<AnalyticsDTO> valuesOfLevelsList) {
-                List<Analytic> newAnalyticsRecords = valuesOfLevelsList.stream()
-                                .filter(analyticsValidationService::isNewAnalyticRecord)
+                Timer.Sample ingestion = analyticMetricsComponent.startIngestion();
+                List<Analytic> persistedRecords;
+                try {
+                        persistedRecords = ingestionMode == AnalyticIngestionMode.INSERT_IGNORE
+                                        ? insertIgnoringDuplicates(valuesOfLevelsList)
+                                        : insertNewRecords(valuesOfLevelsList);
+                } catch (CustomGlobalErrorHandling.AnalyticsDataIntegrityViolationException e) {
+                        analyticMetricsComponent.recordDuplicateBatch(ingestion, ingestionMode,
+                                        valuesOfLevelsList.size());
+                        throw e;
+                }
+                analyticMetricsComponent.recordIngestion(ingestion, ingestionMode, valuesOfLevelsList.size(),
+                                persistedRecords);
+
+                dailyStatisticsService.registerNewRecords(persistedRecords);
+                analyticCacheComponent.evict(persistedRecords);
+
+                List<AnalyticsDTO> failedRecords = AnalyticRulesValidation
+                                .filterFailedRecords(persistedRecords).stream()
+                                .map(AnalyticMapper::toRecord)
+                                .toList();
+
+                analyticFailedNotificationComponent.processFailedRecordsNotification(failedRecords);
+
+                List<AnalyticsDTO> savedRecords = persistedRecords.stream()
+                                .map(AnalyticMapper::toRecord)
+                                .toList();
+                analyticTimeSeriesStore.append(savedRecords);
+                analyticEventStreamComponent.publishAnalytics(savedRecords);
+                return savedRecords;
+        }
+
+        @Override
+        public SseEmitter subscribeToNewAnalytics(List<String> names, Long lastEventId) {
+                return analyticEventStreamComponent.subscribe(names, lastEventId);
+        }
+
+        private List<Analytic> insertNewRecords(List<AnalyticsDTO> valuesOfLevelsList) {
+                List<Analytic> newAnalyticsRecords = analyticsValidationService
+                                .filterNewAnalyticRecords(valuesOfLevelsList).stream()
                                 .map(AnalyticMapper::toNewEntity)
                                 .toList();
 
@@ -76,50 +154,94 @@ public class AnalyticHelperService implements IAnalyticHelperService {
                 User currentUser = AuthenticatedUserProvider.getCurrentAuthenticatedUser();
                 newAnalyticsRecords.forEach(analyticRecord -> analyticRecord.setOwnerUserId(currentUser));
 
-                List<Analytic> persistedRecords = analyticsRepository.saveAll(newAnalyticsRecords);
+                return analyticsRepository.saveAll(newAnalyticsRecords);
+        }
 
-                List<AnalyticsDTO> failedRecords = AnalyticRulesValidation
-                                .filterFailedRecords(persistedRecords).stream()
-                                .map(AnalyticMapper::toRecord)
+        private List<Analytic> insertIgnoringDuplicates(List<AnalyticsDTO> valuesOfLevelsList) {
+                User currentUser = AuthenticatedUserProvider.getCurrentAuthenticatedUser();
+                List<Analytic> candidates = valuesOfLevelsList.stream()
+                                .map(AnalyticMapper::toNewEntity)
                                 .toList();
+                candidates.forEach(analyticRecord -> analyticRecord.setOwnerUserId(currentUser));
 
-                analyticFailedNotificationComponent.processFailedRecordsNotification(failedRecords);
+                List<Long> insertedIds = analyticsRepository.insertIgnoringDuplicates(candidates);
+                if (insertedIds.isEmpty()) {
+                        throw new CustomGlobalErrorHandling.AnalyticsDataIntegrityViolationException();
+                }
 
-                return persistedRecords.stream()
-                                .map(AnalyticMapper::toRecord)
-                                .toList();
+                return analyticsRepository.findWithUsersByIdIn(insertedIds);
         }
 
         @Override
+        @Transactional
         public AnalyticsDTO validateAnalyticByUser(Long id) {
-                Analytic analytic = analyticsRepository.getReferenceById(id);
-                Optional.ofNullable(
-                                AuthenticatedUserProvider.getCurrentAuthenticatedUser())
-                                .ifPresent(analytic::setValidatorUserId);
-
-                Analytic savedAnalytic = analyticsRepository.save(analytic);
+                User currentUser = AuthenticatedUserProvider.getCurrentAuthenticatedUser();
+                evictValidated(analyticsRepository.validateByIdIn(List.of(id), currentUser.getId()).values());
 
-                return AnalyticMapper.toRecord(savedAnalytic);
+                return analyticsRepository.findProjectedByIdIn(List.of(id)).stream()
+                                .findFirst()
+                                .orElseThrow(() -> new CustomGlobalErrorHandling.ResourceNotFoundException(
+                                                AnalyticErrorMessages.ANALYTICS_NOT_FOUND_BY_ID));
         }
 
         @Override
+        @Transactional
         public List<AnalyticsDTO> validateAnalyticListByUser(List<Long> ids) {
+                User currentUser = AuthenticatedUserProvider.getCurrentAuthenticatedUser();
+                evictValidated(analyticsRepository.validateByIdIn(ids, currentUser.getId()).values());
 
-                List<Analytic> analytics = analyticsRepository.findAllById(ids);
+                List<AnalyticsDTO> analytics = analyticsRepository.findProjectedByIdIn(ids);
                 if (analytics.isEmpty()) {
                         throw new CustomGlobalErrorHandling.ResourceNotFoundException(
                                         AnalyticErrorMessages.ANALYTICS_NOT_FOUND_BY_ID);
                 }
+                return analytics;
+        }
 
+        /**
+         * Validates the listed runs with one locking SELECT and one UPDATE per
+         * chunk of ids; runs that are already validated keep their validator.
+         */
+        @Override
+        @Transactional
+        public AnalyticsValidationSummaryDTO validateAnalyticsByIds(List<Long> ids, boolean includeIds) {
                 User currentUser = AuthenticatedUserProvider.getCurrentAuthenticatedUser();
+                Map<Long, AnalyticRecordKey> validated = analyticsRepository.validateByIdIn(ids, currentUser.getId());
+                evictValidated(validated.values());
 
-                analytics.forEach(analytic -> analytic.setValidatorUserId(currentUser));
+                return AnalyticsValidationSummaryDTO.of((int) ids.stream().distinct().count(), validated.keySet(),
+                                includeIds);
+        }
 
-                List<Analytic> savedAnalytics = analyticsRepository.saveAll(analytics);
+        /**
+         * Validates every unvalidated run of the given tests in the range, for
+         * supervisors signing off whole days at once. A null level means all
+         * levels.
+         */
+        @Override
+        @Transactional
+        public AnalyticsValidationSummaryDTO validateAnalyticsMatching(List<String> names, String level,
+                        LocalDateTime startDate, LocalDateTime endDate, boolean includeIds) {
+                User currentUser = AuthenticatedUserProvider.getCurrentAuthenticatedUser();
+                Map<Long, AnalyticRecordKey> validated = analyticsRepository.validateMatching(names, level,
+                                startDate, endDate, currentUser.getId());
+                evictValidated(validated.values());
 
-                return savedAnalytics.stream()
-                                .map(AnalyticMapper::toRecord)
-                                .toList();
+                return AnalyticsValidationSummaryDTO.of(validated.size(), validated.keySet(), includeIds);
+        }
+
+        private void evictValidated(Collection<AnalyticRecordKey> runs) {
+                if (runs.isEmpty()) {
+                        return;
+                }
+                analyticCacheComponent.evictTouches(runs.stream()
+                                .map(run -> new AnalyticCacheComponent.Touch(run.name(), run.level(),
+                                                run.date().toLocalDate()))
+                                .collect(Collectors.toSet()));
+                runs.stream()
+                                .map(run -> new ControlSeries.Key(run.name(), run.level()))
+                                .distinct()
+                                .forEach(key -> analyticTimeSeriesStore.invalidate(key.name(), key.level()));
         }
 
         @Override
@@ -127,6 +249,9 @@ public class AnalyticHelperService implements IAnalyticHelperService {
                 return analyticsRepository.findById(id)
                                 .map(analytic -> {
                                         analytic.setDescription(description);
+                                        analyticCacheComponent.evict(List.of(analytic));
+                                        analyticTimeSeriesStore.invalidate(analytic.getTestName(),
+                                                        analytic.getControlLevel());
                                         return AnalyticMapper.toRecord(analyticsRepository.save(analytic));
                                 })
                                 .orElseThrow(() -> new CustomGlobalErrorHandling.ResourceNotFoundException(
@@ -194,6 +319,43 @@ public class AnalyticHelperService implements IAnalyticHelperService {
                 return analytics;
         }
 
+        @Override
+        public AnalyticsCursorPageDTO findAnalyticsByNameInAndDateBetweenAfterCursor(List<String> names,
+                        LocalDateTime dateStart, LocalDateTime dateEnd, String cursor, int size) {
+                AnalyticsCursor position = AnalyticsCursor.of(cursor, dateEnd);
+
+                List<AnalyticsDTO> rows = findPageBeforeCursor(names, dateStart, dateEnd, position, false,
+                                size + 1);
+
+                AnalyticRulesValidation.validateResultsNotEmpty(rows,
+                                AnalyticErrorMessages.NO_ANALYTICS_FOR_PAGINATION);
+
+                return AnalyticsCursorPageDTO.of(rows, size);
+        }
+
+        @Override
+        public AnalyticsCursorPageDTO findUnvalidAnalyticsByNameInAndDateBetweenAfterCursor(
+                        List<String> names, LocalDateTime dateStart, LocalDateTime dateEnd, String cursor,
+                        int size) {
+                AnalyticsCursor position = AnalyticsCursor.of(cursor, dateEnd);
+
+                List<AnalyticsDTO> rows = findPageBeforeCursor(names, dateStart, dateEnd, position, true,
+                                size + 1);
+
+                AnalyticRulesValidation.validateResultsNotEmpty(rows,
+                                AnalyticErrorMessages.NO_ANALYTICS_FOR_PAGINATION);
+
+                return AnalyticsCursorPageDTO.of(rows, size);
+        }
+
+        // Seeks the ids on the index first, then projects only the rows of the page
+        private List<AnalyticsDTO> findPageBeforeCursor(List<String> names, LocalDateTime dateStart,
+                        LocalDateTime dateEnd, AnalyticsCursor position, boolean unvalidatedOnly, int limit) {
+                List<Long> ids = analyticsRepository.findIdsBeforeCursor(names, dateStart, dateEnd,
+                                position.date(), position.id(), unvalidatedOnly, limit);
+                return ids.isEmpty() ? List.of() : analyticsRepository.findProjectedByIdInOrderByDateDesc(ids);
+        }
+
         @Override
         public Page<AnalyticsDTO> findAnalyticsByNameInAndDateBetweenWithLinks(
                         List<String> names, LocalDateTime dateStart, LocalDateTime dateEnd, Pageable pageable) {
@@ -241,29 +403,105 @@ public class AnalyticHelperService implements IAnalyticHelperService {
         @Override
         public AnalyticsWithCalcDTO findAnalyticsByNameLevelDate(
                         String name, String level, LocalDateTime dateStart, LocalDateTime dateEnd, Pageable pageable) {
+                return findAnalyticsByNameLevelDate(name, level, dateStart, dateEnd, pageable, null);
+        }
 
-                List<AnalyticsDTO> results = analyticsRepository
-                                .findByNameAndLevelAndDateBetween(name, level, dateStart, dateEnd, pageable);
-
-                MeanAndStdDeviationDTO calcSdAndMean = StatisticsCalculatorUtility
-                                .calculateMeanAndStandardDeviation(results);
+        /**
+         * With {@code maxPoints} the whole range is read, ignoring the pageable,
+         * and reduced by LTTB to about that many runs plus every run that broke a
+         * rule. The statistics always cover every run of the range.
+         */
+        @Override
+        public AnalyticsWithCalcDTO findAnalyticsByNameLevelDate(String name, String level,
+                        LocalDateTime dateStart, LocalDateTime dateEnd, Pageable pageable, Integer maxPoints) {
+                Pageable range = maxPoints == null ? pageable : Pageable.unpaged();
 
-                AnalyticsWithCalcDTO analyticsWithCalcDTO = new AnalyticsWithCalcDTO(results, calcSdAndMean);
+                List<AnalyticsDTO> results = analyticTimeSeriesStore
+                                .findByNameAndLevelAndDateBetween(name, level, dateStart, dateEnd, range)
+                                .orElseGet(() -> analyticsRepository.findByNameAndLevelAndDateBetween(name, level,
+                                                dateStart, dateEnd, range));
 
                 AnalyticRulesValidation.validateResultsNotEmpty(results,
                                 AnalyticErrorMessages.NO_ANALYTICS_FOR_PARAMETERS);
-                return analyticsWithCalcDTO;
+
+                MeanAndStdDeviationDTO calcSdAndMean = dailyStatisticsService
+                                .calculateMeanAndStandardDeviation(name, level, dateStart, dateEnd);
+
+                return new AnalyticsWithCalcDTO(maxPoints == null ? results : downsample(results, maxPoints),
+                                calcSdAndMean);
+        }
+
+        private static List<AnalyticsDTO> downsample(List<AnalyticsDTO> results, int maxPoints) {
+                if (results.size() <= maxPoints) {
+                        return results;
+                }
+                long[] dates = new long[results.size()];
+                double[] values = new double[results.size()];
+                double[] means = new double[results.size()];
+                double[] sds = new double[results.size()];
+                for (int index = 0; index < dates.length; index++) {
+                        AnalyticsDTO run = results.get(index);
+                        dates[index] = run.date().toEpochSecond(ZoneOffset.UTC);
+                        values[index] = run.value();
+                        means[index] = run.mean();
+                        sds[index] = run.sd();
+                }
+                // Runs outside ±2 SD and every run of a multirule violation survive
+                boolean[] mustKeep = WestgardRulesEvaluator.violatingRuns(values, means, sds);
+                for (int index = 0; index < mustKeep.length; index++) {
+                        mustKeep[index] |= ControlRange.ofRule(results.get(index).rules()).isRuleBroken();
+                }
+
+                int[] selected = DownsamplingUtility.largestTriangleThreeBuckets(dates, values, mustKeep,
+                                maxPoints);
+                List<AnalyticsDTO> downsampled = new ArrayList<>(selected.length);
+                for (int index : selected) {
+                        downsampled.add(results.get(index));
+                }
+                return downsampled;
+        }
+
+        /**
+         * Chart variant of {@link #findAnalyticsByNameLevelDate}: every run of the
+         * range in column form, with statistics computed over all of them before
+         * the optional downsampling. Served from the time-series store when it
+         * holds the range.
+         */
+        @Override
+        public AnalyticsChartDTO findAnalyticsChartByNameLevelDate(String name, String level,
+                        LocalDateTime dateStart, LocalDateTime dateEnd, Integer maxPoints) {
+                List<AnalyticsChartDTO> charts = analyticTimeSeriesStore
+                                .findChartSeries(name, level, dateStart, dateEnd)
+                                .orElseGet(() -> analyticsRepository.findChartSeries(name, level, dateStart, dateEnd));
+
+                AnalyticRulesValidation.validateResultsNotEmpty(charts,
+                                AnalyticErrorMessages.NO_ANALYTICS_FOR_PARAMETERS);
+                AnalyticsChartDTO chart = charts.getFirst();
+                return maxPoints == null ? chart : chart.downsample(maxPoints);
+        }
+
+        // maxPoints applies to each level on its own
+        @Override
+        public List<AnalyticsChartDTO> findAnalyticsChartsGroupedByLevel(String name, LocalDateTime startDate,
+                        LocalDateTime endDate, Integer maxPoints) {
+                List<AnalyticsChartDTO> charts = analyticTimeSeriesStore
+                                .findChartSeries(name, null, startDate, endDate)
+                                .orElseGet(() -> analyticsRepository.findChartSeries(name, null, startDate, endDate));
+
+                AnalyticRulesValidation.validateResultsNotEmpty(charts,
+                                AnalyticErrorMessages.NO_ANALYTICS_FOR_NAME_DATE);
+                return maxPoints == null ? charts
+                                : charts.stream().map(chart -> chart.downsample(maxPoints)).toList();
         }
 
         @Override
         public List<GroupedValuesByLevelDTO> findGroupedAnalyticsByLevel(
                         String name, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
 
-                List<AnalyticsDTO> records = analyticsRepository
-                                .findByNameAndDateBetweenGroupByLevel(name, startDate, endDate, pageable)
-                                .stream()
-                                .map(AnalyticMapper::toRecord)
-                                .toList();
+                List<AnalyticsDTO> records = analyticTimeSeriesStore
+                                .findByNameAndDateBetween(name, startDate, endDate, pageable)
+                                .orElseGet(() -> analyticsRepository.findByNameAndDateBetweenGroupByLevel(name,
+                                                startDate, endDate, pageable));
 
                 AnalyticRulesValidation.validateResultsNotEmpty(records,
                                 AnalyticErrorMessages.NO_ANALYTICS_FOR_NAME_DATE);
@@ -277,6 +515,8 @@ public class AnalyticHelperService implements IAnalyticHelperService {
         }
 
         @Override
+        @Cacheable(cacheNames = AnalyticCacheNames.GROUPED_RESULTS,
+                        key = "@analyticCacheComponent.key(#name, #startDate, #endDate, #pageable)")
         public List<GroupedResultsByLevelDTO> findAnalyticsWithGroupedResults(
                         String name, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
 
@@ -303,6 +543,30 @@ public class AnalyticHelperService implements IAnalyticHelperService {
         public void updateAnalyticsMeanByNameAndLevelAndLevelLot(
                         String name, String level, String levelLot, double mean) {
                 analyticsRepository.updateMeanByNameAndLevelAndLevelLot(name, level, levelLot, mean);
+                // Every day of the lot may be affected
+                analyticCacheComponent.evict(name, level, null);
+                analyticTimeSeriesStore.invalidate(name, level);
+        }
+
+        /**
+         * Unlike {@link #updateAnalyticsMeanByNameAndLevelAndLevelLot}, also
+         * re-derives the rule and description of every affected run, so they agree
+         * with the new target. The daily summary picks the runs up on its next
+         * roll-up through their updated_at.
+         */
+        @Override
+        @Transactional
+        public AnalyticsRecalibrationSummaryDTO recalibrateAnalytics(String name, String level,
+                        String levelLot, double mean, Double sd, LocalDateTime startDate, LocalDateTime endDate) {
+                AnalyticsRecalibrationSummaryDTO summary = analyticsRepository.recalibrate(name, level, levelLot,
+                                mean, sd, startDate, endDate);
+                if (summary.recalibrated() > 0) {
+                        analyticCacheComponent.evict(name, level, null);
+                        analyticTimeSeriesStore.invalidate(name, level);
+                }
+                log.info("Recalibrated {} runs of {}/{} lot {}, {} reclassified", summary.recalibrated(), name,
+                                level, levelLot, summary.reclassified());
+                return summary;
         }
 
 }
@@ -0,0 +1,120 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import jakarta.validation.Validator;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsImportBatchDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsImportSummaryDTO;
+import leonardo.labutilities.qualitylabpro.domains.shared.exception.CustomGlobalErrorHandling;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams analyzer uploads (NDJSON, JSON array or CSV with a header row) into
+ * the sector services one batch at a time. Only the current batch is held in
+ * memory and every batch runs in its own transaction: its runs, daily buckets
+ * and summary touches commit together, cache evictions and notifications
+ * follow the commit, and an import that fails halfway keeps the batches
+ * committed before the failure.
+ */
+@Slf4j
+@Service
+public class AnalyticImportService {
+
+	public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+	public static final String TEXT_CSV_VALUE = "text/csv";
+
+	// CSV columns are matched by header name, using the same names as the JSON payload
+	private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+			.findAndAddModules()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+			.build();
+	private static final CsvSchema CSV_SCHEMA = CsvSchema.emptySchema().withHeader();
+
+	private final ObjectMapper objectMapper;
+	private final Validator validator;
+	private final TransactionTemplate batchTransaction;
+
+	@Value("${analytics.ingestion.batch-size:500}")
+	private int defaultBatchSize = 500;
+
+	public AnalyticImportService(ObjectMapper objectMapper, Validator validator,
+			PlatformTransactionManager transactionManager) {
+		this.objectMapper = objectMapper;
+		this.validator = validator;
+		this.batchTransaction = new TransactionTemplate(transactionManager);
+	}
+
+	public AnalyticsImportSummaryDTO importRecords(InputStream body, MediaType contentType, Integer batchSize,
+			IAnalyticHelperService analyticHelperService) {
+		final int size = batchSize != null ? batchSize : defaultBatchSize;
+		List<AnalyticsImportBatchDTO> batches = new ArrayList<>();
+		List<AnalyticsDTO> batch = new ArrayList<>(size);
+		int rejected = 0;
+
+		try (MappingIterator<AnalyticsDTO> records = openReader(body, contentType)) {
+			while (records.hasNextValue()) {
+				AnalyticsDTO analyticsRecord = records.nextValue();
+				if (validator.validate(analyticsRecord).isEmpty()) {
+					batch.add(analyticsRecord);
+				} else {
+					rejected++;
+				}
+
+				if (batch.size() + rejected == size) {
+					batches.add(writeBatch(batches.size() + 1, batch, rejected, analyticHelperService));
+					batch = new ArrayList<>(size);
+					rejected = 0;
+				}
+			}
+		} catch (IOException e) {
+			throw new CustomGlobalErrorHandling.AnalyticsImportException(String.format(
+					"Malformed record after %d committed batch(es): %s", batches.size(), e.getMessage()), e);
+		}
+
+		if (!batch.isEmpty() || rejected > 0) {
+			batches.add(writeBatch(batches.size() + 1, batch, rejected, analyticHelperService));
+		}
+
+		return AnalyticsImportSummaryDTO.of(batches);
+	}
+
+	private MappingIterator<AnalyticsDTO> openReader(InputStream body, MediaType contentType) throws IOException {
+		if (MediaType.parseMediaType(TEXT_CSV_VALUE).includes(contentType)) {
+			return CSV_MAPPER.readerFor(AnalyticsDTO.class).with(CSV_SCHEMA).readValues(body);
+		}
+		// NDJSON and a plain JSON array are both read as a sequence of root values
+		return objectMapper.readerFor(AnalyticsDTO.class).readValues(body);
+	}
+
+	private AnalyticsImportBatchDTO writeBatch(int number, List<AnalyticsDTO> batch, int rejected,
+			IAnalyticHelperService analyticHelperService) {
+		int inserted = 0;
+		if (!batch.isEmpty()) {
+			try {
+				inserted = batchTransaction.execute(
+						status -> analyticHelperService.saveNewAnalyticsRecords(batch).size());
+			} catch (CustomGlobalErrorHandling.AnalyticsDataIntegrityViolationException e) {
+				// Every run of the batch is already stored
+				log.debug("Import batch {} contained only existing runs", number);
+			}
+		}
+		return new AnalyticsImportBatchDTO(number, batch.size() + rejected, inserted, batch.size() - inserted,
+				rejected);
+	}
+}
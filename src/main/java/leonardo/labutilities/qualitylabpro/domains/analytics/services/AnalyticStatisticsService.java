@@ -1,15 +1,18 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.services;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticMetricsComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticTimeSeriesStore;
+import leonardo.labutilities.qualitylabpro.domains.analytics.constants.AnalyticCacheNames;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.ComparativeErrorStatisticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.ErrorStatisticsDTO;
@@ -19,18 +22,26 @@ import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.Mean
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
 import leonardo.labutilities.qualitylabpro.domains.analytics.utils.StatisticsCalculatorUtility;
 import leonardo.labutilities.qualitylabpro.domains.shared.exception.CustomGlobalErrorHandling.ResourceNotFoundException;
-import leonardo.labutilities.qualitylabpro.domains.shared.mappers.AnalyticMapper;
 
 @Service
 public class AnalyticStatisticsService implements IAnalyticStatisticsService {
 
         private final AnalyticsRepository analyticsRepository;
-        private final IAnalyticValidationService analyticsValidationService;
+        private final AnalyticDailyStatisticsService dailyStatisticsService;
+        private final QcDailySummaryService qcDailySummaryService;
+        private final AnalyticTimeSeriesStore analyticTimeSeriesStore;
+        private final AnalyticMetricsComponent analyticMetricsComponent;
 
         public AnalyticStatisticsService(AnalyticsRepository analyticsRepository,
-                        AnalyticValidationService analyticsValidationService) {
+                        AnalyticDailyStatisticsService dailyStatisticsService,
+                        QcDailySummaryService qcDailySummaryService,
+                        AnalyticTimeSeriesStore analyticTimeSeriesStore,
+                        AnalyticMetricsComponent analyticMetricsComponent) {
                 this.analyticsRepository = analyticsRepository;
-                this.analyticsValidationService = analyticsValidationService;
+                this.dailyStatisticsService = dailyStatisticsService;
+                this.qcDailySummaryService = qcDailySummaryService;
+                this.analyticTimeSeriesStore = analyticTimeSeriesStore;
+                this.analyticMetricsComponent = analyticMetricsComponent;
 
         }
 
@@ -38,62 +49,62 @@ public class AnalyticStatisticsService implements IAnalyticStatisticsService {
         public List<GroupedMeanAndStdByLevelDTO> returnMeanAndStandardDeviationForGroups(
                         List<GroupedValuesByLevelDTO> records) {
                 return records.stream().map(group -> new GroupedMeanAndStdByLevelDTO(group.level(),
-                                Collections.singletonList(StatisticsCalculatorUtility.computeStatistics(
-                                                StatisticsCalculatorUtility.extractRecordValues(group.values())))))
+                                Collections.singletonList(StatisticsCalculatorUtility
+                                                .calculateMeanAndStandardDeviation(group.values()))))
                                 .toList();
         }
 
+        /**
+         * Statistics are merged from the daily buckets and always cover the whole
+         * range; the pageable is kept for API compatibility only. The timers of
+         * the cached reads only see cache misses.
+         */
         @Override
+        @Cacheable(cacheNames = AnalyticCacheNames.MEAN_AND_STANDARD_DEVIATION,
+                        key = "@analyticCacheComponent.key(#name, #level, #dateStart, #dateEnd)")
         public MeanAndStdDeviationDTO calculateMeanAndStandardDeviation(final String name, String level,
                         LocalDateTime dateStart, LocalDateTime dateEnd, Pageable pageable) {
-                List<AnalyticsDTO> values = analyticsRepository
-                                .findByNameAndLevelAndDateBetween(name, level, dateStart, dateEnd, pageable).stream()
-                                .filter(analyticsValidationService::isNotThreeSigma)
-                                .toList();
-                return StatisticsCalculatorUtility.calculateMeanAndStandardDeviation(values);
+                return analyticMetricsComponent.timeStatistics("mean-sd", () -> dailyStatisticsService
+                                .calculateMeanAndStandardDeviation(name, level, dateStart, dateEnd));
         }
 
         @Override
+        @Cacheable(cacheNames = AnalyticCacheNames.GROUPED_MEAN_AND_STANDARD_DEVIATION,
+                        key = "@analyticCacheComponent.key(#name, #startDate, #endDate, #pageable)")
         public List<GroupedMeanAndStdByLevelDTO> calculateGroupedMeanAndStandardDeviation(final String name,
                         LocalDateTime startDate, LocalDateTime endDate, Pageable pageable) {
-                List<AnalyticsDTO> records = analyticsRepository
-                                .findByNameAndDateBetweenGroupByLevel(name, startDate, endDate, pageable).stream()
-                                .map(AnalyticMapper::toRecord).toList();
-
-                var values = records.stream().collect(Collectors.groupingBy(AnalyticsDTO::level)).entrySet().stream()
-                                .map(entry -> new GroupedValuesByLevelDTO(entry.getKey(), entry.getValue())).toList();
-
-                return returnMeanAndStandardDeviationForGroups(values);
+                return analyticMetricsComponent.timeStatistics("grouped-mean-sd", () -> {
+                        List<AnalyticsDTO> records = analyticTimeSeriesStore
+                                        .findByNameAndDateBetween(name, startDate, endDate, pageable)
+                                        .orElseGet(() -> analyticsRepository.findByNameAndDateBetweenGroupByLevel(
+                                                        name, startDate, endDate, pageable));
+
+                        var values = records.stream().collect(Collectors.groupingBy(AnalyticsDTO::level)).entrySet()
+                                        .stream()
+                                        .map(entry -> new GroupedValuesByLevelDTO(entry.getKey(), entry.getValue()))
+                                        .toList();
+
+                        return returnMeanAndStandardDeviationForGroups(values);
+                });
         }
 
+        /**
+         * Answered from the qc_daily_summary roll-up, so runs written since the
+         * last roll-up are not counted yet.
+         */
         @Override
+        @Cacheable(cacheNames = AnalyticCacheNames.ERROR_STATISTICS,
+                        key = "@analyticCacheComponent.key(#names, #level, #startDate, #endDate)")
         public List<ErrorStatisticsDTO> calculateErrorStatistics(final List<String> names, String level,
                         LocalDateTime startDate, LocalDateTime endDate) {
-                var analytics = analyticsRepository.findByNameInAndLevelAndDateBetween(names, level, startDate, endDate,
-                                Pageable.unpaged()).stream().toList();
+                List<ErrorStatisticsDTO> result = analyticMetricsComponent.timeStatistics("error-statistics",
+                                () -> qcDailySummaryService.calculateErrorStatistics(names, level, startDate,
+                                                endDate));
 
-                if (analytics.isEmpty()) {
+                if (result.isEmpty()) {
                         throw new ResourceNotFoundException("No data found for the given parameters");
                 }
 
-                Map<String, List<AnalyticsDTO>> analyticsByName =
-                                analytics.stream().collect(Collectors.groupingBy(AnalyticsDTO::name));
-
-                List<ErrorStatisticsDTO> result = new ArrayList<>();
-                for (Map.Entry<String, List<AnalyticsDTO>> entry : analyticsByName.entrySet()) {
-                        List<AnalyticsDTO> analyticsForName = entry.getValue();
-
-                        String defalutName = analyticsForName.getFirst().name();
-
-                        String defaultLevel = analyticsForName.getFirst().level();
-
-                        double defaultMean = analyticsForName.getFirst().mean();
-
-                        ErrorStatisticsDTO stat = StatisticsCalculatorUtility.calculateErrorStatistics(
-                                        analyticsForName, defalutName, defaultLevel, defaultMean);
-                        result.add(stat);
-                }
-
                 return result;
         }
 
@@ -104,23 +115,24 @@ public class AnalyticStatisticsService implements IAnalyticStatisticsService {
 
                 List<String> monthList = List.of(firstStartDate.getMonth().name(), secondStartDate.getMonth().name());
 
-                List<AnalyticsDTO> firstAnalytic =
-                                analyticsRepository
-                                                .findByNameAndLevelAndDateBetween(analyticName, level, firstStartDate,
-                                                                firstEndDate, Pageable.unpaged());
+                List<ErrorStatisticsDTO> firstStatistics = analyticMetricsComponent.timeStatistics("comparative",
+                                () -> qcDailySummaryService.calculateErrorStatistics(List.of(analyticName), level,
+                                                firstStartDate, firstEndDate));
 
-                List<AnalyticsDTO> secondAnalytic =
-                                analyticsRepository
-                                                .findByNameAndLevelAndDateBetween(analyticName, level, secondStartDate,
-                                                                secondEndDate, Pageable.unpaged());
+                List<ErrorStatisticsDTO> secondStatistics = analyticMetricsComponent.timeStatistics("comparative",
+                                () -> qcDailySummaryService.calculateErrorStatistics(List.of(analyticName), level,
+                                                secondStartDate, secondEndDate));
 
-                if (firstAnalytic.isEmpty() || secondAnalytic.isEmpty()) {
+                if (firstStatistics.isEmpty() || secondStatistics.isEmpty()) {
                         throw new ResourceNotFoundException("No data found for the given parameters");
                 }
 
-                double defaultMean = firstAnalytic.getFirst().mean();
+                return StatisticsCalculatorUtility.calculateComparativeErrorStatistics(firstStatistics.getFirst(),
+                                secondStatistics.getFirst(), monthList);
+        }
 
-                return StatisticsCalculatorUtility.calculateComparativeErrorStatistics(analyticName, level,
-                                defaultMean, firstAnalytic, secondAnalytic, monthList);
+        @Override
+        public int rebuildDailySummary(List<String> names, LocalDate startDay, LocalDate endDay) {
+                return qcDailySummaryService.rebuild(names, startDay, endDay);
         }
 }
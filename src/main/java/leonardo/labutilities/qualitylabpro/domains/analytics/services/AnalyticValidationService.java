@@ -1,9 +1,15 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.services;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticRecordKey;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedValuesByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
@@ -12,6 +18,9 @@ import leonardo.labutilities.qualitylabpro.domains.shared.exception.CustomGlobal
 @Service
 public class AnalyticValidationService implements IAnalyticValidationService {
 
+    // Keeps each IN list well below the server's prepared statement placeholder limit
+    private static final int KEY_LOOKUP_CHUNK_SIZE = 500;
+
     private final AnalyticsRepository analyticsRepository;
 
     public AnalyticValidationService(AnalyticsRepository analyticsRepository) {
@@ -37,6 +46,25 @@ public class AnalyticValidationService implements IAnalyticValidationService {
                 values.level(), values.name());
     }
 
+    @Override
+    public final List<AnalyticsDTO> filterNewAnalyticRecords(List<AnalyticsDTO> records) {
+        Map<AnalyticRecordKey, AnalyticsDTO> candidates = new LinkedHashMap<>();
+        records.forEach(analyticsRecord -> candidates.putIfAbsent(AnalyticRecordKey.of(analyticsRecord),
+                analyticsRecord));
+
+        List<AnalyticRecordKey> keys = new ArrayList<>(candidates.keySet());
+        for (int from = 0; from < keys.size(); from += KEY_LOOKUP_CHUNK_SIZE) {
+            List<AnalyticRecordKey> chunk = keys.subList(from, Math.min(from + KEY_LOOKUP_CHUNK_SIZE, keys.size()));
+            this.analyticsRepository.findExistingRecordKeys(
+                    chunk.stream().map(AnalyticRecordKey::name).collect(Collectors.toSet()),
+                    chunk.stream().map(AnalyticRecordKey::level).collect(Collectors.toSet()),
+                    chunk.stream().map(AnalyticRecordKey::date).collect(Collectors.toSet()))
+                    .forEach(candidates::remove);
+        }
+
+        return List.copyOf(candidates.values());
+    }
+
     @Override
     public final void ensureAnalyticTestNameExists(String name) {
         if (!this.analyticsRepository.existsByTestName(name.toUpperCase())) {
@@ -1,7 +1,11 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.services;
 
 import org.springframework.stereotype.Service;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticCacheComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticEventStreamComponent;
 import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticFailedNotificationComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticMetricsComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticTimeSeriesStore;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
 import leonardo.labutilities.qualitylabpro.domains.shared.exception.CustomGlobalErrorHandling;
 
@@ -10,8 +14,16 @@ public class HematologyAnalyticService extends AnalyticHelperService {
 
 	public HematologyAnalyticService(AnalyticsRepository analyticsRepository,
 			AnalyticFailedNotificationComponent analyticFailedNotificationComponent,
-			AnalyticValidationService analyticsValidationService) {
-		super(analyticsRepository, analyticsValidationService, analyticFailedNotificationComponent);
+			AnalyticValidationService analyticsValidationService,
+			AnalyticDailyStatisticsService dailyStatisticsService,
+			AnalyticCacheComponent analyticCacheComponent,
+			AnalyticEventStreamComponent analyticEventStreamComponent,
+			QcDailySummaryService qcDailySummaryService,
+			AnalyticTimeSeriesStore analyticTimeSeriesStore,
+			AnalyticMetricsComponent analyticMetricsComponent) {
+		super(analyticsRepository, analyticsValidationService, analyticFailedNotificationComponent,
+				dailyStatisticsService, analyticCacheComponent, analyticEventStreamComponent,
+				qcDailySummaryService, analyticTimeSeriesStore, analyticMetricsComponent);
 	}
 
 	@Override
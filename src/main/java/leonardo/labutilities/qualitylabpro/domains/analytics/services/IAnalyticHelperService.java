@@ -5,8 +5,13 @@ import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsCursorPageDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsRecalibrationSummaryDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsValidationSummaryDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsWithCalcDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedResultsByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedValuesByLevelDTO;
@@ -31,6 +36,9 @@ public interface IAnalyticHelperService {
 	void updateAnalyticsMeanByNameAndLevelAndLevelLot(String name, String level, String levelLot,
 			double mean);
 
+	AnalyticsRecalibrationSummaryDTO recalibrateAnalytics(String name, String level, String levelLot,
+			double mean, Double sd, LocalDateTime startDate, LocalDateTime endDate);
+
 	AnalyticsDTO findOneById(Long id);
 
 	List<AnalyticsDTO> saveNewAnalyticsRecords(List<AnalyticsDTO> valuesOfLevelsList);
@@ -52,15 +60,37 @@ public interface IAnalyticHelperService {
 	Page<AnalyticsDTO> findUnvalidAnalyticsByNameInAndDateBetween(List<String> names,
 			LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
+	AnalyticsCursorPageDTO findAnalyticsByNameInAndDateBetweenAfterCursor(List<String> names,
+			LocalDateTime startDate, LocalDateTime endDate, String cursor, int size);
+
+	AnalyticsCursorPageDTO findUnvalidAnalyticsByNameInAndDateBetweenAfterCursor(List<String> names,
+			LocalDateTime startDate, LocalDateTime endDate, String cursor, int size);
+
+	SseEmitter subscribeToNewAnalytics(List<String> names, Long lastEventId);
+
 	List<AnalyticsDTO> findAnalyticsByNameAndLevel(Pageable pageable, String name, String level);
 
 	AnalyticsWithCalcDTO findAnalyticsByNameLevelDate(String name, String level,
 			LocalDateTime dateStart, LocalDateTime dateEnd, Pageable pageable);
 
+	AnalyticsWithCalcDTO findAnalyticsByNameLevelDate(String name, String level,
+			LocalDateTime dateStart, LocalDateTime dateEnd, Pageable pageable, Integer maxPoints);
+
+	AnalyticsChartDTO findAnalyticsChartByNameLevelDate(String name, String level,
+			LocalDateTime dateStart, LocalDateTime dateEnd, Integer maxPoints);
+
+	List<AnalyticsChartDTO> findAnalyticsChartsGroupedByLevel(String name, LocalDateTime startDate,
+			LocalDateTime endDate, Integer maxPoints);
+
 	void deleteAnalyticsById(Long id);
 
 	AnalyticsDTO validateAnalyticByUser(Long id);
 
 	List<AnalyticsDTO> validateAnalyticListByUser(List<Long> id);
 
+	AnalyticsValidationSummaryDTO validateAnalyticsByIds(List<Long> ids, boolean includeIds);
+
+	AnalyticsValidationSummaryDTO validateAnalyticsMatching(List<String> names, String level,
+			LocalDateTime startDate, LocalDateTime endDate, boolean includeIds);
+
 }
@@ -1,5 +1,6 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.services;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -29,4 +30,6 @@ public interface IAnalyticStatisticsService {
                         LocalDateTime secondStartDate,
                         LocalDateTime secondEndDate);
 
+        int rebuildDailySummary(List<String> names, LocalDate startDay, LocalDate endDay);
+
 }
@@ -1,5 +1,7 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.services;
 
+import java.util.List;
+
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedValuesByLevelDTO;
 
@@ -10,6 +12,12 @@ public interface IAnalyticValidationService {
 
     boolean isNewAnalyticRecord(AnalyticsDTO values);
 
+    /**
+     * Drops the records that already exist, or repeat an earlier record of the
+     * same batch, resolving the whole batch in a few chunked queries.
+     */
+    List<AnalyticsDTO> filterNewAnalyticRecords(List<AnalyticsDTO> records);
+
     void ensureAnalyticTestNameExists(String name);
 
 }
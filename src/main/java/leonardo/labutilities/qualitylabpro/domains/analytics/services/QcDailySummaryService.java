@@ -0,0 +1,246 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticCacheComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticDayKey;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticValueDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.ErrorStatisticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.AnalyticStatisticsMode;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.QcDailySummary;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.QcDailySummaryRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.RunningStatistics;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.StatisticsCalculatorUtility;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains qc_daily_summary and answers error statistics from it. A scheduled
+ * job recomputes the days whose runs changed since its updated_at high-water
+ * mark; reads merge whole days from the summary and only read raw runs for
+ * the partial days at the edges of the range, so a year-long report costs a
+ * few hundred summary rows. Writes become visible after the next roll-up.
+ */
+@Slf4j
+@Service
+public class QcDailySummaryService {
+
+        // measurement_date is stored with second precision
+        private static final LocalTime LAST_SECOND_OF_DAY = LocalTime.of(23, 59, 59);
+        private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+        private static final ThreadFactory STATISTICS_THREADS =
+                        Thread.ofVirtual().name("analytics-statistics-", 0).factory();
+
+        private final QcDailySummaryRepository summaryRepository;
+        private final AnalyticsRepository analyticsRepository;
+        private final AnalyticCacheComponent analyticCacheComponent;
+        private final TransactionTemplate readOnlyTransaction;
+        // Shared by every request: each parallel read holds a pooled connection, so
+        // concurrent reports must not take more than the pool can spare together
+        private final Semaphore connectionPermits;
+
+        @Value("${analytics.statistics.mode:BATCHED}")
+        private AnalyticStatisticsMode statisticsMode = AnalyticStatisticsMode.BATCHED;
+
+        // Runs are only rolled up once they are older than the lag, so a run whose
+        // transaction commits after a roll-up has started is not skipped for good
+        @Value("${analytics.summary.rollup-lag:30s}")
+        private Duration rollupLag = Duration.ofSeconds(30);
+
+        public QcDailySummaryService(QcDailySummaryRepository summaryRepository,
+                        AnalyticsRepository analyticsRepository, AnalyticCacheComponent analyticCacheComponent,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${analytics.statistics.parallelism:4}") int parallelism,
+                        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+                this.summaryRepository = summaryRepository;
+                this.analyticsRepository = analyticsRepository;
+                this.analyticCacheComponent = analyticCacheComponent;
+                this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+                this.readOnlyTransaction.setReadOnly(true);
+                // At least one connection stays free for writes and other requests
+                this.connectionPermits = new Semaphore(Math.max(1, Math.min(parallelism, maximumPoolSize - 1)));
+        }
+
+        private static final class AnalyteSummary {
+                private final RunningStatistics statistics = new RunningStatistics();
+                private double targetMean;
+
+                private void add(double value, double target) {
+                        if (statistics.count() == 0) {
+                                targetMean = target;
+                        }
+                        statistics.add(value);
+                }
+
+                private void add(QcDailySummary row) {
+                        if (statistics.count() == 0) {
+                                targetMean = row.getTargetMean();
+                        }
+                        statistics.merge(row.getSampleCount(), row.getValueSum(), row.sumSquaredDeviations(),
+                                        row.getMinValue(), row.getMaxValue());
+                }
+        }
+
+        @Transactional
+        @Scheduled(fixedDelayString = "${analytics.summary.rollup-interval:PT1M}",
+                        initialDelayString = "${analytics.summary.rollup-interval:PT1M}")
+        public void rollUp() {
+                LocalDateTime from = summaryRepository.lockHighWaterMark().orElse(EPOCH);
+                // Every path stamps updated_at with the database clock, so the window is measured on it
+                LocalDateTime to = summaryRepository.currentDatabaseTime().minus(rollupLag)
+                                .truncatedTo(ChronoUnit.SECONDS);
+                if (!to.isAfter(from)) {
+                        return;
+                }
+
+                List<AnalyticDayKey> touchedDays = summaryRepository.findTouchedDays(from, to);
+                if (!touchedDays.isEmpty()) {
+                        int rows = summaryRepository.rollUp(from, to);
+                        analyticCacheComponent.evictTouches(touchedDays.stream()
+                                        .map(day -> new AnalyticCacheComponent.Touch(day.name(), day.level(), day.day()))
+                                        .collect(Collectors.toSet()));
+                        log.debug("Rolled up {} days into {} daily summary rows", touchedDays.size(), rows);
+                }
+                summaryRepository.saveHighWaterMark(to);
+        }
+
+        /**
+         * Recomputes the summary of the given tests between both days, inclusive,
+         * for backfills and for changes the high-water mark cannot see, such as
+         * deleted runs.
+         */
+        @Transactional
+        public int rebuild(Collection<String> names, LocalDate startDay, LocalDate endDay) {
+                int rows = summaryRepository.rebuild(names, startDay, endDay);
+                analyticCacheComponent.evictTouches(names.stream()
+                                .map(name -> new AnalyticCacheComponent.Touch(name, null, null))
+                                .collect(Collectors.toSet()));
+                log.info("Rebuilt {} daily summary rows for {} tests from {} to {}", rows, names.size(),
+                                startDay, endDay);
+                return rows;
+        }
+
+        /**
+         * Error statistics of each analyte with runs in the range, in the order of
+         * {@code names}. In {@link AnalyticStatisticsMode#PARALLEL} mode every
+         * analyte is read and merged by its own task, so wide sector reports are
+         * bound by the slowest analyte rather than by the sum of all of them.
+         */
+        public List<ErrorStatisticsDTO> calculateErrorStatistics(List<String> names, String level,
+                        LocalDateTime startDate, LocalDateTime endDate) {
+                List<String> distinctNames = names.stream().distinct().toList();
+                Map<String, AnalyteSummary> summaries = statisticsMode == AnalyticStatisticsMode.PARALLEL
+                                && distinctNames.size() > 1
+                                                ? summarizeInParallel(distinctNames, level, startDate, endDate)
+                                                : readOnlyTransaction.execute(
+                                                                status -> summarize(distinctNames, level, startDate, endDate));
+
+                List<ErrorStatisticsDTO> result = new ArrayList<>(distinctNames.size());
+                for (String name : distinctNames) {
+                        AnalyteSummary summary = summaries.get(name);
+                        if (summary != null && summary.statistics.count() > 0) {
+                                result.add(StatisticsCalculatorUtility.calculateErrorStatistics(summary.statistics,
+                                                name, level, summary.targetMean));
+                        }
+                }
+                return result;
+        }
+
+        private Map<String, AnalyteSummary> summarizeInParallel(List<String> names, String level,
+                        LocalDateTime startDate, LocalDateTime endDate) {
+                Map<String, Future<Map<String, AnalyteSummary>>> tasks = new LinkedHashMap<>();
+                try (ExecutorService executor = Executors.newThreadPerTaskExecutor(STATISTICS_THREADS)) {
+                        for (String name : names) {
+                                tasks.put(name, executor.submit(() -> {
+                                        connectionPermits.acquire();
+                                        try {
+                                                return readOnlyTransaction.execute(
+                                                                status -> summarize(List.of(name), level, startDate, endDate));
+                                        } finally {
+                                                connectionPermits.release();
+                                        }
+                                }));
+                        }
+
+                        Map<String, AnalyteSummary> summaries = new LinkedHashMap<>();
+                        for (Map.Entry<String, Future<Map<String, AnalyteSummary>>> task : tasks.entrySet()) {
+                                summaries.putAll(task.getValue().get());
+                        }
+                        return summaries;
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while computing error statistics", e);
+                } catch (ExecutionException e) {
+                        if (e.getCause() instanceof RuntimeException cause) {
+                                throw cause;
+                        }
+                        throw new IllegalStateException("Failed to compute error statistics", e.getCause());
+                }
+        }
+
+        private Map<String, AnalyteSummary> summarize(List<String> names, String level, LocalDateTime startDate,
+                        LocalDateTime endDate) {
+                Map<String, AnalyteSummary> summaries = new HashMap<>();
+
+                LocalDate firstFullDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                                ? startDate.toLocalDate()
+                                : startDate.toLocalDate().plusDays(1);
+                LocalDate lastFullDay = endDate.toLocalTime().isBefore(LAST_SECOND_OF_DAY)
+                                ? endDate.toLocalDate().minusDays(1)
+                                : endDate.toLocalDate();
+
+                // Added in date order, so each analyte keeps the target of its earliest run
+                if (firstFullDay.isAfter(lastFullDay)) {
+                        addRawRuns(summaries, names, level, startDate, endDate);
+                        return summaries;
+                }
+
+                LocalDateTime fullDaysStart = firstFullDay.atStartOfDay();
+                if (startDate.isBefore(fullDaysStart)) {
+                        addRawRuns(summaries, names, level, startDate, fullDaysStart.minusSeconds(1));
+                }
+                for (QcDailySummary row : summaryRepository.findByNameInAndLevelAndSummaryDateBetween(names, level,
+                                firstFullDay, lastFullDay)) {
+                        summaries.computeIfAbsent(row.getTestName(), name -> new AnalyteSummary()).add(row);
+                }
+                LocalDateTime fullDaysEnd = lastFullDay.plusDays(1).atStartOfDay();
+                if (!endDate.isBefore(fullDaysEnd)) {
+                        addRawRuns(summaries, names, level, fullDaysEnd, endDate);
+                }
+                return summaries;
+        }
+
+        private void addRawRuns(Map<String, AnalyteSummary> summaries, List<String> names, String level,
+                        LocalDateTime startDate, LocalDateTime endDate) {
+                try (Stream<AnalyticValueDTO> runs = analyticsRepository
+                                .streamValuesByNameInAndLevelAndDateBetween(names, level, startDate, endDate)) {
+                        runs.forEach(run -> summaries.computeIfAbsent(run.name(), name -> new AnalyteSummary())
+                                        .add(run.value(), run.targetMean()));
+                }
+        }
+}
@@ -0,0 +1,415 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.ControlRange;
+
+/**
+ * Immutable column-oriented copy of the runs of one (test, level) pair, sorted
+ * by measurement date and id. Dates, values, targets and rules are primitive
+ * arrays and the remaining text columns are codes into a per-series
+ * dictionary, so a series costs a handful of arrays instead of one object per
+ * run. Updates return a new instance, which lets readers scan it without
+ * locking.
+ */
+public final class AnalyticSeriesColumns {
+
+    // Rules are stored as unsigned byte codes
+    private static final int MAX_RULE_CODES = 256;
+    private static final int INITIAL_CAPACITY = 64;
+    // Validator of unvalidated runs in the AnalyticsDTO projection
+    private static final String NOT_VALIDATED = "Not validated";
+
+    private final String name;
+    private final String level;
+    private final long[] ids;
+    private final long[] dates;
+    private final double[] values;
+    private final double[] means;
+    private final double[] sds;
+    private final byte[] rules;
+    private final int[] levelLots;
+    private final int[] testLots;
+    private final int[] units;
+    private final int[] descriptions;
+    private final int[] validators;
+    private final int[] owners;
+    private final String[] ruleDictionary;
+    private final String[] dictionary;
+
+    private AnalyticSeriesColumns(Builder builder) {
+        int size = builder.size;
+        this.name = builder.name;
+        this.level = builder.level;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.dates = Arrays.copyOf(builder.dates, size);
+        this.values = Arrays.copyOf(builder.values, size);
+        this.means = Arrays.copyOf(builder.means, size);
+        this.sds = Arrays.copyOf(builder.sds, size);
+        this.rules = Arrays.copyOf(builder.rules, size);
+        this.levelLots = Arrays.copyOf(builder.levelLots, size);
+        this.testLots = Arrays.copyOf(builder.testLots, size);
+        this.units = Arrays.copyOf(builder.units, size);
+        this.descriptions = Arrays.copyOf(builder.descriptions, size);
+        this.validators = Arrays.copyOf(builder.validators, size);
+        this.owners = Arrays.copyOf(builder.owners, size);
+        this.ruleDictionary = builder.ruleDictionary.toArray(String[]::new);
+        this.dictionary = builder.dictionary.toArray(String[]::new);
+    }
+
+    public static AnalyticSeriesColumns of(String name, String level, Collection<AnalyticsDTO> runs) {
+        Builder builder = new Builder(name, level, runs.size());
+        sorted(runs).forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Collects the runs of one series added one at a time, in any order,
+     * straight into growing columns, so a bulk load never keeps the DTOs.
+     */
+    public static Loader loader(String name, String level) {
+        return new Loader(name, level);
+    }
+
+    public static final class Loader {
+        private final Builder builder;
+        private boolean ordered = true;
+
+        private Loader(String name, String level) {
+            this.builder = new Builder(name, level, INITIAL_CAPACITY);
+        }
+
+        public void add(AnalyticsDTO run) {
+            int last = builder.size - 1;
+            if (ordered && last >= 0
+                    && compare(builder.dates[last], builder.ids[last], epochSecond(run.date()), run.id()) > 0) {
+                ordered = false;
+            }
+            builder.add(run);
+        }
+
+        public AnalyticSeriesColumns build() {
+            AnalyticSeriesColumns columns = builder.build();
+            return ordered ? columns : columns.sorted();
+        }
+    }
+
+    /**
+     * Returns a copy with the given runs merged in date order. Runs whose id is
+     * already present are skipped, so replaying a write is harmless.
+     */
+    public AnalyticSeriesColumns append(Collection<AnalyticsDTO> runs) {
+        List<AnalyticsDTO> added = sorted(runs).stream()
+                .filter(run -> run.id() == null || !containsId(run.id(), epochSecond(run.date())))
+                .toList();
+        if (added.isEmpty()) {
+            return this;
+        }
+
+        Builder builder = new Builder(this, size() + added.size());
+        int existing = 0;
+        for (AnalyticsDTO run : added) {
+            long date = epochSecond(run.date());
+            while (existing < size() && compare(dates[existing], ids[existing], date, run.id()) <= 0) {
+                builder.copy(this, existing++);
+            }
+            builder.add(run);
+        }
+        while (existing < size()) {
+            builder.copy(this, existing++);
+        }
+        return builder.build();
+    }
+
+    /** Returns a copy without the runs measured before {@code startDate}. */
+    public AnalyticSeriesColumns trimBefore(LocalDateTime startDate) {
+        int from = fromIndex(startDate);
+        if (from == 0) {
+            return this;
+        }
+        // A fresh dictionary drops the text only the trimmed runs referenced
+        Builder builder = new Builder(name, level, size() - from);
+        for (int index = from; index < size(); index++) {
+            builder.add(row(index));
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String level() {
+        return level;
+    }
+
+    /** Index of the first run measured at or after {@code startDate}. */
+    public int fromIndex(LocalDateTime startDate) {
+        return firstIndexAfter(epochSecond(startDate) - 1);
+    }
+
+    /** Index past the last run measured at or before {@code endDate}. */
+    public int toIndex(LocalDateTime endDate) {
+        return firstIndexAfter(epochSecond(endDate));
+    }
+
+    public LocalDateTime date(int index) {
+        return LocalDateTime.ofEpochSecond(dates[index], 0, ZoneOffset.UTC);
+    }
+
+    public double value(int index) {
+        return values[index];
+    }
+
+    public double mean(int index) {
+        return means[index];
+    }
+
+    public double sd(int index) {
+        return sds[index];
+    }
+
+    public double[] values(int from, int to) {
+        return Arrays.copyOfRange(values, from, to);
+    }
+
+    public AnalyticsDTO row(int index) {
+        return new AnalyticsDTO(ids[index], date(index), dictionary[levelLots[index]],
+                dictionary[testLots[index]], name, level, values[index], means[index], sds[index],
+                dictionary[units[index]], ruleDictionary[rules[index] & 0xFF],
+                dictionary[descriptions[index]], dictionary[validators[index]], dictionary[owners[index]]);
+    }
+
+    /**
+     * Chart of the runs between both indices, built like
+     * {@code AnalyticChartRepository#findChartSeries}: a target band starts
+     * wherever the mean or SD changes.
+     */
+    public AnalyticsChartDTO chart(int from, int to) {
+        int size = to - from;
+        List<AnalyticsChartDTO.Target> targets = new ArrayList<>();
+        long[] timestamps = new long[size];
+        int[] chartRules = new int[size];
+        boolean[] validated = new boolean[size];
+        for (int index = from; index < to; index++) {
+            int position = index - from;
+            AnalyticsChartDTO.Target last = targets.isEmpty() ? null : targets.getLast();
+            if (last == null || last.mean() != means[index] || last.sd() != sds[index]) {
+                targets.add(new AnalyticsChartDTO.Target(position, means[index], sds[index]));
+            }
+            timestamps[position] = dates[index] * 1000;
+            chartRules[position] = ControlRange.ofRule(ruleDictionary[rules[index] & 0xFF]).getDeviations();
+            validated[position] = !NOT_VALIDATED.equals(dictionary[validators[index]]);
+        }
+        double[] chartValues = values(from, to);
+        return new AnalyticsChartDTO(name, level, size == 0 ? null : dictionary[units[from]],
+                StatisticsCalculatorUtility.computeStatistics(chartValues), List.copyOf(targets),
+                Arrays.copyOfRange(ids, from, to), timestamps, chartValues, chartRules, validated);
+    }
+
+    public List<AnalyticsDTO> rows(int from, int to) {
+        List<AnalyticsDTO> rows = new ArrayList<>(Math.max(0, to - from));
+        for (int index = from; index < to; index++) {
+            rows.add(row(index));
+        }
+        return rows;
+    }
+
+    // Copy in (date, id) order, keeping the dictionaries so codes are copied as they are
+    private AnalyticSeriesColumns sorted() {
+        Integer[] order = new Integer[size()];
+        for (int index = 0; index < order.length; index++) {
+            order[index] = index;
+        }
+        Arrays.sort(order, (left, right) -> compare(dates[left], ids[left], dates[right], ids[right]));
+        Builder builder = new Builder(this, size());
+        for (int index : order) {
+            builder.copy(this, index);
+        }
+        return builder.build();
+    }
+
+    private boolean containsId(long id, long date) {
+        for (int index = firstIndexAfter(date - 1); index < size() && dates[index] == date; index++) {
+            if (ids[index] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int firstIndexAfter(long date) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (dates[middle] <= date) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(long date, long id, long otherDate, Long otherId) {
+        int byDate = Long.compare(date, otherDate);
+        return byDate != 0 || otherId == null ? byDate : Long.compare(id, otherId);
+    }
+
+    private static List<AnalyticsDTO> sorted(Collection<AnalyticsDTO> runs) {
+        return runs.stream()
+                .sorted(Comparator.comparing(AnalyticsDTO::date)
+                        .thenComparing(AnalyticsDTO::id, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private static long epochSecond(LocalDateTime date) {
+        return date.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class Builder {
+        private final String name;
+        private final String level;
+        private long[] ids;
+        private long[] dates;
+        private double[] values;
+        private double[] means;
+        private double[] sds;
+        private byte[] rules;
+        private int[] levelLots;
+        private int[] testLots;
+        private int[] units;
+        private int[] descriptions;
+        private int[] validators;
+        private int[] owners;
+        private final List<String> ruleDictionary = new ArrayList<>();
+        private final Map<String, Integer> ruleCodes = new HashMap<>();
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+        private int size;
+
+        private Builder(String name, String level, int capacity) {
+            this.name = name;
+            this.level = level;
+            this.ids = new long[capacity];
+            this.dates = new long[capacity];
+            this.values = new double[capacity];
+            this.means = new double[capacity];
+            this.sds = new double[capacity];
+            this.rules = new byte[capacity];
+            this.levelLots = new int[capacity];
+            this.testLots = new int[capacity];
+            this.units = new int[capacity];
+            this.descriptions = new int[capacity];
+            this.validators = new int[capacity];
+            this.owners = new int[capacity];
+        }
+
+        // Keeps the dictionaries of the source, so its codes can be copied as they are
+        private Builder(AnalyticSeriesColumns source, int capacity) {
+            this(source.name, source.level, capacity);
+            for (String rule : source.ruleDictionary) {
+                ruleCodes.put(rule, ruleDictionary.size());
+                ruleDictionary.add(rule);
+            }
+            for (String text : source.dictionary) {
+                codes.put(text, dictionary.size());
+                dictionary.add(text);
+            }
+        }
+
+        private void add(AnalyticsDTO run) {
+            ensureCapacity();
+            ids[size] = run.id() == null ? 0L : run.id();
+            dates[size] = epochSecond(run.date());
+            values[size] = run.value();
+            means[size] = run.mean();
+            sds[size] = run.sd();
+            rules[size] = (byte) ruleCode(run.rules());
+            levelLots[size] = code(run.level_lot());
+            testLots[size] = code(run.test_lot());
+            units[size] = code(run.unit_value());
+            descriptions[size] = code(run.description());
+            validators[size] = code(run.validator_user());
+            owners[size] = code(run.owner_user());
+            size++;
+        }
+
+        private void copy(AnalyticSeriesColumns source, int index) {
+            ensureCapacity();
+            ids[size] = source.ids[index];
+            dates[size] = source.dates[index];
+            values[size] = source.values[index];
+            means[size] = source.means[index];
+            sds[size] = source.sds[index];
+            rules[size] = source.rules[index];
+            levelLots[size] = source.levelLots[index];
+            testLots[size] = source.testLots[index];
+            units[size] = source.units[index];
+            descriptions[size] = source.descriptions[index];
+            validators[size] = source.validators[index];
+            owners[size] = source.owners[index];
+            size++;
+        }
+
+        // Only a Loader adds past the capacity it was sized with
+        private void ensureCapacity() {
+            if (size < ids.length) {
+                return;
+            }
+            int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            dates = Arrays.copyOf(dates, capacity);
+            values = Arrays.copyOf(values, capacity);
+            means = Arrays.copyOf(means, capacity);
+            sds = Arrays.copyOf(sds, capacity);
+            rules = Arrays.copyOf(rules, capacity);
+            levelLots = Arrays.copyOf(levelLots, capacity);
+            testLots = Arrays.copyOf(testLots, capacity);
+            units = Arrays.copyOf(units, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            validators = Arrays.copyOf(validators, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+        }
+
+        private int ruleCode(String rule) {
+            Integer code = ruleCodes.get(rule);
+            if (code != null) {
+                return code;
+            }
+            if (ruleDictionary.size() == MAX_RULE_CODES) {
+                throw new IllegalStateException("More than " + MAX_RULE_CODES + " distinct rules in series "
+                        + name + "/" + level);
+            }
+            ruleCodes.put(rule, ruleDictionary.size());
+            ruleDictionary.add(rule);
+            return ruleDictionary.size() - 1;
+        }
+
+        private int code(String text) {
+            return codes.computeIfAbsent(text, key -> {
+                dictionary.add(key);
+                return dictionary.size() - 1;
+            });
+        }
+
+        private AnalyticSeriesColumns build() {
+            return new AnalyticSeriesColumns(this);
+        }
+    }
+}
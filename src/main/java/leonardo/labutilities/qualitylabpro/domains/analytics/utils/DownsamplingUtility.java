@@ -0,0 +1,118 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.utils;
+
+import java.util.Arrays;
+
+/**
+ * Largest-Triangle-Three-Buckets selection of the points of a chart. The
+ * first and last points are kept and every bucket in between contributes the
+ * point forming the largest triangle with the previously kept point and the
+ * average of the next bucket, which preserves the visual shape of the series
+ * in one pass over primitive arrays.
+ */
+public final class DownsamplingUtility {
+
+    // First, last and at least one bucket
+    public static final int MIN_POINTS = 3;
+
+    private DownsamplingUtility() {}
+
+    /**
+     * Indices, ascending, of at most {@code maxPoints} points, plus every point
+     * flagged in {@code mustKeep}: the flagged points are kept first and LTTB
+     * fills the rest of the budget. When more points are flagged than fit, all
+     * of them are still returned with the first and last points.
+     *
+     * @param x ascending positions, such as epoch timestamps
+     * @param y values plotted at those positions
+     * @param mustKeep points that are always returned, or null
+     */
+    public static int[] largestTriangleThreeBuckets(long[] x, double[] y, boolean[] mustKeep,
+            int maxPoints) {
+        int size = y.length;
+        if (size <= maxPoints || size < MIN_POINTS) {
+            return identity(size);
+        }
+
+        int kept = 0;
+        if (mustKeep != null) {
+            for (boolean keep : mustKeep) {
+                if (keep) {
+                    kept++;
+                }
+            }
+        }
+        int[] selected = select(x, y, Math.max(maxPoints - kept, MIN_POINTS));
+        return kept == 0 ? selected : merge(selected, mustKeep, kept);
+    }
+
+    private static int[] select(long[] x, double[] y, int threshold) {
+        int size = y.length;
+        if (threshold >= size) {
+            return identity(size);
+        }
+
+        int[] selected = new int[threshold];
+        // Buckets exclude the first and last points, which are always kept
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        long origin = x[0];
+        int previous = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextFrom = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextTo = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int index = nextFrom; index < nextTo; index++) {
+                averageX += x[index] - origin;
+                averageY += y[index];
+            }
+            int nextCount = nextTo - nextFrom;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            int from = (int) (bucket * bucketSize) + 1;
+            int to = (int) ((bucket + 1) * bucketSize) + 1;
+            double previousX = x[previous] - origin;
+            double previousY = y[previous];
+            double largestArea = -1;
+            int largest = from;
+            for (int index = from; index < to; index++) {
+                // Twice the triangle area; only the comparison matters
+                double area = Math.abs((previousX - averageX) * (y[index] - previousY)
+                        - (previousX - (x[index] - origin)) * (averageY - previousY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    largest = index;
+                }
+            }
+            selected[bucket + 1] = largest;
+            previous = largest;
+        }
+        selected[threshold - 1] = size - 1;
+        return selected;
+    }
+
+    private static int[] merge(int[] selected, boolean[] mustKeep, int kept) {
+        int[] merged = new int[selected.length + kept];
+        int size = 0;
+        int next = 0;
+        for (int index = 0; index < mustKeep.length; index++) {
+            boolean isSelected = next < selected.length && selected[next] == index;
+            if (isSelected) {
+                next++;
+            }
+            if (isSelected || mustKeep[index]) {
+                merged[size++] = index;
+            }
+        }
+        return Arrays.copyOf(merged, size);
+    }
+
+    private static int[] identity(int size) {
+        int[] indices = new int[size];
+        for (int index = 0; index < size; index++) {
+            indices[index] = index;
+        }
+        return indices;
+    }
+}
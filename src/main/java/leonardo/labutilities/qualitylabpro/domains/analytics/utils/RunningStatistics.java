@@ -0,0 +1,94 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.utils;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
+
+/**
+ * Mergeable accumulator for count, mean, sum of squared deviations (Welford
+ * M2), min and max. Values are added one at a time with Welford's update and
+ * partial aggregates are combined with Chan's parallel formula, so the result
+ * does not depend on how the data was split.
+ */
+public final class RunningStatistics {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(long otherCount, double otherSum, double otherM2, double otherMin,
+            double otherMax) {
+        if (otherCount == 0) {
+            return;
+        }
+        double otherMean = otherSum / otherCount;
+        if (count == 0) {
+            count = otherCount;
+            mean = otherMean;
+            m2 = otherM2;
+            min = otherMin;
+            max = otherMax;
+            return;
+        }
+        long total = count + otherCount;
+        double delta = otherMean - mean;
+        m2 += otherM2 + delta * delta * ((double) count * otherCount / total);
+        mean += delta * otherCount / total;
+        count = total;
+        min = Math.min(min, otherMin);
+        max = Math.max(max, otherMax);
+    }
+
+    public void merge(RunningStatistics other) {
+        merge(other.count, other.sum(), other.m2, other.min, other.max);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return count == 0 ? 0.0 : mean;
+    }
+
+    public double sum() {
+        return mean * count;
+    }
+
+    public double sumSquaredDeviations() {
+        return m2;
+    }
+
+    public double min() {
+        return count == 0 ? 0.0 : min;
+    }
+
+    public double max() {
+        return count == 0 ? 0.0 : max;
+    }
+
+    /**
+     * Population standard deviation, matching
+     * {@link StatisticsCalculatorUtility#computeStatistics}.
+     */
+    public double standardDeviation() {
+        return count == 0 ? 0.0 : Math.sqrt(Math.max(m2, 0.0) / count);
+    }
+
+    public double coefficientOfVariation() {
+        return StatisticsCalculatorUtility.calculateCoefficientOfVariation(standardDeviation(), mean());
+    }
+
+    public MeanAndStdDeviationDTO toMeanAndStdDeviation() {
+        return new MeanAndStdDeviationDTO(mean(), standardDeviation());
+    }
+}
@@ -1,41 +1,39 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.utils;
 
-import java.util.List;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.ControlRange;
 
-import leonardo.labutilities.qualitylabpro.domains.analytics.constants.ThresholdAnalyticsRules;
-import leonardo.labutilities.qualitylabpro.domains.analytics.constants.ValidationAnalyticsDescriptions;
-import lombok.Getter;
-
-@Getter
+/**
+ * Classifies runs against the ±1, ±2 and ±3 SD limits of their target. It
+ * keeps no state and allocates nothing, so ingestion threads can share it.
+ */
 public final class SpecsValidatorUtility {
 
-	private String description;
-	private String rules;
-
-	public void validator(final double value, final double mean, final double sd) {
-
-		final List<Double> thresholds =
-				List.of(mean + sd, mean + 2 * sd, mean + 3 * sd, mean - sd, mean - 2 * sd, mean - 3 * sd);
-		final List<String> thresholdRules = ThresholdAnalyticsRules.RULES;
-
-		final List<String> descriptions = ValidationAnalyticsDescriptions.DESCRIPTIONS;
-
-		for (int i = 2; i >= 0; i--) {
-			if (value >= thresholds.get(i) || value <= thresholds.get(i + 3)) {
-				if (value >= thresholds.get(i)) {
-					this.description = descriptions.get(i);
-					this.rules = thresholdRules.get(i);
-				}
-
-				if (value <= thresholds.get(i + 3)) {
-					this.description = descriptions.get(i + 3);
-					this.rules = thresholdRules.get(i + 3);
-				}
+	private SpecsValidatorUtility() {}
 
-				return;
-			}
+	/**
+	 * Returns the widest band the value reaches; when a value reaches both sides
+	 * of a limit, which only happens with a non-positive SD, the negative side
+	 * wins.
+	 */
+	public static ControlRange classify(final double value, final double mean, final double sd) {
+		if (value <= mean - 3 * sd) {
+			return ControlRange.MINUS_3S;
+		}
+		if (value >= mean + 3 * sd) {
+			return ControlRange.PLUS_3S;
+		}
+		if (value <= mean - 2 * sd) {
+			return ControlRange.MINUS_2S;
+		}
+		if (value >= mean + 2 * sd) {
+			return ControlRange.PLUS_2S;
+		}
+		if (value <= mean - sd) {
+			return ControlRange.MINUS_1S;
+		}
+		if (value >= mean + sd) {
+			return ControlRange.PLUS_1S;
 		}
-		this.description = "Approved according to current Westgard configured rules";
-		this.rules = "No rule broken";
+		return ControlRange.WITHIN_RANGE;
 	}
 }
@@ -12,11 +12,38 @@ public final class StatisticsCalculatorUtility {
         private StatisticsCalculatorUtility() {}
 
         public static MeanAndStdDeviationDTO calculateMeanAndStandardDeviation(List<AnalyticsDTO> values) {
-                return computeStatistics(extractRecordValues(values));
+                return summarize(values).toMeanAndStdDeviation();
         }
 
-        public static List<Double> extractRecordValues(List<AnalyticsDTO> records) {
-                return records.stream().map(AnalyticsDTO::value).toList();
+        public static double[] extractRecordValues(List<AnalyticsDTO> records) {
+                final double[] values = new double[records.size()];
+                for (int i = 0; i < values.length; i++) {
+                        values[i] = records.get(i).value();
+                }
+                return values;
+        }
+
+        /**
+         * Single pass over the records without copying or boxing their values.
+         */
+        public static RunningStatistics summarize(List<AnalyticsDTO> records) {
+                final RunningStatistics statistics = new RunningStatistics();
+                for (AnalyticsDTO analyticsRecord : records) {
+                        statistics.add(analyticsRecord.value());
+                }
+                return statistics;
+        }
+
+        public static RunningStatistics summarize(final double[] values) {
+                return summarize(values, 0, values.length);
+        }
+
+        public static RunningStatistics summarize(final double[] values, int fromIndex, int toIndex) {
+                final RunningStatistics statistics = new RunningStatistics();
+                for (int i = fromIndex; i < toIndex; i++) {
+                        statistics.add(values[i]);
+                }
+                return statistics;
         }
 
         public static double calculateCoefficientOfVariation(double standardDeviation, double mean) {
@@ -36,29 +63,21 @@ public final class StatisticsCalculatorUtility {
                 return randomErrorPercentage + systematicErrorPercentage;
         }
 
-        public static MeanAndStdDeviationDTO computeStatistics(final List<Double> values) {
-
-                final double mean = values.stream()
-                                .mapToDouble(Double::doubleValue)
-                                .average().orElse(0.0);
-
-                final double standardDeviation = Math.sqrt(values.stream()
-                                .mapToDouble(Double::doubleValue)
-                                .map(value -> Math.pow(value - mean, 2))
-                                .sum() / values.size());
-
-                return new MeanAndStdDeviationDTO(mean, standardDeviation);
+        public static MeanAndStdDeviationDTO computeStatistics(final double[] values) {
+                return summarize(values).toMeanAndStdDeviation();
         }
 
         public static ErrorStatisticsDTO calculateErrorStatistics(
                         List<AnalyticsDTO> analyticsList, String defaultName, String defaultLevel, double defaultMean) {
-                MeanAndStdDeviationDTO calculatedStatistics = calculateMeanAndStandardDeviation(analyticsList);
+                return calculateErrorStatistics(summarize(analyticsList), defaultName, defaultLevel, defaultMean);
+        }
 
-                final double inaccuracyPercentage = calculateCoefficientOfVariation(
-                                calculatedStatistics.standardDeviation(), calculatedStatistics.mean());
+        public static ErrorStatisticsDTO calculateErrorStatistics(
+                        RunningStatistics statistics, String defaultName, String defaultLevel, double defaultMean) {
+                final double inaccuracyPercentage = statistics.coefficientOfVariation();
 
                 final double systematicErrorPercentage = calculateSystematicErrorPercentage(
-                                calculatedStatistics.mean(), defaultMean);
+                                statistics.mean(), defaultMean);
 
                 final double randomErrorPercentage = calculateRandomErrorPercentage(inaccuracyPercentage);
                 final double totalErrorPercentage =
@@ -66,7 +85,7 @@ public final class StatisticsCalculatorUtility {
 
                 return new ErrorStatisticsDTO(
                                 defaultName, defaultLevel, defaultMean, inaccuracyPercentage, systematicErrorPercentage,
-                                randomErrorPercentage, totalErrorPercentage, analyticsList.size());
+                                randomErrorPercentage, totalErrorPercentage, (int) statistics.count());
         }
 
         public static ComparativeErrorStatisticsDTO calculateComparativeErrorStatistics(
@@ -78,10 +97,17 @@ public final class StatisticsCalculatorUtility {
                 ErrorStatisticsDTO secondErrorStatistics =
                                 calculateErrorStatistics(secondAnalyticsList, defaultName, defaultLevel, defaultMean);
 
+                return calculateComparativeErrorStatistics(firstErrorStatistics, secondErrorStatistics, monthList);
+        }
+
+        public static ComparativeErrorStatisticsDTO calculateComparativeErrorStatistics(
+                        ErrorStatisticsDTO firstErrorStatistics, ErrorStatisticsDTO secondErrorStatistics,
+                        List<String> monthList) {
                 final double enhancedPercentage = firstErrorStatistics.inaccuracyPercetage()
                                 - secondErrorStatistics.inaccuracyPercetage();
 
-                return new ComparativeErrorStatisticsDTO(
-                                defaultName, defaultLevel, monthList.get(0), monthList.get(1), enhancedPercentage);
+                return new ComparativeErrorStatisticsDTO(firstErrorStatistics.analyticName(),
+                                firstErrorStatistics.analyticLevel(), monthList.get(0), monthList.get(1),
+                                enhancedPercentage);
         }
 }
@@ -0,0 +1,111 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.utils;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.WestgardRule;
+
+/**
+ * Evaluates the Westgard multirules on one series of values ordered newest
+ * first. Every rule is anchored at the newest run, so a violation is reported
+ * when the run that was just added completes it.
+ */
+public final class WestgardRulesEvaluator {
+
+    private WestgardRulesEvaluator() {}
+
+    public static Set<WestgardRule> evaluate(double[] values, double mean, double sd) {
+        Set<WestgardRule> violations = EnumSet.noneOf(WestgardRule.class);
+        if (values.length == 0) {
+            return violations;
+        }
+
+        double latest = values[0];
+        if (latest > mean + 3 * sd || latest < mean - 3 * sd) {
+            violations.add(WestgardRule.ONE_THREE_S);
+        }
+
+        if (values.length >= 2) {
+            double previous = values[1];
+            boolean latestHigh = latest > mean + 2 * sd;
+            boolean latestLow = latest < mean - 2 * sd;
+            boolean previousHigh = previous > mean + 2 * sd;
+            boolean previousLow = previous < mean - 2 * sd;
+            if ((latestHigh && previousHigh) || (latestLow && previousLow)) {
+                violations.add(WestgardRule.TWO_TWO_S);
+            }
+            if ((latestHigh && previousLow) || (latestLow && previousHigh)) {
+                violations.add(WestgardRule.R_FOUR_S);
+            }
+        }
+
+        int sameSide = consecutiveBeyond(values, mean, sd);
+        if (sameSide >= 4) {
+            violations.add(WestgardRule.FOUR_ONE_S);
+        }
+        if (sameSide >= 10) {
+            violations.add(WestgardRule.TEN_X);
+        }
+        return violations;
+    }
+
+    /**
+     * Runs of a series ordered oldest first that take part in a violation of any
+     * rule, evaluating every run on the window that ends at it against its own
+     * target. A 2-2s flags both runs of the pair, a 4-1s the four runs and so
+     * on, so charts can keep every point a rule was read from.
+     */
+    public static boolean[] violatingRuns(double[] values, double[] means, double[] sds) {
+        boolean[] violating = new boolean[values.length];
+        // One buffer per window length, reused across runs
+        double[][] windows = new double[WestgardRule.WINDOW + 1][];
+        for (int index = 0; index < values.length; index++) {
+            int length = Math.min(WestgardRule.WINDOW, index + 1);
+            if (windows[length] == null) {
+                windows[length] = new double[length];
+            }
+            double[] window = windows[length];
+            for (int offset = 0; offset < length; offset++) {
+                window[offset] = values[index - offset];
+            }
+
+            int involved = 0;
+            for (WestgardRule rule : evaluate(window, means[index], sds[index])) {
+                involved = Math.max(involved, runsInvolved(rule));
+            }
+            for (int offset = 0; offset < involved; offset++) {
+                violating[index - offset] = true;
+            }
+        }
+        return violating;
+    }
+
+    private static int runsInvolved(WestgardRule rule) {
+        return switch (rule) {
+            case ONE_THREE_S -> 1;
+            case TWO_TWO_S, R_FOUR_S -> 2;
+            case FOUR_ONE_S -> 4;
+            case TEN_X -> 10;
+        };
+    }
+
+    // Length of the run of values, starting at the newest, beyond ±1 SD on the
+    // same side of the mean
+    private static int consecutiveBeyond(double[] values, double mean, double sd) {
+        double upper = mean + sd;
+        double lower = mean - sd;
+        boolean above = values[0] > upper;
+        if (!above && values[0] >= lower) {
+            return 0;
+        }
+        int count = 0;
+        for (double value : values) {
+            if (above ? value > upper : value < lower) {
+                count++;
+            } else {
+                break;
+            }
+        }
+        return count;
+    }
+}
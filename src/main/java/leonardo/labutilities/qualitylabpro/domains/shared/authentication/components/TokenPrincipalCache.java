@@ -0,0 +1,102 @@
+package leonardo.labutilities.qualitylabpro.domains.shared.authentication.components;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of verified token to principal, so repeated requests with the
+ * same token skip the signature check and the user lookup. An entry lives for
+ * the configured TTL or until the token expires, whichever comes first, and
+ * every entry of a user is dropped once a change to the user is committed.
+ * Hits and misses are published as the token-principals cache.
+ */
+@Component
+public class TokenPrincipalCache implements MeterBinder {
+
+    private final Cache<String, CachedPrincipal> principals;
+
+    private record CachedPrincipal(UserDetails principal, Duration lifetime) {}
+
+    public TokenPrincipalCache(@Value("${api.security.token-cache.ttl:300s}") Duration ttl,
+            @Value("${api.security.token-cache.maximum-size:10000}") long maximumSize) {
+        long ttlNanos = ttl.toNanos();
+        this.principals = Caffeine.newBuilder().maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, CachedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, CachedPrincipal cached, long currentTime) {
+                        return Math.min(ttlNanos, cached.lifetime().toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, CachedPrincipal cached, long currentTime,
+                            long currentDuration) {
+                        return expireAfterCreate(token, cached, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, CachedPrincipal cached, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                }).recordStats().build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, principals, "token-principals");
+    }
+
+    public Optional<UserDetails> get(String token) {
+        return Optional.ofNullable(principals.getIfPresent(token)).map(CachedPrincipal::principal);
+    }
+
+    public void put(String token, UserDetails principal, Instant tokenExpiresAt) {
+        Duration lifetime = tokenExpiresAt == null ? Duration.ZERO
+                : Duration.between(Instant.now(), tokenExpiresAt);
+        if (lifetime.isPositive()) {
+            principals.put(token, new CachedPrincipal(principal, lifetime));
+        }
+    }
+
+    public void evict(String username) {
+        principals.asMap().values()
+                .removeIf(cached -> cached.principal().getUsername().equals(username));
+    }
+
+    /**
+     * Evicts the user's entries once the current transaction commits, or right
+     * away without one. Evicting earlier would let a request racing the commit
+     * cache the principal as it was before the change.
+     */
+    public void evictAfterCommit(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        } else {
+            evict(username);
+        }
+    }
+
+    public void evictAll() {
+        principals.invalidateAll();
+    }
+}
@@ -6,9 +6,11 @@ import java.time.ZoneId;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.dtos.TokenJwtDTO;
 import leonardo.labutilities.qualitylabpro.domains.users.models.User;
@@ -16,31 +18,38 @@ import leonardo.labutilities.qualitylabpro.domains.users.models.User;
 @Service
 public class TokenService {
 
-	@Value("${api.security.token.secret}")
-	private String secret;
+	private final Algorithm algorithm;
+	private final JWTVerifier verifier;
+	private final String issuer;
 
-	@Value("${api.security.issuer}")
-	private String issuer;
+	public TokenService(Algorithm jwtAlgorithm, JWTVerifier jwtVerifier,
+			@Value("${api.security.issuer}") String issuer) {
+		this.algorithm = jwtAlgorithm;
+		this.verifier = jwtVerifier;
+		this.issuer = issuer;
+	}
 
 	public TokenJwtDTO generateToken(final User user) {
 		try {
-			var algorithm = Algorithm.HMAC256(this.secret);
 			return new TokenJwtDTO(JWT.create().withIssuer(this.issuer).withSubject(user.getUsername())
-					.withExpiresAt(dateExp()).sign(algorithm), dateExp());
+					.withExpiresAt(dateExp()).sign(this.algorithm), dateExp());
 		} catch (JWTCreationException exception) {
 			throw new JWTCreationException("Error generating token", exception);
 		}
 	}
 
-	public String getSubject(final String tokenJWT) {
+	public DecodedJWT verify(final String tokenJWT) {
 		try {
-			var algorithm = Algorithm.HMAC256(this.secret);
-			return JWT.require(algorithm).withIssuer(this.issuer).build().verify(tokenJWT).getSubject();
+			return this.verifier.verify(tokenJWT);
 		} catch (JWTVerificationException exception) {
 			throw new JWTVerificationException("Invalid token: " + exception.getMessage(), exception);
 		}
 	}
 
+	public String getSubject(final String tokenJWT) {
+		return this.verify(tokenJWT).getSubject();
+	}
+
 	private static Instant dateExp() {
 		return LocalDateTime.now().plusHours(1).atZone(ZoneId.systemDefault()).toInstant();
 	}
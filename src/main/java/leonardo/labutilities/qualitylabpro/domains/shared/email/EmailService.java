@@ -51,13 +51,22 @@ public class EmailService {
 	@Value("${email.to.send.list}")
 	private String emailListString;
 
-	private List<String> emailList;
+	// Parsed once; every BCC send reuses the same recipients
+	private InternetAddress[] bccAddresses = new InternetAddress[0];
 
 	@PostConstruct
 	public void init() {
-		this.emailList = (this.emailListString != null && !this.emailListString.isEmpty())
+		List<String> emailList = (this.emailListString != null && !this.emailListString.isEmpty())
 				? List.of(this.emailListString.split(","))
 				: List.of();
+		this.bccAddresses = emailList.stream().map(String::trim).map((String emailAddress) -> {
+			try {
+				return new InternetAddress(emailAddress);
+			} catch (AddressException e) {
+				log.error("Invalid identifier address: {}", emailAddress, e);
+				return null;
+			}
+		}).filter(Objects::nonNull).toArray(InternetAddress[]::new);
 	}
 
 	@Async
@@ -95,27 +104,17 @@ public class EmailService {
 			MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
 			helper.setFrom(this.emailFrom);
 
-			// Convert identifier list to InternetAddress array
-			InternetAddress[] internetAddresses =
-					this.emailList.stream().map((String emailAddress) -> {
-						try {
-							return new InternetAddress(emailAddress);
-						} catch (AddressException e) {
-							return null;
-						}
-					}).filter(Objects::nonNull).toArray(InternetAddress[]::new);
-
-			if (internetAddresses.length == 0) {
+			if (this.bccAddresses.length == 0) {
 				return;
 			}
 
-			helper.setBcc(internetAddresses);
+			helper.setBcc(this.bccAddresses);
 			helper.setSubject(EMAIL_SUBJECT_PREFIX + emailDTO.subject());
 			helper.setText(buildEmailBody(emailDTO.body()), true);
 
 			this.javaMailSender.send(mimeMessage);
 			log.info("HTML identifier sent successfully to {} recipients",
-					internetAddresses.length);
+					this.bccAddresses.length);
 
 		} catch (MessagingException e) {
 			log.error("Failed to send HTML identifier: {}", e.getMessage(), e);
@@ -123,9 +122,17 @@ public class EmailService {
 		}
 	}
 
-	@Async
 	public void sendFailedAnalyticsNotification(List<AnalyticsDTO> failedRecords,
 			String validationResults) {
+		this.sendFailedAnalyticsNotification(null, failedRecords, validationResults);
+	}
+
+	/**
+	 * Sends one alert for the given failed runs on the calling thread, so the
+	 * notification pipeline can time it and retry on failure.
+	 */
+	public void sendFailedAnalyticsNotification(String sector, List<AnalyticsDTO> failedRecords,
+			String validationResults) {
 		if (failedRecords == null || failedRecords.isEmpty()) {
 			return;
 		}
@@ -137,17 +144,9 @@ public class EmailService {
 		try {
 			MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true);
 			helper.setFrom(this.emailFrom);
-			InternetAddress[] internetAddresses = this.emailList.stream().map((String email) -> {
-				try {
-					return new InternetAddress(email);
-				} catch (AddressException e) {
-					log.error("Invalid identifier address: {}", email, e);
-					return null;
-				}
-			}).filter(Objects::nonNull).toArray(InternetAddress[]::new);
-
-			helper.setBcc(internetAddresses);
-			helper.setSubject(EMAIL_SUBJECT_PREFIX + "Quality Control Alert: Failed Analytic");
+			helper.setBcc(this.bccAddresses);
+			helper.setSubject(EMAIL_SUBJECT_PREFIX + "Quality Control Alert: Failed Analytic"
+					+ (sector == null ? "" : " - " + sector));
 			helper.setText(buildEmailBody(emailBody), true);
 			this.javaMailSender.send(mimeMessage);
 
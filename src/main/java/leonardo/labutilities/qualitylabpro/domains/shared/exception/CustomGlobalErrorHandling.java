@@ -86,6 +86,41 @@ public class CustomGlobalErrorHandling {
 		return ResponseEntity.badRequest().body(apiError);
 	}
 
+	@ExceptionHandler(AnalyticsImportException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public ResponseEntity<ApiError> handleAnalyticsImport(AnalyticsImportException ex, HttpServletRequest request) {
+		ApiError apiError = ApiError.of(HttpStatus.BAD_REQUEST, "Import aborted", request.getRequestURI());
+		apiError.details().add(ex.getMessage());
+		apiError.details().add("Batches committed before the malformed record are kept; fix the file and re-send it.");
+
+		log.error("400 Bad Request: Import aborted [{}] - {}", request.getRequestURI(), ex.getMessage());
+		return ResponseEntity.badRequest().body(apiError);
+	}
+
+	@ExceptionHandler(InvalidCursorException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public ResponseEntity<ApiError> handleInvalidCursor(InvalidCursorException ex, HttpServletRequest request) {
+		ApiError apiError = ApiError.of(HttpStatus.BAD_REQUEST, "Invalid cursor", request.getRequestURI());
+		apiError.details().add(ex.getMessage());
+		apiError.details().add("Use the 'next' link of the previous page or omit the cursor to start over.");
+
+		log.error("400 Bad Request: Invalid cursor [{}] - {}", request.getRequestURI(), ex.getMessage());
+		return ResponseEntity.badRequest().body(apiError);
+	}
+
+	@ExceptionHandler(UnsupportedExportFormatException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public ResponseEntity<ApiError> handleUnsupportedExportFormat(UnsupportedExportFormatException ex,
+			HttpServletRequest request) {
+		ApiError apiError = ApiError.of(HttpStatus.BAD_REQUEST, "Unsupported export format",
+				request.getRequestURI());
+		apiError.details().add(ex.getMessage());
+
+		log.error("400 Bad Request: Unsupported export format [{}] - {}", request.getRequestURI(),
+				ex.getMessage());
+		return ResponseEntity.badRequest().body(apiError);
+	}
+
 	// ==========================================
 	// 401 UNAUTHORIZED exceptions
 	// ==========================================
@@ -354,6 +389,18 @@ public class CustomGlobalErrorHandling {
 		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(apiError);
 	}
 
+	@ExceptionHandler(ExportCapacityExceededException.class)
+	@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+	public ResponseEntity<ApiError> handleExportCapacityExceeded(ExportCapacityExceededException ex,
+			HttpServletRequest request) {
+		ApiError apiError = ApiError.of(HttpStatus.SERVICE_UNAVAILABLE, "Export unavailable", request.getRequestURI());
+		apiError.details().add(ex.getMessage());
+		apiError.details().add("Please try again once one of the running exports has finished.");
+
+		log.warn("503 Service Unavailable: Export refused [{}] - {}", request.getRequestURI(), ex.getMessage());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(apiError);
+	}
+
 	// ==========================================
 	// Exception classes
 	// ==========================================
@@ -393,6 +440,38 @@ public class CustomGlobalErrorHandling {
 		}
 	}
 
+	public static class AnalyticsImportException extends RuntimeException {
+		public AnalyticsImportException(String message) {
+			super(message);
+		}
+
+		public AnalyticsImportException(String message, Throwable cause) {
+			super(message, cause);
+		}
+	}
+
+	public static class UnsupportedExportFormatException extends RuntimeException {
+		public UnsupportedExportFormatException(String message) {
+			super(message);
+		}
+	}
+
+	public static class ExportCapacityExceededException extends RuntimeException {
+		public ExportCapacityExceededException(String message) {
+			super(message);
+		}
+	}
+
+	public static class InvalidCursorException extends RuntimeException {
+		public InvalidCursorException(String message) {
+			super(message);
+		}
+
+		public InvalidCursorException(String message, Throwable cause) {
+			super(message, cause);
+		}
+	}
+
 	public static class UserAlreadyExistException extends RuntimeException {
 		public UserAlreadyExistException() {
 			super("User already exists");
@@ -1,6 +1,7 @@
 package leonardo.labutilities.qualitylabpro.domains.shared.mappers;
 
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.ControlRange;
 import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
 import leonardo.labutilities.qualitylabpro.domains.analytics.utils.SpecsValidatorUtility;
 import leonardo.labutilities.qualitylabpro.domains.users.models.User;
@@ -11,8 +12,6 @@ public class AnalyticMapper {
 
 	}
 
-	private static final SpecsValidatorUtility rulesValidatorComponent = new SpecsValidatorUtility();
-
 	private static Analytic toEntityRulesValidator(AnalyticsDTO analyticsDTO) {
 		Analytic analytic = new Analytic();
 		analytic.setId(analyticsDTO.id());
@@ -25,10 +24,10 @@ public class AnalyticMapper {
 		analytic.setTargetMean(analyticsDTO.mean());
 		analytic.setStandardDeviation(analyticsDTO.sd());
 		analytic.setMeasurementUnit(analyticsDTO.unit_value());
-		rulesValidatorComponent.validator(analyticsDTO.value(), analyticsDTO.mean(),
+		ControlRange range = SpecsValidatorUtility.classify(analyticsDTO.value(), analyticsDTO.mean(),
 				analyticsDTO.sd());
-		analytic.setControlRules(rulesValidatorComponent.getRules());
-		analytic.setDescription(rulesValidatorComponent.getDescription());
+		analytic.setControlRules(range.getRule());
+		analytic.setDescription(range.getDescription());
 
 		return analytic;
 	}
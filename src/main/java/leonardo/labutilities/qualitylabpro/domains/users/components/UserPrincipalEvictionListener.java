@@ -0,0 +1,32 @@
+package leonardo.labutilities.qualitylabpro.domains.users.components;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import leonardo.labutilities.qualitylabpro.domains.shared.authentication.components.TokenPrincipalCache;
+import leonardo.labutilities.qualitylabpro.domains.users.models.User;
+
+/**
+ * Drops the cached principals of a user once an update or removal of the
+ * entity commits, so locking or disabling an account takes effect on the next
+ * request instead of when the cached token expires. Bulk JPQL updates bypass
+ * entity callbacks; the services running them evict explicitly.
+ */
+@Component
+public class UserPrincipalEvictionListener {
+
+    // Not every slice (e.g. @DataJpaTest) registers the cache
+    private final ObjectProvider<TokenPrincipalCache> tokenPrincipalCache;
+
+    public UserPrincipalEvictionListener(ObjectProvider<TokenPrincipalCache> tokenPrincipalCache) {
+        this.tokenPrincipalCache = tokenPrincipalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void evictPrincipal(User user) {
+        tokenPrincipalCache.ifAvailable(cache -> cache.evictAfterCommit(user.getUsername()));
+    }
+}
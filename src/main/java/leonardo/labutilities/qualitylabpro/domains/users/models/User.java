@@ -7,6 +7,8 @@ import java.util.Objects;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.proxy.HibernateProxy;
@@ -18,6 +20,7 @@ import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -26,8 +29,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.MapKey;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
 import leonardo.labutilities.qualitylabpro.domains.analytics.models.ControlLot;
+import leonardo.labutilities.qualitylabpro.domains.users.components.UserPrincipalEvictionListener;
 import leonardo.labutilities.qualitylabpro.domains.users.enums.UserRoles;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -36,10 +41,12 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity(name = "users")
+@EntityListeners(UserPrincipalEvictionListener.class)
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true, length = 100)
@@ -60,8 +67,10 @@ public class User implements UserDetails {
     @MapKey(name = "id")
     private SortedMap<Long, Analytic> validatedAnalytics = new TreeMap<>();
 
+    // Evicted when a lot changes owner (hibernate.cache.auto_evict_collection_cache)
     @OneToMany(mappedBy = "user", fetch = FetchType.EAGER)
     @MapKey(name = "id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-control-lots")
     private SortedMap<Long, ControlLot> controlAnalytics = new TreeMap<>();
 
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true,
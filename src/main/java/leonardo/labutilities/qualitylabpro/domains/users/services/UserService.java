@@ -10,6 +10,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.stereotype.Service;
 
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.shared.authentication.components.TokenPrincipalCache;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.dtos.TokenJwtDTO;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.services.TokenService;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.utils.AuthenticatedUserProvider;
@@ -35,6 +36,7 @@ public class UserService {
 	private final EmailService emailService;
 	private final AuthenticationManager authenticationManager;
 	private final TokenService tokenService;
+	private final TokenPrincipalCache tokenPrincipalCache;
 
 	public Page<AnalyticsDTO> findAnalyticsByUserValidated(Pageable pageable) {
 		var authenticatedUser = AuthenticatedUserProvider.getCurrentAuthenticatedUser().getId();
@@ -73,6 +75,9 @@ public class UserService {
 			throw new CustomGlobalErrorHandling.RecoveryTokenInvalidException();
 		}
 		this.userRepository.setPasswordWhereByEmail(email, BCryptEncoder.encrypt(newPassword));
+		// Bulk updates skip the entity listener that evicts cached principals
+		this.userRepository.findOneByUsernameOrEmail(email, email)
+				.ifPresent(user -> this.tokenPrincipalCache.evictAfterCommit(user.getUsername()));
 	}
 
 	private TokenJwtDTO authenticateAndGenerateToken(User credential, String password) {
@@ -128,6 +133,7 @@ public class UserService {
 		} else {
 			this.userRepository.setPasswordWhereByUsername(oldPass.getUsername(),
 					BCryptEncoder.encrypt(newPassword));
+			this.tokenPrincipalCache.evictAfterCommit(oldPass.getUsername());
 		}
 	}
 }
@@ -0,0 +1,32 @@
+CREATE TABLE analytics_daily_statistics (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    test_name VARCHAR(25) NOT NULL,
+    control_level VARCHAR(25) NOT NULL,
+    control_level_lot VARCHAR(25) NOT NULL DEFAULT '',
+    bucket_date DATE NOT NULL,
+    sample_count BIGINT NOT NULL,
+    value_sum DOUBLE NOT NULL,
+    sum_squared_deviations DOUBLE NOT NULL,
+    min_value DOUBLE NOT NULL,
+    max_value DOUBLE NOT NULL,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_analytics_daily_statistics_bucket
+        UNIQUE (test_name, control_level, control_level_lot, bucket_date)
+);
+
+INSERT INTO analytics_daily_statistics (
+    test_name, control_level, control_level_lot, bucket_date,
+    sample_count, value_sum, sum_squared_deviations, min_value, max_value)
+SELECT
+    test_name,
+    control_level,
+    COALESCE(control_level_lot, ''),
+    DATE(measurement_date),
+    COUNT(*),
+    SUM(measurement_value),
+    VAR_POP(measurement_value) * COUNT(*),
+    MIN(measurement_value),
+    MAX(measurement_value)
+FROM analytics
+GROUP BY test_name, control_level, COALESCE(control_level_lot, ''), DATE(measurement_date);
@@ -0,0 +1,44 @@
+-- Keep the first copy of any run that was stored twice before the key existed.
+-- The other copies are moved to an audit table rather than dropped, so they
+-- can be reviewed and counted after the migration.
+CREATE TABLE analytics_removed_duplicates AS
+SELECT duplicate.*, kept.kept_id, CURRENT_TIMESTAMP AS removed_at
+FROM analytics duplicate
+JOIN (
+    SELECT test_name, control_level, measurement_date, MIN(id) AS kept_id
+    FROM analytics
+    GROUP BY test_name, control_level, measurement_date
+    HAVING COUNT(*) > 1
+) kept
+    ON kept.test_name = duplicate.test_name
+    AND kept.control_level = duplicate.control_level
+    AND kept.measurement_date = duplicate.measurement_date
+    AND duplicate.id > kept.kept_id;
+
+DELETE FROM analytics WHERE id IN (SELECT id FROM analytics_removed_duplicates);
+
+-- The unique key covers the same (test_name, control_level, measurement_date)
+-- lookups as the old secondary index, so that one is dropped to save writes
+DROP INDEX IF EXISTS analytics_test_control_date_idx ON analytics;
+
+ALTER TABLE analytics
+    ADD CONSTRAINT uk_analytics_run UNIQUE (test_name, control_level, measurement_date);
+
+-- Rebuild the daily buckets without the removed duplicates
+DELETE FROM analytics_daily_statistics;
+
+INSERT INTO analytics_daily_statistics (
+    test_name, control_level, control_level_lot, bucket_date,
+    sample_count, value_sum, sum_squared_deviations, min_value, max_value)
+SELECT
+    test_name,
+    control_level,
+    COALESCE(control_level_lot, ''),
+    DATE(measurement_date),
+    COUNT(*),
+    SUM(measurement_value),
+    VAR_POP(measurement_value) * COUNT(*),
+    MIN(measurement_value),
+    MAX(measurement_value)
+FROM analytics
+GROUP BY test_name, control_level, COALESCE(control_level_lot, ''), DATE(measurement_date);
@@ -0,0 +1,37 @@
+-- Hibernate reserves ids in blocks of 50 (pooled optimizer: a fetched value V
+-- covers V-49..V), so each sequence steps by 50 and starts one full block above
+-- the current max id. Existing ids are untouched.
+SET @create_sequence = (SELECT CONCAT('CREATE SEQUENCE analytics_seq START WITH ',
+    COALESCE(MAX(id), 0) + 51, ' INCREMENT BY 50') FROM analytics);
+PREPARE create_sequence FROM @create_sequence;
+EXECUTE create_sequence;
+DEALLOCATE PREPARE create_sequence;
+
+SET @create_sequence = (SELECT CONCAT('CREATE SEQUENCE users_seq START WITH ',
+    COALESCE(MAX(id), 0) + 51, ' INCREMENT BY 50') FROM users);
+PREPARE create_sequence FROM @create_sequence;
+EXECUTE create_sequence;
+DEALLOCATE PREPARE create_sequence;
+
+SET @create_sequence = (SELECT CONCAT('CREATE SEQUENCE control_lots_seq START WITH ',
+    COALESCE(MAX(id), 0) + 51, ' INCREMENT BY 50') FROM control_lots);
+PREPARE create_sequence FROM @create_sequence;
+EXECUTE create_sequence;
+DEALLOCATE PREPARE create_sequence;
+
+SET @create_sequence = (SELECT CONCAT('CREATE SEQUENCE equipments_seq START WITH ',
+    COALESCE(MAX(id), 0) + 51, ' INCREMENT BY 50') FROM equipments);
+PREPARE create_sequence FROM @create_sequence;
+EXECUTE create_sequence;
+DEALLOCATE PREPARE create_sequence;
+
+-- Rows inserted outside Hibernate draw from the same sequences instead of an
+-- AUTO_INCREMENT counter that would run into the pre-allocated blocks
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE analytics MODIFY id BIGINT NOT NULL DEFAULT (NEXT VALUE FOR analytics_seq);
+ALTER TABLE users MODIFY id BIGINT NOT NULL DEFAULT (NEXT VALUE FOR users_seq);
+ALTER TABLE control_lots MODIFY id INTEGER NOT NULL DEFAULT (NEXT VALUE FOR control_lots_seq);
+ALTER TABLE equipments MODIFY id INTEGER NOT NULL DEFAULT (NEXT VALUE FOR equipments_seq);
+
+SET FOREIGN_KEY_CHECKS = 1;
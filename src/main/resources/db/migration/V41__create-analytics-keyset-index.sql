@@ -0,0 +1,8 @@
+-- Serves the (measurement_date, id) seek of the keyset date-range listings
+-- straight from the index, without a sort or an offset scan
+CREATE INDEX analytics_test_date_id_idx
+ON analytics (
+    test_name,
+    measurement_date DESC,
+    id DESC
+);
@@ -0,0 +1,57 @@
+CREATE TABLE qc_daily_summary (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    test_name VARCHAR(25) NOT NULL,
+    control_level VARCHAR(25) NOT NULL,
+    summary_date DATE NOT NULL,
+    control_level_lot VARCHAR(25) NOT NULL DEFAULT '',
+    equipment_id INTEGER NOT NULL DEFAULT 0,
+    sample_count BIGINT NOT NULL,
+    value_sum DOUBLE NOT NULL,
+    value_sum_squares DOUBLE NOT NULL,
+    min_value DOUBLE NOT NULL,
+    max_value DOUBLE NOT NULL,
+    target_mean DOUBLE NOT NULL,
+    rule_violation_count BIGINT NOT NULL,
+    validated_count BIGINT NOT NULL,
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (id),
+    -- Leading (test_name, control_level, summary_date) serves the range reads
+    CONSTRAINT uk_qc_daily_summary
+        UNIQUE (test_name, control_level, summary_date, control_level_lot, equipment_id)
+);
+
+-- Last analytics.updated_at already rolled up into qc_daily_summary
+CREATE TABLE qc_summary_watermark (
+    job_name VARCHAR(50) NOT NULL,
+    high_water_mark DATETIME NOT NULL,
+    PRIMARY KEY (job_name)
+);
+
+CREATE INDEX analytics_updated_at_idx ON analytics (updated_at);
+
+INSERT INTO qc_summary_watermark (job_name, high_water_mark)
+SELECT 'qc_daily_summary', COALESCE(MAX(updated_at), '1970-01-01 00:00:00')
+FROM analytics;
+
+INSERT INTO qc_daily_summary (
+    test_name, control_level, summary_date, control_level_lot, equipment_id,
+    sample_count, value_sum, value_sum_squares, min_value, max_value, target_mean,
+    rule_violation_count, validated_count)
+SELECT
+    test_name,
+    control_level,
+    DATE(measurement_date),
+    COALESCE(control_level_lot, ''),
+    COALESCE(equipment_id, 0),
+    COUNT(*),
+    SUM(measurement_value),
+    SUM(measurement_value * measurement_value),
+    MIN(measurement_value),
+    MAX(measurement_value),
+    MIN(target_mean),
+    SUM(control_rules IN ('+2s', '+3s', '-2s', '-3s')),
+    SUM(validator_user_id IS NOT NULL)
+FROM analytics
+WHERE control_level IS NOT NULL
+GROUP BY test_name, control_level, DATE(measurement_date), COALESCE(control_level_lot, ''),
+    COALESCE(equipment_id, 0);
@@ -0,0 +1,71 @@
+package leonardo.labutilities.qualitylabpro.configs.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.annotations.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.ControlLot;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Equipment;
+import leonardo.labutilities.qualitylabpro.domains.users.models.User;
+import leonardo.labutilities.qualitylabpro.domains.users.models.UserConfig;
+
+class HibernateCacheRegionsTests {
+
+	private CacheManager cacheManager;
+
+	@BeforeEach
+	void setUp() {
+		CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+		cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+	}
+
+	@AfterEach
+	void tearDown() {
+		cacheManager.close();
+	}
+
+	// Read from the Caffeine cache behind the region, which needs no unchecked
+	// class literal unlike Cache.getConfiguration
+	private OptionalLong maximumSize(String region) {
+		javax.cache.Cache<Object, Object> cache = cacheManager.getCache(region);
+		assertNotNull(cache, () -> "No region configured for " + region);
+		com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine =
+				cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+		return caffeine.policy().eviction().map(eviction -> OptionalLong.of(eviction.getMaximum()))
+				.orElseGet(OptionalLong::empty);
+	}
+
+	@Test
+	void everyCachedEntityAndCollection_ShouldHaveABoundedRegion() throws NoSuchFieldException {
+		List<String> regions = List.of(Equipment.class.getAnnotation(Cache.class).region(),
+				ControlLot.class.getAnnotation(Cache.class).region(),
+				UserConfig.class.getAnnotation(Cache.class).region(),
+				User.class.getDeclaredField("controlAnalytics").getAnnotation(Cache.class).region());
+
+		regions.forEach(region -> assertTrue(maximumSize(region).isPresent(), region));
+		assertEquals(OptionalLong.of(500), maximumSize("equipments"));
+	}
+
+	@Test
+	void queryCacheRegions_ShouldKeepTimestampsUnbounded() {
+		assertTrue(maximumSize("default-query-results-region").isPresent());
+		assertFalse(maximumSize("default-update-timestamps-region").isPresent());
+		assertNull(cacheManager.getCache("unknown-region"));
+	}
+}
@@ -0,0 +1,75 @@
+package leonardo.labutilities.qualitylabpro.configs.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SqlStatisticsTests {
+
+	private DataSource dataSource;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.next()).thenReturn(true, true, false);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		when(statement.executeQuery()).thenReturn(resultSet);
+		when(statement.executeUpdate()).thenReturn(3);
+		when(statement.executeBatch()).thenReturn(new int[] {1, 1, -2});
+		Connection connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		DataSource target = mock(DataSource.class);
+		when(target.getConnection()).thenReturn(connection);
+
+		dataSource = DataSourceProxyConfiguration.proxy("dataSource", target);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SqlStatistics.stop();
+	}
+
+	private void runQueries() throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement select = connection.prepareStatement("SELECT 1");
+				ResultSet rows = select.executeQuery()) {
+			while (rows.next()) {
+				// Read every row
+			}
+			connection.prepareStatement("UPDATE analytics SET description = ''").executeUpdate();
+			connection.prepareStatement("INSERT INTO analytics VALUES (?)").executeBatch();
+		}
+	}
+
+	@Test
+	void proxy_ShouldCountStatementsAndUpdatedRows() throws SQLException {
+		SqlStatistics statistics = SqlStatistics.start();
+
+		runQueries();
+
+		// Result sets are not proxied, so only the updated rows are counted here
+		assertEquals(3, statistics.statements());
+		assertEquals(5, statistics.rows());
+		assertTrue(statistics.toServerTiming().startsWith("db;desc=\"3 statements, 5 rows\";dur="));
+	}
+
+	@Test
+	void proxy_WhenNotStarted_ShouldNotCount() throws SQLException {
+		runQueries();
+
+		assertTrue(SqlStatistics.current().isEmpty());
+	}
+}
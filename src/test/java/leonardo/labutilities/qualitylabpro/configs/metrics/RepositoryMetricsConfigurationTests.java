@@ -0,0 +1,102 @@
+package leonardo.labutilities.qualitylabpro.configs.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import leonardo.labutilities.qualitylabpro.configs.database.SqlStatistics;
+
+class RepositoryMetricsConfigurationTests {
+
+	interface SampleRepository {
+		List<String> findAll();
+
+		PageImpl<String> findPage();
+
+		Optional<String> findOne();
+
+		Stream<String> streamAll();
+	}
+
+	private SimpleMeterRegistry meterRegistry;
+	private SampleRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("meterRegistry", meterRegistry);
+
+		ProxyFactory proxyFactory = new ProxyFactory(new SampleRepository() {
+			public List<String> findAll() {
+				return List.of("a", "b", "c");
+			}
+
+			public PageImpl<String> findPage() {
+				return new PageImpl<>(List.of("a", "b"), PageRequest.of(0, 2), 10);
+			}
+
+			public Optional<String> findOne() {
+				return Optional.empty();
+			}
+
+			public Stream<String> streamAll() {
+				return Stream.of("a");
+			}
+		});
+		proxyFactory.addInterface(SampleRepository.class);
+		proxyFactory.addAdvice(RepositoryMetricsConfiguration
+				.rowsInterceptor(beanFactory.getBeanProvider(MeterRegistry.class), "SampleRepository"));
+		repository = (SampleRepository) proxyFactory.getProxy();
+	}
+
+	private double rows(String method) {
+		return meterRegistry.get("analytics.repository.rows")
+				.tags("repository", "SampleRepository", "method", method).summary().totalAmount();
+	}
+
+	@Test
+	void rowsInterceptor_ShouldRecordReturnedRows() {
+		repository.findAll();
+		repository.findPage();
+		repository.findOne();
+
+		assertEquals(3.0, rows("findAll"));
+		assertEquals(2.0, rows("findPage"));
+		assertEquals(0.0, rows("findOne"));
+	}
+
+	@Test
+	void rowsInterceptor_ShouldAddReturnedRowsToTheRequestStatistics() {
+		SqlStatistics statistics = SqlStatistics.start();
+		try {
+			repository.findAll();
+			repository.findPage();
+			repository.streamAll().close();
+		} finally {
+			SqlStatistics.stop();
+		}
+
+		assertEquals(5, statistics.rows());
+	}
+
+	@Test
+	void rowsInterceptor_WithStream_ShouldNotRecord() {
+		repository.streamAll().close();
+
+		assertTrue(meterRegistry.find("analytics.repository.rows").tag("method", "streamAll").summaries()
+				.isEmpty());
+	}
+}
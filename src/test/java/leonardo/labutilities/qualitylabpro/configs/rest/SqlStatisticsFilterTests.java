@@ -0,0 +1,57 @@
+package leonardo.labutilities.qualitylabpro.configs.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import leonardo.labutilities.qualitylabpro.configs.database.SqlStatistics;
+
+class SqlStatisticsFilterTests {
+
+	// Commits the response while the request's statistics are still open
+	private static final HttpServlet COMMITTING_SERVLET = new HttpServlet() {
+		@Override
+		protected void service(HttpServletRequest request, HttpServletResponse response)
+				throws IOException {
+			assertTrue(SqlStatistics.current().isPresent());
+			response.getWriter().write("[]");
+			response.flushBuffer();
+		}
+	};
+
+	@Test
+	void doFilter_ShouldSendServerTimingBeforeCommit() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		new SqlStatisticsFilter().doFilter(new MockHttpServletRequest("GET", "/biochemistry-analytics"),
+				response, new MockFilterChain(COMMITTING_SERVLET));
+
+		assertTrue(response.isCommitted());
+		assertEquals("db;desc=\"0 statements, 0 rows\";dur=0",
+				response.getHeader(SqlStatisticsFilter.SERVER_TIMING_HEADER));
+		assertTrue(SqlStatistics.current().isEmpty());
+	}
+
+	@Test
+	void doFilter_WhenServerTimingIsDisabled_ShouldOnlyCount() throws Exception {
+		SqlStatisticsFilter filter = new SqlStatisticsFilter();
+		ReflectionTestUtils.setField(filter, "serverTiming", false);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/biochemistry-analytics"), response,
+				new MockFilterChain(COMMITTING_SERVLET));
+
+		assertNull(response.getHeader(SqlStatisticsFilter.SERVER_TIMING_HEADER));
+	}
+}
@@ -0,0 +1,115 @@
+package leonardo.labutilities.qualitylabpro.configs.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+
+import leonardo.labutilities.qualitylabpro.domains.shared.authentication.components.TokenPrincipalCache;
+import leonardo.labutilities.qualitylabpro.domains.shared.authentication.services.TokenService;
+import leonardo.labutilities.qualitylabpro.domains.users.models.User;
+import leonardo.labutilities.qualitylabpro.domains.users.repositories.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityFilterTests {
+
+	private static final String ISSUER = "quality-lab-pro";
+
+	@Mock
+	private UserRepository userRepository;
+
+	private TokenPrincipalCache tokenPrincipalCache;
+	private SecurityFilter securityFilter;
+	private String token;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		var algorithm = Algorithm.HMAC256("test-secret-key-12345");
+		var tokenService = new TokenService(algorithm, JWT.require(algorithm).withIssuer(ISSUER).build(), ISSUER);
+		tokenPrincipalCache = new TokenPrincipalCache(Duration.ofMinutes(5), 100);
+		securityFilter = new SecurityFilter(tokenService, userRepository, tokenPrincipalCache);
+
+		user = new User();
+		user.setUsername("testuser");
+		token = tokenService.generateToken(user).tokenJWT();
+		when(userRepository.getReferenceOneByUsername("testuser")).thenReturn(Optional.of(user));
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	private MockHttpServletResponse authenticatedRequest() throws Exception {
+		var request = new MockHttpServletRequest();
+		request.addHeader("Authorization", "Bearer " + token);
+		var response = new MockHttpServletResponse();
+		securityFilter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	@Test
+	@DisplayName("Should look up the user once for repeated requests with the same token")
+	void doFilter_WithRepeatedToken_ShouldServePrincipalFromCache() throws Exception {
+		authenticatedRequest();
+		var response = authenticatedRequest();
+
+		assertEquals(200, response.getStatus());
+		assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+		verify(userRepository, times(1)).getReferenceOneByUsername("testuser");
+	}
+
+	@Test
+	@DisplayName("Should reject the cached token once the user is locked and evicted")
+	void doFilter_AfterUserLocked_ShouldReloadAndForbid() throws Exception {
+		authenticatedRequest();
+
+		user.setIsAccountNonLocked(false);
+		tokenPrincipalCache.evict("testuser");
+		var response = authenticatedRequest();
+
+		assertEquals(403, response.getStatus());
+		verify(userRepository, times(2)).getReferenceOneByUsername("testuser");
+	}
+
+	@Test
+	@DisplayName("Should keep serving the cached principal until the change commits")
+	void evictAfterCommit_InATransaction_ShouldWaitForTheCommit() throws Exception {
+		authenticatedRequest();
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			tokenPrincipalCache.evictAfterCommit("testuser");
+			authenticatedRequest();
+			verify(userRepository, times(1)).getReferenceOneByUsername("testuser");
+
+			TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		authenticatedRequest();
+
+		verify(userRepository, times(2)).getReferenceOneByUsername("testuser");
+	}
+}
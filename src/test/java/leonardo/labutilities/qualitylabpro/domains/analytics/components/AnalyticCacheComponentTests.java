@@ -0,0 +1,158 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.constants.AnalyticCacheNames;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticDailyStatisticsService;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticStatisticsService;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.IAnalyticStatisticsService;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.QcDailySummaryService;
+
+@SpringJUnitConfig(AnalyticCacheComponentTests.CacheTestConfig.class)
+class AnalyticCacheComponentTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+	private static final LocalDateTime END = LocalDateTime.of(2025, 1, 31, 23, 59, 59);
+
+	@Configuration
+	@EnableCaching
+	static class CacheTestConfig {
+
+		@Bean
+		CacheManager cacheManager() {
+			CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+			cacheManager.setCacheNames(AnalyticCacheNames.ALL);
+			return cacheManager;
+		}
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		AnalyticCacheComponent analyticCacheComponent(CacheManager cacheManager, MeterRegistry meterRegistry) {
+			return new AnalyticCacheComponent(cacheManager, meterRegistry);
+		}
+
+		@Bean
+		AnalyticDailyStatisticsService dailyStatisticsService() {
+			return mock(AnalyticDailyStatisticsService.class);
+		}
+
+		@Bean
+		AnalyticStatisticsService analyticStatisticsService(AnalyticDailyStatisticsService dailyStatisticsService) {
+			return new AnalyticStatisticsService(mock(AnalyticsRepository.class), dailyStatisticsService,
+					mock(QcDailySummaryService.class), mock(AnalyticTimeSeriesStore.class),
+					new AnalyticMetricsComponent(new SimpleMeterRegistry()));
+		}
+	}
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private AnalyticCacheComponent analyticCacheComponent;
+
+	@Autowired
+	private AnalyticDailyStatisticsService dailyStatisticsService;
+
+	@Autowired
+	private IAnalyticStatisticsService analyticStatisticsService;
+
+	@BeforeEach
+	void setUp() {
+		AnalyticCacheNames.ALL.forEach(name -> cacheManager.getCache(name).clear());
+		reset(dailyStatisticsService);
+	}
+
+	private static Analytic analytic(String name, String level, LocalDateTime date) {
+		Analytic analytic = new Analytic();
+		analytic.setTestName(name);
+		analytic.setControlLevel(level);
+		analytic.setMeasurementDate(date);
+		return analytic;
+	}
+
+	@Test
+	@DisplayName("Should serve repeated mean and SD requests from the cache until the test and level are written")
+	void calculateMeanAndStandardDeviation_ShouldBeCachedUntilEvicted() {
+		when(dailyStatisticsService.calculateMeanAndStandardDeviation("ALB2", "PCCC1", START, END))
+				.thenReturn(new MeanAndStdDeviationDTO(3.4, 0.1));
+
+		analyticStatisticsService.calculateMeanAndStandardDeviation("ALB2", "PCCC1", START, END,
+				Pageable.unpaged());
+		analyticStatisticsService.calculateMeanAndStandardDeviation("ALB2", "PCCC1", START, END,
+				Pageable.ofSize(10));
+		verify(dailyStatisticsService, times(1)).calculateMeanAndStandardDeviation("ALB2", "PCCC1", START,
+				END);
+
+		analyticCacheComponent.evict(List.of(analytic("ALB2", "PCCC1", START.plusDays(3))));
+
+		analyticStatisticsService.calculateMeanAndStandardDeviation("ALB2", "PCCC1", START, END,
+				Pageable.unpaged());
+		verify(dailyStatisticsService, times(2)).calculateMeanAndStandardDeviation("ALB2", "PCCC1", START,
+				END);
+	}
+
+	@Test
+	@DisplayName("Should evict only entries of the written test and level whose range contains the day")
+	void evict_ShouldKeepUnrelatedEntries() {
+		Cache meanCache = cacheManager.getCache(AnalyticCacheNames.MEAN_AND_STANDARD_DEVIATION);
+		Cache groupedCache = cacheManager.getCache(AnalyticCacheNames.GROUPED_RESULTS);
+		Cache errorCache = cacheManager.getCache(AnalyticCacheNames.ERROR_STATISTICS);
+
+		var sameLevel = analyticCacheComponent.key("ALB2", "PCCC1", START, END);
+		var otherLevel = analyticCacheComponent.key("ALB2", "PCCC2", START, END);
+		var otherTest = analyticCacheComponent.key("GLI", "PCCC1", START, END);
+		var otherRange = analyticCacheComponent.key("ALB2", "PCCC1", START.minusMonths(1), START.minusDays(1));
+		var allLevels = analyticCacheComponent.key("ALB2", START, END, Pageable.unpaged());
+		var sectorNames = analyticCacheComponent.key(List.of("ALB2", "GLI"), "PCCC1", START, END);
+		List.of(sameLevel, otherLevel, otherTest, otherRange).forEach(key -> meanCache.put(key, "value"));
+		groupedCache.put(allLevels, "value");
+		errorCache.put(sectorNames, "value");
+
+		analyticCacheComponent.evict("ALB2", "PCCC1", LocalDate.of(2025, 1, 15));
+
+		assertNull(meanCache.get(sameLevel));
+		assertNull(groupedCache.get(allLevels));
+		assertNull(errorCache.get(sectorNames));
+		assertNotNull(meanCache.get(otherLevel));
+		assertNotNull(meanCache.get(otherTest));
+		assertNotNull(meanCache.get(otherRange));
+		assertEquals(1.0, meterRegistry.get("analytics.cache.invalidations")
+				.tag("cache", AnalyticCacheNames.GROUPED_RESULTS).counter().count());
+	}
+}
@@ -0,0 +1,129 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.WestgardViolationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.WestgardRule;
+import leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks;
+
+class AnalyticEventStreamComponentTests {
+
+	private SimpleMeterRegistry meterRegistry;
+	private AnalyticEventStreamComponent eventStream;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		eventStream = new AnalyticEventStreamComponent(meterRegistry);
+	}
+
+	// Captures every event as its serialized text
+	private static class RecordingEmitter extends SseEmitter {
+		private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			sent.add(builder.build().stream().map(ResponseBodyEmitter.DataWithMediaType::getData)
+					.map(Object::toString).collect(Collectors.joining()));
+		}
+
+		String next() throws InterruptedException {
+			return sent.poll(2, TimeUnit.SECONDS);
+		}
+
+		String nextIfAny() throws InterruptedException {
+			return sent.poll(200, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private static AnalyticsDTO analytic(String name) {
+		var sample = AnalyticsHelperMocks.createSampleRecord();
+		return new AnalyticsDTO(sample.id(), sample.date(), sample.level_lot(), sample.test_lot(), name,
+				sample.level(), sample.value(), sample.mean(), sample.sd(), sample.unit_value(),
+				sample.rules(), sample.description(), sample.validator_user(), sample.owner_user());
+	}
+
+	private static long idOf(String event) {
+		String idLine = event.lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow();
+		return Long.parseLong(idLine.substring(3));
+	}
+
+	@Test
+	@DisplayName("Should push only the runs and violations of the subscribed sector's tests")
+	void publish_ShouldFilterBySubscribedNames() throws InterruptedException {
+		RecordingEmitter emitter = new RecordingEmitter();
+		eventStream.register(List.of("ALB2"), null, emitter);
+
+		eventStream.publishAnalytics(List.of(analytic("GLI"), analytic("ALB2")));
+		eventStream.publishViolations(List.of(WestgardViolationDTO.of(WestgardRule.TWO_TWO_S, "ALB2", "PCCC1")));
+
+		String first = emitter.next();
+		String second = emitter.next();
+		assertTrue(first.contains("event:" + AnalyticEventStreamComponent.ANALYTIC_EVENT));
+		assertTrue(first.contains("ALB2"));
+		assertTrue(second.contains("event:" + AnalyticEventStreamComponent.VIOLATION_EVENT));
+		assertNull(emitter.nextIfAny());
+	}
+
+	@Test
+	@DisplayName("Should replay the events after Last-Event-ID to a reconnecting subscriber")
+	void register_WithLastEventId_ShouldResumeAfterIt() throws InterruptedException {
+		RecordingEmitter live = new RecordingEmitter();
+		eventStream.register(List.of("ALB2"), null, live);
+		eventStream.publishAnalytics(List.of(analytic("ALB2"), analytic("ALB2"), analytic("ALB2")));
+		long firstId = idOf(live.next());
+		long secondId = idOf(live.next());
+
+		RecordingEmitter resumed = new RecordingEmitter();
+		eventStream.register(List.of("ALB2"), firstId, resumed);
+
+		assertEquals(secondId, idOf(resumed.next()));
+		assertNotNull(resumed.next());
+		assertNull(resumed.nextIfAny());
+	}
+
+	@Test
+	@DisplayName("Should drop the oldest pending events when a subscriber falls behind")
+	void publish_WithSlowSubscriber_ShouldDropOldestEvents() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		SseEmitter blocked = new SseEmitter() {
+			@Override
+			public void send(SseEventBuilder builder) {
+				try {
+					release.await();
+				} catch (InterruptedException exception) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		eventStream.register(List.of("ALB2"), null, blocked);
+
+		int published = AnalyticEventStreamComponent.SUBSCRIBER_BUFFER + 10;
+		for (int i = 0; i < published; i++) {
+			eventStream.publishAnalytics(List.of(analytic("ALB2")));
+		}
+		release.countDown();
+
+		// At most one event was taken by the sender before it blocked
+		assertTrue(meterRegistry.counter("analytics.stream.dropped").count() >= 9);
+		assertEquals(1, eventStream.subscriberCount());
+	}
+}
@@ -1,51 +1,195 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.components;
 
-import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
-import leonardo.labutilities.qualitylabpro.domains.shared.email.EmailService;
-import leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.Collections;
-import java.util.List;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.*;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.WestgardViolationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.WestgardRule;
+import leonardo.labutilities.qualitylabpro.domains.shared.email.EmailService;
+import leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks;
 
 @ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
 class AnalyticFailedNotificationComponentTests {
 
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
     @Mock
     private EmailService emailService;
 
     @Mock
     private RulesProviderComponent rulesProviderComponent;
 
+    @Mock
+    private AnalyticEventStreamComponent analyticEventStreamComponent;
+
+    private SimpleMeterRegistry meterRegistry;
+
     private AnalyticFailedNotificationComponent analyticsFailedNotificationComponent;
 
     @BeforeEach
     void setUp() {
-        analyticsFailedNotificationComponent =
-                new AnalyticFailedNotificationComponent(emailService, rulesProviderComponent);
+        meterRegistry = new SimpleMeterRegistry();
+        when(rulesProviderComponent.evaluate(anyList())).thenReturn(List.of());
+        when(rulesProviderComponent.toHtml(anyList())).thenReturn("Validation report content");
+        analyticsFailedNotificationComponent = newComponent(emailService, Duration.ofMillis(200), 200);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        analyticsFailedNotificationComponent.stop();
+    }
+
+    private AnalyticFailedNotificationComponent newComponent(EmailService service, Duration window,
+            int maxRecords) {
+        var component = new AnalyticFailedNotificationComponent(service, rulesProviderComponent,
+                analyticEventStreamComponent, meterRegistry);
+        ReflectionTestUtils.setField(component, "digestWindow", window);
+        ReflectionTestUtils.setField(component, "digestMaxRecords", maxRecords);
+        ReflectionTestUtils.setField(component, "retryBackoff", Duration.ofMillis(10));
+        component.start();
+        return component;
+    }
+
+    private static AnalyticsDTO failedRecord(String name) {
+        var sample = AnalyticsHelperMocks.createSampleRecord();
+        return new AnalyticsDTO(sample.id(), sample.date(), sample.level_lot(), sample.test_lot(), name,
+                sample.level(), sample.value(), sample.mean(), sample.sd(), sample.unit_value(),
+                sample.rules(), sample.description(), sample.validator_user(), sample.owner_user());
     }
 
     @Test
     void processFailedRecordsNotification_WithRecords_ShouldSendNotification() {
-
         // Arrange
         List<AnalyticsDTO> failedRecords = AnalyticsHelperMocks.createSampleRecordList();
-        String validationContent = "Validation report content";
-        when(rulesProviderComponent.validateRules(failedRecords)).thenReturn(validationContent);
+        List<WestgardViolationDTO> violations =
+                List.of(WestgardViolationDTO.of(WestgardRule.ONE_THREE_S, "ALB2", "PCCC1"));
+        when(rulesProviderComponent.evaluate(failedRecords)).thenReturn(violations);
+        when(rulesProviderComponent.toHtml(violations)).thenReturn("Validation report content");
+
+        // Act
+        analyticsFailedNotificationComponent.processFailedRecordsNotification(failedRecords);
+
+        // Assert
+        verify(emailService, timeout(2000)).sendFailedAnalyticsNotification("Biochemistry", failedRecords,
+                "Validation report content");
+        verify(rulesProviderComponent, times(1)).evaluate(failedRecords);
+        verify(analyticEventStreamComponent, times(1)).publishViolations(violations);
+        assertEquals(1.0, meterRegistry.counter("analytics.westgard.violations", "rule",
+                violations.getFirst().rule(), "sector", "Biochemistry").count());
+        assertEquals(1, meterRegistry.get("notifications.queue.latency").timer().count());
+        assertEquals(1, meterRegistry.get("analytics.rules.evaluation").timer().count());
+    }
+
+    @Test
+    void processFailedRecordsNotification_WithBurst_ShouldSendOneDigestPerSector() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            analyticsFailedNotificationComponent
+                    .processFailedRecordsNotification(List.of(failedRecord("ALB2"), failedRecord("WBC")));
+        }
+
+        // Assert
+        verify(emailService, timeout(2000)).sendFailedAnalyticsNotification(eq("Biochemistry"),
+                argThat(records -> records.size() == 5), anyString());
+        verify(emailService, timeout(2000)).sendFailedAnalyticsNotification(eq("Hematology"),
+                argThat(records -> records.size() == 5), anyString());
+        verify(emailService, after(300).times(2)).sendFailedAnalyticsNotification(anyString(), anyList(),
+                anyString());
+    }
+
+    @Test
+    void processFailedRecordsNotification_WhenDigestIsFull_ShouldSendBeforeWindowEnds()
+            throws InterruptedException {
+        // Arrange
+        analyticsFailedNotificationComponent.stop();
+        analyticsFailedNotificationComponent = newComponent(emailService, Duration.ofHours(1), 3);
+
+        // Act
+        analyticsFailedNotificationComponent.processFailedRecordsNotification(
+                List.of(failedRecord("ALB2"), failedRecord("CA2"), failedRecord("UREL")));
+
+        // Assert
+        verify(emailService, timeout(2000)).sendFailedAnalyticsNotification(eq("Biochemistry"),
+                argThat(records -> records.size() == 3), anyString());
+    }
+
+    @Test
+    void processFailedRecordsNotification_ShouldPublishViolationsBeforeTheDigestIsSent()
+            throws InterruptedException {
+        // Arrange
+        analyticsFailedNotificationComponent.stop();
+        analyticsFailedNotificationComponent = newComponent(emailService, Duration.ofHours(1), 200);
+        List<AnalyticsDTO> failedRecords = List.of(failedRecord("ALB2"));
+        List<WestgardViolationDTO> violations =
+                List.of(WestgardViolationDTO.of(WestgardRule.TWO_TWO_S, "ALB2", "PCCC1"));
+        when(rulesProviderComponent.evaluate(failedRecords)).thenReturn(violations);
 
         // Act
         analyticsFailedNotificationComponent.processFailedRecordsNotification(failedRecords);
 
+        // Assert - evaluated and published on the caller's thread, email still pending
+        verify(rulesProviderComponent).evaluate(failedRecords);
+        verify(analyticEventStreamComponent).publishViolations(violations);
+        verify(emailService, after(200).never()).sendFailedAnalyticsNotification(any(), any(), any());
+    }
+
+    @Test
+    void processFailedRecordsNotification_WithSeveralBatches_ShouldReportEachViolationOnce() {
+        // Arrange
+        List<AnalyticsDTO> first = List.of(failedRecord("ALB2"));
+        List<AnalyticsDTO> second = List.of(failedRecord("CA2"));
+        WestgardViolationDTO albumin = WestgardViolationDTO.of(WestgardRule.ONE_THREE_S, "ALB2", "PCCC1");
+        WestgardViolationDTO calcium = WestgardViolationDTO.of(WestgardRule.R_FOUR_S, "CA2", "PCCC1");
+        when(rulesProviderComponent.evaluate(first)).thenReturn(List.of(albumin));
+        when(rulesProviderComponent.evaluate(second)).thenReturn(List.of(albumin, calcium));
+
+        // Act
+        analyticsFailedNotificationComponent.processFailedRecordsNotification(first);
+        analyticsFailedNotificationComponent.processFailedRecordsNotification(second);
+
         // Assert
-        verify(rulesProviderComponent, times(1)).validateRules(failedRecords);
-        verify(emailService, times(1)).sendFailedAnalyticsNotification(failedRecords,
-                validationContent);
+        verify(emailService, timeout(2000)).sendFailedAnalyticsNotification(eq("Biochemistry"),
+                argThat(records -> records.size() == 2), anyString());
+        verify(rulesProviderComponent).toHtml(List.of(albumin, calcium));
     }
 
     @Test
@@ -57,22 +201,86 @@ class AnalyticFailedNotificationComponentTests {
         analyticsFailedNotificationComponent.processFailedRecordsNotification(emptyList);
 
         // Assert
-        verify(rulesProviderComponent, never()).validateRules(any());
-        verify(emailService, never()).sendFailedAnalyticsNotification(any(), any());
+        verify(rulesProviderComponent, after(400).never()).evaluate(any());
+        verify(emailService, never()).sendFailedAnalyticsNotification(any(), any(), any());
+    }
+
+    @Test
+    void processFailedRecordsNotification_WhenSendFails_ShouldRetryWithBackoff() {
+        // Arrange
+        List<AnalyticsDTO> failedRecords = List.of(failedRecord("ALB2"));
+        doThrow(new MailSendException("SMTP unavailable")).doNothing().when(emailService)
+                .sendFailedAnalyticsNotification(anyString(), anyList(), anyString());
+
+        // Act
+        analyticsFailedNotificationComponent.processFailedRecordsNotification(failedRecords);
+
+        // Assert
+        verify(emailService, timeout(2000).times(2)).sendFailedAnalyticsNotification("Biochemistry",
+                failedRecords, "Validation report content");
+        assertEquals(2, meterRegistry.get("notifications.send.latency").timer().count());
     }
 
     @Test
     void processFailedRecordsNotification_WhenExceptionOccurs_ShouldHandleGracefully() {
         // Arrange
-        List<AnalyticsDTO> failedRecords = AnalyticsHelperMocks.createSampleRecordList();
-        when(rulesProviderComponent.validateRules(failedRecords))
+        List<AnalyticsDTO> failedRecords = List.of(failedRecord("ALB2"));
+        when(rulesProviderComponent.evaluate(failedRecords))
                 .thenThrow(new RuntimeException("Test exception"));
 
         // Act
         analyticsFailedNotificationComponent.processFailedRecordsNotification(failedRecords);
 
         // Assert
-        verify(rulesProviderComponent, times(1)).validateRules(failedRecords);
-        verify(emailService, never()).sendFailedAnalyticsNotification(any(), any());
+        verify(rulesProviderComponent, timeout(2000).times(1)).evaluate(failedRecords);
+        verify(emailService, after(200).never()).sendFailedAnalyticsNotification(any(), any(), any());
+        assertEquals(1.0, meterRegistry.counter("notifications.failed", "sector", "Biochemistry").count());
+    }
+
+    @Test
+    void processFailedRecordsNotification_WithSmtpServer_ShouldDeliverOneDigest() throws Exception {
+        // Arrange
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        EmailService smtpEmailService = new EmailService(mailSender);
+        ReflectionTestUtils.setField(smtpEmailService, "emailFrom", "labgraph@test.com");
+        ReflectionTestUtils.setField(smtpEmailService, "emailListString", "qc1@test.com,qc2@test.com");
+        smtpEmailService.init();
+
+        analyticsFailedNotificationComponent.stop();
+        analyticsFailedNotificationComponent = newComponent(smtpEmailService, Duration.ofMillis(200), 200);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            analyticsFailedNotificationComponent.processFailedRecordsNotification(List.of(failedRecord("ALB2")));
+        }
+
+        // Assert - one message, delivered to both BCC recipients
+        long deadline = System.currentTimeMillis() + 5000;
+        while (greenMail.getReceivedMessages().length < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Thread.sleep(300);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        assertTrue(received[0].getSubject().endsWith("Failed Analytic - Biochemistry"));
+    }
+
+    @Test
+    void stop_WithPendingDigest_ShouldFlushBeforeShutdown() throws InterruptedException {
+        // Arrange
+        analyticsFailedNotificationComponent.stop();
+        EmailService service = mock(EmailService.class);
+        doNothing().when(service).sendFailedAnalyticsNotification(anyString(), anyList(), anyString());
+        analyticsFailedNotificationComponent = newComponent(service, Duration.ofHours(1), 200);
+
+        // Act
+        analyticsFailedNotificationComponent.processFailedRecordsNotification(List.of(failedRecord("ALB2")));
+        Thread.sleep(100);
+        analyticsFailedNotificationComponent.stop();
+
+        // Assert
+        verify(service).sendFailedAnalyticsNotification(eq("Biochemistry"), anyList(), anyString());
     }
 }
@@ -0,0 +1,71 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.AnalyticIngestionMode;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+
+class AnalyticMetricsComponentTests {
+
+	private SimpleMeterRegistry meterRegistry;
+	private AnalyticMetricsComponent metrics;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		metrics = new AnalyticMetricsComponent(meterRegistry);
+	}
+
+	private static Analytic run(String name, String rules) {
+		Analytic analytic = new Analytic();
+		analytic.setTestName(name);
+		analytic.setControlRules(rules);
+		return analytic;
+	}
+
+	@Test
+	@DisplayName("Should record batch size, duplicates and violations by rule and sector")
+	void recordIngestion_ShouldRecordTheBatch() {
+		metrics.recordIngestion(metrics.startIngestion(), AnalyticIngestionMode.INSERT_IGNORE, 4,
+				List.of(run("ALB2", "+2s"), run("WBC", "No rule broken"), run("ALB2", "+2s")));
+
+		assertEquals(1, meterRegistry.get("analytics.ingestion.latency").tag("outcome", "inserted").timer()
+				.count());
+		assertEquals(4.0, meterRegistry.get("analytics.ingestion.batch.size").summary().totalAmount());
+		assertEquals(1.0, meterRegistry.counter("analytics.ingestion.duplicates", "mode", "INSERT_IGNORE")
+				.count());
+		assertEquals(2.0, meterRegistry.counter("analytics.rules.violations", "rule", "+2s", "sector",
+				"Biochemistry").count());
+		assertEquals(1, meterRegistry.find("analytics.rules.violations").counters().size());
+	}
+
+	@Test
+	@DisplayName("Should count every run of a rejected batch as a duplicate")
+	void recordDuplicateBatch_ShouldCountAllRuns() {
+		metrics.recordDuplicateBatch(metrics.startIngestion(), AnalyticIngestionMode.CHECK_EXISTING, 3);
+
+		assertEquals(1, meterRegistry.get("analytics.ingestion.latency").tag("outcome", "duplicate").timer()
+				.count());
+		assertEquals(3.0, meterRegistry.counter("analytics.ingestion.duplicates", "mode", "CHECK_EXISTING")
+				.count());
+	}
+
+	@Test
+	@DisplayName("Should time statistics and fold unknown tests into one sector")
+	void timeStatistics_ShouldRecordTheOperation() {
+		assertEquals(42, metrics.timeStatistics("mean-sd", () -> 42));
+
+		assertEquals(1, meterRegistry.get("analytics.statistics.latency").tag("operation", "mean-sd").timer()
+				.count());
+		assertEquals(AnalyticMetricsComponent.OTHER_SECTOR, AnalyticMetricsComponent.sectorOf("UNKNOWN"));
+		assertTrue(meterRegistry.find("analytics.rules.violations").counters().isEmpty());
+	}
+}
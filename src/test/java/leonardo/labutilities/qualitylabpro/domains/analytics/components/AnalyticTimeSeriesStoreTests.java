@@ -0,0 +1,184 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.ControlSeries;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.ControlRange;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticTimeSeriesStoreTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+
+	@Mock
+	private AnalyticsRepository analyticsRepository;
+
+	private AnalyticTimeSeriesStore store;
+
+	@BeforeEach
+	void setUp() {
+		store = new AnalyticTimeSeriesStore(analyticsRepository, mock(PlatformTransactionManager.class),
+				new SimpleMeterRegistry());
+	}
+
+	private static AnalyticsDTO run(long id, String level, LocalDateTime date, double value) {
+		return new AnalyticsDTO(id, date, "0774693", "608384", "ALB2", level, value, 3.35, 0.2, "g/dL",
+				"No rule broken", "Approved", "Not validated", "owner_user");
+	}
+
+	private void warmUp(AnalyticsDTO... runs) {
+		when(analyticsRepository.streamByDateGreaterThanEqual(any())).thenReturn(Stream.of(runs));
+		store.warmUp();
+	}
+
+	@Test
+	@DisplayName("Should answer recent ranges from memory in date order")
+	void findByNameAndLevelAndDateBetween_WithinHorizon_ShouldNotQueryTheDatabase() {
+		warmUp(run(3, "PCCC1", NOW.minusDays(1), 3.3), run(1, "PCCC1", NOW.minusDays(3), 3.1),
+				run(2, "PCCC1", NOW.minusDays(2), 3.2), run(4, "PCCC2", NOW.minusDays(2), 5.0));
+
+		List<AnalyticsDTO> rows = store.findByNameAndLevelAndDateBetween("ALB2", "PCCC1", NOW.minusDays(2),
+				NOW, Pageable.unpaged()).orElseThrow();
+		List<AnalyticsDTO> firstPage = store.findByNameAndLevelAndDateBetween("ALB2", "PCCC1",
+				NOW.minusDays(7), NOW, PageRequest.of(0, 2)).orElseThrow();
+
+		assertEquals(List.of(2L, 3L), rows.stream().map(AnalyticsDTO::id).toList());
+		assertEquals(run(2, "PCCC1", NOW.minusDays(2), 3.2), rows.getFirst());
+		assertEquals(List.of(1L, 2L), firstPage.stream().map(AnalyticsDTO::id).toList());
+		assertEquals(List.of(1L, 2L, 4L, 3L), store.findByNameAndDateBetween("ALB2", NOW.minusDays(7), NOW,
+				Pageable.unpaged()).orElseThrow().stream().map(AnalyticsDTO::id).toList());
+		verify(analyticsRepository, never()).findByNameAndLevelAndDateBetween(any(), any(), any(), any(), any());
+	}
+
+	@Test
+	@DisplayName("Should leave ranges older than the horizon and custom sorts to the database")
+	void findByNameAndLevelAndDateBetween_OutsideHorizon_ShouldMiss() {
+		warmUp(run(1, "PCCC1", NOW.minusDays(1), 3.1));
+
+		assertTrue(store.findByNameAndLevelAndDateBetween("ALB2", "PCCC1", NOW.minusDays(365), NOW,
+				Pageable.unpaged()).isEmpty());
+		assertTrue(store.findByNameAndLevelAndDateBetween("ALB2", "PCCC1", NOW.minusDays(1), NOW,
+				PageRequest.of(0, 10, Sort.by("measurementValue"))).isEmpty());
+		assertTrue(store.findValuesByNameAndLevelAndDateBetween("ALB2", "PCCC1", NOW.minusDays(365), NOW)
+				.isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should build charts from memory like the chart query, levels in order")
+	void findChartSeries_WithinHorizon_ShouldMatchTheChartQuery() {
+		AnalyticsDTO recalibrated = new AnalyticsDTO(5L, NOW.minusDays(1), "0774693", "608384", "ALB2", "PCCC1",
+				3.9, 3.5, 0.25, "g/dL", ControlRange.PLUS_2S.getRule(), "Approved", "validator_user", "owner_user");
+		warmUp(run(4, "PCCC2", NOW.minusDays(2), 5.0), recalibrated, run(1, "PCCC1", NOW.minusDays(3), 3.1),
+				run(3, "PCCC3", NOW.minusDays(30), 7.0));
+
+		List<AnalyticsChartDTO> charts = store.findChartSeries("ALB2", null, NOW.minusDays(7), NOW).orElseThrow();
+
+		assertEquals(List.of("PCCC1", "PCCC2"), charts.stream().map(AnalyticsChartDTO::level).toList());
+		AnalyticsChartDTO chart = charts.getFirst();
+		assertArrayEquals(new long[] {1L, 5L}, chart.ids());
+		assertArrayEquals(new double[] {3.1, 3.9}, chart.values());
+		assertArrayEquals(new int[] {0, 2}, chart.rules());
+		assertArrayEquals(new boolean[] {false, true}, chart.validated());
+		assertEquals(NOW.minusDays(3).toInstant(ZoneOffset.UTC).toEpochMilli(), chart.timestamps()[0]);
+		assertEquals(List.of(new AnalyticsChartDTO.Target(0, 3.35, 0.2), new AnalyticsChartDTO.Target(1, 3.5, 0.25)),
+				chart.targets());
+		assertEquals("g/dL", chart.unit());
+		assertTrue(store.findChartSeries("ALB2", "PCCC3", NOW.minusDays(7), NOW).orElseThrow().isEmpty());
+		assertTrue(store.findChartSeries("ALB2", "PCCC1", NOW.minusDays(365), NOW).isEmpty());
+		verify(analyticsRepository, never()).findChartSeries(any(), any(), any(), any());
+	}
+
+	@Test
+	@DisplayName("Should append new runs once and keep reads current")
+	void append_WithNewAndReplayedRuns_ShouldAddEachRunOnce() {
+		warmUp(run(1, "PCCC1", NOW.minusDays(2), 3.1));
+
+		store.append(List.of(run(2, "PCCC1", NOW.minusHours(1), 3.4), run(3, "PCCC3", NOW, 7.0)));
+		store.append(List.of(run(2, "PCCC1", NOW.minusHours(1), 3.4)));
+
+		assertArrayEquals(new double[] {3.1, 3.4}, store
+				.findValuesByNameAndLevelAndDateBetween("ALB2", "PCCC1", NOW.minusDays(7), NOW).orElseThrow());
+		assertEquals(1, store.findByNameAndLevelAndDateBetween("ALB2", "PCCC3", NOW.minusDays(7), NOW,
+				Pageable.unpaged()).orElseThrow().size());
+	}
+
+	@Test
+	@DisplayName("Should reload an invalidated series on its next read")
+	void invalidate_ShouldReloadTheSeriesOnce() {
+		warmUp(run(1, "PCCC1", NOW.minusDays(2), 3.1));
+		when(analyticsRepository.findByNameAndLevelAndDateGreaterThanEqual(any(), any(), any()))
+				.thenReturn(List.of(run(1, "PCCC1", NOW.minusDays(2), 3.9)));
+
+		store.invalidate("ALB2", null);
+		store.findValuesByNameAndLevelAndDateBetween("ALB2", "PCCC1", NOW.minusDays(7), NOW);
+		double[] values = store.findValuesByNameAndLevelAndDateBetween("ALB2", "PCCC1", NOW.minusDays(7), NOW)
+				.orElseThrow();
+
+		assertArrayEquals(new double[] {3.9}, values);
+		verify(analyticsRepository, times(1)).findByNameAndLevelAndDateGreaterThanEqual(any(), any(), any());
+	}
+
+	@Test
+	@DisplayName("Should serve rule windows ending at the anchor run and skip pairs it cannot fill")
+	void findSeriesEndingAt_ShouldOnlyReturnFullWindowsUpToTheAnchor() {
+		warmUp(run(1, "PCCC1", NOW.minusDays(3), 3.1), run(2, "PCCC1", NOW.minusDays(2), 3.2),
+				run(3, "PCCC1", NOW.minusDays(1), 3.3), run(4, "PCCC2", NOW.minusDays(1), 5.0));
+		ControlSeries.Key full = new ControlSeries.Key("ALB2", "PCCC1");
+		ControlSeries.Key partial = new ControlSeries.Key("ALB2", "PCCC2");
+
+		Map<ControlSeries.Key, ControlSeries> series = store.findSeriesEndingAt(
+				Map.of(full, NOW.minusDays(2), partial, NOW.minusDays(1)), 2);
+
+		assertEquals(Set.of(full), series.keySet());
+		assertArrayEquals(new double[] {3.2, 3.1}, series.get(full).values());
+		assertEquals(3.35, series.get(full).mean());
+		// The anchor run is not in memory yet, so the database has to answer
+		assertTrue(store.findSeriesEndingAt(Map.of(full, NOW), 2).isEmpty());
+	}
+
+	@Test
+	@DisplayName("Should keep using the database when the warm-up fails")
+	void warmUp_WhenTheQueryFails_ShouldStayCold() {
+		when(analyticsRepository.streamByDateGreaterThanEqual(any()))
+				.thenThrow(new DataAccessResourceFailureException("down"));
+
+		store.warmUp();
+		store.append(List.of(run(1, "PCCC1", NOW, 3.1)));
+
+		assertFalse(store.isReady());
+		assertTrue(store.findByNameAndLevelAndDateBetween("ALB2", "PCCC1", NOW.minusDays(1), NOW,
+				Pageable.unpaged()).isEmpty());
+	}
+}
@@ -0,0 +1,123 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.components;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.DownsamplingUtility;
+
+class DownsamplingUtilityTests {
+
+	private static long[] positions(int size) {
+		long[] x = new long[size];
+		for (int i = 0; i < size; i++) {
+			x[i] = 1_700_000_000_000L + i * 60_000L;
+		}
+		return x;
+	}
+
+	@Test
+	@DisplayName("Should keep the first, last and extreme points within the budget")
+	void largestTriangleThreeBuckets_ShouldKeepTheShapeOfTheSeries() {
+		double[] y = new double[1000];
+		y[500] = 10.0;
+		y[250] = -10.0;
+
+		int[] selected = DownsamplingUtility.largestTriangleThreeBuckets(positions(1000), y, null, 50);
+
+		assertEquals(50, selected.length);
+		assertEquals(0, selected[0]);
+		assertEquals(999, selected[49]);
+		assertTrue(Arrays.binarySearch(selected, 500) >= 0);
+		assertTrue(Arrays.binarySearch(selected, 250) >= 0);
+		for (int i = 1; i < selected.length; i++) {
+			assertTrue(selected[i] > selected[i - 1]);
+		}
+	}
+
+	@Test
+	@DisplayName("Should always keep the flagged points and stay within the budget")
+	void largestTriangleThreeBuckets_WithFlaggedPoints_ShouldKeepThemAll() {
+		double[] y = new double[1000];
+		boolean[] flagged = new boolean[1000];
+		for (int i = 3; i < 1000; i += 100) {
+			flagged[i] = true;
+		}
+
+		int[] selected = DownsamplingUtility.largestTriangleThreeBuckets(positions(1000), y, flagged, 50);
+
+		assertTrue(selected.length <= 50);
+		for (int i = 3; i < 1000; i += 100) {
+			assertTrue(Arrays.binarySearch(selected, i) >= 0, "missing flagged point " + i);
+		}
+	}
+
+	@Test
+	@DisplayName("Should return every point when the series already fits")
+	void largestTriangleThreeBuckets_WhenTheSeriesFits_ShouldKeepEveryPoint() {
+		assertArrayEquals(new int[] {0, 1, 2},
+				DownsamplingUtility.largestTriangleThreeBuckets(positions(3), new double[3], null, 10));
+	}
+
+	@Test
+	@DisplayName("Should downsample a chart without losing broken rules, targets or statistics")
+	void downsample_ShouldRemapTargetsAndKeepStatistics() {
+		int size = 600;
+		long[] ids = new long[size];
+		double[] values = new double[size];
+		int[] rules = new int[size];
+		for (int i = 0; i < size; i++) {
+			ids[i] = i;
+			values[i] = Math.sin(i / 10.0);
+		}
+		rules[123] = -2;
+		rules[321] = 3;
+		MeanAndStdDeviationDTO statistics = new MeanAndStdDeviationDTO(0.1, 0.7);
+		AnalyticsChartDTO chart = new AnalyticsChartDTO("ALB2", "PCCC1", "g/dL", statistics,
+				List.of(new AnalyticsChartDTO.Target(0, 0.0, 1.0), new AnalyticsChartDTO.Target(400, 0.1, 1.2)),
+				ids, positions(size), values, rules, new boolean[size]);
+
+		AnalyticsChartDTO downsampled = chart.downsample(60);
+
+		assertTrue(downsampled.size() <= 60);
+		assertEquals(statistics, downsampled.calcMeanAndStdDTO());
+		assertTrue(Arrays.binarySearch(downsampled.ids(), 123L) >= 0);
+		assertTrue(Arrays.binarySearch(downsampled.ids(), 321L) >= 0);
+		AnalyticsChartDTO.Target second = downsampled.targets().get(1);
+		assertEquals(0.1, second.mean());
+		assertTrue(downsampled.ids()[second.fromIndex()] >= 400);
+		assertTrue(downsampled.ids()[second.fromIndex() - 1] < 400);
+	}
+
+	@Test
+	@DisplayName("Should keep both runs of a 2-2s violation even when no rule was stored for them")
+	void downsample_WithTwoTwoSigmaPair_ShouldKeepBothRuns() {
+		int size = 1000;
+		long[] ids = new long[size];
+		double[] values = new double[size];
+		for (int i = 0; i < size; i++) {
+			ids[i] = i;
+			values[i] = 3.35 + 0.2 * 0.3 * Math.sin(i);
+		}
+		// Between 2 and 3 SD on the same side: only the pair breaks a rule
+		values[500] = 3.35 + 0.2 * 2.5;
+		values[501] = 3.35 + 0.2 * 2.4;
+		AnalyticsChartDTO chart = new AnalyticsChartDTO("ALB2", "PCCC1", "g/dL",
+				new MeanAndStdDeviationDTO(3.35, 0.2), List.of(new AnalyticsChartDTO.Target(0, 3.35, 0.2)), ids,
+				positions(size), values, new int[size], new boolean[size]);
+
+		AnalyticsChartDTO downsampled = chart.downsample(50);
+
+		assertTrue(downsampled.size() <= 50);
+		assertTrue(Arrays.binarySearch(downsampled.ids(), 500L) >= 0);
+		assertTrue(Arrays.binarySearch(downsampled.ids(), 501L) >= 0);
+	}
+}
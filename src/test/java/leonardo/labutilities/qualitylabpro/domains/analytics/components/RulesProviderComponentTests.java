@@ -2,14 +2,18 @@ package leonardo.labutilities.qualitylabpro.domains.analytics.components;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +22,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.ControlSeries;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.WestgardViolationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.WestgardRule;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
 import leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks;
 
@@ -27,11 +34,14 @@ class RulesProviderComponentTests {
         @Mock
         private AnalyticsRepository analyticsRepository;
 
+        @Mock
+        private AnalyticTimeSeriesStore analyticTimeSeriesStore;
+
         private RulesProviderComponent rulesProviderComponent;
 
         @BeforeEach
         void setUp() {
-                rulesProviderComponent = new RulesProviderComponent(analyticsRepository);
+                rulesProviderComponent = new RulesProviderComponent(analyticsRepository, analyticTimeSeriesStore);
         }
 
         @Test
@@ -44,8 +54,7 @@ class RulesProviderComponentTests {
 
                 // Assert
                 assertTrue(result.contains("No analytics data provided"));
-                verify(analyticsRepository, never()).findLast10ByTestNameAndControlLevel(anyString(),
-                                anyString());
+                verify(analyticsRepository, never()).findSeriesEndingAt(any(), anyInt());
         }
 
         @Test
@@ -55,8 +64,7 @@ class RulesProviderComponentTests {
 
                 // Assert
                 assertTrue(result.contains("No analytics data provided"));
-                verify(analyticsRepository, never()).findLast10ByTestNameAndControlLevel(anyString(),
-                                anyString());
+                verify(analyticsRepository, never()).findSeriesEndingAt(any(), anyInt());
         }
 
         @Test
@@ -72,10 +80,8 @@ class RulesProviderComponentTests {
                 List<AnalyticsDTO> repositoryLastData = createAnalyticsList(testName, level,
                                 new double[] {107.0, 102.0, 103.0});
 
-                when(analyticsRepository.findLast10ByTestNameAndControlLevel(testName, level))
-                                .thenReturn(repositoryLastData);
-                when(analyticsRepository.findLastByTestNameAndControlLevel(testName, level))
-                                .thenReturn(repositoryLastData);
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of(toSeries(repositoryLastData)));
 
                 // Act
                 String result = rulesProviderComponent.validateRules(inputAnalytics);
@@ -100,10 +106,8 @@ class RulesProviderComponentTests {
                 List<AnalyticsDTO> repositoryData = createAnalyticsList(testName, level,
                                 new double[] {103.0, 103.0, 103.0, 103.0, 99.0});
 
-                when(analyticsRepository.findLast10ByTestNameAndControlLevel(testName, level))
-                                .thenReturn(repositoryData);
-                when(analyticsRepository.findLastByTestNameAndControlLevel(testName, level))
-                                .thenReturn(Collections.singletonList(inputAnalytic));
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of(toSeries(repositoryData)));
 
                 // Act
                 String result = rulesProviderComponent.validateRules(inputAnalytics);
@@ -130,10 +134,8 @@ class RulesProviderComponentTests {
                 List<AnalyticsDTO> repositoryData =
                                 createAnalyticsList(testName, level, tenHighValues);
 
-                when(analyticsRepository.findLast10ByTestNameAndControlLevel(testName, level))
-                                .thenReturn(repositoryData);
-                when(analyticsRepository.findLastByTestNameAndControlLevel(testName, level))
-                                .thenReturn(Collections.singletonList(inputAnalytic));
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of(toSeries(repositoryData)));
 
                 // Act
                 String result = rulesProviderComponent.validateRules(inputAnalytics);
@@ -158,10 +160,8 @@ class RulesProviderComponentTests {
                 List<AnalyticsDTO> repositoryData = createAnalyticsList(testName, level,
                                 new double[] {107.0, 103.0, 103.0, 103.0, 103.0});
 
-                when(analyticsRepository.findLast10ByTestNameAndControlLevel(testName, level))
-                                .thenReturn(repositoryData);
-                when(analyticsRepository.findLastByTestNameAndControlLevel(testName, level))
-                                .thenReturn(repositoryData);
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of(toSeries(repositoryData)));
 
                 // Act
                 String result = rulesProviderComponent.validateRules(inputAnalytics);
@@ -186,10 +186,8 @@ class RulesProviderComponentTests {
                 List<AnalyticsDTO> repositoryData = createAnalyticsList(testName, level,
                                 new double[] {101.0, 99.0, 100.5, 101.5, 99.5});
 
-                when(analyticsRepository.findLast10ByTestNameAndControlLevel(testName, level))
-                                .thenReturn(repositoryData);
-                when(analyticsRepository.findLastByTestNameAndControlLevel(testName, level))
-                                .thenReturn(repositoryData);
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of(toSeries(repositoryData)));
 
                 // Act
                 String result = rulesProviderComponent.validateRules(inputAnalytics);
@@ -213,10 +211,8 @@ class RulesProviderComponentTests {
                 List<AnalyticsDTO> repositoryData = createAnalyticsList(testName, level,
                                 new double[] {107.0, 103.0, 103.0, 103.0, 103.0});
 
-                when(analyticsRepository.findLast10ByTestNameAndControlLevel(testName, level))
-                                .thenReturn(repositoryData);
-                when(analyticsRepository.findLastByTestNameAndControlLevel(testName, level))
-                                .thenReturn(repositoryData);
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of(toSeries(repositoryData)));
 
                 // Act
                 String result = rulesProviderComponent.validateRules(inputAnalytics);
@@ -230,7 +226,124 @@ class RulesProviderComponentTests {
                 assertEquals(1, occurrencesFourOneSigma, "4-1s rule should be reported only once");
         }
 
+        @Test
+        void evaluate_WithTwoTwoSigmaViolation_ShouldReturnStructuredViolation() {
+                // Arrange - two consecutive values above mean + 2*SD (100 + 2*2 = 104)
+                List<AnalyticsDTO> repositoryData = createAnalyticsList("Glucose", "Normal",
+                                new double[] {105.0, 104.5, 100.0});
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of(toSeries(repositoryData)));
+
+                // Act
+                List<WestgardViolationDTO> result = rulesProviderComponent.evaluate(repositoryData);
+
+                // Assert
+                assertEquals(List.of(WestgardViolationDTO.of(WestgardRule.TWO_TWO_S, "Glucose", "Normal")),
+                                result);
+        }
+
+        @Test
+        void evaluate_WithRangeFourSigmaViolation_ShouldReturnRFourS() {
+                // Arrange - consecutive values beyond +2 SD and -2 SD
+                List<AnalyticsDTO> repositoryData = createAnalyticsList("Glucose", "Normal",
+                                new double[] {104.5, 95.5, 100.0});
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of(toSeries(repositoryData)));
+
+                // Act
+                List<WestgardViolationDTO> result = rulesProviderComponent.evaluate(repositoryData);
+
+                // Assert
+                assertEquals(1, result.size());
+                assertEquals("R-4s", result.getFirst().rule());
+        }
+
+        @Test
+        void evaluate_WithFourValuesOnly_ShouldEvaluateFourOneSigmaWithoutFailing() {
+                // Arrange - exactly four values below mean - 1*SD (100 - 1*2 = 98)
+                List<AnalyticsDTO> repositoryData = createAnalyticsList("Glucose", "Normal",
+                                new double[] {97.0, 97.5, 97.0, 96.5});
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of(toSeries(repositoryData)));
+
+                // Act
+                List<WestgardViolationDTO> result = rulesProviderComponent.evaluate(repositoryData);
+
+                // Assert
+                assertEquals(List.of("4-1s"), result.stream().map(WestgardViolationDTO::rule).toList());
+        }
+
+        @Test
+        void evaluate_WithSeveralPairs_ShouldFetchAllWindowsInOneCall() {
+                // Arrange
+                List<AnalyticsDTO> inputAnalytics = List.of(
+                                createAnalyticsDTO("Glucose", "Normal", 100.0, 100.0, 2.0),
+                                createAnalyticsDTO("Glucose", "High", 100.0, 100.0, 2.0),
+                                createAnalyticsDTO("Glucose", "Normal", 101.0, 100.0, 2.0));
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of());
+
+                // Act
+                rulesProviderComponent.evaluate(inputAnalytics);
+
+                // Assert
+                LocalDateTime date = AnalyticsHelperMocks.createSampleRecord().date();
+                verify(analyticsRepository).findSeriesEndingAt(
+                                Map.of(new ControlSeries.Key("Glucose", "Normal"), date,
+                                                new ControlSeries.Key("Glucose", "High"), date),
+                                WestgardRule.WINDOW);
+        }
+
+        @Test
+        void evaluate_WithSeveralRunsOfAPair_ShouldEndTheWindowAtTheNewest() {
+                // Arrange
+                AnalyticsDTO older = createAnalyticsDTO("Glucose", "Normal", 100.0, 100.0, 2.0);
+                AnalyticsDTO newer = withDate(older, older.date().plusHours(1));
+                when(analyticTimeSeriesStore.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(Map.of());
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of());
+
+                // Act
+                rulesProviderComponent.evaluate(List.of(newer, older));
+
+                // Assert
+                verify(analyticsRepository).findSeriesEndingAt(
+                                Map.of(new ControlSeries.Key("Glucose", "Normal"), newer.date()),
+                                WestgardRule.WINDOW);
+        }
+
+        @Test
+        void evaluate_WithWindowsInTheTimeSeriesStore_ShouldOnlyFetchTheOthers() {
+                // Arrange
+                ControlSeries.Key normal = new ControlSeries.Key("Glucose", "Normal");
+                ControlSeries.Key high = new ControlSeries.Key("Glucose", "High");
+                List<AnalyticsDTO> inputAnalytics = List.of(
+                                createAnalyticsDTO("Glucose", "Normal", 100.0, 100.0, 2.0),
+                                createAnalyticsDTO("Glucose", "High", 100.0, 100.0, 2.0));
+                when(analyticTimeSeriesStore.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(Map.of(normal, new ControlSeries("Glucose", "Normal", 100.0, 2.0,
+                                                new double[] {107.0, 100.0, 100.0})));
+                when(analyticsRepository.findSeriesEndingAt(any(), eq(WestgardRule.WINDOW)))
+                                .thenReturn(List.of());
+
+                // Act
+                List<WestgardViolationDTO> violations = rulesProviderComponent.evaluate(inputAnalytics);
+
+                // Assert
+                verify(analyticsRepository).findSeriesEndingAt(
+                                Map.of(high, AnalyticsHelperMocks.createSampleRecord().date()), WestgardRule.WINDOW);
+                assertTrue(violations.stream().anyMatch(violation -> violation.rule().equals("1-3s")));
+        }
+
         // Helper methods
+        private AnalyticsDTO withDate(AnalyticsDTO analytic, LocalDateTime date) {
+                return new AnalyticsDTO(analytic.id(), date, analytic.level_lot(), analytic.test_lot(),
+                                analytic.name(), analytic.level(), analytic.value(), analytic.mean(), analytic.sd(),
+                                analytic.unit_value(), analytic.rules(), analytic.description(),
+                                analytic.validator_user(), analytic.owner_user());
+        }
+
         private AnalyticsDTO createAnalyticsDTO(String name, String level, double value, double mean,
                         double sd) {
                 var sample = AnalyticsHelperMocks.createSampleRecord();
@@ -249,6 +362,12 @@ class RulesProviderComponentTests {
                 return analytics;
         }
 
+        private ControlSeries toSeries(List<AnalyticsDTO> analytics) {
+                AnalyticsDTO latest = analytics.getFirst();
+                return new ControlSeries(latest.name(), latest.level(), latest.mean(), latest.sd(),
+                                analytics.stream().mapToDouble(AnalyticsDTO::value).toArray());
+        }
+
         private int countOccurrences(String text, String searchString) {
                 int count = 0;
                 int index = 0;
@@ -2,35 +2,41 @@ package leonardo.labutilities.qualitylabpro.domains.analytics.components;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
-import org.junit.jupiter.api.BeforeEach;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import leonardo.labutilities.qualitylabpro.domains.analytics.constants.ThresholdAnalyticsRules;
 import leonardo.labutilities.qualitylabpro.domains.analytics.constants.ValidationAnalyticsDescriptions;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.ControlRange;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
 import leonardo.labutilities.qualitylabpro.domains.analytics.utils.SpecsValidatorUtility;
+import leonardo.labutilities.qualitylabpro.domains.shared.mappers.AnalyticMapper;
 
 class SpecsValidatorComponentTests {
 
-    private SpecsValidatorUtility specsValidator;
     private final double MEAN = 100.0;
     private final double SD = 10.0;
 
-    @BeforeEach
-    void setUp() {
-        specsValidator = new SpecsValidatorUtility();
-    }
-
     @Test
     @DisplayName("Should return normal range when value is within mean")
     void testValueWithinNormalRange() {
         // Value between -1SD and +1SD
         double value = 105.0;
 
-        specsValidator.validator(value, MEAN, SD);
+        ControlRange range = SpecsValidatorUtility.classify(value, MEAN, SD);
 
-        assertEquals("Approved according to current Westgard configured rules", specsValidator.getDescription());
-        assertEquals("No rule broken", specsValidator.getRules());
+        assertEquals("Approved according to current Westgard configured rules", range.getDescription());
+        assertEquals("No rule broken", range.getRule());
     }
 
     @Test
@@ -39,10 +45,10 @@ class SpecsValidatorComponentTests {
         // Value just above +1SD
         double value = 110.1;
 
-        specsValidator.validator(value, MEAN, SD);
+        ControlRange range = SpecsValidatorUtility.classify(value, MEAN, SD);
 
-        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(0), specsValidator.getDescription());
-        assertEquals(ThresholdAnalyticsRules.RULES.get(0), specsValidator.getRules());
+        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(0), range.getDescription());
+        assertEquals(ThresholdAnalyticsRules.RULES.get(0), range.getRule());
     }
 
     @Test
@@ -51,10 +57,10 @@ class SpecsValidatorComponentTests {
         // Value above +2SD but below +3SD
         double value = 125.0;
 
-        specsValidator.validator(value, MEAN, SD);
+        ControlRange range = SpecsValidatorUtility.classify(value, MEAN, SD);
 
-        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(1), specsValidator.getDescription());
-        assertEquals(ThresholdAnalyticsRules.RULES.get(1), specsValidator.getRules());
+        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(1), range.getDescription());
+        assertEquals(ThresholdAnalyticsRules.RULES.get(1), range.getRule());
     }
 
     @Test
@@ -63,10 +69,10 @@ class SpecsValidatorComponentTests {
         // Value above +3SD
         double value = 135.0;
 
-        specsValidator.validator(value, MEAN, SD);
+        ControlRange range = SpecsValidatorUtility.classify(value, MEAN, SD);
 
-        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(2), specsValidator.getDescription());
-        assertEquals(ThresholdAnalyticsRules.RULES.get(2), specsValidator.getRules());
+        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(2), range.getDescription());
+        assertEquals(ThresholdAnalyticsRules.RULES.get(2), range.getRule());
     }
 
     @Test
@@ -75,10 +81,10 @@ class SpecsValidatorComponentTests {
         // Value just below -1SD
         double value = 89.9;
 
-        specsValidator.validator(value, MEAN, SD);
+        ControlRange range = SpecsValidatorUtility.classify(value, MEAN, SD);
 
-        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(3), specsValidator.getDescription());
-        assertEquals(ThresholdAnalyticsRules.RULES.get(3), specsValidator.getRules());
+        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(3), range.getDescription());
+        assertEquals(ThresholdAnalyticsRules.RULES.get(3), range.getRule());
     }
 
     @Test
@@ -87,10 +93,10 @@ class SpecsValidatorComponentTests {
         // Value below -2SD but above -3SD
         double value = 75.0;
 
-        specsValidator.validator(value, MEAN, SD);
+        ControlRange range = SpecsValidatorUtility.classify(value, MEAN, SD);
 
-        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(4), specsValidator.getDescription());
-        assertEquals(ThresholdAnalyticsRules.RULES.get(4), specsValidator.getRules());
+        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(4), range.getDescription());
+        assertEquals(ThresholdAnalyticsRules.RULES.get(4), range.getRule());
     }
 
     @Test
@@ -99,10 +105,10 @@ class SpecsValidatorComponentTests {
         // Value below -3SD
         double value = 65.0;
 
-        specsValidator.validator(value, MEAN, SD);
+        ControlRange range = SpecsValidatorUtility.classify(value, MEAN, SD);
 
-        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(5), specsValidator.getDescription());
-        assertEquals(ThresholdAnalyticsRules.RULES.get(5), specsValidator.getRules());
+        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(5), range.getDescription());
+        assertEquals(ThresholdAnalyticsRules.RULES.get(5), range.getRule());
     }
 
     @Test
@@ -110,10 +116,10 @@ class SpecsValidatorComponentTests {
     void testValueExactlyAtPositive1SD() {
         double value = MEAN + SD; // Exactly at +1SD
 
-        specsValidator.validator(value, MEAN, SD);
+        ControlRange range = SpecsValidatorUtility.classify(value, MEAN, SD);
 
-        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(0), specsValidator.getDescription());
-        assertEquals(ThresholdAnalyticsRules.RULES.get(0), specsValidator.getRules());
+        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(0), range.getDescription());
+        assertEquals(ThresholdAnalyticsRules.RULES.get(0), range.getRule());
     }
 
     @Test
@@ -121,9 +127,58 @@ class SpecsValidatorComponentTests {
     void testValueExactlyAtNegative1SD() {
         double value = MEAN - SD; // Exactly at -1SD
 
-        specsValidator.validator(value, MEAN, SD);
+        ControlRange range = SpecsValidatorUtility.classify(value, MEAN, SD);
+
+        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(3), range.getDescription());
+        assertEquals(ThresholdAnalyticsRules.RULES.get(3), range.getRule());
+    }
+
+    @Test
+    @DisplayName("Should let the negative side win when both limits are reached")
+    void testValueWithZeroStandardDeviation() {
+        ControlRange range = SpecsValidatorUtility.classify(MEAN, MEAN, 0.0);
 
-        assertEquals(ValidationAnalyticsDescriptions.DESCRIPTIONS.get(3), specsValidator.getDescription());
-        assertEquals(ThresholdAnalyticsRules.RULES.get(3), specsValidator.getRules());
+        assertEquals(ThresholdAnalyticsRules.RULES.get(5), range.getRule());
+    }
+
+    @Test
+    @DisplayName("Should keep each mapped run's own rule under concurrent ingestion")
+    void testConcurrentMappingKeepsRulesPerRun() throws Exception {
+        // Offsets in SDs that land in the middle of each band
+        double[] offsets = {0.0, 1.5, 2.5, 3.5, -1.5, -2.5, -3.5};
+        ControlRange[] expected = {ControlRange.WITHIN_RANGE, ControlRange.PLUS_1S, ControlRange.PLUS_2S,
+                ControlRange.PLUS_3S, ControlRange.MINUS_1S, ControlRange.MINUS_2S, ControlRange.MINUS_3S};
+        int tasks = 64;
+        int runsPerTask = 2_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> mismatches = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int task = 0; task < tasks; task++) {
+                int band = task % offsets.length;
+                AnalyticsDTO run = new AnalyticsDTO(null, LocalDateTime.now(), "0774693", "608384", "ALB2",
+                        "PCCC1", MEAN + offsets[band] * SD, MEAN, SD, "g/dL", null, null, null, null);
+                mismatches.add(executor.submit(() -> {
+                    start.await();
+                    int wrong = 0;
+                    for (int i = 0; i < runsPerTask; i++) {
+                        Analytic analytic = AnalyticMapper.toNewEntity(run);
+                        if (!expected[band].getRule().equals(analytic.getControlRules())
+                                || !expected[band].getDescription().equals(analytic.getDescription())) {
+                            wrong++;
+                        }
+                        if (i % 100 == 0) {
+                            Thread.yield();
+                        }
+                    }
+                    return wrong;
+                }));
+            }
+            start.countDown();
+
+            for (Future<Integer> mismatch : mismatches) {
+                assertEquals(0, mismatch.get(30, TimeUnit.SECONDS));
+            }
+        }
     }
 }
@@ -1,15 +1,21 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.controllers;
 
 import static leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks.createSampleRecordList;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDateTime;
@@ -34,16 +40,26 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import leonardo.labutilities.qualitylabpro.configs.TestSecurityConfig;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticCsvExporter;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.requests.UpdateAnalyticsMeanDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsCursorPageDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsImportBatchDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsImportSummaryDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsRecalibrationSummaryDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsWithCalcDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedMeanAndStdByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedResultsByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedValuesByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticExportService;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticImportService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticStatisticsService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.BiochemistryAnalyticService;
+import leonardo.labutilities.qualitylabpro.domains.shared.authentication.components.TokenPrincipalCache;
+import leonardo.labutilities.qualitylabpro.domains.shared.exception.CustomGlobalErrorHandling;
+import leonardo.labutilities.qualitylabpro.domains.users.enums.ExportFormat;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.services.TokenService;
 import leonardo.labutilities.qualitylabpro.domains.users.repositories.UserRepository;
 
@@ -60,6 +76,9 @@ class BiochemistryAnalyticControllerTests {
 	@MockitoBean
 	private TokenService tokenService;
 
+	@MockitoBean
+	private TokenPrincipalCache tokenPrincipalCache;
+
 	@MockitoBean
 	private UserRepository userRepository;
 
@@ -72,6 +91,12 @@ class BiochemistryAnalyticControllerTests {
 	@MockitoBean
 	private AnalyticStatisticsService analyticsStatisticsService;
 
+	@MockitoBean
+	private AnalyticImportService analyticImportService;
+
+	@MockitoBean
+	private AnalyticExportService analyticExportService;
+
 	@Autowired
 	private JacksonTester<List<AnalyticsDTO>> jacksonGenericValuesRecord;
 
@@ -121,6 +146,24 @@ class BiochemistryAnalyticControllerTests {
 		verify(this.biochemistryAnalyticsService, times(1)).saveNewAnalyticsRecords(anyList());
 	}
 
+	@Test
+	@DisplayName("Should stream an NDJSON upload into the import service and return its summary")
+	void shouldReturnCreatedStatusWhenImportingNdjsonUpload() throws Exception {
+		var summary = AnalyticsImportSummaryDTO.of(List.of(new AnalyticsImportBatchDTO(1, 2, 2, 0, 0)));
+		when(this.analyticImportService.importRecords(any(), any(), eq(250),
+				eq(this.biochemistryAnalyticsService))).thenReturn(summary);
+
+		this.mockMvc
+				.perform(post("/biochemistry-analytics/import").param("batchSize", "250")
+						.contentType(AnalyticImportService.APPLICATION_NDJSON_VALUE)
+						.content("{\"name\":\"ALB2\"}\n{\"name\":\"ALB2\"}\n"))
+				.andExpect(status().isCreated());
+
+		verify(this.analyticImportService, times(1)).importRecords(any(),
+				eq(MediaType.parseMediaType(AnalyticImportService.APPLICATION_NDJSON_VALUE)), eq(250),
+				eq(this.biochemistryAnalyticsService));
+	}
+
 	@Test
 	@DisplayName("Should return no content when updating analytics records")
 	void shouldReturnNoContentWhenUpdatingAnalyticsRecords() throws Exception {
@@ -136,6 +179,63 @@ class BiochemistryAnalyticControllerTests {
 				.updateAnalyticsMeanByNameAndLevelAndLevelLot("Glucose", "PCCC1", "1234", 10.5);
 	}
 
+	@Test
+	@DisplayName("Should return the counts of a lot recalibration")
+	void shouldReturnCountsWhenRecalibratingALot() throws Exception {
+		when(biochemistryAnalyticsService.convertLevel("PCCC1")).thenReturn("PCCC1");
+		when(biochemistryAnalyticsService.recalibrateAnalytics("Glucose", "PCCC1", "1234", 10.5, null, null,
+				null)).thenReturn(new AnalyticsRecalibrationSummaryDTO(40, 6));
+
+		this.mockMvc
+				.perform(patch("/biochemistry-analytics/recalibrate").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Glucose\",\"level\":\"PCCC1\",\"levelLot\":\"1234\",\"mean\":10.5}"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.recalibrated").value(40))
+				.andExpect(jsonPath("$.reclassified").value(6));
+	}
+
+	@Test
+	@DisplayName("Should reject a recalibration with only one end of the date range")
+	void shouldRejectRecalibrationWithHalfADateRange() throws Exception {
+		this.mockMvc
+				.perform(patch("/biochemistry-analytics/recalibrate").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Glucose\",\"level\":\"PCCC1\",\"levelLot\":\"1234\","
+								+ "\"mean\":10.5,\"startDate\":\"2025-01-01T00:00:00\"}"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	@DisplayName("Should stream an export as an attachment of the requested format")
+	void shouldStreamExportAsAttachment() throws Exception {
+		AnalyticCsvExporter exporter = new AnalyticCsvExporter();
+		AnalyticExportService.Reservation reservation = mock(AnalyticExportService.Reservation.class);
+		when(this.analyticExportService.exporterFor(ExportFormat.CSV)).thenReturn(exporter);
+		when(this.analyticExportService.reserve()).thenReturn(reservation);
+
+		this.mockMvc.perform(get("/biochemistry-analytics/export").param("startDate", "2025-01-01 00:00:00")
+				.param("endDate", "2025-01-31 23:59:59").param("gzip", "true"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Type", "application/gzip"))
+				.andExpect(header().string("Content-Disposition", containsString("analytics-2025-01-01-2025-01-31.csv.gz")));
+
+		verify(this.analyticExportService).export(eq(reservation), anyList(), eq(null),
+				eq(parse("2025-01-01 00:00:00")), eq(parse("2025-01-31 23:59:59")), eq(exporter), eq(true), any());
+		verify(reservation).close();
+	}
+
+	@Test
+	@DisplayName("Should answer 503 without attachment headers when every export slot is taken")
+	void shouldRefuseExportWhenEverySlotIsTaken() throws Exception {
+		when(this.analyticExportService.exporterFor(ExportFormat.CSV)).thenReturn(new AnalyticCsvExporter());
+		when(this.analyticExportService.reserve()).thenThrow(
+				new CustomGlobalErrorHandling.ExportCapacityExceededException("All export slots are taken"));
+
+		this.mockMvc.perform(get("/biochemistry-analytics/export").param("startDate", "2025-01-01 00:00:00")
+				.param("endDate", "2025-01-31 23:59:59"))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().doesNotExist("Content-Disposition"))
+				.andExpect(jsonPath("$.message").value("Export unavailable"));
+	}
+
 	@Test
 	@DisplayName("Should return paginated analytics list when requesting all analytics")
 	void shouldReturnPaginatedAnalyticsListWhenRequestingAllAnalytics() throws Exception {
@@ -169,6 +269,25 @@ class BiochemistryAnalyticControllerTests {
 				.findAnalyticsByNameInAndDateBetween(anyList(), any(), any(), any());
 	}
 
+	@Test
+	@DisplayName("Should return a keyset page with a next link when more records exist")
+	@WithMockUser(username = "admin", roles = {"ADMIN"})
+	void shouldReturnNextLinkWhenSearchingWithinDateRangeByCursor() throws Exception {
+		AnalyticsCursorPageDTO page = AnalyticsCursorPageDTO.of(createSampleRecordList(), 2);
+
+		when(this.biochemistryAnalyticsService.findAnalyticsByNameInAndDateBetweenAfterCursor(anyList(),
+				any(), any(), any(), anyInt())).thenReturn(page);
+
+		this.mockMvc.perform(get("/biochemistry-analytics/date-range/cursor")
+				.param("startDate", "2025-01-01 00:00:00").param("endDate", "2025-01-05 00:00:00")
+				.param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$._links.next.href").value(containsString(page.nextCursor())));
+
+		verify(this.biochemistryAnalyticsService, times(1))
+				.findAnalyticsByNameInAndDateBetweenAfterCursor(anyList(), any(), any(), any(), anyInt());
+	}
+
 	@Test
 	@DisplayName("Should return mean and standard deviation when searching within date range")
 	void shouldReturnMeanAndStandardDeviationWhenSearchingWithinDateRange() throws Exception {
@@ -249,14 +368,14 @@ class BiochemistryAnalyticControllerTests {
 		when(biochemistryAnalyticsService.convertLevel(level)).thenReturn(level);
 
 		when(biochemistryAnalyticsService.findAnalyticsByNameLevelDate(eq(name), eq(level),
-				eq(startDate), eq(endDate), any(Pageable.class))).thenReturn(dummyResult);
+				eq(startDate), eq(endDate), any(Pageable.class), isNull())).thenReturn(dummyResult);
 
 		mockMvc.perform(get("/biochemistry-analytics/name-and-level-date-range").param("name", name)
 				.param("level", level).param("startDate", startDateStr).param("endDate", endDateStr)
 				.param("page", "0").param("size", "10")).andExpect(status().isOk());
 
 		verify(biochemistryAnalyticsService).findAnalyticsByNameLevelDate(eq(name), eq(level),
-				eq(startDate), eq(endDate), any(Pageable.class));
+				eq(startDate), eq(endDate), any(Pageable.class), isNull());
 	}
 
 }
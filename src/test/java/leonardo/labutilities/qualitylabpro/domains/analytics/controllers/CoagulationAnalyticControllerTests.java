@@ -4,6 +4,7 @@ import static leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks.cre
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -39,8 +40,11 @@ import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.Grou
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedValuesByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticExportService;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticImportService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticStatisticsService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.CoagulationAnalyticService;
+import leonardo.labutilities.qualitylabpro.domains.shared.authentication.components.TokenPrincipalCache;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.services.TokenService;
 import leonardo.labutilities.qualitylabpro.domains.users.repositories.UserRepository;
 
@@ -57,6 +61,9 @@ class CoagulationAnalyticControllerTests {
 	@MockitoBean
 	private TokenService tokenService;
 
+	@MockitoBean
+	private TokenPrincipalCache tokenPrincipalCache;
+
 	@MockitoBean
 	private UserRepository userRepository;
 
@@ -69,6 +76,12 @@ class CoagulationAnalyticControllerTests {
 	@MockitoBean
 	private AnalyticStatisticsService analyticsStatisticsService;
 
+	@MockitoBean
+	private AnalyticImportService analyticImportService;
+
+	@MockitoBean
+	private AnalyticExportService analyticExportService;
+
 	@Autowired
 	private JacksonTester<List<AnalyticsDTO>> jacksonGenericValuesRecord;
 
@@ -222,14 +235,14 @@ class CoagulationAnalyticControllerTests {
 		when(coagulationAnalyticsService.convertLevel(level)).thenReturn(level);
 
 		when(coagulationAnalyticsService.findAnalyticsByNameLevelDate(eq(name), eq(level), eq(startDate), eq(endDate),
-				any(Pageable.class))).thenReturn(dummyResult);
+				any(Pageable.class), isNull())).thenReturn(dummyResult);
 
 		mockMvc.perform(get("/coagulation-analytics/name-and-level-date-range").param("name", name)
 				.param("level", level).param("startDate", startDateStr).param("endDate", endDateStr).param("page", "0")
 				.param("size", "10")).andExpect(status().isOk());
 
 		verify(coagulationAnalyticsService).findAnalyticsByNameLevelDate(eq(name), eq(level), eq(startDate),
-				eq(endDate), any(Pageable.class));
+				eq(endDate), any(Pageable.class), isNull());
 	}
 
 }
@@ -4,11 +4,13 @@ import static leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks.cre
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDateTime;
@@ -33,14 +35,18 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import leonardo.labutilities.qualitylabpro.configs.TestSecurityConfig;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsWithCalcDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedMeanAndStdByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedResultsByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedValuesByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticExportService;
+import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticImportService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.AnalyticStatisticsService;
 import leonardo.labutilities.qualitylabpro.domains.analytics.services.HematologyAnalyticService;
+import leonardo.labutilities.qualitylabpro.domains.shared.authentication.components.TokenPrincipalCache;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.services.TokenService;
 import leonardo.labutilities.qualitylabpro.domains.users.repositories.UserRepository;
 
@@ -54,6 +60,9 @@ class HematologyAnalyticControllerTests {
 	@MockitoBean
 	private TokenService tokenService;
 
+	@MockitoBean
+	private TokenPrincipalCache tokenPrincipalCache;
+
 	@MockitoBean
 	private UserRepository userRepository;
 
@@ -69,6 +78,12 @@ class HematologyAnalyticControllerTests {
 	@MockitoBean
 	private AnalyticStatisticsService analyticsStatisticsService;
 
+	@MockitoBean
+	private AnalyticImportService analyticImportService;
+
+	@MockitoBean
+	private AnalyticExportService analyticExportService;
+
 	@Autowired
 	private JacksonTester<List<AnalyticsDTO>> jacksonGenericValuesRecord;
 
@@ -228,14 +243,41 @@ class HematologyAnalyticControllerTests {
 		when(hematologyAnalyticsService.convertLevel(level)).thenReturn(level);
 
 		when(hematologyAnalyticsService.findAnalyticsByNameLevelDate(eq(name), eq(level),
-				eq(startDate), eq(endDate), any(Pageable.class))).thenReturn(dummyResult);
+				eq(startDate), eq(endDate), any(Pageable.class), isNull())).thenReturn(dummyResult);
 
 		mockMvc.perform(get("/hematology-analytics/name-and-level-date-range").param("name", name)
 				.param("level", level).param("startDate", startDateStr).param("endDate", endDateStr)
 				.param("page", "0").param("size", "10")).andExpect(status().isOk());
 
 		verify(hematologyAnalyticsService).findAnalyticsByNameLevelDate(eq(name), eq(level),
-				eq(startDate), eq(endDate), any(Pageable.class));
+				eq(startDate), eq(endDate), any(Pageable.class), isNull());
 	}
 
+	@Test
+	@DisplayName("Should return the chart series as parallel arrays")
+	void shouldReturnChartSeriesAsParallelArrays() throws Exception {
+		String name = "ALB2";
+		String level = "PCCC1";
+		LocalDateTime startDate = this.parse("2025-01-01 00:00:00");
+		LocalDateTime endDate = this.parse("2025-01-05 00:00:00");
+		AnalyticsChartDTO chart = new AnalyticsChartDTO(name, level, "g/dL", new MeanAndStdDeviationDTO(3.4, 0.1),
+				List.of(new AnalyticsChartDTO.Target(0, 3.35, 0.2)), new long[] {1L, 2L},
+				new long[] {1735718400000L, 1735804800000L}, new double[] {3.4, 3.9}, new int[] {0, 2},
+				new boolean[] {true, false});
+
+		when(hematologyAnalyticsService.convertLevel(level)).thenReturn(level);
+		when(hematologyAnalyticsService.findAnalyticsChartByNameLevelDate(name, level, startDate, endDate, 500))
+				.thenReturn(chart);
+
+		mockMvc.perform(get("/hematology-analytics/name-and-level-date-range/chart").param("name", name)
+				.param("level", level).param("startDate", "2025-01-01 00:00:00")
+				.param("endDate", "2025-01-05 00:00:00").param("maxPoints", "500"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.unit").value("g/dL"))
+				.andExpect(jsonPath("$.timestamps[1]").value(1735804800000L))
+				.andExpect(jsonPath("$.values[1]").value(3.9))
+				.andExpect(jsonPath("$.rules[1]").value(2))
+				.andExpect(jsonPath("$.validated[0]").value(true))
+				.andExpect(jsonPath("$.targets[0].mean").value(3.35));
+	}
 }
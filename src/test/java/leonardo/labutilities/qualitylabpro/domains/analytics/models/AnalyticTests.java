@@ -2,11 +2,13 @@ package leonardo.labutilities.qualitylabpro.domains.analytics.models;
 
 import static leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks.createSampleRecord;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import jakarta.persistence.Column;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
 
 import leonardo.labutilities.qualitylabpro.domains.shared.mappers.AnalyticMapper;
@@ -81,6 +83,14 @@ class AnalyticTests {
 		// as it requires database interaction
 	}
 
+	@Test
+	void updatedAt_ShouldBeLeftToTheDatabaseClock() throws NoSuchFieldException {
+		Column column = Analytic.class.getDeclaredField("updatedAt").getAnnotation(Column.class);
+
+		assertFalse(column.insertable());
+		assertFalse(column.updatable());
+	}
+
 	@Test
 	void validatedBy_ShouldBeNullByDefault() {
 		this.analytic = new Analytic();
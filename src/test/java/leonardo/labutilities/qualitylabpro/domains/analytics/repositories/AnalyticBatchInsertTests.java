@@ -0,0 +1,61 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
+
+import static leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks.createSampleRecord;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManager;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+import leonardo.labutilities.qualitylabpro.domains.shared.mappers.AnalyticMapper;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AnalyticBatchInsertTests {
+
+	private static final int RECORDS = 250;
+
+	@Autowired
+	private AnalyticsRepository repository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	@DisplayName("Should insert new analytics in JDBC batches instead of one statement per row")
+	void saveAll_WithSequenceIds_ShouldBatchInserts() {
+		AnalyticsDTO sample = createSampleRecord();
+		List<Analytic> analytics = IntStream.range(0, RECORDS)
+				.mapToObj(i -> {
+					Analytic analytic = AnalyticMapper.toNewEntity(sample);
+					analytic.setId(null);
+					analytic.setMeasurementDate(sample.date().plusMinutes(i));
+					return analytic;
+				})
+				.toList();
+
+		Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+				.getStatistics();
+		statistics.clear();
+
+		repository.saveAll(analytics);
+		entityManager.flush();
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(RECORDS);
+		// 250 rows: 5 sequence fetches (blocks of 50) + 3 insert batches (batch_size=100).
+		// With IDENTITY this was one prepared INSERT per row.
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+	}
+}
@@ -1,12 +1,14 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.repositories;
 
 import static leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks.createSampleRecord;
+import static leonardo.labutilities.qualitylabpro.utils.SqlStatementAssertions.assertMaxStatements;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import org.flywaydb.core.Flyway;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,26 +26,35 @@ import org.springframework.test.context.event.annotation.BeforeTestExecution;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Transient;
+import leonardo.labutilities.qualitylabpro.configs.database.DataSourceProxyConfiguration;
 import leonardo.labutilities.qualitylabpro.domains.analytics.constants.AvailableAnalyticsNames;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticDayKey;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticRecordKey;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.ControlSeries;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.ControlRange;
 import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.QcDailySummary;
 import leonardo.labutilities.qualitylabpro.domains.analytics.utils.SpecsValidatorUtility;
 import leonardo.labutilities.qualitylabpro.domains.shared.mappers.AnalyticMapper;
+import leonardo.labutilities.qualitylabpro.domains.users.models.User;
 
 @DataJpaTest
 @ActiveProfiles("test")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DataSourceProxyConfiguration.class)
 class AnalyticRepositoryTests {
 	private static final List<String> ANALYTICS_NAME_LIST = AvailableAnalyticsNames.ALL_ANALYTICS;
 	@Transient
 	static Flyway flyway;
 	@Transient
-	final SpecsValidatorUtility rulesValidatorComponent = new SpecsValidatorUtility();
-	@Transient
 	final LocalDateTime testDate = LocalDateTime.of(2024, 12, 16, 7, 53);
 	@Autowired
 	AnalyticsRepository repository;
 	@Autowired
+	QcDailySummaryRepository qcDailySummaryRepository;
+	@Autowired
 	private EntityManager entityManager;
 
 	@BeforeTestExecution
@@ -96,6 +108,17 @@ class AnalyticRepositoryTests {
 		assertThat(analytic.mean()).isEqualTo(3.25);
 	}
 
+	@Test
+	@DisplayName("Should map runs fetched with their users without further queries")
+	void testFindWithUsersByIdInRunsOneStatement() {
+		List<Long> ids = this.repository.findAll().stream().map(Analytic::getId).toList();
+
+		List<AnalyticsDTO> runs = assertMaxStatements(1, () -> this.repository.findWithUsersByIdIn(ids)
+				.stream().map(AnalyticMapper::toRecord).toList());
+
+		assertThat(runs).hasSize(ids.size());
+	}
+
 	@Test
 	@DisplayName("Should return true when analytic exists by name and false when it doesn't")
 	void testExistsByName() {
@@ -170,6 +193,16 @@ class AnalyticRepositoryTests {
 		assertThat(results.getFirst().level()).isEqualTo("PCCC1");
 	}
 
+	@Test
+	@DisplayName("Should page the level-date-range query with its users in at most two statements")
+	void testFindByNameInAndLevelAndDateBetweenStaysWithinBudget() {
+		Page<AnalyticsDTO> results = assertMaxStatements(2,
+				() -> this.repository.findByNameInAndLevelAndDateBetween(List.of("ALB2"), "PCCC1",
+						this.testDate.minusDays(1), this.testDate.plusDays(1), PageRequest.of(0, 10)));
+
+		assertThat(results.getContent()).isNotEmpty();
+	}
+
 	@Test
 	@DisplayName("Should return all analytics when searching within date range")
 	void testFindAllByDateBetween() {
@@ -178,6 +211,17 @@ class AnalyticRepositoryTests {
 		assertThat(results).isNotEmpty();
 	}
 
+	@Test
+	@DisplayName("Should project usernames from the joined query when searching by name, level and date range")
+	void testFindAllByNameAndLevelAndDateBetweenProjectsUsernames() {
+		List<AnalyticsDTO> results = this.repository.findByNameAndLevelAndDateBetween("ALB2", "PCCC1",
+				this.testDate.minusDays(1), this.testDate.plusDays(1), PageRequest.of(0, 10));
+
+		assertThat(results).isNotEmpty();
+		assertThat(results.getFirst().validator_user()).isEqualTo("Not validated");
+		assertThat(results.getFirst().owner_user()).isEqualTo("-");
+	}
+
 	@Test
 	@DisplayName("Should return analytics grouped by level when searching by name and date range")
 	void testFindAllByNameAndDateBetweenGroupByLevel() {
@@ -185,10 +229,127 @@ class AnalyticRepositoryTests {
 
 		List<AnalyticsDTO> results = this.repository
 				.findByNameAndDateBetweenGroupByLevel("ALB2", this.testDate.minusDays(1),
-						this.testDate.plusDays(1), pageable)
-				.stream().map(AnalyticMapper::toRecord).toList();
+						this.testDate.plusDays(1), pageable);
 
 		assertThat(results).isNotEmpty();
 		assertThat(results.getFirst().name()).isEqualTo("ALB2");
 	}
+
+	@Test
+	@DisplayName("Should fetch the runs up to the anchor of every requested test and level in one call")
+	void testFindSeriesEndingAt() {
+		List<ControlSeries> results = this.repository.findSeriesEndingAt(
+				Map.of(new ControlSeries.Key("ALB2", "PCCC1"), this.testDate,
+						new ControlSeries.Key("ALB2", "MISSING"), this.testDate), 10);
+
+		assertThat(results).hasSize(1);
+		assertThat(results.getFirst().key()).isEqualTo(new ControlSeries.Key("ALB2", "PCCC1"));
+		assertThat(results.getFirst().values()).isNotEmpty().hasSizeLessThanOrEqualTo(10);
+		assertThat(this.repository.findSeriesEndingAt(
+				Map.of(new ControlSeries.Key("ALB2", "PCCC1"), this.testDate.minusYears(10)), 10)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Should seek the ids of a keyset page per test and project them in date order")
+	void testFindIdsBeforeCursor() {
+		LocalDateTime start = this.testDate.minusDays(1);
+		LocalDateTime end = this.testDate.plusDays(1);
+
+		List<Long> ids = assertMaxStatements(1, () -> this.repository.findIdsBeforeCursor(
+				List.of("ALB2", "MISSING"), start, end, end, Long.MAX_VALUE, true, 10));
+
+		assertThat(ids).hasSize(1);
+		assertThat(this.repository.findProjectedByIdInOrderByDateDesc(ids).getFirst().name())
+				.isEqualTo("ALB2");
+		assertThat(this.repository.findIdsBeforeCursor(List.of("ALB2"), start, end, this.testDate,
+				ids.getFirst(), false, 10)).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Should read a chart series as parallel arrays in one statement")
+	void testFindChartSeries() {
+		List<AnalyticsChartDTO> charts = assertMaxStatements(1, () -> this.repository.findChartSeries("ALB2",
+				"PCCC1", this.testDate.minusDays(1), this.testDate.plusDays(1)));
+
+		assertThat(charts).hasSize(1);
+		AnalyticsChartDTO chart = charts.getFirst();
+		assertThat(chart.level()).isEqualTo("PCCC1");
+		assertThat(chart.unit()).isEqualTo("g/dL");
+		assertThat(chart.values()).containsExactly(3.45);
+		assertThat(chart.rules()).containsExactly(0);
+		assertThat(chart.validated()).containsExactly(false);
+		assertThat(chart.targets()).containsExactly(new AnalyticsChartDTO.Target(0, 3.35, 0.2));
+		assertThat(this.repository.findChartSeries("ALB2", "MISSING", this.testDate.minusDays(1),
+				this.testDate.plusDays(1))).isEmpty();
+	}
+
+	@Test
+	@DisplayName("Should roll up runs changed since the high-water mark into daily summary rows")
+	void testRollUpDailySummary() {
+		LocalDateTime from = LocalDateTime.of(1970, 1, 1, 0, 0);
+		LocalDateTime to = LocalDateTime.now().plusMinutes(1);
+
+		assertThat(this.qcDailySummaryRepository.findTouchedDays(from, to))
+				.contains(new AnalyticDayKey("ALB2", "PCCC1", testDate.toLocalDate()));
+		assertThat(this.qcDailySummaryRepository.rollUp(from, to)).isPositive();
+
+		List<QcDailySummary> rows = this.qcDailySummaryRepository.findByNameInAndLevelAndSummaryDateBetween(
+				List.of("ALB2"), "PCCC1", testDate.toLocalDate(), testDate.toLocalDate());
+		assertThat(rows).hasSize(1);
+		assertThat(rows.getFirst().getSampleCount()).isEqualTo(1);
+		assertThat(rows.getFirst().getValueSum()).isEqualTo(3.45);
+
+		this.qcDailySummaryRepository.saveHighWaterMark(to);
+		assertThat(this.qcDailySummaryRepository.lockHighWaterMark()).contains(to.withNano(0));
+	}
+
+	@Test
+	@DisplayName("Should rebuild the daily summary rows of a test and day range")
+	void testRebuildDailySummary() {
+		assertThat(this.qcDailySummaryRepository.rebuild(List.of("ALB2"), testDate.toLocalDate(),
+				testDate.toLocalDate())).isEqualTo(1);
+		assertThat(this.qcDailySummaryRepository.rebuild(List.of("ALB2"), testDate.toLocalDate(),
+				testDate.toLocalDate())).isEqualTo(1);
+
+		assertThat(this.qcDailySummaryRepository.findByNameInAndLevelAndSummaryDateBetween(List.of("ALB2"),
+				"PCCC1", testDate.toLocalDate().minusDays(1), testDate.toLocalDate().plusDays(1)))
+				.hasSize(1);
+	}
+
+	@Test
+	@DisplayName("Should validate only the unvalidated runs matching the filter")
+	void testValidateMatching() {
+		User validator = new User("Validator", "12345", "validator@hotmail.com");
+		this.entityManager.persist(validator);
+		this.entityManager.flush();
+
+		Map<Long, AnalyticRecordKey> validated = this.repository.validateMatching(List.of("ALB2"), "PCCC1",
+				this.testDate.minusDays(1), this.testDate.plusDays(1), validator.getId());
+
+		assertThat(validated).isNotEmpty();
+		assertThat(validated.values()).allMatch(run -> run.name().equals("ALB2"));
+		assertThat(this.repository.validateByIdIn(validated.keySet(), validator.getId())).isEmpty();
+		assertThat(this.repository.findProjectedByIdIn(validated.keySet()))
+				.allMatch(run -> run.validator_user().equals("Validator"));
+	}
+
+	@Test
+	@DisplayName("Should recalibrate a lot and classify its runs as the rules validator does")
+	void testRecalibrate() {
+		var summary = this.repository.recalibrate("ALB2", "PCCC1", "0774693", 3.25, 0.05, null, null);
+		this.entityManager.clear();
+
+		List<AnalyticsDTO> runs = this.repository.findByNameAndLevelAndLevelLot(PageRequest.of(0, 100),
+				"ALB2", "PCCC1", "0774693");
+		assertThat(summary.recalibrated()).isEqualTo(runs.size()).isPositive();
+		assertThat(runs).allSatisfy(run -> {
+			ControlRange range = SpecsValidatorUtility.classify(run.value(), 3.25, 0.05);
+			assertThat(run.mean()).isEqualTo(3.25);
+			assertThat(run.sd()).isEqualTo(0.05);
+			assertThat(run.rules()).isEqualTo(range.getRule());
+			assertThat(run.description()).isEqualTo(range.getDescription());
+		});
+		assertThat(this.repository.recalibrate("ALB2", "PCCC1", "0774693", 3.25, 0.05, null, null)
+				.reclassified()).isZero();
+	}
 }
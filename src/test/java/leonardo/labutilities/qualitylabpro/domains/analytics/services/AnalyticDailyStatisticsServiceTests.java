@@ -0,0 +1,150 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticTimeSeriesStore;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.AnalyticDailyStatistic;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticDailyStatisticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.RunningStatistics;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.StatisticsCalculatorUtility;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticDailyStatisticsServiceTests {
+
+	private static final double DELTA = 1e-9;
+
+	@Mock
+	private AnalyticDailyStatisticsRepository dailyStatisticsRepository;
+
+	@Mock
+	private AnalyticsRepository analyticsRepository;
+
+	@Mock
+	private AnalyticTimeSeriesStore analyticTimeSeriesStore;
+
+	private AnalyticDailyStatisticsService dailyStatisticsService;
+
+	@BeforeEach
+	void setUp() {
+		dailyStatisticsService =
+				new AnalyticDailyStatisticsService(dailyStatisticsRepository, analyticsRepository,
+						analyticTimeSeriesStore);
+	}
+
+	private static AnalyticDailyStatistic bucket(LocalDate day, double... values) {
+		RunningStatistics stats = new RunningStatistics();
+		for (double value : values) {
+			stats.add(value);
+		}
+		AnalyticDailyStatistic bucket = new AnalyticDailyStatistic();
+		bucket.setBucketDate(day);
+		bucket.setSampleCount(stats.count());
+		bucket.setValueSum(stats.sum());
+		bucket.setSumSquaredDeviations(stats.sumSquaredDeviations());
+		bucket.setMinValue(stats.min());
+		bucket.setMaxValue(stats.max());
+		return bucket;
+	}
+
+	private static Analytic analytic(String lot, LocalDateTime date, double value) {
+		Analytic analytic = new Analytic();
+		analytic.setTestName("ALB2");
+		analytic.setControlLevel("PCCC1");
+		analytic.setControlLevelLot(lot);
+		analytic.setMeasurementDate(date);
+		analytic.setMeasurementValue(value);
+		return analytic;
+	}
+
+	@Test
+	@DisplayName("Should merge daily buckets into the same mean and SD as a full recomputation")
+	void aggregate_WithWholeDays_ShouldMatchTwoPassComputation() {
+		LocalDate day = LocalDate.of(2025, 1, 1);
+		when(dailyStatisticsRepository.findByNameAndLevelAndBucketDateBetween("ALB2", "PCCC1", day,
+				day.plusDays(1))).thenReturn(List.of(bucket(day, 3.1, 3.4, 3.3),
+						bucket(day.plusDays(1), 3.6, 3.2)));
+
+		MeanAndStdDeviationDTO result = dailyStatisticsService.calculateMeanAndStandardDeviation("ALB2",
+				"PCCC1", day.atStartOfDay(), day.plusDays(1).atTime(23, 59, 59));
+
+		MeanAndStdDeviationDTO expected =
+				StatisticsCalculatorUtility.computeStatistics(new double[] {3.1, 3.4, 3.3, 3.6, 3.2});
+		assertEquals(expected.mean(), result.mean(), DELTA);
+		assertEquals(expected.standardDeviation(), result.standardDeviation(), DELTA);
+		verify(analyticsRepository, never()).findValuesByNameAndLevelAndDateBetween(any(), any(),
+				any(), any());
+	}
+
+	@Test
+	@DisplayName("Should read raw values only for the partial days at the edges of the range")
+	void aggregate_WithPartialDays_ShouldCombineBucketsAndRawEdges() {
+		LocalDateTime start = LocalDateTime.of(2025, 1, 1, 12, 0);
+		LocalDateTime end = LocalDateTime.of(2025, 1, 3, 8, 0);
+		LocalDate fullDay = LocalDate.of(2025, 1, 2);
+
+		when(dailyStatisticsRepository.findByNameAndLevelAndBucketDateBetween("ALB2", "PCCC1", fullDay,
+				fullDay)).thenReturn(List.of(bucket(fullDay, 3.0, 3.5)));
+		when(analyticsRepository.findValuesByNameAndLevelAndDateBetween("ALB2", "PCCC1", start,
+				fullDay.atStartOfDay().minusSeconds(1))).thenReturn(List.of(3.2));
+		when(analyticsRepository.findValuesByNameAndLevelAndDateBetween("ALB2", "PCCC1",
+				fullDay.plusDays(1).atStartOfDay(), end)).thenReturn(List.of(3.9));
+
+		RunningStatistics result = dailyStatisticsService.aggregate("ALB2", "PCCC1", start, end);
+
+		assertEquals(4, result.count());
+		assertEquals(3.4, result.mean(), DELTA);
+		assertEquals(3.0, result.min(), DELTA);
+		assertEquals(3.9, result.max(), DELTA);
+	}
+
+	@Test
+	@DisplayName("Should fall back to raw values when the range is shorter than a day")
+	void aggregate_WithinSingleDay_ShouldUseRawValues() {
+		LocalDateTime start = LocalDateTime.of(2025, 1, 1, 6, 0);
+		LocalDateTime end = LocalDateTime.of(2025, 1, 1, 18, 0);
+		when(analyticsRepository.findValuesByNameAndLevelAndDateBetween("ALB2", "PCCC1", start, end))
+				.thenReturn(List.of(2.0, 4.0));
+
+		RunningStatistics result = dailyStatisticsService.aggregate("ALB2", "PCCC1", start, end);
+
+		assertEquals(3.0, result.mean(), DELTA);
+		assertEquals(1.0, result.standardDeviation(), DELTA);
+		verify(dailyStatisticsRepository, never()).findByNameAndLevelAndBucketDateBetween(any(), any(),
+				any(), any());
+	}
+
+	@Test
+	@DisplayName("Should upsert one bucket per test, level, lot and day")
+	void registerNewRecords_ShouldGroupRecordsByBucket() {
+		LocalDateTime date = LocalDateTime.of(2025, 1, 1, 7, 30);
+		dailyStatisticsService.registerNewRecords(List.of(analytic("L1", date, 3.0),
+				analytic("L1", date.plusHours(2), 4.0), analytic(null, date.plusDays(1), 5.0)));
+
+		verify(dailyStatisticsRepository).mergeBucket("ALB2", "PCCC1", "L1", date.toLocalDate(), 2L,
+				7.0, 0.5, 3.0, 4.0);
+		verify(dailyStatisticsRepository).mergeBucket(eq("ALB2"), eq("PCCC1"), eq(""),
+				eq(date.toLocalDate().plusDays(1)), anyLong(), anyDouble(), anyDouble(), anyDouble(),
+				anyDouble());
+	}
+}
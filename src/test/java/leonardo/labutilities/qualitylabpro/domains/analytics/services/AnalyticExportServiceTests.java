@@ -0,0 +1,144 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import jakarta.validation.Validation;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticCsvExporter;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticJsonExporter;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticXlsxExporter;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.shared.exception.CustomGlobalErrorHandling;
+import leonardo.labutilities.qualitylabpro.domains.users.enums.ExportFormat;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticExportServiceTests {
+
+	private static final LocalDateTime START = LocalDateTime.of(2024, 12, 16, 0, 0);
+	private static final LocalDateTime END = START.plusDays(1).minusSeconds(1);
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().findAndAddModules().build();
+
+	@Mock
+	private AnalyticsRepository analyticsRepository;
+
+	private AnalyticExportService analyticExportService;
+
+	@BeforeEach
+	void setUp() {
+		analyticExportService = new AnalyticExportService(analyticsRepository,
+				List.of(new AnalyticCsvExporter(), new AnalyticXlsxExporter(), new AnalyticJsonExporter(JSON_MAPPER)),
+				mock(PlatformTransactionManager.class), 1);
+	}
+
+	private static AnalyticsDTO run(long id, int hour, double value) {
+		return new AnalyticsDTO(id, START.plusHours(hour), "0774693", "608384", "ALB2", "PCCC1", value, 3.35, 0.2,
+				"g/dL", "No rule broken", "Approved", "Not validated", "owner_user");
+	}
+
+	private void returnRuns(AnalyticsDTO... runs) {
+		when(analyticsRepository.streamByNameInAndLevelAndDateBetween(List.of("ALB2"), "PCCC1", START, END))
+				.thenReturn(Stream.of(runs));
+	}
+
+	private byte[] export(ExportFormat format, boolean gzip) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (var reservation = analyticExportService.reserve()) {
+			long written = analyticExportService.export(reservation, List.of("ALB2"), "PCCC1", START, END,
+					analyticExportService.exporterFor(format), gzip, output);
+			assertEquals(2, written);
+		}
+		return output.toByteArray();
+	}
+
+	@Test
+	@DisplayName("Should export CSV that the CSV import reads back")
+	void export_AsCsv_ShouldRoundTripThroughTheImport() throws IOException {
+		returnRuns(run(1, 7, 3.45), run(2, 8, 3.5));
+		byte[] csv = export(ExportFormat.CSV, false);
+
+		IAnalyticHelperService helper = mock(IAnalyticHelperService.class);
+		when(helper.saveNewAnalyticsRecords(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		new AnalyticImportService(JSON_MAPPER, Validation.buildDefaultValidatorFactory().getValidator(),
+				mock(PlatformTransactionManager.class))
+				.importRecords(new ByteArrayInputStream(csv),
+						MediaType.parseMediaType(AnalyticImportService.TEXT_CSV_VALUE), 10, helper);
+
+		verify(helper).saveNewAnalyticsRecords(List.of(run(1, 7, 3.45), run(2, 8, 3.5)));
+	}
+
+	@Test
+	@DisplayName("Should gzip the export when asked to")
+	void export_WithGzip_ShouldWriteACompleteGzipStream() throws IOException {
+		returnRuns(run(1, 7, 3.45), run(2, 8, 3.5));
+
+		byte[] json;
+		try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(export(ExportFormat.JSON, true)))) {
+			json = input.readAllBytes();
+		}
+
+		assertEquals(List.of(run(1, 7, 3.45), run(2, 8, 3.5)),
+				List.of(JSON_MAPPER.readValue(json, AnalyticsDTO[].class)));
+	}
+
+	@Test
+	@DisplayName("Should export a workbook with a header row and one row per run")
+	void export_AsExcel_ShouldWriteOneRowPerRun() throws IOException {
+		returnRuns(run(1, 7, 3.45), run(2, 8, 3.5));
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(export(ExportFormat.EXCEL, false)))) {
+			Sheet sheet = workbook.getSheetAt(0);
+			assertEquals(2, sheet.getLastRowNum());
+			assertEquals("date", sheet.getRow(0).getCell(1).getStringCellValue());
+			assertEquals(START.plusHours(8), sheet.getRow(2).getCell(1).getLocalDateTimeCellValue());
+			assertEquals(3.5, sheet.getRow(2).getCell(6).getNumericCellValue());
+		}
+	}
+
+	@Test
+	@DisplayName("Should reject formats without an exporter")
+	void exporterFor_WithoutAnExporter_ShouldThrow() {
+		var exception = assertThrows(CustomGlobalErrorHandling.UnsupportedExportFormatException.class,
+				() -> analyticExportService.exporterFor(ExportFormat.PDF));
+
+		assertTrue(exception.getMessage().contains("PDF"));
+	}
+
+	@Test
+	@DisplayName("Should refuse an export over the limit until a running one finishes")
+	void reserve_OverTheLimit_ShouldThrowUntilAReservationIsClosed() {
+		var reservation = analyticExportService.reserve();
+
+		assertThrows(CustomGlobalErrorHandling.ExportCapacityExceededException.class,
+				analyticExportService::reserve);
+
+		reservation.close();
+		analyticExportService.reserve().close();
+	}
+}
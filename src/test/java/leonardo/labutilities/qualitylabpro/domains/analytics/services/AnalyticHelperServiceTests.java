@@ -6,6 +6,7 @@ import static leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks.cre
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -18,8 +19,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -36,15 +41,28 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticCacheComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticEventStreamComponent;
 import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticFailedNotificationComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticMetricsComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticTimeSeriesStore;
 import leonardo.labutilities.qualitylabpro.domains.analytics.components.RulesProviderComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticRecordKey;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsCursor;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.requests.UpdateAnalyticsMeanDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsChartDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsCursorPageDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsRecalibrationSummaryDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsValidationSummaryDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsWithCalcDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedMeanAndStdByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedValuesByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.AnalyticIngestionMode;
 import leonardo.labutilities.qualitylabpro.domains.analytics.models.Analytic;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
 import leonardo.labutilities.qualitylabpro.domains.analytics.utils.AnalyticRulesValidation;
@@ -70,6 +88,18 @@ class AnalyticHelperServiceTests {
 	private EmailService emailService;
 	@Mock
 	private RulesProviderComponent controlRulesValidators;
+	@Mock
+	private AnalyticDailyStatisticsService dailyStatisticsService;
+	@Mock
+	private AnalyticCacheComponent analyticCacheComponent;
+
+	@Mock
+	private AnalyticEventStreamComponent analyticEventStreamComponent;
+	@Mock
+	private QcDailySummaryService qcDailySummaryService;
+
+	@Mock
+	private AnalyticTimeSeriesStore analyticTimeSeriesStore;
 
 	public AnalyticHelperServiceTests() {
 		super();
@@ -79,7 +109,11 @@ class AnalyticHelperServiceTests {
 	void setUp() {
 		try (AutoCloseable autoCloseable = MockitoAnnotations.openMocks(this)) {
 			this.analyticHelperService = new AnalyticHelperService(this.analyticsRepository,
-					analyticsValidationService, this.analyticFailedNotificationComponent) {
+					analyticsValidationService, this.analyticFailedNotificationComponent,
+					this.dailyStatisticsService, this.analyticCacheComponent,
+					this.analyticEventStreamComponent, this.qcDailySummaryService,
+					this.analyticTimeSeriesStore,
+					new AnalyticMetricsComponent(new SimpleMeterRegistry())) {
 
 				@Override
 				public List<AnalyticsDTO> findAnalyticsByNameAndLevel(Pageable pageable,
@@ -155,7 +189,8 @@ class AnalyticHelperServiceTests {
 			when(authentication.isAuthenticated()).thenReturn(true);
 			when(authentication.getPrincipal()).thenReturn(mockUser);
 
-			when(this.analyticsValidationService.isNewAnalyticRecord(any())).thenReturn(true);
+			when(this.analyticsValidationService.filterNewAnalyticRecords(anyList()))
+					.thenAnswer(invocation -> invocation.getArgument(0));
 			when(this.analyticsRepository.saveAll(any())).thenReturn(analytics);
 
 			validationComponent.when(() -> AnalyticRulesValidation.filterFailedRecords(anyList()))
@@ -165,7 +200,10 @@ class AnalyticHelperServiceTests {
 			assertDoesNotThrow(() -> this.analyticHelperService.saveNewAnalyticsRecords(records));
 
 			verify(this.analyticsRepository).saveAll(any());
+			verify(this.dailyStatisticsService).registerNewRecords(analytics);
+			verify(this.analyticCacheComponent).evict(analytics);
 			verify(this.analyticFailedNotificationComponent).processFailedRecordsNotification(anyList());
+			verify(this.analyticEventStreamComponent).publishAnalytics(anyList());
 		}
 	}
 
@@ -175,7 +213,7 @@ class AnalyticHelperServiceTests {
 		// Arrange
 		List<AnalyticsDTO> records = createSampleRecordList();
 
-		when(this.analyticsValidationService.isNewAnalyticRecord(any())).thenReturn(false);
+		when(this.analyticsValidationService.filterNewAnalyticRecords(anyList())).thenReturn(List.of());
 
 		// Act & Assert
 		assertThrows(CustomGlobalErrorHandling.AnalyticsDataIntegrityViolationException.class,
@@ -200,7 +238,8 @@ class AnalyticHelperServiceTests {
 			securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
 			when(securityContext.getAuthentication()).thenReturn(null);
 
-			when(this.analyticsValidationService.isNewAnalyticRecord(any())).thenReturn(true);
+			when(this.analyticsValidationService.filterNewAnalyticRecords(anyList()))
+					.thenAnswer(invocation -> invocation.getArgument(0));
 
 			// Act & Assert
 			assertThrows(BadCredentialsException.class,
@@ -216,13 +255,42 @@ class AnalyticHelperServiceTests {
 	void saveNewAnalyticsRecords_WithDuplicateRecords_ShouldThrowException() {
 		List<AnalyticsDTO> records = createSampleRecordList();
 
-		when(this.analyticsValidationService.isNewAnalyticRecord(any())).thenReturn(false);
+		when(this.analyticsValidationService.filterNewAnalyticRecords(anyList())).thenReturn(List.of());
 
 		assertThrows(CustomGlobalErrorHandling.AnalyticsDataIntegrityViolationException.class,
 				() -> this.analyticHelperService.saveNewAnalyticsRecords(records));
 		verify(this.analyticsRepository, never()).saveAll(any());
 	}
 
+	@Test
+	@DisplayName("Should let the unique index skip duplicates when ingesting in INSERT_IGNORE mode")
+	void saveNewAnalyticsRecords_WithInsertIgnoreMode_ShouldSkipLookupAndReadBackInsertedRows() {
+		List<AnalyticsDTO> records = createSampleRecordList();
+		List<Analytic> inserted = records.stream().limit(1).map(AnalyticMapper::toNewEntity).toList();
+		User mockUser = Mockito.mock(User.class);
+		Authentication authentication = Mockito.mock(Authentication.class);
+		SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+		ReflectionTestUtils.setField(this.analyticHelperService, "ingestionMode",
+				AnalyticIngestionMode.INSERT_IGNORE);
+
+		try (MockedStatic<SecurityContextHolder> securityContextHolder =
+				Mockito.mockStatic(SecurityContextHolder.class)) {
+			securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+			when(securityContext.getAuthentication()).thenReturn(authentication);
+			when(authentication.isAuthenticated()).thenReturn(true);
+			when(authentication.getPrincipal()).thenReturn(mockUser);
+			when(this.analyticsRepository.insertIgnoringDuplicates(anyList())).thenReturn(List.of(1L));
+			when(this.analyticsRepository.findWithUsersByIdIn(List.of(1L))).thenReturn(inserted);
+
+			List<AnalyticsDTO> result = this.analyticHelperService.saveNewAnalyticsRecords(records);
+
+			assertEquals(1, result.size());
+			verify(this.analyticsValidationService, never()).filterNewAnalyticRecords(anyList());
+			verify(this.analyticsRepository, never()).saveAll(any());
+			verify(this.dailyStatisticsService).registerNewRecords(inserted);
+		}
+	}
+
 	@Test
 	@DisplayName("Should return record when searching by valid ID")
 	void findById_WithValidId_ShouldReturnRecord() {
@@ -288,27 +356,178 @@ class AnalyticHelperServiceTests {
 		assertNotNull(result);
 	}
 
+	@Test
+	@DisplayName("Should downsample a long range, keep every broken rule and compute statistics over all runs")
+	void findAnalyticsByNameLevelDate_WithMaxPoints_ShouldDownsampleTheWholeRange() {
+		LocalDateTime startDate = LocalDateTime.of(2024, 1, 1, 0, 0);
+		LocalDateTime endDate = startDate.plusDays(1000);
+		List<AnalyticsDTO> runs = new ArrayList<>();
+		for (int day = 0; day < 1000; day++) {
+			boolean broken = day % 97 == 0;
+			runs.add(new AnalyticsDTO((long) day, startDate.plusDays(day), "0774693", "608384", "ALB2",
+					"PCCC1", broken ? 4.0 : 3.35 + Math.sin(day) / 10, 3.35, 0.2, "g/dL",
+					broken ? "+3s" : "No rule broken", "", "Not validated", "owner_user"));
+		}
+		when(this.analyticTimeSeriesStore.findByNameAndLevelAndDateBetween(any(), any(), any(), any(), any()))
+				.thenReturn(Optional.empty());
+		when(this.analyticsRepository.findByNameAndLevelAndDateBetween("ALB2", "PCCC1", startDate, endDate,
+				Pageable.unpaged())).thenReturn(runs);
+
+		AnalyticsWithCalcDTO result = this.analyticHelperService.findAnalyticsByNameLevelDate("ALB2", "PCCC1",
+				startDate, endDate, PageRequest.of(0, 100), 100);
+
+		List<AnalyticsDTO> points = result.analyticsDTO();
+		assertTrue(points.size() <= 100);
+		assertEquals(runs.getFirst(), points.getFirst());
+		assertEquals(runs.getLast(), points.getLast());
+		assertEquals(runs.stream().filter(run -> "+3s".equals(run.rules())).toList(),
+				points.stream().filter(run -> "+3s".equals(run.rules())).toList());
+		verify(this.dailyStatisticsService).calculateMeanAndStandardDeviation("ALB2", "PCCC1", startDate,
+				endDate);
+	}
+
+	@Test
+	@DisplayName("Should return the chart series of the requested level")
+	void findAnalyticsChartByNameLevelDate_ShouldReturnTheSeries() {
+		LocalDateTime startDate = LocalDateTime.of(2024, 1, 1, 0, 0);
+		LocalDateTime endDate = LocalDateTime.of(2024, 1, 2, 0, 0);
+		AnalyticsChartDTO chart = new AnalyticsChartDTO("ALB2", "PCCC1", "g/dL",
+				new MeanAndStdDeviationDTO(3.4, 0.1), List.of(new AnalyticsChartDTO.Target(0, 3.35, 0.2)),
+				new long[] {1L}, new long[] {0L}, new double[] {3.4}, new int[] {0}, new boolean[] {true});
+		when(this.analyticsRepository.findChartSeries("ALB2", "PCCC1", startDate, endDate))
+				.thenReturn(List.of(chart));
+
+		assertEquals(chart, this.analyticHelperService.findAnalyticsChartByNameLevelDate("ALB2", "PCCC1",
+				startDate, endDate, null));
+	}
+
+	@Test
+	@DisplayName("Should serve the charts from the time-series store when it holds the range")
+	void findAnalyticsChartsGroupedByLevel_WithinTheStore_ShouldNotQueryTheDatabase() {
+		LocalDateTime startDate = LocalDateTime.of(2024, 1, 1, 0, 0);
+		LocalDateTime endDate = LocalDateTime.of(2024, 1, 2, 0, 0);
+		AnalyticsChartDTO chart = new AnalyticsChartDTO("ALB2", "PCCC1", "g/dL",
+				new MeanAndStdDeviationDTO(3.4, 0.1), List.of(new AnalyticsChartDTO.Target(0, 3.35, 0.2)),
+				new long[] {1L}, new long[] {0L}, new double[] {3.4}, new int[] {0}, new boolean[] {true});
+		when(this.analyticTimeSeriesStore.findChartSeries("ALB2", null, startDate, endDate))
+				.thenReturn(Optional.of(List.of(chart)));
+
+		assertEquals(List.of(chart), this.analyticHelperService.findAnalyticsChartsGroupedByLevel("ALB2",
+				startDate, endDate, null));
+		verify(this.analyticsRepository, never()).findChartSeries(any(), any(), any(), any());
+	}
+
+	@Test
+	@DisplayName("Should throw when no level of the test has runs to chart")
+	void findAnalyticsChartsGroupedByLevel_WithoutRuns_ShouldThrow() {
+		LocalDateTime startDate = LocalDateTime.of(2024, 1, 1, 0, 0);
+		LocalDateTime endDate = LocalDateTime.of(2024, 1, 2, 0, 0);
+		when(this.analyticsRepository.findChartSeries("ALB2", null, startDate, endDate)).thenReturn(List.of());
+
+		assertThrows(CustomGlobalErrorHandling.ResourceNotFoundException.class,
+				() -> this.analyticHelperService.findAnalyticsChartsGroupedByLevel("ALB2", startDate, endDate,
+						null));
+	}
+
+	@Test
+	@DisplayName("Should validate the listed runs in bulk and report what was skipped")
+	void validateAnalyticsByIds_WithAlreadyValidatedRuns_ShouldReturnCounts() {
+		LocalDateTime date = LocalDateTime.of(2025, 1, 1, 8, 0);
+		User mockUser = Mockito.mock(User.class);
+		when(mockUser.getId()).thenReturn(7L);
+
+		try (MockedStatic<SecurityContextHolder> securityContextHolder =
+				Mockito.mockStatic(SecurityContextHolder.class)) {
+			mockAuthenticatedUser(securityContextHolder, mockUser);
+			Map<Long, AnalyticRecordKey> validated = new LinkedHashMap<>();
+			validated.put(1L, new AnalyticRecordKey("ALB2", "PCCC1", date));
+			validated.put(3L, new AnalyticRecordKey("ALB2", "PCCC1", date.plusDays(1)));
+			when(this.analyticsRepository.validateByIdIn(List.of(1L, 2L, 3L, 3L), 7L)).thenReturn(validated);
+
+			AnalyticsValidationSummaryDTO result =
+					this.analyticHelperService.validateAnalyticsByIds(List.of(1L, 2L, 3L, 3L), true);
+
+			assertEquals(new AnalyticsValidationSummaryDTO(3, 2, 1, List.of(1L, 3L)), result);
+			verify(this.analyticCacheComponent).evictTouches(Set.of(
+					new AnalyticCacheComponent.Touch("ALB2", "PCCC1", date.toLocalDate()),
+					new AnalyticCacheComponent.Touch("ALB2", "PCCC1", date.toLocalDate().plusDays(1))));
+			verify(this.analyticTimeSeriesStore).invalidate("ALB2", "PCCC1");
+			verify(this.analyticsRepository, never()).saveAll(any());
+		}
+	}
+
+	@Test
+	@DisplayName("Should validate every unvalidated run matching the filter without listing ids")
+	void validateAnalyticsMatching_WithoutIds_ShouldOnlyReturnCounts() {
+		LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+		LocalDateTime end = start.plusDays(1).minusSeconds(1);
+		User mockUser = Mockito.mock(User.class);
+		when(mockUser.getId()).thenReturn(7L);
+
+		try (MockedStatic<SecurityContextHolder> securityContextHolder =
+				Mockito.mockStatic(SecurityContextHolder.class)) {
+			mockAuthenticatedUser(securityContextHolder, mockUser);
+			when(this.analyticsRepository.validateMatching(List.of("ALB2", "GLI"), null, start, end, 7L))
+					.thenReturn(Map.of(5L, new AnalyticRecordKey("GLI", "PCCC2", start.plusHours(8))));
+
+			AnalyticsValidationSummaryDTO result = this.analyticHelperService
+					.validateAnalyticsMatching(List.of("ALB2", "GLI"), null, start, end, false);
+
+			assertEquals(new AnalyticsValidationSummaryDTO(1, 1, 0, List.of()), result);
+			verify(this.analyticTimeSeriesStore).invalidate("GLI", "PCCC2");
+		}
+	}
+
+	@Test
+	@DisplayName("Should recalibrate a lot and drop what was cached for its runs")
+	void recalibrateAnalytics_ShouldEvictTheRecalibratedSeries() {
+		when(this.analyticsRepository.recalibrate("ALB2", "PCCC1", "0774693", 3.25, 0.1, null, null))
+				.thenReturn(new AnalyticsRecalibrationSummaryDTO(12, 3));
+
+		AnalyticsRecalibrationSummaryDTO result = this.analyticHelperService.recalibrateAnalytics("ALB2",
+				"PCCC1", "0774693", 3.25, 0.1, null, null);
+
+		assertEquals(new AnalyticsRecalibrationSummaryDTO(12, 3), result);
+		verify(this.analyticCacheComponent).evict("ALB2", "PCCC1", null);
+		verify(this.analyticTimeSeriesStore).invalidate("ALB2", "PCCC1");
+	}
+
+	private static void mockAuthenticatedUser(MockedStatic<SecurityContextHolder> securityContextHolder,
+			User user) {
+		Authentication authentication = Mockito.mock(Authentication.class);
+		SecurityContext securityContext = Mockito.mock(SecurityContext.class);
+		securityContextHolder.when(SecurityContextHolder::getContext).thenReturn(securityContext);
+		when(securityContext.getAuthentication()).thenReturn(authentication);
+		when(authentication.isAuthenticated()).thenReturn(true);
+		when(authentication.getPrincipal()).thenReturn(user);
+	}
+
 	@Test
 	@DisplayName("Should delete analytics when valid ID is provided")
 	void deleteAnalyticsById_WithValidId_ShouldDelete() {
 		Long id = 1L;
-		when(this.analyticsRepository.existsById(id)).thenReturn(true);
-		doNothing().when(this.analyticsRepository).deleteById(id);
+		Analytic analytic = AnalyticMapper.toNewEntity(createSampleRecord());
+		when(this.analyticsRepository.findById(id)).thenReturn(Optional.of(analytic));
 
 		assertDoesNotThrow(() -> this.analyticHelperService.deleteAnalyticsById(id));
 
-		verify(this.analyticsRepository).deleteById(id);
+		verify(this.analyticsRepository).delete(analytic);
+		verify(this.dailyStatisticsService).refreshBuckets(analytic.getTestName(),
+				analytic.getControlLevel(), analytic.getMeasurementDate().toLocalDate());
+		verify(this.qcDailySummaryService).rebuild(List.of(analytic.getTestName()),
+				analytic.getMeasurementDate().toLocalDate(), analytic.getMeasurementDate().toLocalDate());
+		verify(this.analyticCacheComponent).evict(List.of(analytic));
 	}
 
 	@Test
 	@DisplayName("Should throw exception when deleting analytics with invalid ID")
 	void deleteAnalyticsById_WithInvalidId_ShouldThrowException() {
 		Long id = 999L;
-		when(this.analyticsRepository.existsById(id)).thenReturn(false);
+		when(this.analyticsRepository.findById(id)).thenReturn(Optional.empty());
 
 		assertThrows(CustomGlobalErrorHandling.ResourceNotFoundException.class,
 				() -> this.analyticHelperService.deleteAnalyticsById(id));
-		verify(this.analyticsRepository, never()).deleteById(id);
+		verify(this.analyticsRepository, never()).delete(any());
 	}
 
 	@Test
@@ -350,8 +569,7 @@ class AnalyticHelperServiceTests {
 		String name = "Glucose";
 		LocalDateTime startDate = LocalDateTime.of(2024, 1, 1, 0, 0);
 		LocalDateTime endDate = LocalDateTime.of(2024, 1, 2, 0, 0);
-		List<Analytic> records =
-				createSampleRecordList().stream().map(AnalyticMapper::toNewEntity).toList();
+		List<AnalyticsDTO> records = createSampleRecordList();
 
 		when(this.analyticsRepository.findByNameAndDateBetweenGroupByLevel(eq(name), eq(startDate),
 				eq(endDate), any(Pageable.class))).thenReturn(records);
@@ -504,4 +722,81 @@ class AnalyticHelperServiceTests {
 		assertEquals(expectedAnalytics.size(), result.size());
 		verify(this.analyticsRepository).findByDateBetween(startDate, endDate);
 	}
+
+	@Test
+	@DisplayName("Should seek from the end of the range and return a cursor to the last row of the page")
+	void findAnalyticsAfterCursor_WithMoreRows_ShouldReturnNextCursor() {
+		List<String> names = List.of("ALB2", "ALTL", "AMYL2");
+		LocalDateTime startDate = LocalDateTime.of(2024, 12, 1, 0, 0);
+		LocalDateTime endDate = LocalDateTime.of(2024, 12, 31, 23, 59, 59);
+		List<AnalyticsDTO> rows = createSampleRecordList();
+
+		List<Long> ids = rows.stream().map(AnalyticsDTO::id).toList();
+
+		when(this.analyticsRepository.findIdsBeforeCursor(names, startDate, endDate, endDate, Long.MAX_VALUE,
+				false, 4)).thenReturn(ids);
+		when(this.analyticsRepository.findProjectedByIdInOrderByDateDesc(ids)).thenReturn(rows);
+
+		AnalyticsCursorPageDTO page = this.analyticHelperService
+				.findAnalyticsByNameInAndDateBetweenAfterCursor(names, startDate, endDate, null, 3);
+
+		assertEquals(3, page.content().size());
+		assertTrue(page.hasNext());
+		AnalyticsCursor next = AnalyticsCursor.decode(page.nextCursor());
+		assertEquals(rows.get(2).date(), next.date());
+		assertEquals(rows.get(2).id(), next.id());
+	}
+
+	@Test
+	@DisplayName("Should resume from the decoded cursor and stop when no extra row is returned")
+	void findUnvalidAnalyticsAfterCursor_OnLastPage_ShouldNotReturnNextCursor() {
+		List<String> names = List.of("ALB2");
+		LocalDateTime startDate = LocalDateTime.of(2024, 12, 1, 0, 0);
+		LocalDateTime endDate = LocalDateTime.of(2024, 12, 31, 23, 59, 59);
+		AnalyticsCursor cursor = new AnalyticsCursor(LocalDateTime.of(2024, 12, 16, 8, 0), 42L);
+
+		AnalyticsDTO row = createSampleRecord();
+
+		when(this.analyticsRepository.findIdsBeforeCursor(names, startDate, endDate, cursor.date(), 42L, true,
+				11)).thenReturn(List.of(row.id()));
+		when(this.analyticsRepository.findProjectedByIdInOrderByDateDesc(List.of(row.id())))
+				.thenReturn(List.of(row));
+
+		AnalyticsCursorPageDTO page = this.analyticHelperService
+				.findUnvalidAnalyticsByNameInAndDateBetweenAfterCursor(names, startDate, endDate,
+						cursor.encode(), 10);
+
+		assertEquals(1, page.content().size());
+		assertFalse(page.hasNext());
+		assertNull(page.nextCursor());
+	}
+
+	@Test
+	@DisplayName("Should reject a continuation token that was not issued by the API")
+	void findAnalyticsAfterCursor_WithMalformedCursor_ShouldThrowException() {
+		LocalDateTime endDate = LocalDateTime.now();
+		List<String> names = List.of("ALB2");
+
+		assertThrows(CustomGlobalErrorHandling.InvalidCursorException.class,
+				() -> this.analyticHelperService.findAnalyticsByNameInAndDateBetweenAfterCursor(names,
+						endDate.minusDays(1), endDate, "not-a-cursor", 10));
+		verify(this.analyticsRepository, never()).findIdsBeforeCursor(any(), any(), any(), any(),
+				Mockito.anyLong(), Mockito.anyBoolean(), Mockito.anyInt());
+	}
+
+	@Test
+	@DisplayName("Should not project anything when the seek finds no run")
+	void findAnalyticsAfterCursor_WithoutRows_ShouldSkipTheProjection() {
+		List<String> names = List.of("ALB2");
+		LocalDateTime startDate = LocalDateTime.of(2024, 12, 1, 0, 0);
+		LocalDateTime endDate = LocalDateTime.of(2024, 12, 31, 23, 59, 59);
+
+		when(this.analyticsRepository.findIdsBeforeCursor(names, startDate, endDate, endDate, Long.MAX_VALUE,
+				false, 11)).thenReturn(List.of());
+
+		assertThrows(CustomGlobalErrorHandling.ResourceNotFoundException.class,
+				() -> this.analyticHelperService.findAnalyticsByNameInAndDateBetweenAfterCursor(names,
+						startDate, endDate, null, 10));
+		verify(this.analyticsRepository, never()).findProjectedByIdInOrderByDateDesc(any());
+	}
 }
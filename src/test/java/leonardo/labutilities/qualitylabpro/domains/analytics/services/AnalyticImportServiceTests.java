@@ -0,0 +1,146 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import jakarta.validation.Validation;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsImportSummaryDTO;
+import leonardo.labutilities.qualitylabpro.domains.shared.exception.CustomGlobalErrorHandling;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticImportServiceTests {
+
+	private static final MediaType NDJSON = MediaType.parseMediaType(AnalyticImportService.APPLICATION_NDJSON_VALUE);
+	private static final MediaType CSV = MediaType.parseMediaType(AnalyticImportService.TEXT_CSV_VALUE);
+
+	@Mock
+	private IAnalyticHelperService analyticHelperService;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private AnalyticImportService analyticImportService;
+
+	@BeforeEach
+	void setUp() {
+		analyticImportService = new AnalyticImportService(JsonMapper.builder().findAndAddModules().build(),
+				Validation.buildDefaultValidatorFactory().getValidator(), transactionManager);
+	}
+
+	private static InputStream body(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String ndjsonLine(String name, String date) {
+		return String.format("{\"date\":\"%s\",\"level_lot\":\"0774693\",\"test_lot\":\"608384\",\"name\":\"%s\","
+				+ "\"level\":\"PCCC1\",\"value\":3.45,\"mean\":3.35,\"sd\":0.2,\"unit_value\":\"g/dL\"}%n", date, name);
+	}
+
+	@Test
+	@DisplayName("Should split an NDJSON upload into batches and report each one")
+	void importRecords_WithNdjson_ShouldCommitInBatches() {
+		String upload = ndjsonLine("ALB2", "2024-12-16 07:53:00") + ndjsonLine("ALB2", "2024-12-16 08:53:00")
+				+ ndjsonLine("ALB2", "2024-12-16 09:53:00");
+		when(analyticHelperService.saveNewAnalyticsRecords(anyList()))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+
+		AnalyticsImportSummaryDTO summary =
+				analyticImportService.importRecords(body(upload), NDJSON, 2, analyticHelperService);
+
+		assertEquals(3, summary.inserted());
+		assertEquals(2, summary.batches().size());
+		assertEquals(1, summary.batches().get(1).received());
+		verify(analyticHelperService, times(2)).saveNewAnalyticsRecords(anyList());
+		verify(transactionManager, times(2)).commit(any());
+	}
+
+	@Test
+	@DisplayName("Should roll back only the batch that fails and keep the committed ones")
+	void importRecords_WhenABatchFails_ShouldRollBackOnlyThatBatch() {
+		SimpleTransactionStatus first = new SimpleTransactionStatus();
+		SimpleTransactionStatus second = new SimpleTransactionStatus();
+		when(transactionManager.getTransaction(any())).thenReturn(first, second);
+		when(analyticHelperService.saveNewAnalyticsRecords(anyList()))
+				.thenAnswer(invocation -> invocation.getArgument(0))
+				.thenThrow(new DataIntegrityViolationException("Data truncated for column 'measurement_value'"));
+		String upload = ndjsonLine("ALB2", "2024-12-16 07:53:00") + ndjsonLine("ALB2", "2024-12-16 08:53:00")
+				+ ndjsonLine("ALB2", "2024-12-16 09:53:00");
+
+		assertThrows(DataIntegrityViolationException.class,
+				() -> analyticImportService.importRecords(body(upload), NDJSON, 2, analyticHelperService));
+
+		verify(transactionManager).commit(first);
+		verify(transactionManager).rollback(second);
+		verify(transactionManager, never()).commit(second);
+	}
+
+	@Test
+	@DisplayName("Should read CSV columns by header name and count invalid rows as rejected")
+	void importRecords_WithCsv_ShouldRejectInvalidRows() {
+		String upload = """
+				name,level,date,level_lot,test_lot,value,mean,sd,unit_value
+				ALB2,PCCC1,2024-12-16 07:53:00,0774693,608384,3.45,3.35,0.2,g/dL
+				,PCCC1,2024-12-16 08:53:00,0774693,608384,3.45,3.35,0.2,g/dL
+				""";
+		when(analyticHelperService.saveNewAnalyticsRecords(anyList()))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+
+		AnalyticsImportSummaryDTO summary =
+				analyticImportService.importRecords(body(upload), CSV, null, analyticHelperService);
+
+		assertEquals(2, summary.received());
+		assertEquals(1, summary.inserted());
+		assertEquals(1, summary.rejected());
+	}
+
+	@Test
+	@DisplayName("Should report a batch of already stored runs as duplicates instead of failing")
+	void importRecords_WithOnlyExistingRuns_ShouldCountDuplicates() {
+		when(analyticHelperService.saveNewAnalyticsRecords(anyList()))
+				.thenThrow(new CustomGlobalErrorHandling.AnalyticsDataIntegrityViolationException());
+
+		AnalyticsImportSummaryDTO summary = analyticImportService.importRecords(
+				body(ndjsonLine("ALB2", "2024-12-16 07:53:00")), NDJSON, 10, analyticHelperService);
+
+		assertEquals(0, summary.inserted());
+		assertEquals(1, summary.duplicates());
+	}
+
+	@Test
+	@DisplayName("Should abort with the number of committed batches when a record is malformed")
+	void importRecords_WithMalformedRecord_ShouldThrowImportException() {
+		when(analyticHelperService.saveNewAnalyticsRecords(anyList()))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+		String upload = ndjsonLine("ALB2", "2024-12-16 07:53:00") + "{\"name\": \n";
+
+		CustomGlobalErrorHandling.AnalyticsImportException exception =
+				assertThrows(CustomGlobalErrorHandling.AnalyticsImportException.class,
+						() -> analyticImportService.importRecords(body(upload), NDJSON, 1, analyticHelperService));
+
+		assertTrue(exception.getMessage().startsWith("Malformed record after 1 committed batch(es)"));
+	}
+}
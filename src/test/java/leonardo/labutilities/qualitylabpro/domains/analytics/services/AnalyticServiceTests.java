@@ -19,11 +19,17 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticCacheComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticEventStreamComponent;
 import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticFailedNotificationComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticMetricsComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticTimeSeriesStore;
 import leonardo.labutilities.qualitylabpro.domains.analytics.components.RulesProviderComponent;
 import leonardo.labutilities.qualitylabpro.domains.analytics.constants.AvailableAnalyticsNames;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.AnalyticsWithCalcDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.MeanAndStdDeviationDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
 import leonardo.labutilities.qualitylabpro.domains.analytics.utils.AnalyticRulesValidation;
 import leonardo.labutilities.qualitylabpro.domains.shared.email.EmailService;
@@ -48,6 +54,20 @@ class AnalyticServiceTests {
         @Mock
         private AnalyticRulesValidation analyticObjectValidationComponent;
 
+        @Mock
+        private AnalyticDailyStatisticsService dailyStatisticsService;
+        @Mock
+        private AnalyticCacheComponent analyticCacheComponent;
+
+        @Mock
+        private AnalyticEventStreamComponent analyticEventStreamComponent;
+
+        @Mock
+        private QcDailySummaryService qcDailySummaryService;
+
+        @Mock
+        private AnalyticTimeSeriesStore analyticTimeSeriesStore;
+
         private AnalyticHelperService analyticHelperService;
 
         private Pageable pageable;
@@ -58,7 +78,10 @@ class AnalyticServiceTests {
         void setUp() {
                 this.analyticHelperService = new AnalyticHelperService(this.analyticsRepository,
                                 this.analyticsValidationService,
-                                this.analyticFailedNotificationComponent);
+                                this.analyticFailedNotificationComponent, this.dailyStatisticsService,
+                                this.analyticCacheComponent, this.analyticEventStreamComponent,
+                                this.qcDailySummaryService, this.analyticTimeSeriesStore,
+                                new AnalyticMetricsComponent(new SimpleMeterRegistry()));
                 this.pageable = PageRequest.of(0, 10);
                 this.startDate = LocalDateTime.now().minusDays(7);
                 this.endDate = LocalDateTime.now();
@@ -104,6 +127,8 @@ class AnalyticServiceTests {
                 when(this.analyticsRepository.findByNameAndLevelAndDateBetween(name, "PCCC1",
                                 this.startDate, this.endDate, this.pageable))
                                                 .thenReturn(mockAnalytics);
+                when(this.dailyStatisticsService.calculateMeanAndStandardDeviation(name, "PCCC1",
+                                this.startDate, this.endDate)).thenReturn(new MeanAndStdDeviationDTO(3.4, 0.1));
 
                 AnalyticsWithCalcDTO result = this.analyticHelperService
                                 .findAnalyticsByNameLevelDate(name, "PCCC1", this.startDate,
@@ -1,9 +1,13 @@
 package leonardo.labutilities.qualitylabpro.domains.analytics.services;
 
 import static leonardo.labutilities.qualitylabpro.utils.AnalyticsHelperMocks.createSampleRecordList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -17,6 +21,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticRecordKey;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.GroupedValuesByLevelDTO;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
@@ -152,4 +157,22 @@ class AnalyticValidationServiceTests {
 
         assertTrue(result, "According to implementation, isNotThreeSigma should return true for -3s");
     }
+
+    @Test
+    @DisplayName("filterNewAnalyticRecords should drop stored and repeated runs with one lookup")
+    void filterNewAnalyticRecords_WithStoredAndRepeatedRuns_ShouldKeepOnlyNewOnes() {
+
+        List<AnalyticsDTO> records = createSampleRecordList();
+        AnalyticsDTO stored = records.get(0);
+        List<AnalyticsDTO> batch = new ArrayList<>(records);
+        batch.add(records.get(1));
+
+        when(analyticsRepository.findExistingRecordKeys(anySet(), anySet(), anySet()))
+                .thenReturn(List.of(AnalyticRecordKey.of(stored)));
+
+        List<AnalyticsDTO> result = analyticsValidationService.filterNewAnalyticRecords(batch);
+
+        assertEquals(records.subList(1, records.size()), result);
+        verify(analyticsRepository, times(1)).findExistingRecordKeys(anySet(), anySet(), anySet());
+    }
 }
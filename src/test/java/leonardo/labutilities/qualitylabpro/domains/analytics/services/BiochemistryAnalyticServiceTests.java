@@ -10,7 +10,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticCacheComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticEventStreamComponent;
 import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticFailedNotificationComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticMetricsComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticTimeSeriesStore;
 import leonardo.labutilities.qualitylabpro.domains.analytics.components.RulesProviderComponent;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
 import leonardo.labutilities.qualitylabpro.domains.shared.email.EmailService;
@@ -31,6 +36,20 @@ class BiochemistryAnalyticServiceTests extends AnalyticServiceTests {
 	@Mock
 	private AnalyticFailedNotificationComponent analyticFailedNotificationComponent;
 
+	@Mock
+	private AnalyticDailyStatisticsService dailyStatisticsService;
+	@Mock
+	private AnalyticCacheComponent analyticCacheComponent;
+
+	@Mock
+	private AnalyticEventStreamComponent analyticEventStreamComponent;
+
+	@Mock
+	private QcDailySummaryService qcDailySummaryService;
+
+	@Mock
+	private AnalyticTimeSeriesStore analyticTimeSeriesStore;
+
 	@Mock
 	private RulesProviderComponent controlRulesValidators;
 
@@ -38,7 +57,10 @@ class BiochemistryAnalyticServiceTests extends AnalyticServiceTests {
 
 	BiochemistryAnalyticServiceTests() {
 		this.biochemistryAnalyticService = new BiochemistryAnalyticService(this.analyticsRepository,
-				this.analyticFailedNotificationComponent, this.analyticsValidationService);
+				this.analyticFailedNotificationComponent, this.analyticsValidationService,
+				this.dailyStatisticsService, this.analyticCacheComponent,
+				this.analyticEventStreamComponent, this.qcDailySummaryService,
+				this.analyticTimeSeriesStore, new AnalyticMetricsComponent(new SimpleMeterRegistry()));
 	}
 
 	@Override
@@ -8,7 +8,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticCacheComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticEventStreamComponent;
 import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticFailedNotificationComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticMetricsComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticTimeSeriesStore;
 import leonardo.labutilities.qualitylabpro.domains.analytics.components.RulesProviderComponent;
 import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
 import leonardo.labutilities.qualitylabpro.domains.shared.email.EmailService;
@@ -29,6 +34,20 @@ class HematologyAnalyticServiceTests extends AnalyticServiceTests {
 	@Mock
 	private AnalyticFailedNotificationComponent analyticFailedNotificationComponent;
 
+	@Mock
+	private AnalyticDailyStatisticsService dailyStatisticsService;
+	@Mock
+	private AnalyticCacheComponent analyticCacheComponent;
+
+	@Mock
+	private AnalyticEventStreamComponent analyticEventStreamComponent;
+
+	@Mock
+	private QcDailySummaryService qcDailySummaryService;
+
+	@Mock
+	private AnalyticTimeSeriesStore analyticTimeSeriesStore;
+
 	@Mock
 	private RulesProviderComponent controlRulesValidators;
 
@@ -36,7 +55,10 @@ class HematologyAnalyticServiceTests extends AnalyticServiceTests {
 
 	HematologyAnalyticServiceTests() {
 		this.hematologyAnalyticService = new HematologyAnalyticService(this.analyticsRepository,
-				this.analyticFailedNotificationComponent, this.analyticsValidationService);
+				this.analyticFailedNotificationComponent, this.analyticsValidationService,
+				this.dailyStatisticsService, this.analyticCacheComponent,
+				this.analyticEventStreamComponent, this.qcDailySummaryService,
+				this.analyticTimeSeriesStore, new AnalyticMetricsComponent(new SimpleMeterRegistry()));
 	}
 
 	@Override
@@ -0,0 +1,242 @@
+package leonardo.labutilities.qualitylabpro.domains.analytics.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import leonardo.labutilities.qualitylabpro.domains.analytics.components.AnalyticCacheComponent;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticDayKey;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticValueDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.responses.ErrorStatisticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.analytics.enums.AnalyticStatisticsMode;
+import leonardo.labutilities.qualitylabpro.domains.analytics.models.QcDailySummary;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.AnalyticsRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.repositories.QcDailySummaryRepository;
+import leonardo.labutilities.qualitylabpro.domains.analytics.utils.StatisticsCalculatorUtility;
+
+@ExtendWith(MockitoExtension.class)
+class QcDailySummaryServiceTests {
+
+	private static final double DELTA = 1e-9;
+
+	@Mock
+	private QcDailySummaryRepository summaryRepository;
+
+	@Mock
+	private AnalyticsRepository analyticsRepository;
+
+	@Mock
+	private AnalyticCacheComponent analyticCacheComponent;
+
+	private QcDailySummaryService qcDailySummaryService;
+
+	@BeforeEach
+	void setUp() {
+		qcDailySummaryService = newService(2, 5);
+	}
+
+	private QcDailySummaryService newService(int parallelism, int maximumPoolSize) {
+		return new QcDailySummaryService(summaryRepository, analyticsRepository, analyticCacheComponent,
+				mock(PlatformTransactionManager.class), parallelism, maximumPoolSize);
+	}
+
+	private static QcDailySummary row(String name, LocalDate day, double target, double... values) {
+		QcDailySummary row = new QcDailySummary();
+		row.setTestName(name);
+		row.setControlLevel("PCCC1");
+		row.setSummaryDate(day);
+		row.setTargetMean(target);
+		row.setSampleCount(values.length);
+		row.setMinValue(Double.POSITIVE_INFINITY);
+		row.setMaxValue(Double.NEGATIVE_INFINITY);
+		for (double value : values) {
+			row.setValueSum(row.getValueSum() + value);
+			row.setValueSumSquares(row.getValueSumSquares() + value * value);
+			row.setMinValue(Math.min(row.getMinValue(), value));
+			row.setMaxValue(Math.max(row.getMaxValue(), value));
+		}
+		return row;
+	}
+
+	private static AnalyticsDTO run(String name, LocalDateTime date, double value, double target) {
+		return new AnalyticsDTO(1L, date, "0774693", "608384", name, "PCCC1", value, target, 0.2, "g/dL",
+				"No rule broken", "Approved", "validator.tech", "owner_user");
+	}
+
+	@Test
+	@DisplayName("Should merge summary rows into the same error statistics as the raw runs")
+	void calculateErrorStatistics_WithWholeDays_ShouldMatchRawComputation() {
+		LocalDate day = LocalDate.of(2025, 1, 1);
+		when(summaryRepository.findByNameInAndLevelAndSummaryDateBetween(List.of("ALB2", "GLI"), "PCCC1",
+				day, day.plusDays(1))).thenReturn(List.of(row("ALB2", day, 3.35, 3.1, 3.4, 3.3),
+						row("ALB2", day.plusDays(1), 3.40, 3.6, 3.2)));
+
+		List<ErrorStatisticsDTO> result = qcDailySummaryService.calculateErrorStatistics(
+				List.of("ALB2", "GLI"), "PCCC1", day.atStartOfDay(), day.plusDays(1).atTime(23, 59, 59));
+
+		List<AnalyticsDTO> runs = List.of(run("ALB2", day.atStartOfDay(), 3.1, 3.35),
+				run("ALB2", day.atStartOfDay(), 3.4, 3.35), run("ALB2", day.atStartOfDay(), 3.3, 3.35),
+				run("ALB2", day.atStartOfDay(), 3.6, 3.35), run("ALB2", day.atStartOfDay(), 3.2, 3.35));
+		ErrorStatisticsDTO expected = StatisticsCalculatorUtility.calculateErrorStatistics(runs, "ALB2",
+				"PCCC1", 3.35);
+		assertEquals(1, result.size());
+		assertEquals(expected.calculatedMean(), result.getFirst().calculatedMean(), DELTA);
+		assertEquals(expected.inaccuracyPercetage(), result.getFirst().inaccuracyPercetage(), DELTA);
+		assertEquals(expected.sistematicErrorPercentage(), result.getFirst().sistematicErrorPercentage(),
+				DELTA);
+		assertEquals(5, result.getFirst().totalMeasurements());
+		verify(analyticsRepository, never()).streamValuesByNameInAndLevelAndDateBetween(any(), any(), any(),
+				any());
+	}
+
+	@Test
+	@DisplayName("Should read raw runs only for the partial days at the edges of the range")
+	void calculateErrorStatistics_WithPartialDays_ShouldCombineSummaryAndRawEdges() {
+		LocalDateTime start = LocalDateTime.of(2025, 1, 1, 12, 0);
+		LocalDateTime end = LocalDateTime.of(2025, 1, 3, 8, 0);
+		LocalDate fullDay = LocalDate.of(2025, 1, 2);
+		List<String> names = List.of("ALB2");
+
+		when(summaryRepository.findByNameInAndLevelAndSummaryDateBetween(names, "PCCC1", fullDay, fullDay))
+				.thenReturn(List.of(row("ALB2", fullDay, 3.40, 3.0, 3.5)));
+		when(analyticsRepository.streamValuesByNameInAndLevelAndDateBetween(names, "PCCC1", start,
+				fullDay.atStartOfDay().minusSeconds(1)))
+				.thenReturn(Stream.of(new AnalyticValueDTO("ALB2", 3.2, 3.35)));
+		when(analyticsRepository.streamValuesByNameInAndLevelAndDateBetween(names, "PCCC1",
+				fullDay.plusDays(1).atStartOfDay(), end))
+				.thenReturn(Stream.of(new AnalyticValueDTO("ALB2", 3.9, 3.40)));
+
+		List<ErrorStatisticsDTO> result =
+				qcDailySummaryService.calculateErrorStatistics(names, "PCCC1", start, end);
+
+		assertEquals(4, result.getFirst().totalMeasurements());
+		// The target comes from the earliest run of the range
+		assertEquals(3.35, result.getFirst().calculatedMean(), DELTA);
+		assertEquals(StatisticsCalculatorUtility.calculateSystematicErrorPercentage(3.4, 3.35),
+				result.getFirst().sistematicErrorPercentage(), DELTA);
+	}
+
+	@Test
+	@DisplayName("Should evaluate each analyte on its own task and keep the requested order")
+	void calculateErrorStatistics_InParallelMode_ShouldKeepRequestedOrder() {
+		ReflectionTestUtils.setField(qcDailySummaryService, "statisticsMode", AnalyticStatisticsMode.PARALLEL);
+		LocalDate day = LocalDate.of(2025, 1, 1);
+		List<String> names = List.of("GLI", "ALB2", "TP", "ALB2");
+		when(summaryRepository.findByNameInAndLevelAndSummaryDateBetween(any(), eq("PCCC1"), eq(day), eq(day)))
+				.thenAnswer(invocation -> {
+					List<String> requested = invocation.getArgument(0);
+					assertEquals(1, requested.size());
+					String name = requested.getFirst();
+					return "TP".equals(name) ? List.of() : List.of(row(name, day, 3.35, 3.1, 3.4));
+				});
+
+		List<ErrorStatisticsDTO> result = qcDailySummaryService.calculateErrorStatistics(names, "PCCC1",
+				day.atStartOfDay(), day.atTime(23, 59, 59));
+
+		assertEquals(List.of("GLI", "ALB2"), result.stream().map(ErrorStatisticsDTO::analyticName).toList());
+		assertEquals(2, result.getFirst().totalMeasurements());
+		verify(summaryRepository, times(3)).findByNameInAndLevelAndSummaryDateBetween(any(), any(), any(),
+				any());
+	}
+
+	@Test
+	@DisplayName("Should share the parallel read limit between concurrent reports")
+	void calculateErrorStatistics_WithConcurrentReports_ShouldShareTheLimit() throws Exception {
+		qcDailySummaryService = newService(4, 3);
+		ReflectionTestUtils.setField(qcDailySummaryService, "statisticsMode", AnalyticStatisticsMode.PARALLEL);
+		LocalDate day = LocalDate.of(2025, 1, 1);
+		AtomicInteger active = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		when(summaryRepository.findByNameInAndLevelAndSummaryDateBetween(any(), eq("PCCC1"), eq(day), eq(day)))
+				.thenAnswer(invocation -> {
+					peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+					Thread.sleep(20);
+					active.decrementAndGet();
+					return List.of();
+				});
+
+		try (ExecutorService requests = Executors.newFixedThreadPool(3)) {
+			List<Future<List<ErrorStatisticsDTO>>> reports = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				reports.add(requests.submit(() -> qcDailySummaryService.calculateErrorStatistics(
+						List.of("GLI", "ALB2", "TP", "CA2"), "PCCC1", day.atStartOfDay(), day.atTime(23, 59, 59))));
+			}
+			for (Future<List<ErrorStatisticsDTO>> report : reports) {
+				report.get();
+			}
+		}
+
+		// Pool of 3 leaves 2 connections for the reads of all three reports
+		assertTrue(peak.get() <= 2, "peak " + peak.get());
+		verify(summaryRepository, times(12)).findByNameInAndLevelAndSummaryDateBetween(any(), any(), any(),
+				any());
+	}
+
+	@Test
+	@DisplayName("Should recompute the touched days and advance the high-water mark")
+	@SuppressWarnings("unchecked")
+	void rollUp_WithTouchedDays_ShouldRecomputeAndEvictThem() {
+		LocalDateTime highWaterMark = LocalDateTime.now().minusHours(1).withNano(0);
+		AnalyticDayKey touched = new AnalyticDayKey("ALB2", "PCCC1", LocalDate.of(2025, 1, 1));
+		// The database clock runs ahead of the JVM one
+		LocalDateTime databaseTime = LocalDateTime.now().plusMinutes(10).withNano(0);
+		when(summaryRepository.lockHighWaterMark()).thenReturn(Optional.of(highWaterMark));
+		when(summaryRepository.currentDatabaseTime()).thenReturn(databaseTime);
+		when(summaryRepository.findTouchedDays(eq(highWaterMark), any())).thenReturn(List.of(touched));
+
+		qcDailySummaryService.rollUp();
+
+		LocalDateTime to = databaseTime.minusSeconds(30);
+		verify(summaryRepository).rollUp(highWaterMark, to);
+		verify(summaryRepository).saveHighWaterMark(to);
+
+		ArgumentCaptor<Set<AnalyticCacheComponent.Touch>> touches = ArgumentCaptor.forClass(Set.class);
+		verify(analyticCacheComponent).evictTouches(touches.capture());
+		assertEquals(Set.of(new AnalyticCacheComponent.Touch("ALB2", "PCCC1", LocalDate.of(2025, 1, 1))),
+				touches.getValue());
+	}
+
+	@Test
+	@DisplayName("Should only advance the high-water mark when no run changed")
+	void rollUp_WithoutChanges_ShouldNotRecompute() {
+		when(summaryRepository.lockHighWaterMark()).thenReturn(Optional.empty());
+		when(summaryRepository.currentDatabaseTime()).thenReturn(LocalDateTime.now());
+		when(summaryRepository.findTouchedDays(any(), any())).thenReturn(List.of());
+
+		qcDailySummaryService.rollUp();
+
+		verify(summaryRepository, never()).rollUp(any(), any());
+		verify(analyticCacheComponent, never()).evictTouches(anySet());
+		verify(summaryRepository).saveHighWaterMark(any());
+	}
+}
@@ -5,19 +5,15 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.springframework.test.context.junit.jupiter.SpringExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.services.TokenService;
 import leonardo.labutilities.qualitylabpro.domains.users.models.User;
 
-@ExtendWith(SpringExtension.class)
 class TokenServiceTests {
 
-	@InjectMocks
 	private TokenService tokenService;
 
 	private static final String SECRET = "test-secret-key-12345";
@@ -25,8 +21,8 @@ class TokenServiceTests {
 
 	@BeforeEach
 	void setUp() {
-		ReflectionTestUtils.setField(this.tokenService, "secret", SECRET);
-		ReflectionTestUtils.setField(this.tokenService, "issuer", ISSUER);
+		var algorithm = Algorithm.HMAC256(SECRET);
+		this.tokenService = new TokenService(algorithm, JWT.require(algorithm).withIssuer(ISSUER).build(), ISSUER);
 	}
 
 	@Test
@@ -34,6 +34,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import leonardo.labutilities.qualitylabpro.configs.TestSecurityConfig;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.dtos.TokenJwtDTO;
+import leonardo.labutilities.qualitylabpro.domains.shared.authentication.components.TokenPrincipalCache;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.services.TokenService;
 import leonardo.labutilities.qualitylabpro.domains.users.dtos.requests.ForgotPasswordDTO;
 import leonardo.labutilities.qualitylabpro.domains.users.dtos.requests.SignInUserDTO;
@@ -64,6 +65,9 @@ class UsersControllerTests {
 	@MockitoBean
 	private TokenService tokenService;
 
+	@MockitoBean
+	private TokenPrincipalCache tokenPrincipalCache;
+
 	@MockitoBean
 	private UserRepository userRepository;
 
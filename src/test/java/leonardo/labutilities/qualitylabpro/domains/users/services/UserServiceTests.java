@@ -32,6 +32,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 
 import leonardo.labutilities.qualitylabpro.domains.analytics.dtos.common.AnalyticsDTO;
+import leonardo.labutilities.qualitylabpro.domains.shared.authentication.components.TokenPrincipalCache;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.dtos.TokenJwtDTO;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.services.TokenService;
 import leonardo.labutilities.qualitylabpro.domains.shared.authentication.utils.AuthenticatedUserProvider;
@@ -60,6 +61,9 @@ class UserServiceTests {
 	@Mock
 	private AuthenticationManager authenticationManager;
 
+	@Mock
+	private TokenPrincipalCache tokenPrincipalCache;
+
 	@InjectMocks
 	private UserService userService;
 
@@ -84,9 +88,12 @@ class UserServiceTests {
 	@Test
 	void testChangePassword_ValidToken() {
 		when(this.passwordRecoveryTokenManager.isRecoveryTokenValid(anyString(), anyString())).thenReturn(true);
+		when(this.userRepository.findOneByUsernameOrEmail("identifier@example.com", "identifier@example.com"))
+				.thenReturn(Optional.of(new User("identifier", "password", "identifier@example.com")));
 		this.userService.changePassword("identifier@example.com", "tempPassword", "newPassword");
 		assertThat(this.passwordRecoveryTokenManager.isRecoveryTokenValid("tempPassword", "identifier@example.com"))
 				.isTrue();
+		verify(this.tokenPrincipalCache).evictAfterCommit("identifier");
 	}
 
 	@Test
@@ -200,5 +207,6 @@ class UserServiceTests {
 		this.userService.updateUserPassword("username", "user@example.com", rawOldPassword, rawNewPassword);
 
 		verify(this.userRepository).setPasswordWhereByUsername(eq("username"), anyString());
+		verify(this.tokenPrincipalCache).evictAfterCommit("username");
 	}
 }
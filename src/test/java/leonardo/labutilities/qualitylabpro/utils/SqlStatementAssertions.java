@@ -0,0 +1,29 @@
+package leonardo.labutilities.qualitylabpro.utils;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.Supplier;
+
+import leonardo.labutilities.qualitylabpro.configs.database.SqlStatistics;
+
+/**
+ * Query budgets for tests: fail when a call runs more SQL statements than
+ * expected, which is how a reintroduced N+1 shows up.
+ */
+public final class SqlStatementAssertions {
+
+	private SqlStatementAssertions() {}
+
+	public static <T> T assertMaxStatements(int max, Supplier<T> action) {
+		SqlStatistics statistics = SqlStatistics.start();
+		T result;
+		try {
+			result = action.get();
+		} finally {
+			SqlStatistics.stop();
+		}
+		assertTrue(statistics.statements() <= max, () -> "Expected at most " + max
+				+ " SQL statements but ran " + statistics.statements());
+		return result;
+	}
+}